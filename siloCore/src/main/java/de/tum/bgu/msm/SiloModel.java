@@ -21,6 +21,8 @@ import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.data.SummarizeData;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
+import de.tum.bgu.msm.io.checkpoint.CheckpointAttributes;
 import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
@@ -51,6 +53,7 @@ public final class SiloModel {
     private Simulator simulator;
     private final TimeTracker timeTracker = new TimeTracker();
 	private Set<ResultsMonitor> resultsMonitors = new HashSet<>();
+	private CheckpointAttributes checkpointAttributes = CheckpointAttributes.NONE;
 
 	/**
      * @param properties
@@ -70,6 +73,13 @@ public final class SiloModel {
   		resultsMonitors.add(resultsMonitor);
 	}
 
+	/**
+	 * Sets the use case specific person and job attributes of written checkpoints.
+	 */
+	public void setCheckpointAttributes(CheckpointAttributes checkpointAttributes) {
+		this.checkpointAttributes = checkpointAttributes;
+	}
+
 	public void runModel() {
 		logger.info("Scenario: " + properties.main.scenarioName + ", Simulation start year: " + properties.main.startYear);
 		long startTime = System.currentTimeMillis();
@@ -109,7 +119,14 @@ public final class SiloModel {
         setupScalingYears();
 
         dataContainer.setup();
+        final Checkpoint checkpoint = new Checkpoint(dataContainer, checkpointAttributes, modelContainer);
+        if (properties.main.resumeFromCheckpoint) {
+            checkpoint.restoreState(properties.main.checkpointDirectory(properties.main.startYear));
+        }
         simulator.setup();
+        if (properties.main.resumeFromCheckpoint) {
+            checkpoint.restoreRandomState(properties.main.checkpointDirectory(properties.main.startYear));
+        }
 	}
 
 	private void setupScalingYears() {
@@ -128,6 +145,7 @@ public final class SiloModel {
             long time = System.currentTimeMillis();
             SiloUtil.trackingFile("Simulating changes from year " + year + " to year " + (year + 1));
             timeTracker.setCurrentYear(year);
+            SiloUtil.getRandomStreams().setYear(year);
 
             timeTracker.reset();
             if (scalingYears.contains(year)) {
@@ -147,6 +165,11 @@ public final class SiloModel {
 					dataContainer.getRealEstateDataManager().getDwellings().size() + " dwellings in " +
                     (System.currentTimeMillis() - time) / 1000 + " seconds.");
 
+			if (properties.main.checkpointYears.contains(year)) {
+				new Checkpoint(dataContainer, checkpointAttributes, modelContainer).write(properties.main.checkpointDirectory(year + 1), year + 1,
+						properties.main.compressCheckpoints);
+			}
+
 			if (SiloUtil.modelStopper("check")) {
 			    break;
             }
@@ -1,9 +1,11 @@
 package de.tum.bgu.msm.container;
 
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
@@ -22,9 +24,16 @@ public interface DataContainer extends UpdateListener {
 
     GeoData getGeoData();
 
+    /**
+     * Returns dense lookups of zones, regions and types, which are available after {@link #setup()}
+     */
+    GeoIndex getGeoIndex();
+
     TravelTimes getTravelTimes();
 
     Accessibility getAccessibility();
     
     CommutingTimeProbability getCommutingTimeProbability();
+
+    CommuteProbabilityMatrix getCommuteProbabilityMatrix();
 }
@@ -2,11 +2,14 @@ package de.tum.bgu.msm.container;
 
 import de.tum.bgu.msm.data.TravelTimesWrapper;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobType;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
 import org.apache.log4j.Logger;
@@ -29,6 +32,8 @@ public class DefaultDataContainer implements DataContainer {
     private final TravelTimesWrapper travelTimes;
     private final Accessibility accessibility;
     private final CommutingTimeProbability commutingTimeProbability;
+    private final CommuteProbabilityMatrix commuteProbabilityMatrix;
+    private GeoIndex geoIndex;
     protected Properties properties;
 
     public DefaultDataContainer(
@@ -43,6 +48,7 @@ public class DefaultDataContainer implements DataContainer {
         this.travelTimes = new TravelTimesWrapper(travelTimes, properties, geoData);
         this.accessibility = accessibility;
         this.commutingTimeProbability = commutingTimeProbability;
+        this.commuteProbabilityMatrix = new CommuteProbabilityMatrix(geoData, travelTimes, commutingTimeProbability, properties);
         this.properties = properties;
     }
 
@@ -66,6 +72,11 @@ public class DefaultDataContainer implements DataContainer {
         return geoData;
     }
 
+    @Override
+    public GeoIndex getGeoIndex() {
+        return geoIndex;
+    }
+
     @Override
     public TravelTimes getTravelTimes() {
         return travelTimes.getDelegate();
@@ -81,15 +92,23 @@ public class DefaultDataContainer implements DataContainer {
     	return commutingTimeProbability;
     }
 
+    @Override
+    public CommuteProbabilityMatrix getCommuteProbabilityMatrix() {
+        return commuteProbabilityMatrix;
+    }
+
     @Override
     public void setup() {
         geoData.setup();
         householdDataManager.setup();
         jobDataManager.setup();
         realEstateDataManager.setup();
+        // job types are only known once the job data manager is set up
+        geoIndex = GeoIndex.build(geoData, realEstateDataManager.getDwellingTypes(), JobType.getJobTypes());
         travelTimes.setup();
         accessibility.setup();
         commutingTimeProbability.setup();
+        commuteProbabilityMatrix.setup();
     }
 
     @Override
@@ -101,6 +120,7 @@ public class DefaultDataContainer implements DataContainer {
     	travelTimes.prepareYear(year);
     	accessibility.prepareYear(year);
     	commutingTimeProbability.prepareYear(year);
+    	commuteProbabilityMatrix.prepareYear(year);
     }
 
     @Override
@@ -112,6 +132,7 @@ public class DefaultDataContainer implements DataContainer {
         travelTimes.endYear(year);
         accessibility.endYear(year);
         commutingTimeProbability.endYear(year);
+        commuteProbabilityMatrix.endYear(year);
     }
 
     @Override
@@ -123,5 +144,6 @@ public class DefaultDataContainer implements DataContainer {
         travelTimes.endSimulation();
         accessibility.endSimulation();
         commutingTimeProbability.endSimulation();
+        commuteProbabilityMatrix.endSimulation();
     }
 }
@@ -1,12 +1,12 @@
 package de.tum.bgu.msm.data.accessibility;
 
 import cern.jet.math.tdouble.DoubleFunctions;
-import de.tum.bgu.msm.data.Location;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingData;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobData;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
@@ -17,9 +17,6 @@ import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Calculates and stores accessibilities
@@ -43,6 +40,13 @@ public class AccessibilityImpl implements Accessibility {
     private final float betaAuto;
     private final float alphaTransit;
     private final float betaTransit;
+    private final double travelTimeCutoff;
+    private final Properties properties;
+
+    private Zone[] zones;
+    private GeoIndex geoIndex;
+    private HansenKernel autoKernel;
+    private HansenKernel transitKernel;
 
     public AccessibilityImpl(GeoData geoData, TravelTimes travelTimes, Properties properties,
                              DwellingData dwellingData, JobData jobData) {
@@ -52,6 +56,8 @@ public class AccessibilityImpl implements Accessibility {
         this.betaAuto = properties.accessibility.betaAuto;
         this.alphaTransit = properties.accessibility.alphaTransit;
         this.betaTransit = properties.accessibility.betaTransit;
+        this.travelTimeCutoff = properties.accessibility.hansenTravelTimeCutoff;
+        this.properties = properties;
         this.dwellingData = dwellingData;
         this.jobData = jobData;
     }
@@ -61,10 +67,22 @@ public class AccessibilityImpl implements Accessibility {
         this.autoAccessibilities = new IndexedDoubleMatrix1D(geoData.getZones().values());
         this.transitAccessibilities = new IndexedDoubleMatrix1D(geoData.getZones().values());
         this.regionalAccessibilities = new IndexedDoubleMatrix1D(geoData.getRegions().values());
+        // an index of the same geo data has the same zone ordinals as the one of the data container
+        this.geoIndex = GeoIndex.build(geoData);
+        this.zones = new Zone[geoIndex.getNumberOfZones()];
+        for (int i = 0; i < zones.length; i++) {
+            zones[i] = geoData.getZones().get(geoIndex.getZoneId(i));
+        }
     }
 
     @Override
     public void prepareYear(int year) {
+        // skims are updated at the end of skim years and transport model years
+        if (properties.accessibility.skimYears.contains(year - 1)
+                || properties.transportModel.transportModelYears.contains(year - 1)) {
+            autoKernel = null;
+            transitKernel = null;
+        }
         calculateHansenAccessibilities(year);
     }
 
@@ -82,38 +100,50 @@ public class AccessibilityImpl implements Accessibility {
     public void calculateHansenAccessibilities(int year) {
 
         logger.info("  Calculating accessibilities for " + year);
-        final Map<Integer, List<Job>> jobsByZone = jobData.getJobs().stream().collect(Collectors.groupingBy(Location::getZoneId));
-        IndexedDoubleMatrix1D employment = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(int zoneId : geoData.getZones().keySet()){
-            if (jobsByZone.keySet().contains(zoneId)){
-                employment.setIndexed(zoneId, jobsByZone.get(zoneId).size());
-            } else {
-                employment.setIndexed(zoneId, 0.);
+        final int[] jobsByZone = new int[zones.length];
+        for (Job job : jobData.getJobs()) {
+            final int ordinal = geoIndex.getZoneOrdinal(job.getZoneId());
+            if (ordinal >= 0) {
+                jobsByZone[ordinal]++;
             }
-
         }
 
-        final Map<Integer, List<Dwelling>> dwellingsByZone = dwellingData.getDwellings().stream().collect(Collectors.groupingBy(Location::getZoneId));
+        final int[] dwellingsByZone = new int[zones.length];
+        for (Dwelling dwelling : dwellingData.getDwellings()) {
+            final int ordinal = geoIndex.getZoneOrdinal(dwelling.getZoneId());
+            if (ordinal >= 0) {
+                dwellingsByZone[ordinal]++;
+            }
+        }
         IndexedDoubleMatrix1D popDensity = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(Map.Entry<Integer, List<Dwelling>> entry: dwellingsByZone.entrySet()) {
-            popDensity.setIndexed(entry.getKey(), entry.getValue().size());
+        for (int i = 0; i < zones.length; i++) {
+            popDensity.setIndexed(zones[i].getZoneId(), dwellingsByZone[i]);
         }
 
+        // the impedance decay is only evaluated again if the skims changed since the last calculation
         logger.info("  Calculating zone zone accessibilities: auto");
         final IndexedDoubleMatrix2D peakTravelTimeMatrixCar =
                 travelTimes.getPeakSkim(TransportMode.car);
-        final IndexedDoubleMatrix2D autoAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment, peakTravelTimeMatrixCar, alphaAuto, betaAuto);
+        if (autoKernel == null || !autoKernel.isBuiltFrom(peakTravelTimeMatrixCar, betaAuto, travelTimeCutoff)) {
+            autoKernel = HansenKernel.build(zones, peakTravelTimeMatrixCar, betaAuto, travelTimeCutoff,
+                    properties.main.numberOfThreads);
+        }
+        final double[] autoAccessibilityByZone = autoKernel.calculateAccessibilities(weightOpportunities(jobsByZone, alphaAuto));
+
         logger.info("  Calculating zone zone accessibilities: transit");
         final IndexedDoubleMatrix2D peakTravelTimeMatrixTransit =
                 travelTimes.getPeakSkim(TransportMode.pt);
-        final IndexedDoubleMatrix2D transitAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment,
-                        peakTravelTimeMatrixTransit, alphaTransit, betaTransit);
+        if (transitKernel == null || !transitKernel.isBuiltFrom(peakTravelTimeMatrixTransit, betaTransit, travelTimeCutoff)) {
+            transitKernel = HansenKernel.build(zones, peakTravelTimeMatrixTransit, betaTransit, travelTimeCutoff,
+                    properties.main.numberOfThreads);
+        }
+        final double[] transitAccessibilityByZone = transitKernel.calculateAccessibilities(weightOpportunities(jobsByZone, alphaTransit));
 
         logger.info("  Aggregating zone accessibilities");
-        aggregateAccessibilities(autoAccessZoneToZone, transitAccessZoneToZone,
-                autoAccessibilities, transitAccessibilities, geoData.getZones().keySet());
+        for (int i = 0; i < zones.length; i++) {
+            autoAccessibilities.setIndexed(zones[i].getZoneId(), autoAccessibilityByZone[i]);
+            transitAccessibilities.setIndexed(zones[i].getZoneId(), transitAccessibilityByZone[i]);
+        }
 
         logger.info("  Scaling zone accessibilities");
         scaleAccessibility(autoAccessibilities);
@@ -158,36 +188,14 @@ public class AccessibilityImpl implements Accessibility {
     }
 
     /**
-     * Aggregates the zone to zone accessibilities into the given vectors, only considering the given keys.
-     *
-     * @param autoAcessibilities     zone to zone accessibility matrix for auto
-     * @param transitAccessibilities zone to zone accessibility matrix for transit
-     * @param aggregatedAuto         vector to which the the aggregated auto accessibilities  will be written to
-     * @param aggregatedTransit      vector to which the the aggregated transit accessibilities will be written to
-     * @param keys                   zone ids that will be considered for aggregation
+     * @return employment_j^alpha by zone ordinal, the opportunities of the Hansen accessibility
      */
-    static void aggregateAccessibilities(IndexedDoubleMatrix2D autoAcessibilities, IndexedDoubleMatrix2D transitAccessibilities,
-                                         IndexedDoubleMatrix1D aggregatedAuto, IndexedDoubleMatrix1D aggregatedTransit, Collection<Integer> keys) {
-        keys.forEach(i -> {
-            aggregatedAuto.setIndexed(i, autoAcessibilities.viewRow(i).zSum());
-            aggregatedTransit.setIndexed(i, transitAccessibilities.viewRow(i).zSum());
-        });
-    }
-
-    /**
-     * Aggregates the zone to zone Hansen accessibilities into the given vectors, only considering the given keys.
-     * Formula for origin i to destinations j:
-     * accessibility_i = population_j^alpha * e^(beta * traveltime_ij)
-     *
-     * @param employment  a vector containing the employment by zone
-     * @param travelTimes zone to zone travel time matrix
-     * @param alpha       alpha parameter used for the hansen calculation
-     * @param beta        beta parameter used for the hansen calculation
-     */
-    static IndexedDoubleMatrix2D calculateZoneToZoneAccessibilities(IndexedDoubleMatrix1D employment, IndexedDoubleMatrix2D travelTimes, double alpha, double beta) {
-        final IndexedDoubleMatrix2D travelTimesCopy = travelTimes.copy();
-        return travelTimesCopy.forEachNonZero((origin, destination, travelTime) ->
-                travelTime > 0 ? Math.pow(employment.getIndexed(travelTimesCopy.getIdForInternalColumnIndex(destination)), alpha) * Math.exp(beta * travelTime) : 0);
+    private static double[] weightOpportunities(int[] employment, double alpha) {
+        final double[] opportunities = new double[employment.length];
+        for (int i = 0; i < employment.length; i++) {
+            opportunities[i] = Math.pow(employment[i], alpha);
+        }
+        return opportunities;
     }
 
     @Override
@@ -0,0 +1,153 @@
+package de.tum.bgu.msm.data.accessibility;
+
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.models.ModelUpdateListener;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.TransportMode;
+
+import java.util.Arrays;
+
+/**
+ * Commuting time probabilities of the peak hour travel times between all pairs of zones, for car and transit.
+ * Housing strategies multiply these factors for every worker and every candidate dwelling, so they are
+ * precomputed once per skim update instead of looking up the travel time and the probability on every call.
+ * <p>
+ * The matrix is only built for zone based (skim) travel times. A mode that is not covered, e.g. because
+ * travel times are calculated for individual locations by MATSim, has to be looked up directly.
+ */
+public final class CommuteProbabilityMatrix implements ModelUpdateListener {
+
+    private final static Logger logger = Logger.getLogger(CommuteProbabilityMatrix.class);
+
+    private final static String[] MODES = {TransportMode.car, TransportMode.pt};
+    private final static int ROWS_PER_TASK = 64;
+
+    private final GeoData geoData;
+    private final TravelTimes travelTimes;
+    private final CommutingTimeProbability commutingTimeProbability;
+    private final Properties properties;
+
+    private int[] indexByZoneId = new int[0];
+    private int numberOfZones;
+    private final float[][] probabilitiesByMode = new float[MODES.length][];
+
+    public CommuteProbabilityMatrix(GeoData geoData, TravelTimes travelTimes,
+                                    CommutingTimeProbability commutingTimeProbability, Properties properties) {
+        this.geoData = geoData;
+        this.travelTimes = travelTimes;
+        this.commutingTimeProbability = commutingTimeProbability;
+        this.properties = properties;
+    }
+
+    @Override
+    public void setup() {
+        update();
+    }
+
+    @Override
+    public void prepareYear(int year) {
+        // skims are updated at the end of skim years and transport model years
+        if (properties.accessibility.skimYears.contains(year - 1)
+                || properties.transportModel.transportModelYears.contains(year - 1)) {
+            update();
+        }
+    }
+
+    @Override
+    public void endYear(int year) {
+
+    }
+
+    @Override
+    public void endSimulation() {
+
+    }
+
+    /**
+     * @return whether probabilities of the given mode are precomputed
+     */
+    public boolean covers(String mode) {
+        final int modeIndex = indexOf(mode);
+        return modeIndex >= 0 && probabilitiesByMode[modeIndex] != null;
+    }
+
+    /**
+     * @return the commuting time probability of the peak hour travel time from home to job zone by the given mode.
+     * Only valid if the mode is {@link #covers(String) covered}.
+     */
+    public float getProbability(int homeZoneId, int jobZoneId, String mode) {
+        return probabilitiesByMode[indexOf(mode)][indexByZoneId[homeZoneId] * numberOfZones + indexByZoneId[jobZoneId]];
+    }
+
+    /**
+     * Recalculates the probabilities from the current skims. Called on setup and after skim updates, and has to
+     * be called whenever skims are replaced outside of these, e.g. when a checkpoint is restored.
+     */
+    public void update() {
+        Arrays.fill(probabilitiesByMode, null);
+        if (!properties.accessibility.precomputeCommuteProbabilities || !(travelTimes instanceof SkimTravelTimes)) {
+            return;
+        }
+        final Zone[] zones = geoData.getZones().values().toArray(new Zone[0]);
+        int highestZoneId = 0;
+        for (Zone zone : zones) {
+            highestZoneId = Math.max(highestZoneId, zone.getZoneId());
+        }
+        indexByZoneId = new int[highestZoneId + 1];
+        Arrays.fill(indexByZoneId, -1);
+        for (int i = 0; i < zones.length; i++) {
+            indexByZoneId[zones[i].getZoneId()] = i;
+        }
+        numberOfZones = zones.length;
+
+        logger.info("Calculating commuting time probabilities between " + numberOfZones + " zones");
+        for (int m = 0; m < MODES.length; m++) {
+            final String mode = MODES[m];
+            final IndexedDoubleMatrix2D skim;
+            try {
+                skim = travelTimes.getPeakSkim(mode);
+            } catch (RuntimeException e) {
+                logger.warn("No skim for mode " + mode + ". Commuting time probabilities will be calculated on demand.");
+                continue;
+            }
+            if (skim == null) {
+                continue;
+            }
+            final float[] probabilities = new float[numberOfZones * numberOfZones];
+            final ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(properties.main.numberOfThreads);
+            for (int from = 0; from < numberOfZones; from += ROWS_PER_TASK) {
+                final int firstRow = from;
+                final int lastRow = Math.min(numberOfZones, from + ROWS_PER_TASK);
+                executor.addTaskToQueue(() -> {
+                    for (int origin = firstRow; origin < lastRow; origin++) {
+                        final int originId = zones[origin].getZoneId();
+                        final int offset = origin * numberOfZones;
+                        for (int destination = 0; destination < numberOfZones; destination++) {
+                            final int time = (int) skim.getIndexed(originId, zones[destination].getZoneId());
+                            probabilities[offset + destination] =
+                                    commutingTimeProbability.getCommutingTimeProbability(Math.max(1, time), mode);
+                        }
+                    }
+                    return null;
+                });
+            }
+            executor.execute();
+            probabilitiesByMode[m] = probabilities;
+        }
+    }
+
+    private static int indexOf(String mode) {
+        for (int i = 0; i < MODES.length; i++) {
+            if (MODES[i].equals(mode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,131 @@
+package de.tum.bgu.msm.data.accessibility;
+
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+
+/**
+ * Impedance decay e^(beta * traveltime_ij) of the Hansen accessibility between all pairs of zones. The decay only
+ * depends on the travel times, so it is evaluated once per skim, and accessibilities for new opportunities are a
+ * single multiply-add pass without transcendental functions. Cells without a positive travel time or beyond the
+ * travel time cutoff are skipped. Rows with few remaining cells are stored sparsely, all others densely.
+ * Immutable, rows are processed in parallel.
+ */
+final class HansenKernel {
+
+    private final static int ROWS_PER_TASK = 64;
+
+    private final IndexedDoubleMatrix2D travelTimes;
+    private final double beta;
+    private final double cutoff;
+    private final int numberOfThreads;
+
+    /**
+     * Destinations of the stored decays by origin, or null for dense rows that cover all zones
+     */
+    private final int[][] destinations;
+    private final float[][] decays;
+
+    private HansenKernel(Zone[] zones, IndexedDoubleMatrix2D travelTimes, double beta, double cutoff,
+                         int numberOfThreads) {
+        this.travelTimes = travelTimes;
+        this.beta = beta;
+        this.cutoff = cutoff;
+        this.numberOfThreads = numberOfThreads;
+        this.destinations = new int[zones.length][];
+        this.decays = new float[zones.length][];
+
+        final ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(numberOfThreads);
+        for (int from = 0; from < zones.length; from += ROWS_PER_TASK) {
+            final int firstRow = from;
+            final int lastRow = Math.min(zones.length, from + ROWS_PER_TASK);
+            executor.addTaskToQueue(() -> {
+                final float[] row = new float[zones.length];
+                for (int origin = firstRow; origin < lastRow; origin++) {
+                    final int originId = zones[origin].getZoneId();
+                    int cells = 0;
+                    for (int destination = 0; destination < zones.length; destination++) {
+                        final double travelTime = travelTimes.getIndexed(originId, zones[destination].getZoneId());
+                        if (travelTime > 0 && (cutoff <= 0 || travelTime <= cutoff)) {
+                            row[destination] = (float) Math.exp(beta * travelTime);
+                            cells++;
+                        } else {
+                            row[destination] = 0;
+                        }
+                    }
+                    // a sparse cell needs an index and a value, so sparse rows only pay off below half density
+                    if (cells * 2 < zones.length) {
+                        final int[] rowDestinations = new int[cells];
+                        final float[] rowDecays = new float[cells];
+                        int cell = 0;
+                        for (int destination = 0; destination < zones.length; destination++) {
+                            if (row[destination] != 0) {
+                                rowDestinations[cell] = destination;
+                                rowDecays[cell++] = row[destination];
+                            }
+                        }
+                        destinations[origin] = rowDestinations;
+                        decays[origin] = rowDecays;
+                    } else {
+                        decays[origin] = row.clone();
+                    }
+                }
+                return null;
+            });
+        }
+        executor.execute();
+    }
+
+    /**
+     * @param zones       zones in the order of their ordinals
+     * @param travelTimes zone to zone travel time matrix
+     * @param beta        beta parameter of the Hansen accessibility
+     * @param cutoff      travel time beyond which cells are skipped, or a value that is not positive to keep all cells
+     */
+    static HansenKernel build(Zone[] zones, IndexedDoubleMatrix2D travelTimes, double beta, double cutoff,
+                              int numberOfThreads) {
+        return new HansenKernel(zones, travelTimes, beta, cutoff, numberOfThreads);
+    }
+
+    /**
+     * @return whether this kernel was built from the given travel time matrix and parameters
+     */
+    boolean isBuiltFrom(IndexedDoubleMatrix2D travelTimes, double beta, double cutoff) {
+        return this.travelTimes == travelTimes && this.beta == beta && this.cutoff == cutoff;
+    }
+
+    /**
+     * Calculates the Hansen accessibility of every origin zone i as sum_j opportunities_j * e^(beta * traveltime_ij).
+     *
+     * @param opportunities weighted opportunities by zone ordinal, e.g. employment_j^alpha
+     * @return accessibilities by zone ordinal
+     */
+    double[] calculateAccessibilities(double[] opportunities) {
+        final double[] accessibilities = new double[decays.length];
+        final ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(numberOfThreads);
+        for (int from = 0; from < decays.length; from += ROWS_PER_TASK) {
+            final int firstRow = from;
+            final int lastRow = Math.min(decays.length, from + ROWS_PER_TASK);
+            executor.addTaskToQueue(() -> {
+                for (int origin = firstRow; origin < lastRow; origin++) {
+                    final float[] rowDecays = decays[origin];
+                    final int[] rowDestinations = destinations[origin];
+                    double sum = 0;
+                    if (rowDestinations == null) {
+                        for (int destination = 0; destination < rowDecays.length; destination++) {
+                            sum += rowDecays[destination] * opportunities[destination];
+                        }
+                    } else {
+                        for (int cell = 0; cell < rowDecays.length; cell++) {
+                            sum += rowDecays[cell] * opportunities[rowDestinations[cell]];
+                        }
+                    }
+                    accessibilities[origin] = sum;
+                }
+                return null;
+            });
+        }
+        executor.execute();
+        return accessibilities;
+    }
+}
@@ -0,0 +1,151 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import de.tum.bgu.msm.data.geo.GeoIndex;
+
+import java.util.Arrays;
+
+/**
+ * Real-estate statistics by dwelling type and zone: number of dwellings, number of vacant dwellings, sum of
+ * prices and sum of bedrooms. The cube is updated by the real-estate data manager whenever a dwelling is added,
+ * removed or changes its price, and vacancies are counted in the zone and type partitions of the vacancy index,
+ * so queries cost O(types x zones) instead of a scan of all dwellings. Roll-ups to regions are computed on request. Dwelling types are indexed in the order of
+ * {@link RealEstateDataManager#getDwellingTypes()} and zones by their ordinal in the {@link GeoIndex}. Not thread
+ * safe.
+ */
+public final class DwellingStatistics {
+
+    private final GeoIndex geoIndex;
+    private final VacancyIndex vacancies;
+    private final int[] regionIdByZone;
+
+    private final int[][] count;
+    private final long[][] priceSum;
+    private final long[][] bedroomSum;
+
+    /**
+     * @param geoIndex  index of the zones and of the dwelling types of the model
+     * @param vacancies vacancy index that was reset with the same geo index
+     */
+    DwellingStatistics(GeoIndex geoIndex, int numberOfTypes, VacancyIndex vacancies) {
+        this.geoIndex = geoIndex;
+        this.vacancies = vacancies;
+        final int zones = geoIndex.getNumberOfZones();
+        regionIdByZone = new int[zones];
+        for (int zone = 0; zone < zones; zone++) {
+            regionIdByZone[zone] = geoIndex.getRegionOfZone(geoIndex.getZoneId(zone));
+        }
+        count = new int[numberOfTypes][zones];
+        priceSum = new long[numberOfTypes][zones];
+        bedroomSum = new long[numberOfTypes][zones];
+    }
+
+    void add(Dwelling dd) {
+        final int type = geoIndex.getDwellingTypeOrdinal(dd.getType());
+        final int zone = geoIndex.getZoneOrdinal(dd.getZoneId());
+        count[type][zone]++;
+        priceSum[type][zone] += dd.getPrice();
+        bedroomSum[type][zone] += dd.getBedrooms();
+    }
+
+    void remove(Dwelling dd) {
+        final int type = geoIndex.getDwellingTypeOrdinal(dd.getType());
+        final int zone = geoIndex.getZoneOrdinal(dd.getZoneId());
+        count[type][zone]--;
+        priceSum[type][zone] -= dd.getPrice();
+        bedroomSum[type][zone] -= dd.getBedrooms();
+    }
+
+    void changePrice(Dwelling dd, int oldPrice, int newPrice) {
+        priceSum[geoIndex.getDwellingTypeOrdinal(dd.getType())][geoIndex.getZoneOrdinal(dd.getZoneId())] += newPrice - oldPrice;
+    }
+
+    void clear() {
+        for (int type = 0; type < count.length; type++) {
+            Arrays.fill(count[type], 0);
+            Arrays.fill(priceSum[type], 0);
+            Arrays.fill(bedroomSum[type], 0);
+        }
+    }
+
+    public int getNumberOfTypes() {
+        return count.length;
+    }
+
+    public int getNumberOfZones() {
+        return regionIdByZone.length;
+    }
+
+    public int getHighestRegionId() {
+        return geoIndex.getHighestRegionId();
+    }
+
+    public int getCount(int type, int zone) {
+        return count[type][zone];
+    }
+
+    public int getVacant(int type, int zone) {
+        return vacancies.countInZone(zone, type);
+    }
+
+    public long getPriceSum(int type, int zone) {
+        return priceSum[type][zone];
+    }
+
+    public long getBedroomSum(int type, int zone) {
+        return bedroomSum[type][zone];
+    }
+
+    /**
+     * @return number of dwellings indexed by [type][region]
+     */
+    public int[][] getCountByTypeAndRegion() {
+        return rollUpToRegions(count);
+    }
+
+    /**
+     * @return number of vacant dwellings indexed by [type][region]
+     */
+    public int[][] getVacantByTypeAndRegion() {
+        final int[][] vacant = new int[count.length][regionIdByZone.length];
+        for (int type = 0; type < count.length; type++) {
+            for (int zone = 0; zone < regionIdByZone.length; zone++) {
+                vacant[type][zone] = vacancies.countInZone(zone, type);
+            }
+        }
+        return rollUpToRegions(vacant);
+    }
+
+    /**
+     * @return sum of prices indexed by [type][region]
+     */
+    public long[][] getPriceSumByTypeAndRegion() {
+        return rollUpToRegions(priceSum);
+    }
+
+    /**
+     * @return sum of bedrooms indexed by [type][region]
+     */
+    public long[][] getBedroomSumByTypeAndRegion() {
+        return rollUpToRegions(bedroomSum);
+    }
+
+    private int[][] rollUpToRegions(int[][] byZone) {
+        final int[][] byRegion = new int[byZone.length][getHighestRegionId() + 1];
+        for (int type = 0; type < byZone.length; type++) {
+            for (int zone = 0; zone < regionIdByZone.length; zone++) {
+                byRegion[type][regionIdByZone[zone]] += byZone[type][zone];
+            }
+        }
+        return byRegion;
+    }
+
+    private long[][] rollUpToRegions(long[][] byZone) {
+        final long[][] byRegion = new long[byZone.length][getHighestRegionId() + 1];
+        for (int type = 0; type < byZone.length; type++) {
+            for (int zone = 0; zone < regionIdByZone.length; zone++) {
+                byRegion[type][regionIdByZone[zone]] += byZone[type][zone];
+            }
+        }
+        return byRegion;
+    }
+}
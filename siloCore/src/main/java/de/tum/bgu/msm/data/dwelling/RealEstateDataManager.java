@@ -3,9 +3,7 @@ package de.tum.bgu.msm.data.dwelling;
 import de.tum.bgu.msm.data.household.IncomeCategory;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public interface RealEstateDataManager extends ModelUpdateListener {
 
@@ -15,6 +13,8 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     int getNextDwellingId();
 
+    int getHighestDwellingIdInUse();
+
     Map<Integer, Double> getInitialQualShares();
 
     Map<Integer, Double> getUpdatedQualityShares();
@@ -23,6 +23,24 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     int getNumberOfVacantDDinRegion(int region);
 
+    /**
+     * Samples up to count distinct vacant dwellings of the given region uniformly, in random order.
+     */
+    default List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        List<Dwelling> vacantDwellings = new ArrayList<>(getListOfVacantDwellingsInRegion(region));
+        Collections.shuffle(vacantDwellings, random);
+        return vacantDwellings.subList(0, Math.min(count, vacantDwellings.size()));
+    }
+
+    default int getNumberOfVacantDDinZone(int zone) {
+        return (int) getDwellings().stream().filter(dd -> dd.getResidentId() == -1 && dd.getZoneId() == zone).count();
+    }
+
+    default int getNumberOfVacantDDinZone(int zone, DwellingType type) {
+        return (int) getDwellings().stream().filter(dd -> dd.getResidentId() == -1
+                && dd.getZoneId() == zone && dd.getType().equals(type)).count();
+    }
+
     List<DwellingType> getDwellingTypes();
 
     Dwelling getDwelling(int dwellingId);
@@ -33,6 +51,19 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     void addDwelling(Dwelling dwelling);
 
+    /**
+     * Changes the price of a dwelling. Prices of dwellings registered with the manager should be changed through
+     * this method so that the dwelling statistics stay up to date.
+     */
+    default void setDwellingPrice(Dwelling dwelling, int price) {
+        dwelling.setPrice(price);
+    }
+
+    /**
+     * @return dwelling counts, vacancies, prices and bedrooms by dwelling type and zone, or null before setup
+     */
+    DwellingStatistics getDwellingStatistics();
+
     Map<Integer, Double> calculateRegionalPrices();
 
     void removeDwellingFromVacancyList(int ddId);
@@ -4,10 +4,10 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
 import com.pb.common.datafile.TableDataSet;
-import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.development.Development;
 import de.tum.bgu.msm.data.development.DevelopmentImpl;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.HouseholdData;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.household.IncomeCategory;
@@ -56,7 +56,9 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     private int highestDwellingIdInUse;
     private static final Map<IncomeCategory, Map<Integer, Float>> ddPriceByIncomeCategory = new EnumMap<>(IncomeCategory.class);
 
-    private Map<Integer, List<Dwelling>> vacDwellingsByRegion = new LinkedHashMap<>();
+    private final VacancyIndex vacancies;
+    private GeoIndex geoIndex;
+    private DwellingStatistics statistics;
 
     private double[] avePrice;
     private double[] aveVac;
@@ -73,6 +75,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         this.properties = properties;
 
         this.dwellingTypes = Lists.newArrayList(dwellingTypes);
+        this.vacancies = new VacancyIndex();
     }
 
     @Override
@@ -86,6 +89,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         calculateInitialDistributionOfDwellingQualityLevels();
         setHighestVariablesAndCalculateRentShareByIncome();
         identifyVacantDwellings();
+        buildStatistics();
     }
 
     @Override
@@ -123,6 +127,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         return ++highestDwellingIdInUse;
     }
 
+    @Override
+    public int getHighestDwellingIdInUse() {
+        return highestDwellingIdInUse;
+    }
+
     @Override
     public Map<Integer, Double> getInitialQualShares() {
         return initialQualityShares;
@@ -140,13 +149,29 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
      */
     @Override
     public List<Dwelling> getListOfVacantDwellingsInRegion(int region) {
-        return Collections.unmodifiableList(vacDwellingsByRegion.getOrDefault(region,
-                new ArrayList<>()));
+        return vacancies.getVacantDwellingsInRegion(region);
     }
 
     @Override
     public int getNumberOfVacantDDinRegion(int region) {
-        return vacDwellingsByRegion.getOrDefault(region, new ArrayList<>()).size();
+        return vacancies.countInRegion(region);
+    }
+
+    @Override
+    public List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        return vacancies.sampleInRegion(region, count, random);
+    }
+
+    @Override
+    public int getNumberOfVacantDDinZone(int zone) {
+        final int ordinal = geoIndex.getZoneOrdinal(zone);
+        return ordinal < 0 ? 0 : vacancies.countInZone(ordinal);
+    }
+
+    @Override
+    public int getNumberOfVacantDDinZone(int zone, DwellingType type) {
+        final int ordinal = geoIndex.getZoneOrdinal(zone);
+        return ordinal < 0 ? 0 : vacancies.countInZone(ordinal, geoIndex.getDwellingTypeOrdinal(type));
     }
 
     @Override
@@ -166,12 +191,33 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
 
     @Override
     public void removeDwelling(int id) {
+        final Dwelling dwelling = dwellingData.getDwelling(id);
+        if (statistics != null && dwelling != null) {
+            vacancies.remove(dwelling, getRegionId(dwelling));
+            statistics.remove(dwelling);
+        }
         dwellingData.removeDwelling(id);
     }
 
     @Override
     public void addDwelling(Dwelling dwelling) {
         this.dwellingData.addDwelling(dwelling);
+        if (statistics != null) {
+            statistics.add(dwelling);
+        }
+    }
+
+    @Override
+    public void setDwellingPrice(Dwelling dwelling, int price) {
+        if (statistics != null) {
+            statistics.changePrice(dwelling, dwelling.getPrice(), price);
+        }
+        dwelling.setPrice(price);
+    }
+
+    @Override
+    public DwellingStatistics getDwellingStatistics() {
+        return statistics;
     }
 
 
@@ -181,12 +227,12 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
      */
     private void identifyVacantDwellings() {
         logger.info("  Identifying vacant dwellings");
+        geoIndex = GeoIndex.build(geoData, dwellingTypes, null);
+        vacancies.reset(geoIndex, dwellingTypes.size());
         for (Dwelling dd : dwellingData.getDwellings()) {
             if (dd.getResidentId() == -1) {
                 int dwellingId = dd.getId();
-                int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-                vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-                vacDwellingsByRegion.get(region).add(dd);
+                vacancies.add(dd, getRegionId(dd));
                 if (dwellingId == SiloUtil.trackDd) {
                     SiloUtil.trackWriter.println("Added dwelling " + dwellingId + " to list of vacant dwelling.");
                 }
@@ -194,6 +240,17 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         }
     }
 
+    /**
+     * Fills the statistics cube from all dwellings. Vacancy follows the vacancy index, so it has to be identified
+     * first. Afterwards, the cube is updated along with every change of dwellings, vacancies and prices.
+     */
+    private void buildStatistics() {
+        statistics = new DwellingStatistics(geoIndex, dwellingTypes.size(), vacancies);
+        for (Dwelling dd : dwellingData.getDwellings()) {
+            statistics.add(dd);
+        }
+    }
+
     /**
      *  Count number of dwellings by quality and calculate average quality
      */
@@ -206,12 +263,20 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
 
     @Override
     public Map<Integer, Double> calculateRegionalPrices() {
-        final Map<Integer, Zone> zones = geoData.getZones();
-        final Map<Integer, List<Dwelling>> dwellingsByRegion =
-                dwellingData.getDwellings().parallelStream().collect(Collectors.groupingByConcurrent(d ->
-                        zones.get(d.getZoneId()).getRegion().getId()));
-        final Map<Integer, Double> rentsByRegion = dwellingsByRegion.entrySet().parallelStream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().stream().mapToDouble(Dwelling::getPrice).average().getAsDouble()));
+        final int[][] count = statistics.getCountByTypeAndRegion();
+        final long[][] priceSum = statistics.getPriceSumByTypeAndRegion();
+        final Map<Integer, Double> rentsByRegion = new HashMap<>();
+        for (int region = 0; region <= statistics.getHighestRegionId(); region++) {
+            int dwellings = 0;
+            long prices = 0;
+            for (int dto = 0; dto < count.length; dto++) {
+                dwellings += count[dto][region];
+                prices += priceSum[dto][region];
+            }
+            if (dwellings > 0) {
+                rentsByRegion.put(region, prices / (double) dwellings);
+            }
+        }
         return rentsByRegion;
     }
 
@@ -266,22 +331,16 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public void removeDwellingFromVacancyList(int ddId) {
 
-        boolean found = false;
-
         Dwelling dwelling = dwellingData.getDwelling(ddId);
-        int region = geoData.getZones().get(dwelling.getZoneId()).getRegion().getId();
-        List<Dwelling> vacDwellings = vacDwellingsByRegion.get(region);
-        if (vacDwellings != null) {
-            found = vacDwellings.remove(dwelling);
-            if (ddId == SiloUtil.trackDd) {
-                SiloUtil.trackWriter.println("Removed dwelling " + ddId +
-                        " from list of vacant dwellings.");
-            }
+        boolean found = vacancies.remove(dwelling, getRegionId(dwelling));
+        if (found && ddId == SiloUtil.trackDd) {
+            SiloUtil.trackWriter.println("Removed dwelling " + ddId +
+                    " from list of vacant dwellings.");
         }
 
         if (!found) {
             logger.warn("Consistency error: Could not find vacant dwelling "
-                    + ddId + " in vacDwellingsByRegion.");
+                    + ddId + " in vacancy index.");
         }
     }
 
@@ -292,9 +351,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public void addDwellingToVacancyList(Dwelling dd) {
 
-        int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-        vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-        vacDwellingsByRegion.get(region).add(dd);
+        vacancies.add(dd, getRegionId(dd));
         if (dd.getId() == SiloUtil.trackDd) {
             SiloUtil.trackWriter.println("Added dwelling " + dd.getId() +
                     " to list of vacant dwellings.");
@@ -302,6 +359,10 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     }
 
 
+    private int getRegionId(Dwelling dd) {
+        return geoData.getZones().get(dd.getZoneId()).getRegion().getId();
+    }
+
     private void calculateRegionWidePriceAndVacancyByDwellingType() {
         // calculate region-wide average dwelling costs and vacancy by dwelling type
         logger.info("Updating region-wide average dwelling costs and vacancies:");
@@ -310,14 +371,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         int[][] vacOcc = SiloUtil.setArrayToValue(new int[2][distinctDdTypes], 0);
         long[] price = SiloUtil.setArrayToValue(new long[distinctDdTypes], 0);
 
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            int dto = dwellingTypes.indexOf(dd.getType());
-            price[dto] += dd.getPrice();
-
-            if (dd.getResidentId() > 0) {
-                vacOcc[1][dto]++;
-            } else {
-                vacOcc[0][dto]++;
+        for (int dto = 0; dto < distinctDdTypes; dto++) {
+            for (int zone = 0; zone < statistics.getNumberOfZones(); zone++) {
+                price[dto] += statistics.getPriceSum(dto, zone);
+                vacOcc[0][dto] += statistics.getVacant(dto, zone);
+                vacOcc[1][dto] += statistics.getCount(dto, zone) - statistics.getVacant(dto, zone);
             }
         }
         aveVac = new double[distinctDdTypes];
@@ -345,23 +403,15 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     public double[][] getVacancyRateByTypeAndRegion() {
         // calculate vacancy rate by region and dwelling type
         final int highestRegionId = geoData.getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
-        int[][][] vacOcc = SiloUtil.setArrayToValue(new int[2][dwellingTypes.size()][highestRegionId + 1], 0);
-
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            int dto = dwellingTypes.indexOf(dd.getType());
-            if (dd.getResidentId() > 0) {
-                vacOcc[1][dto][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
-            } else {
-                vacOcc[0][dto][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
-            }
-        }
+        final int[][] count = statistics.getCountByTypeAndRegion();
+        final int[][] vacant = statistics.getVacantByTypeAndRegion();
 
         double[][] vacRate = new double[dwellingTypes.size()][highestRegionId + 1];
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             for (int region : geoData.getRegions().keySet()) {
-                if ((vacOcc[0][dto][region] + vacOcc[1][dto][region]) > 0) {
-                    vacRate[dto][region] = (double) vacOcc[0][dto][region] / (double) (vacOcc[0][dto][region] + vacOcc[1][dto][region]);
+                if (region < count[dto].length && count[dto][region] > 0) {
+                    vacRate[dto][region] = (double) vacant[dto][region] / (double) count[dto][region];
                 } else {
                     vacRate[dto][region] = 0.;
                 }
@@ -396,8 +446,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         int[][] dwellingCount =
                 SiloUtil.setArrayToValue(new int[dwellingTypes.size()][highestRegionId + 1], 1);
 
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            dwellingCount[dwellingTypes.indexOf(dd.getType())][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
+        final int[][] count = statistics.getCountByTypeAndRegion();
+        for (int dto = 0; dto < count.length; dto++) {
+            for (int region = 0; region < count[dto].length && region <= highestRegionId; region++) {
+                dwellingCount[dto][region] += count[dto][region];
+            }
         }
         return dwellingCount;
     }
@@ -0,0 +1,176 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import de.tum.bgu.msm.data.geo.GeoIndex;
+
+import java.util.*;
+
+/**
+ * Vacant dwellings partitioned by region and, once the index is reset with a {@link GeoIndex}, by zone and
+ * dwelling type. Every partition keeps its dwellings in an array together with the position of each dwelling, so
+ * adding and removing (by swapping with the last element) take constant time, and k distinct dwellings can be
+ * sampled in O(k) without copying.
+ * Not thread safe.
+ */
+final class VacancyIndex {
+
+    private final Map<Integer, Partition> byRegion = new HashMap<>();
+
+    private GeoIndex geoIndex;
+    // indexed by [dwelling type ordinal][zone ordinal], partitions are created on demand
+    private Partition[][] byTypeAndZone;
+
+    /**
+     * Removes all dwellings. From now on, vacant dwellings are partitioned by the zones and dwelling types of the
+     * given index as well.
+     */
+    void reset(GeoIndex geoIndex, int numberOfTypes) {
+        byRegion.clear();
+        this.geoIndex = geoIndex;
+        this.byTypeAndZone = new Partition[numberOfTypes][geoIndex.getNumberOfZones()];
+    }
+
+    /**
+     * @return false if the dwelling was already indexed as vacant
+     */
+    boolean add(Dwelling dwelling, int region) {
+        if (!byRegion.computeIfAbsent(region, r -> new Partition()).add(dwelling)) {
+            return false;
+        }
+        if (byTypeAndZone != null) {
+            final int type = geoIndex.getDwellingTypeOrdinal(dwelling.getType());
+            final int zone = geoIndex.getZoneOrdinal(dwelling.getZoneId());
+            if (byTypeAndZone[type][zone] == null) {
+                byTypeAndZone[type][zone] = new Partition();
+            }
+            byTypeAndZone[type][zone].add(dwelling);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the dwelling was not indexed as vacant
+     */
+    boolean remove(Dwelling dwelling, int region) {
+        final Partition partition = byRegion.get(region);
+        if (partition == null || !partition.remove(dwelling)) {
+            return false;
+        }
+        if (byTypeAndZone != null) {
+            byTypeAndZone[geoIndex.getDwellingTypeOrdinal(dwelling.getType())]
+                    [geoIndex.getZoneOrdinal(dwelling.getZoneId())].remove(dwelling);
+        }
+        return true;
+    }
+
+    List<Dwelling> getVacantDwellingsInRegion(int region) {
+        final Partition partition = byRegion.get(region);
+        return partition == null ? Collections.emptyList() : partition.view;
+    }
+
+    int countInRegion(int region) {
+        final Partition partition = byRegion.get(region);
+        return partition == null ? 0 : partition.size;
+    }
+
+    /**
+     * @param zone ordinal of the zone in the {@link GeoIndex}
+     */
+    int countInZone(int zone) {
+        int count = 0;
+        for (int type = 0; type < byTypeAndZone.length; type++) {
+            count += countInZone(zone, type);
+        }
+        return count;
+    }
+
+    /**
+     * @param zone ordinal of the zone in the {@link GeoIndex}
+     * @param type ordinal of the dwelling type in the {@link GeoIndex}
+     */
+    int countInZone(int zone, int type) {
+        final Partition partition = byTypeAndZone[type][zone];
+        return partition == null ? 0 : partition.size;
+    }
+
+    /**
+     * Samples up to count distinct vacant dwellings of the region uniformly, returned in random order.
+     */
+    List<Dwelling> sampleInRegion(int region, int count, Random random) {
+        final Partition partition = byRegion.get(region);
+        return partition == null ? Collections.emptyList() : partition.sample(count, random);
+    }
+
+    private static final class Partition {
+
+        private Dwelling[] dwellings = new Dwelling[16];
+        private int size = 0;
+        private final Map<Integer, Integer> positions = new HashMap<>();
+
+        private final List<Dwelling> view = new AbstractList<Dwelling>() {
+            @Override
+            public Dwelling get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+                }
+                return dwellings[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+
+        private boolean add(Dwelling dwelling) {
+            if (positions.putIfAbsent(dwelling.getId(), size) != null) {
+                return false;
+            }
+            if (size == dwellings.length) {
+                dwellings = Arrays.copyOf(dwellings, size * 2);
+            }
+            dwellings[size++] = dwelling;
+            return true;
+        }
+
+        private boolean remove(Dwelling dwelling) {
+            final Integer position = positions.remove(dwelling.getId());
+            if (position == null) {
+                return false;
+            }
+            final Dwelling last = dwellings[--size];
+            dwellings[size] = null;
+            if (position != size) {
+                dwellings[position] = last;
+                positions.put(last.getId(), position);
+            }
+            return true;
+        }
+
+        /**
+         * Floyd's algorithm for drawing count distinct positions, followed by a shuffle of the result.
+         * Duplicates are detected by a linear scan, which is meant for small samples.
+         */
+        private List<Dwelling> sample(int count, Random random) {
+            final int k = Math.min(count, size);
+            final int[] selected = new int[k];
+            int found = 0;
+            for (int j = size - k; j < size; j++) {
+                final int candidate = random.nextInt(j + 1);
+                boolean taken = false;
+                for (int i = 0; i < found; i++) {
+                    if (selected[i] == candidate) {
+                        taken = true;
+                        break;
+                    }
+                }
+                selected[found++] = taken ? j : candidate;
+            }
+            final List<Dwelling> sample = new ArrayList<>(k);
+            for (int position : selected) {
+                sample.add(dwellings[position]);
+            }
+            Collections.shuffle(sample, random);
+            return sample;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package de.tum.bgu.msm.data.geo;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.opengis.feature.simple.SimpleFeature;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense, array based lookups of zones, regions, dwelling types and job types for inner loops over dwellings,
+ * jobs and households. Zones and regions get ordinals in the iteration order of {@link GeoData}, so all indices
+ * built from the same geo data agree on them. Dwelling types and job types keep the ordinals of
+ * {@code RealEstateDataManager#getDwellingTypes()} and {@code JobType}. Zone attributes are stored in primitive
+ * arrays indexed by zone ordinal. Immutable and thread safe.
+ */
+public final class GeoIndex {
+
+    private final int[] zoneIds;
+    private final int[] zoneOrdinalById;
+    private final int[] regionIdByZoneId;
+    private final int[] regionIds;
+    private final int[] regionOrdinalById;
+
+    private final float[] areas;
+    private final double[] centroidX;
+    private final double[] centroidY;
+
+    private final Map<DwellingType, Integer> dwellingTypeOrdinals = new HashMap<>();
+    private final Map<String, Integer> jobTypeOrdinals = new HashMap<>();
+
+    private GeoIndex(Collection<Zone> zones, Collection<Region> regions,
+                     List<DwellingType> dwellingTypes, String[] jobTypes) {
+        int highestZoneId = 0;
+        for (Zone zone : zones) {
+            highestZoneId = Math.max(highestZoneId, zone.getZoneId());
+        }
+        zoneIds = new int[zones.size()];
+        zoneOrdinalById = new int[highestZoneId + 1];
+        regionIdByZoneId = new int[highestZoneId + 1];
+        Arrays.fill(zoneOrdinalById, -1);
+        Arrays.fill(regionIdByZoneId, -1);
+        areas = new float[zones.size()];
+        centroidX = new double[zones.size()];
+        centroidY = new double[zones.size()];
+        int ordinal = 0;
+        for (Zone zone : zones) {
+            zoneIds[ordinal] = zone.getZoneId();
+            zoneOrdinalById[zone.getZoneId()] = ordinal;
+            regionIdByZoneId[zone.getZoneId()] = zone.getRegion().getId();
+            areas[ordinal] = zone.getArea_sqmi();
+            centroidX[ordinal] = Double.NaN;
+            centroidY[ordinal] = Double.NaN;
+            final SimpleFeature feature = zone.getZoneFeature();
+            if (feature != null && feature.getDefaultGeometry() instanceof Geometry) {
+                final Point centroid = ((Geometry) feature.getDefaultGeometry()).getCentroid();
+                centroidX[ordinal] = centroid.getX();
+                centroidY[ordinal] = centroid.getY();
+            }
+            ordinal++;
+        }
+
+        int highestRegionId = 0;
+        for (Region region : regions) {
+            highestRegionId = Math.max(highestRegionId, region.getId());
+        }
+        regionIds = new int[regions.size()];
+        regionOrdinalById = new int[highestRegionId + 1];
+        Arrays.fill(regionOrdinalById, -1);
+        ordinal = 0;
+        for (Region region : regions) {
+            regionIds[ordinal] = region.getId();
+            regionOrdinalById[region.getId()] = ordinal;
+            ordinal++;
+        }
+
+        for (int i = 0; i < dwellingTypes.size(); i++) {
+            dwellingTypeOrdinals.put(dwellingTypes.get(i), i);
+        }
+        if (jobTypes != null) {
+            for (int i = 0; i < jobTypes.length; i++) {
+                jobTypeOrdinals.put(jobTypes[i], i);
+            }
+        }
+    }
+
+    /**
+     * Builds the index of the zones and regions of the given geo data. Job types may be null if they are not
+     * defined in this model.
+     */
+    public static GeoIndex build(GeoData geoData, List<DwellingType> dwellingTypes, String[] jobTypes) {
+        return new GeoIndex(geoData.getZones().values(), geoData.getRegions().values(), dwellingTypes, jobTypes);
+    }
+
+    /**
+     * Builds the index of the zones and regions of the given geo data only, for components that have no access to
+     * the index of the data container.
+     */
+    public static GeoIndex build(GeoData geoData) {
+        return build(geoData, Collections.emptyList(), null);
+    }
+
+    public int getNumberOfZones() {
+        return zoneIds.length;
+    }
+
+    public int getZoneId(int zoneOrdinal) {
+        return zoneIds[zoneOrdinal];
+    }
+
+    /**
+     * @return the ordinal of the given zone, or -1 if there is no such zone
+     */
+    public int getZoneOrdinal(int zoneId) {
+        if (zoneId < 0 || zoneId >= zoneOrdinalById.length) {
+            return -1;
+        }
+        return zoneOrdinalById[zoneId];
+    }
+
+    /**
+     * @return the id of the region of the given zone, or -1 if there is no such zone
+     */
+    public int getRegionOfZone(int zoneId) {
+        if (zoneId < 0 || zoneId >= regionIdByZoneId.length) {
+            return -1;
+        }
+        return regionIdByZoneId[zoneId];
+    }
+
+    public int getNumberOfRegions() {
+        return regionIds.length;
+    }
+
+    public int getHighestRegionId() {
+        return regionOrdinalById.length - 1;
+    }
+
+    public int getRegionId(int regionOrdinal) {
+        return regionIds[regionOrdinal];
+    }
+
+    /**
+     * @return the ordinal of the given region, or -1 if there is no such region
+     */
+    public int getRegionOrdinal(int regionId) {
+        if (regionId < 0 || regionId >= regionOrdinalById.length) {
+            return -1;
+        }
+        return regionOrdinalById[regionId];
+    }
+
+    /**
+     * @return the area of the zone with the given ordinal, see {@link Zone#getArea_sqmi()}
+     */
+    public float getZoneArea(int zoneOrdinal) {
+        return areas[zoneOrdinal];
+    }
+
+    /**
+     * @return the x coordinate of the centroid of the zone with the given ordinal, or NaN if the zone has no shape
+     */
+    public double getZoneCentroidX(int zoneOrdinal) {
+        return centroidX[zoneOrdinal];
+    }
+
+    /**
+     * @return the y coordinate of the centroid of the zone with the given ordinal, or NaN if the zone has no shape
+     */
+    public double getZoneCentroidY(int zoneOrdinal) {
+        return centroidY[zoneOrdinal];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the type is not one of the dwelling types of the model
+     */
+    public int getDwellingTypeOrdinal(DwellingType type) {
+        final Integer ordinal = dwellingTypeOrdinals.get(type);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Unknown dwelling type " + type
+                    + ". Known types are " + dwellingTypeOrdinals.keySet());
+        }
+        return ordinal;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the type is not one of the job types of the model
+     */
+    public int getJobTypeOrdinal(String jobType) {
+        final Integer ordinal = jobTypeOrdinals.get(jobType);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Unknown job type " + jobType
+                    + ". Known types are " + jobTypeOrdinals.keySet());
+        }
+        return ordinal;
+    }
+}
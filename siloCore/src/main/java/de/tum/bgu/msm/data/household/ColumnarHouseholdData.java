@@ -0,0 +1,626 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.*;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+
+import java.util.*;
+
+/**
+ * Household data that keeps the attributes of all persons in dense primitive columns instead of one object
+ * per person. Ids are mapped to rows by an int keyed open addressing index. Scans over the whole population
+ * should use {@link #getPersonCursor()}, which sweeps over the columns without creating any person object.
+ * Other callers get flyweight views on a row, created on demand; views are equal if they refer to the same person.
+ * <p>
+ * Persons have to be created with {@link #getPersonFactory()}. Before they are added, views keep their values in a
+ * private single row. Rows of removed persons keep their values until {@link #releaseRemovedPersons()}, so views
+ * held by the code of the current year stay valid. Adding and removing persons and households is synchronized,
+ * lookups are not and must therefore not run concurrently with structural changes.
+ * <p>
+ * Use case specific person implementations are not supported; use {@link HouseholdDataImpl} for these.
+ */
+public final class ColumnarHouseholdData implements HouseholdData {
+
+    private static final Gender[] GENDERS = Gender.values();
+    private static final Occupation[] OCCUPATIONS = Occupation.values();
+    private static final PersonRole[] ROLES = PersonRole.values();
+    private static final PersonType[] TYPES = PersonType.values();
+
+    private final PersonFactory personFactory = new ColumnarPersonFactory();
+
+    private final PersonColumns persons;
+    private final IntIndex personIndex;
+    private int[] freePersonSlots = new int[64];
+    private int freePersons = 0;
+    private int[] removedPersonSlots = new int[64];
+    private int removedPersons = 0;
+    private int personSlots = 0;
+
+    private Household[] households;
+    private final IntIndex householdIndex;
+    private int[] freeHouseholdSlots = new int[64];
+    private int freeHouseholds = 0;
+    private int householdSlots = 0;
+
+    private final Collection<Person> personCollection = new PersonCollection();
+    private final Collection<Household> householdCollection = new HouseholdCollection();
+
+    public ColumnarHouseholdData() {
+        this(1 << 16);
+    }
+
+    public ColumnarHouseholdData(int expectedPersons) {
+        personIndex = new IntIndex(expectedPersons);
+        persons = new PersonColumns(expectedPersons, personIndex);
+        households = new Household[Math.max(16, expectedPersons / 2)];
+        householdIndex = new IntIndex(households.length);
+    }
+
+    /**
+     * @return the factory creating persons that can be added to this household data
+     */
+    public PersonFactory getPersonFactory() {
+        return personFactory;
+    }
+
+    /**
+     * @return whether the given factory creates persons of a columnar household data, which only have the
+     * attributes of the {@link Person} interface
+     */
+    public static boolean isColumnarPersonFactory(PersonFactory factory) {
+        return factory instanceof ColumnarPersonFactory;
+    }
+
+    @Override
+    public Household getHousehold(int householdId) {
+        final int slot = householdIndex.get(householdId);
+        return slot == IntIndex.MISSING ? null : households[slot];
+    }
+
+    @Override
+    public Collection<Household> getHouseholds() {
+        return householdCollection;
+    }
+
+    @Override
+    public Person getPerson(int id) {
+        final int slot = personIndex.get(id);
+        return slot == IntIndex.MISSING ? null : new ColumnarPerson(persons, slot);
+    }
+
+    @Override
+    public synchronized void removePerson(int id) {
+        final int slot = personIndex.remove(id);
+        if (slot == IntIndex.MISSING) {
+            return;
+        }
+        persons.live[slot] = false;
+        if (removedPersons == removedPersonSlots.length) {
+            removedPersonSlots = Arrays.copyOf(removedPersonSlots, removedPersons * 2);
+        }
+        removedPersonSlots[removedPersons++] = slot;
+    }
+
+    /**
+     * Makes the rows of the persons removed so far available for new persons.
+     */
+    @Override
+    public synchronized void releaseRemovedPersons() {
+        for (int i = 0; i < removedPersons; i++) {
+            final int slot = removedPersonSlots[i];
+            persons.clearRow(slot);
+            if (freePersons == freePersonSlots.length) {
+                freePersonSlots = Arrays.copyOf(freePersonSlots, freePersons * 2);
+            }
+            freePersonSlots[freePersons++] = slot;
+        }
+        removedPersons = 0;
+    }
+
+    @Override
+    public Collection<Person> getPersons() {
+        return personCollection;
+    }
+
+    @Override
+    public PersonCursor getPersonCursor() {
+        return new ColumnCursor();
+    }
+
+    @Override
+    public synchronized void removeHousehold(int householdId) {
+        final int slot = householdIndex.remove(householdId);
+        if (slot == IntIndex.MISSING) {
+            return;
+        }
+        households[slot] = null;
+        if (freeHouseholds == freeHouseholdSlots.length) {
+            freeHouseholdSlots = Arrays.copyOf(freeHouseholdSlots, freeHouseholds * 2);
+        }
+        freeHouseholdSlots[freeHouseholds++] = slot;
+    }
+
+    @Override
+    public synchronized void addPerson(Person person) {
+        if (!(person instanceof ColumnarPerson)) {
+            throw new IllegalArgumentException("Person " + person.getId() + " is of type " + person.getClass().getSimpleName()
+                    + ". Persons added to columnar household data have to be created by its person factory.");
+        }
+        final ColumnarPerson view = (ColumnarPerson) person;
+        final int current = view.slot();
+        if (view.columns == persons && persons.live[current]) {
+            return;
+        }
+        removePerson(view.id);
+        final int slot;
+        if (freePersons > 0) {
+            slot = freePersonSlots[--freePersons];
+        } else {
+            if (personSlots == persons.capacity()) {
+                persons.grow(personSlots * 2);
+            }
+            slot = personSlots++;
+        }
+        view.columns.copyRow(current, persons, slot);
+        persons.live[slot] = true;
+        view.columns = persons;
+        view.slot = slot;
+        personIndex.put(view.id, slot);
+    }
+
+    @Override
+    public synchronized void addHousehold(Household household) {
+        final int existing = householdIndex.get(household.getId());
+        if (existing != IntIndex.MISSING) {
+            households[existing] = household;
+            return;
+        }
+        final int slot;
+        if (freeHouseholds > 0) {
+            slot = freeHouseholdSlots[--freeHouseholds];
+        } else {
+            if (householdSlots == households.length) {
+                households = Arrays.copyOf(households, householdSlots * 2);
+            }
+            slot = householdSlots++;
+        }
+        households[slot] = household;
+        householdIndex.put(household.getId(), slot);
+    }
+
+    private static byte encode(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E> E decode(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static final class PersonColumns {
+        private int[] ids;
+        private int[] ages;
+        private byte[] genders;
+        private byte[] occupations;
+        private byte[] roles;
+        private byte[] types;
+        private int[] jobIds;
+        private int[] incomes;
+        private int[] householdIds;
+        private boolean[] driverLicenses;
+        private Household[] households;
+        private Attributes[] attributes;
+        private boolean[] live;
+
+        /**
+         * Index of the rows of the household data, or null for the single row of a person that was not added
+         */
+        private final IntIndex index;
+
+        private PersonColumns(int capacity, IntIndex index) {
+            this.index = index;
+            ids = new int[capacity];
+            ages = new int[capacity];
+            genders = new byte[capacity];
+            occupations = new byte[capacity];
+            roles = new byte[capacity];
+            types = new byte[capacity];
+            jobIds = new int[capacity];
+            incomes = new int[capacity];
+            householdIds = new int[capacity];
+            driverLicenses = new boolean[capacity];
+            households = new Household[capacity];
+            attributes = new Attributes[capacity];
+            live = new boolean[capacity];
+        }
+
+        private int capacity() {
+            return ids.length;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            genders = Arrays.copyOf(genders, capacity);
+            occupations = Arrays.copyOf(occupations, capacity);
+            roles = Arrays.copyOf(roles, capacity);
+            types = Arrays.copyOf(types, capacity);
+            jobIds = Arrays.copyOf(jobIds, capacity);
+            incomes = Arrays.copyOf(incomes, capacity);
+            householdIds = Arrays.copyOf(householdIds, capacity);
+            driverLicenses = Arrays.copyOf(driverLicenses, capacity);
+            households = Arrays.copyOf(households, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+
+        private void copyRow(int from, PersonColumns target, int to) {
+            target.ids[to] = ids[from];
+            target.ages[to] = ages[from];
+            target.genders[to] = genders[from];
+            target.occupations[to] = occupations[from];
+            target.roles[to] = roles[from];
+            target.types[to] = types[from];
+            target.jobIds[to] = jobIds[from];
+            target.incomes[to] = incomes[from];
+            target.householdIds[to] = householdIds[from];
+            target.driverLicenses[to] = driverLicenses[from];
+            target.households[to] = households[from];
+            target.attributes[to] = attributes[from];
+        }
+
+        private void clearRow(int slot) {
+            households[slot] = null;
+            attributes[slot] = null;
+        }
+    }
+
+    /**
+     * Flyweight person pointing to a row of person columns.
+     */
+    private static final class ColumnarPerson implements Person {
+
+        private final int id;
+        private PersonColumns columns;
+        private int slot;
+
+        private ColumnarPerson(PersonColumns columns, int slot) {
+            this.columns = columns;
+            this.slot = slot;
+            this.id = columns.ids[slot];
+        }
+
+        private ColumnarPerson(int id, int age, Gender gender, Occupation occupation, PersonRole role, int jobId, int income) {
+            this.id = id;
+            columns = new PersonColumns(1, null);
+            columns.ids[0] = id;
+            columns.ages[0] = age;
+            columns.genders[0] = encode(gender);
+            columns.occupations[0] = encode(occupation);
+            columns.roles[0] = encode(role);
+            columns.jobIds[0] = jobId;
+            columns.incomes[0] = income;
+            columns.householdIds[0] = -1;
+            setType();
+        }
+
+        /**
+         * @return the row of this person, which moves if the person was removed and added again
+         */
+        private int slot() {
+            final PersonColumns current = columns;
+            if (current.index == null || (current.live[slot] && current.ids[slot] == id)) {
+                return slot;
+            }
+            final int moved = current.index.get(id);
+            if (moved != IntIndex.MISSING) {
+                slot = moved;
+            } else if (current.ids[slot] != id) {
+                throw new IllegalStateException("Person " + id + " was removed from the household data in a previous year.");
+            }
+            return slot;
+        }
+
+        private void setType() {
+            columns.types[slot()] = encode(PersonType.defineType(this));
+        }
+
+        @Override
+        public void setHousehold(Household household) {
+            columns.households[slot()] = household;
+            columns.householdIds[slot()] = household == null ? -1 : household.getId();
+        }
+
+        @Override
+        public Household getHousehold() {
+            return columns.households[slot()];
+        }
+
+        @Override
+        public void setRole(PersonRole pr) {
+            columns.roles[slot()] = encode(pr);
+        }
+
+        @Override
+        public void birthday() {
+            columns.ages[slot()]++;
+            setType();
+        }
+
+        @Override
+        public void setIncome(int newIncome) {
+            columns.incomes[slot()] = newIncome;
+            getHousehold().updateHouseholdType();
+        }
+
+        @Override
+        public void setWorkplace(int newWorkplace) {
+            columns.jobIds[slot()] = newWorkplace;
+        }
+
+        @Override
+        public void setOccupation(Occupation newOccupation) {
+            columns.occupations[slot()] = encode(newOccupation);
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public int getAge() {
+            return columns.ages[slot()];
+        }
+
+        @Override
+        public Gender getGender() {
+            return decode(GENDERS, columns.genders[slot()]);
+        }
+
+        @Override
+        public Occupation getOccupation() {
+            return decode(OCCUPATIONS, columns.occupations[slot()]);
+        }
+
+        @Override
+        public int getAnnualIncome() {
+            return columns.incomes[slot()];
+        }
+
+        @Override
+        public PersonType getType() {
+            return decode(TYPES, columns.types[slot()]);
+        }
+
+        @Override
+        public PersonRole getRole() {
+            return decode(ROLES, columns.roles[slot()]);
+        }
+
+        @Override
+        public int getJobId() {
+            return columns.jobIds[slot()];
+        }
+
+        @Override
+        public void setDriverLicense(boolean driverLicense) {
+            columns.driverLicenses[slot()] = driverLicense;
+        }
+
+        @Override
+        public boolean hasDriverLicense() {
+            return columns.driverLicenses[slot()];
+        }
+
+        @Override
+        public Optional<Object> getAttribute(String key) {
+            final Attributes attributes = columns.attributes[slot()];
+            return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.getAttribute(key));
+        }
+
+        @Override
+        public void setAttribute(String key, Object value) {
+            if (columns.attributes[slot()] == null) {
+                columns.attributes[slot()] = new Attributes();
+            }
+            columns.attributes[slot()].putAttribute(key, value);
+        }
+
+        @Override
+        public String toString() {
+            final Household household = getHousehold();
+            return "+++ Person " + getId()
+                    +"\nHousehold id         " + (household == null ? "null": household.getId())
+                    +"\nAge                  " + getAge()
+                    +"\nGender               " + getGender()
+                    +"\nRole in household    " + getRole()
+                    +"\nOccupation           " + getOccupation()
+                    +"\nWorkplace ID         " + getJobId()
+                    +"\nIncome               " + getAnnualIncome()
+                    +"\nPerson type          " + getType();
+        }
+
+        @Override
+        public int hashCode() {
+            return getId();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Person && ((Person) o).getId() == getId();
+        }
+    }
+
+    private static final class ColumnarPersonFactory implements PersonFactory {
+
+        @Override
+        public Person createPerson(int id, int age, Gender gender, Occupation occupation, PersonRole role,
+                                   int workplace, int income) {
+            return new ColumnarPerson(id, age, gender, occupation, role, workplace, income);
+        }
+
+        @Override
+        public Person giveBirth(Person parent, int id, Gender gender) {
+            return new ColumnarPerson(id, 0, gender, Occupation.TODDLER, PersonRole.CHILD, 0, 0);
+        }
+
+        @Override
+        public Person duplicate(Person originalPerson, int id) {
+            final Person duplicate = new ColumnarPerson(id,
+                    originalPerson.getAge(),
+                    originalPerson.getGender(),
+                    originalPerson.getOccupation(),
+                    originalPerson.getRole(),
+                    -1,
+                    originalPerson.getAnnualIncome());
+            duplicate.setDriverLicense(originalPerson.hasDriverLicense());
+            return duplicate;
+        }
+    }
+
+    /**
+     * Live view on all persons. Iteration sweeps over the slots and tolerates concurrent modification.
+     */
+    private final class PersonCollection extends AbstractCollection<Person> {
+
+        @Override
+        public Iterator<Person> iterator() {
+            return new SlotIterator<Person>() {
+                @Override
+                Person at(int slot) {
+                    final PersonColumns current = persons;
+                    return slot < current.capacity() && current.live[slot] ? new ColumnarPerson(current, slot) : null;
+                }
+
+                @Override
+                int slots() {
+                    return personSlots;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return personIndex.size();
+        }
+    }
+
+    /**
+     * Sweep over the person columns in ascending order of the slots.
+     */
+    private final class ColumnCursor implements PersonCursor {
+
+        private int slot = -1;
+
+        @Override
+        public boolean next() {
+            final int slots = personSlots;
+            final boolean[] live = persons.live;
+            while (++slot < slots) {
+                if (live[slot]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int getId() {
+            return persons.ids[slot];
+        }
+
+        @Override
+        public int getAge() {
+            return persons.ages[slot];
+        }
+
+        @Override
+        public Gender getGender() {
+            return decode(GENDERS, persons.genders[slot]);
+        }
+
+        @Override
+        public Occupation getOccupation() {
+            return decode(OCCUPATIONS, persons.occupations[slot]);
+        }
+
+        @Override
+        public PersonRole getRole() {
+            return decode(ROLES, persons.roles[slot]);
+        }
+
+        @Override
+        public PersonType getType() {
+            return decode(TYPES, persons.types[slot]);
+        }
+
+        @Override
+        public int getJobId() {
+            return persons.jobIds[slot];
+        }
+
+        @Override
+        public int getAnnualIncome() {
+            return persons.incomes[slot];
+        }
+
+        @Override
+        public int getHouseholdId() {
+            return persons.householdIds[slot];
+        }
+    }
+
+    /**
+     * Live view on all households. Iteration sweeps over the slots and tolerates concurrent modification.
+     */
+    private final class HouseholdCollection extends AbstractCollection<Household> {
+
+        @Override
+        public Iterator<Household> iterator() {
+            return new SlotIterator<Household>() {
+                @Override
+                Household at(int slot) {
+                    final Household[] current = households;
+                    return slot < current.length ? current[slot] : null;
+                }
+
+                @Override
+                int slots() {
+                    return householdSlots;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return householdIndex.size();
+        }
+    }
+
+    private static abstract class SlotIterator<T> implements Iterator<T> {
+
+        private int slot = -1;
+        private T next;
+
+        abstract T at(int slot);
+
+        abstract int slots();
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && ++slot < slots()) {
+                next = at(slot);
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -20,4 +20,18 @@ public interface HouseholdData {
     void addPerson(Person person);
 
     void addHousehold(Household household);
+
+    /**
+     * @return a cursor over the attributes of all persons
+     */
+    default PersonCursor getPersonCursor() {
+        return PersonCursor.over(getPersons());
+    }
+
+    /**
+     * Called at the end of every year. Persons removed before keep their attributes until then, as code of the
+     * current year may still hold them.
+     */
+    default void releaseRemovedPersons() {
+    }
 }
@@ -22,6 +22,11 @@ public interface HouseholdDataManager extends ModelUpdateListener {
 
     Collection<Person> getPersons();
 
+    /**
+     * @return a cursor over the attributes of all persons, for scans that do not need person objects
+     */
+    PersonCursor getPersonCursor();
+
     void removePersonFromHousehold(Person person);
 
     void addPersonToHousehold(Person person, Household household);
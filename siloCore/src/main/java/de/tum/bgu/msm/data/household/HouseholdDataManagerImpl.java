@@ -26,7 +26,6 @@ import de.tum.bgu.msm.data.person.PersonFactory;
 import de.tum.bgu.msm.io.output.DefaultHouseholdWriter;
 import de.tum.bgu.msm.io.output.DefaultPersonWriter;
 import de.tum.bgu.msm.properties.Properties;
-import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
@@ -57,6 +56,7 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
     private int highestPersonIdInUse;
 
     private float[][][] avgIncomeByGenderByAgeByOccupation;
+    private final IncomeAdjustment incomeAdjustment;
 
     private Map<Integer, Household> householdMementos = new HashMap<>();
 
@@ -69,6 +69,7 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         this.hhFactory = hhFactory;
         this.properties = properties;
         this.realEstateDataManager = realEstateDataManager;
+        this.incomeAdjustment = new IncomeAdjustment(properties.main.numberOfThreads);
     }
 
     @Override
@@ -84,6 +85,7 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
     @Override
     public void endYear(int year) {
         householdMementos.clear();
+        householdData.releaseRemovedPersons();
         adjustIncome();
     }
 
@@ -99,6 +101,7 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
                 + properties.main.endYear
                 + ".csv";
         new DefaultPersonWriter(householdData).writePersons(filepp);
+        incomeAdjustment.shutdown();
     }
 
     @Override
@@ -132,6 +135,11 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         return householdData.getPersons();
     }
 
+    @Override
+    public PersonCursor getPersonCursor() {
+        return householdData.getPersonCursor();
+    }
+
     @Override
     public void removePersonFromHousehold(Person person) {
         Household household = person.getHousehold();
@@ -238,55 +246,18 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
 
     private float[][][] calculateIncomeDistribution() {
         // calculate income distribution by age, gender and occupation
-
-        // income by gender, age and unemployed/employed
-        float[][][] averageIncome = new float[2][100][2];
-        int[][][] count = new int[2][100][2];
-        for (Person pp : householdData.getPersons()) {
-            int age = Math.min(99, pp.getAge());
-            int occupation = 0;
-            if (pp.getOccupation() == Occupation.EMPLOYED) {
-                occupation = 1;
-            }
-            averageIncome[pp.getGender().ordinal()][age][occupation] += pp.getAnnualIncome();
-            count[pp.getGender().ordinal()][age][occupation]++;
-        }
-        for (int i = 0; i < averageIncome.length; i++) {
-            for (int j = 0; j < averageIncome[i].length; j++) {
-                for (int k = 0; k < averageIncome[i][j].length; k++) {
-                    if (count[i][j][k] > 0) {
-                        averageIncome[i][j][k] = averageIncome[i][j][k] / count[i][j][k];
-                    }
-                }
-            }
-        }
-        // smooth out income
-        for (int i = 0; i < averageIncome.length; i++) {
-            for (int j = 2; j < averageIncome[i].length - 2; j++) {
-                for (int k = 0; k < averageIncome[i][j].length; k++) {
-                    averageIncome[i][j][k] = (averageIncome[i][j - 2][k] / 4f + averageIncome[i][j - 1][k] / 2f +
-                            averageIncome[i][j][k] + averageIncome[i][j + 1][k] / 2f + averageIncome[i][j + 2][k] / 4f) / 2.5f;
-                }
-            }
-        }
-        return averageIncome;
+        return incomeAdjustment.calculateIncomeDistribution(householdData.getPersons().toArray(new Person[0]));
     }
 
     private void adjustIncome() {
         // select who will get a raise or drop in salary
+        Person[] persons = householdData.getPersons().toArray(new Person[0]);
         float[][][] previousIncomeDistribution = avgIncomeByGenderByAgeByOccupation;
-        float[][][] currentIncomeDistribution = calculateIncomeDistribution();;
-        float meanIncomeChange = Properties.get().householdData.meanIncomeChange;
-        ConcurrentExecutor<Void> executor = ConcurrentExecutor.cachedService();
-        for (Person person : householdData.getPersons()) {
-            executor.addTaskToQueue(new IncomeAdjustment(person, meanIncomeChange, currentIncomeDistribution, previousIncomeDistribution));
-        }
-        executor.execute();
+        float[][][] currentIncomeDistribution = incomeAdjustment.calculateIncomeDistribution(persons);
+        float meanIncomeChange = properties.householdData.meanIncomeChange;
+        incomeAdjustment.adjustIncomes(persons, meanIncomeChange, currentIncomeDistribution, previousIncomeDistribution);
     }
 
-
-
-
     @Override
     public void saveHouseholdMemento(Household hh) {
         Household householdMemento = hhFactory.duplicate(hh, hh.getId());
@@ -0,0 +1,150 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-only description of a household that searches for a dwelling: its size, income, household type, autos,
+ * the workplaces of its workers and, in use cases that define it, its nationality. A profile can describe an
+ * existing household or a hypothetical one, e.g. a child that considers leaving the parental household. Hypothetical profiles
+ * refer to existing persons but do not change them, do not consume household or person ids and are not registered
+ * anywhere.
+ */
+public final class HouseholdProfile {
+
+    private final int id;
+    private final int hhSize;
+    private final int income;
+    private final int autos;
+    private final HouseholdType householdType;
+    private final int numberOfWorkers;
+    private final List<Integer> workplaces;
+    private final Collection<? extends Person> persons;
+
+    private final Supplier<Household> materializer;
+    private Household household;
+    private Object nationality;
+
+    private HouseholdProfile(int id, int autos, HouseholdType householdType, Collection<? extends Person> persons,
+                             Supplier<Household> materializer, Household household) {
+        this.id = id;
+        this.autos = autos;
+        this.persons = Collections.unmodifiableCollection(persons);
+        this.materializer = materializer;
+        this.household = household;
+        this.hhSize = persons.size();
+
+        int income = 0;
+        int workers = 0;
+        final List<Integer> workplaces = new ArrayList<>();
+        for (Person person : persons) {
+            income += person.getAnnualIncome();
+            if (person.getOccupation() == Occupation.EMPLOYED) {
+                workers++;
+                if (person.getJobId() != -2) {
+                    workplaces.add(person.getJobId());
+                }
+            }
+        }
+        this.income = income;
+        this.numberOfWorkers = workers;
+        this.workplaces = Collections.unmodifiableList(workplaces);
+        this.householdType = householdType != null ? householdType : HouseholdUtil.defineHouseholdType(hhSize, income);
+    }
+
+    /**
+     * @return the profile of an existing household
+     */
+    public static HouseholdProfile of(Household household) {
+        return new HouseholdProfile(household.getId(), household.getAutos(), household.getHouseholdType(),
+                household.getPersons().values(), null, household);
+    }
+
+    /**
+     * @return the profile of a hypothetical household consisting of the given persons
+     */
+    public static HouseholdProfile of(Collection<? extends Person> persons, int autos, HouseholdFactory factory) {
+        final List<Person> members = new ArrayList<>(persons);
+        return new HouseholdProfile(-1, autos, null, members, () -> {
+            final Household household = factory.createHousehold(-1, -1, autos);
+            for (Person person : members) {
+                household.addPerson(person);
+            }
+            return household;
+        }, null);
+    }
+
+    /**
+     * @return the id of the described household, or -1 if the household is hypothetical
+     */
+    public int getId() {
+        return id;
+    }
+
+    public int getHhSize() {
+        return hhSize;
+    }
+
+    public int getAnnualIncome() {
+        return income;
+    }
+
+    public int getAutos() {
+        return autos;
+    }
+
+    public HouseholdType getHouseholdType() {
+        return householdType;
+    }
+
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    /**
+     * @return the job ids of all workers, including those that have not been assigned a job yet
+     */
+    public List<Integer> getWorkplaces() {
+        return workplaces;
+    }
+
+    public Collection<? extends Person> getPersons() {
+        return persons;
+    }
+
+    /**
+     * Returns the nationality of the household. Nationalities are only defined by some use cases, so the use case
+     * passes its definition of the household nationality from the nationalities of the members. It is evaluated
+     * on first use and kept for later calls, which therefore have to pass the same definition.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <N> N getNationality(Function<Collection<? extends Person>, N> definition) {
+        if (nationality == null) {
+            nationality = definition.apply(persons);
+        }
+        return (N) nationality;
+    }
+
+    public boolean isHypothetical() {
+        return materializer != null;
+    }
+
+    /**
+     * Returns the described household. For hypothetical profiles, a detached household with id -1 is created
+     * on first use. It is never registered, so it is only meant for implementations that need attributes of the
+     * household that are not part of the profile.
+     */
+    public synchronized Household asHousehold() {
+        if (household == null) {
+            household = materializer.get();
+        }
+        return household;
+    }
+}
@@ -47,10 +47,13 @@ public class HouseholdUtil {
     }
 
     public static HouseholdType defineHouseholdType(Household household) {
+        return defineHouseholdType(household.getHhSize(), HouseholdUtil.getAnnualHhIncome(household));
+    }
+
+    public static HouseholdType defineHouseholdType(int hhSize, int hhIncome) {
         // define household type based on size and income
 
-        int hhSize = household.getHhSize();
-        IncomeCategory incomeCategory = getIncomeCategoryForIncome(HouseholdUtil.getAnnualHhIncome(household));
+        IncomeCategory incomeCategory = getIncomeCategoryForIncome(hhIncome);
 
         HouseholdType ht = null;
         if (hhSize == 1) {
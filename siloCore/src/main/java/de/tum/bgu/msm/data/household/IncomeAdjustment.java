@@ -2,79 +2,221 @@ package de.tum.bgu.msm.data.household;
 
 import cern.jet.random.tdouble.Normal;
 import cern.jet.random.tdouble.engine.DoubleRandomEngine;
+import de.tum.bgu.msm.utils.RandomStreams;
 import de.tum.bgu.msm.utils.SiloUtil;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
-import de.tum.bgu.msm.util.concurrent.RandomizableConcurrentFunction;
 
-public class IncomeAdjustment extends RandomizableConcurrentFunction<Void> {
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
-    private final Person person;
-    private final float meanIncomeChange;
-    private final float[][][] currentIncomeDistribution;
-    private final float[][][] initialIncomeDistribution;
+/**
+ * Adjusts the incomes of the whole population. Persons are processed in chunks of {@link #CHUNK_SIZE} on a fork
+ * join pool with a bounded number of threads. Each chunk draws from its own random stream, which only depends on
+ * the seed, the year and the position of the chunk, so results do not depend on the number of threads. Chunks
+ * write the new incomes of their own persons only and do not share any lock. The pool is kept for the whole
+ * simulation and has to be shut down at its end.
+ */
+public class IncomeAdjustment {
 
+    static final int CHUNK_SIZE = 4096;
 
-    IncomeAdjustment(Person person, float meanIncomeChange,
-                     float[][][] currentIncomeDistribution, float[][][] initialIncomeDistribution) {
-        super(SiloUtil.getRandomObject().nextLong());
-        this.person = person;
-        this.meanIncomeChange = meanIncomeChange;
-        this.currentIncomeDistribution = currentIncomeDistribution;
-        this.initialIncomeDistribution = initialIncomeDistribution;
+    private static final int GENDERS = 2;
+    private static final int AGES = 100;
+    private static final int OCCUPATIONS = 2;
+
+    private static final long STREAM_KEY = RandomStreams.key(IncomeAdjustment.class.getName());
+
+    private final ForkJoinPool pool;
+
+    IncomeAdjustment(int numberOfThreads) {
+        this.pool = new ForkJoinPool(numberOfThreads);
+    }
+
+    /**
+     * Calculates the average income by gender, age and employment. Partial sums are collected per chunk and
+     * merged pairwise.
+     */
+    float[][][] calculateIncomeDistribution(Person[] persons) {
+        final IncomeHistogram histogram = pool.invoke(new HistogramTask(persons, 0, persons.length));
+        final float[][][] averageIncome = new float[GENDERS][AGES][OCCUPATIONS];
+        for (int i = 0; i < GENDERS; i++) {
+            for (int j = 0; j < AGES; j++) {
+                for (int k = 0; k < OCCUPATIONS; k++) {
+                    final int cell = cell(i, j, k);
+                    if (histogram.count[cell] > 0) {
+                        averageIncome[i][j][k] = (float) (histogram.income[cell] / histogram.count[cell]);
+                    }
+                }
+            }
+        }
+        // smooth out income
+        for (int i = 0; i < averageIncome.length; i++) {
+            for (int j = 2; j < averageIncome[i].length - 2; j++) {
+                for (int k = 0; k < averageIncome[i][j].length; k++) {
+                    averageIncome[i][j][k] = (averageIncome[i][j - 2][k] / 4f + averageIncome[i][j - 1][k] / 2f +
+                            averageIncome[i][j][k] + averageIncome[i][j + 1][k] / 2f + averageIncome[i][j + 2][k] / 4f) / 2.5f;
+                }
+            }
+        }
+        return averageIncome;
     }
 
-    @Override
-    public Void call() {
-        // adjust income of person with ID per
-        person.setIncome(selectNewIncome());
-        return null;
+    /**
+     * Selects a new income for every person, shifting incomes towards the initial income distribution.
+     */
+    void adjustIncomes(Person[] persons, float meanIncomeChange,
+                       float[][][] currentIncomeDistribution, float[][][] initialIncomeDistribution) {
+        final int chunks = (persons.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        pool.invoke(new AdjustmentTask(persons, 0, chunks, meanIncomeChange,
+                currentIncomeDistribution, initialIncomeDistribution));
+    }
+
+    /**
+     * Shuts down the threads of this adjustment. Incomes cannot be adjusted afterwards.
+     */
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static int cell(int gender, int age, int occupation) {
+        return (gender * AGES + age) * OCCUPATIONS + occupation;
+    }
+
+    private static int cell(Person person) {
+        return cell(person.getGender().ordinal(), Math.min(AGES - 1, person.getAge()),
+                person.getOccupation() == Occupation.EMPLOYED ? 1 : 0);
+    }
+
+    private static final class IncomeHistogram {
+        private final double[] income = new double[GENDERS * AGES * OCCUPATIONS];
+        private final int[] count = new int[GENDERS * AGES * OCCUPATIONS];
+
+        private IncomeHistogram merge(IncomeHistogram other) {
+            for (int i = 0; i < income.length; i++) {
+                income[i] += other.income[i];
+                count[i] += other.count[i];
+            }
+            return this;
+        }
     }
 
-    private int selectNewIncome () {
-        // calculate new income using a normal distribution
-
-        float desiredShift = getDesiredShift();
-
-        double[] prob = new double[21];
-        int lowerBound;
-        int upperBound;
-        if (Math.abs(desiredShift) < 1000) {
-            lowerBound = -5000;
-            upperBound = 5000;
-        } else if (desiredShift > 1000) {
-            lowerBound = (int) -desiredShift;
-            upperBound = (int) desiredShift * 3;
-        } else {
-            lowerBound = (int) desiredShift * 3;
-            upperBound = (int) -desiredShift;
+    private static final class HistogramTask extends RecursiveTask<IncomeHistogram> {
+
+        private final Person[] persons;
+        private final int from;
+        private final int to;
+
+        private HistogramTask(Person[] persons, int from, int to) {
+            this.persons = persons;
+            this.from = from;
+            this.to = to;
         }
-        int smallestAbsValuePos = 0;
-        float smallestAbsValue = Float.MAX_VALUE;
-
-        // normal distribution to calculate change of income
-        Normal normal = new Normal(0,0, DoubleRandomEngine.makeDefault());
-        for (int i = 0; i < prob.length; i++) {
-            int change = lowerBound + (upperBound - lowerBound) / (prob.length-1) * i;
-            if (Math.abs(change) < smallestAbsValue) {
-                smallestAbsValuePos = i;
-                smallestAbsValue = Math.abs(change);
+
+        @Override
+        protected IncomeHistogram compute() {
+            if (to - from <= CHUNK_SIZE) {
+                final IncomeHistogram histogram = new IncomeHistogram();
+                for (int i = from; i < to; i++) {
+                    final int cell = cell(persons[i]);
+                    histogram.income[cell] += persons[i].getAnnualIncome();
+                    histogram.count[cell]++;
+                }
+                return histogram;
             }
-            normal.setState(change, meanIncomeChange);
-            prob[i] = normal.pdf(desiredShift);
+            final int chunks = (to - from + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            final int middle = from + chunks / 2 * CHUNK_SIZE;
+            final HistogramTask right = new HistogramTask(persons, middle, to);
+            right.fork();
+            final IncomeHistogram left = new HistogramTask(persons, from, middle).compute();
+            return left.merge(right.join());
         }
-        prob[smallestAbsValuePos] = prob[smallestAbsValuePos] * 10;   // make no change most likely
-        int sel = SiloUtil.select(prob, random);
-        return Math.max((person.getAnnualIncome() + lowerBound + (upperBound - lowerBound) / prob.length * sel), 0);
     }
 
-    private float getDesiredShift() {
-        int gender = person.getGender().ordinal();
-        int age = Math.min(99, person.getAge());
-        int occ = 0;
-        if (person.getOccupation() == Occupation.EMPLOYED) {
-            occ = 1;
+    private static final class AdjustmentTask extends RecursiveAction {
+
+        private final Person[] persons;
+        private final int fromChunk;
+        private final int toChunk;
+        private final float meanIncomeChange;
+        private final float[][][] currentIncomeDistribution;
+        private final float[][][] initialIncomeDistribution;
+
+        private AdjustmentTask(Person[] persons, int fromChunk, int toChunk, float meanIncomeChange,
+                               float[][][] currentIncomeDistribution, float[][][] initialIncomeDistribution) {
+            this.persons = persons;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.meanIncomeChange = meanIncomeChange;
+            this.currentIncomeDistribution = currentIncomeDistribution;
+            this.initialIncomeDistribution = initialIncomeDistribution;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                final int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new AdjustmentTask(persons, fromChunk, middle, meanIncomeChange,
+                                currentIncomeDistribution, initialIncomeDistribution),
+                        new AdjustmentTask(persons, middle, toChunk, meanIncomeChange,
+                                currentIncomeDistribution, initialIncomeDistribution));
+            } else if (toChunk > fromChunk) {
+                final Random random = SiloUtil.getRandomStreams().stream(STREAM_KEY, fromChunk);
+                final Normal normal = new Normal(0, 0, DoubleRandomEngine.makeDefault());
+                final double[] prob = new double[21];
+                final int to = Math.min(persons.length, (fromChunk + 1) * CHUNK_SIZE);
+                for (int i = fromChunk * CHUNK_SIZE; i < to; i++) {
+                    final Person person = persons[i];
+                    person.setIncome(selectNewIncome(person, normal, prob, random));
+                }
+            }
+        }
+
+        private int selectNewIncome(Person person, Normal normal, double[] prob, Random random) {
+            // calculate new income using a normal distribution
+
+            float desiredShift = getDesiredShift(person);
+
+            int lowerBound;
+            int upperBound;
+            if (Math.abs(desiredShift) < 1000) {
+                lowerBound = -5000;
+                upperBound = 5000;
+            } else if (desiredShift > 1000) {
+                lowerBound = (int) -desiredShift;
+                upperBound = (int) desiredShift * 3;
+            } else {
+                lowerBound = (int) desiredShift * 3;
+                upperBound = (int) -desiredShift;
+            }
+            int smallestAbsValuePos = 0;
+            float smallestAbsValue = Float.MAX_VALUE;
+
+            // normal distribution to calculate change of income
+            for (int i = 0; i < prob.length; i++) {
+                int change = lowerBound + (upperBound - lowerBound) / (prob.length-1) * i;
+                if (Math.abs(change) < smallestAbsValue) {
+                    smallestAbsValuePos = i;
+                    smallestAbsValue = Math.abs(change);
+                }
+                normal.setState(change, meanIncomeChange);
+                prob[i] = normal.pdf(desiredShift);
+            }
+            prob[smallestAbsValuePos] = prob[smallestAbsValuePos] * 10;   // make no change most likely
+            int sel = SiloUtil.select(prob, random);
+            return Math.max((person.getAnnualIncome() + lowerBound + (upperBound - lowerBound) / prob.length * sel), 0);
+        }
+
+        private float getDesiredShift(Person person) {
+            int gender = person.getGender().ordinal();
+            int age = Math.min(99, person.getAge());
+            int occ = 0;
+            if (person.getOccupation() == Occupation.EMPLOYED) {
+                occ = 1;
+            }
+            return initialIncomeDistribution[gender][age][occ] - currentIncomeDistribution[gender][age][occ];
         }
-        return initialIncomeDistribution[gender][age][occ] - currentIncomeDistribution[gender][age][occ];
     }
 }
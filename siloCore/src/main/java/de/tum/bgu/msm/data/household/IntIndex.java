@@ -0,0 +1,127 @@
+package de.tum.bgu.msm.data.household;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from int ids to int slots with linear probing. Removal uses backward shifting,
+ * so no tombstones accumulate. {@link Integer#MIN_VALUE} is reserved as empty key. Not thread safe.
+ */
+final class IntIndex {
+
+    static final int MISSING = -1;
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    IntIndex(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the slot stored for the given id or {@link #MISSING}
+     */
+    int get(int key) {
+        int index = hash(key) & mask;
+        int current;
+        while ((current = keys[index]) != EMPTY) {
+            if (current == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return the slot previously stored for the given id or {@link #MISSING}
+     */
+    int put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Id " + key + " is reserved.");
+        }
+        int index = hash(key) & mask;
+        int current;
+        while ((current = keys[index]) != EMPTY) {
+            if (current == key) {
+                final int previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return the slot stored for the removed id or {@link #MISSING}
+     */
+    int remove(int key) {
+        int index = hash(key) & mask;
+        int current;
+        while ((current = keys[index]) != EMPTY) {
+            if (current == key) {
+                final int removed = values[index];
+                shiftBack(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            final int key = keys[index];
+            if (key == EMPTY) {
+                keys[gap] = EMPTY;
+                return;
+            }
+            final int home = hash(key) & mask;
+            // move the entry into the gap unless its home lies cyclically in (gap, index]
+            if (gap <= index ? (home <= gap || home > index) : (home <= gap && home > index)) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+    }
+
+    private void rehash() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        final int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,107 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.data.person.PersonType;
+
+import java.util.Iterator;
+
+/**
+ * Forward only scan over the attributes of all persons. Scans that only need these attributes do not have to
+ * touch person objects, which lets {@link ColumnarHouseholdData} sweep over its columns. Persons are visited in
+ * the iteration order of {@link HouseholdData#getPersons()}. The population must not change during a scan.
+ */
+public interface PersonCursor {
+
+    /**
+     * Moves to the next person.
+     * @return false if all persons were visited
+     */
+    boolean next();
+
+    int getId();
+
+    int getAge();
+
+    Gender getGender();
+
+    Occupation getOccupation();
+
+    PersonRole getRole();
+
+    PersonType getType();
+
+    int getJobId();
+
+    int getAnnualIncome();
+
+    /**
+     * @return the id of the household of the current person or -1 if the person has no household
+     */
+    int getHouseholdId();
+
+    /**
+     * @return a cursor reading the attributes of the given person objects
+     */
+    static PersonCursor over(Iterable<? extends Person> persons) {
+        final Iterator<? extends Person> iterator = persons.iterator();
+        return new PersonCursor() {
+
+            private Person person;
+
+            @Override
+            public boolean next() {
+                person = iterator.hasNext() ? iterator.next() : null;
+                return person != null;
+            }
+
+            @Override
+            public int getId() {
+                return person.getId();
+            }
+
+            @Override
+            public int getAge() {
+                return person.getAge();
+            }
+
+            @Override
+            public Gender getGender() {
+                return person.getGender();
+            }
+
+            @Override
+            public Occupation getOccupation() {
+                return person.getOccupation();
+            }
+
+            @Override
+            public PersonRole getRole() {
+                return person.getRole();
+            }
+
+            @Override
+            public PersonType getType() {
+                return person.getType();
+            }
+
+            @Override
+            public int getJobId() {
+                return person.getJobId();
+            }
+
+            @Override
+            public int getAnnualIncome() {
+                return person.getAnnualIncome();
+            }
+
+            @Override
+            public int getHouseholdId() {
+                final Household household = person.getHousehold();
+                return household == null ? -1 : household.getId();
+            }
+        };
+    }
+}
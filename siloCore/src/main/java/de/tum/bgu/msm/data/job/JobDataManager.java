@@ -19,6 +19,8 @@ public interface JobDataManager extends ModelUpdateListener {
 
     List<Integer> getNextJobIds(int amount);
 
+    int getHighestJobIdInUse();
+
     float getJobForecast(int year, int zone, String jobType);
 
     void quitJob(boolean makeJobAvailableToOthers, Person person);
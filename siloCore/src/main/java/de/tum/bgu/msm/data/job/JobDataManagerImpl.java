@@ -61,7 +61,13 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
 
     private int highestJobIdInUse;
 
-    private final Map<Integer, List<Job>> vacantJobsByRegion = new LinkedHashMap<>();
+    /**
+     * Number of attempts to draw the region of a new job by rejection before falling back to evaluating all regions.
+     */
+    private static final int MAX_REGION_REJECTIONS = 32;
+
+    private VacantJobMarket vacantJobs;
+    private final Map<Integer, double[]> commutingProbabilitiesByHomeZone = new ConcurrentHashMap<>();
     private final Map<Integer, Double> zonalJobDensity;
 
     private final Map<Integer, Map<Integer,Map<String,Float>>> jobsByYearByZoneByIndustry = new ConcurrentHashMap<>();
@@ -88,6 +94,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     @Override
     public void prepareYear(int year) {
         calculateJobDensityByZone();
+        commutingProbabilitiesByHomeZone.clear();
     }
 
     @Override
@@ -115,6 +122,10 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     
     @Override
     public void removeJob(int id) {
+        final Job job = jobData.get(id);
+        if (job != null && vacantJobs != null) {
+            vacantJobs.remove(job);
+        }
         jobData.removeJob(id);
     }
 
@@ -141,6 +152,11 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
         return ids;
     }
 
+    @Override
+    public int getHighestJobIdInUse() {
+        return highestJobIdInUse;
+    }
+
     private void calculateEmploymentForecast() {
         if (properties.jobData.jobForecastMethod.equals(JobDataProperties.JobForecastMethod.INTERPOLATION)) {
             interpolateEmploymentForecast();
@@ -295,12 +311,10 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
      */
     private void identifyVacantJobs() {
         logger.info("  Identifying vacant jobs");
+        vacantJobs = new VacantJobMarket(geoData.getRegions().values());
         for (Job jj : jobData.getJobs()) {
             if (jj.getWorkerId() == -1) {
-                int region = geoData.getZones().get(jj.getZoneId()).getRegion().getId();
-
-                vacantJobsByRegion.putIfAbsent(region, new ArrayList<>());
-                vacantJobsByRegion.get(region).add(jj);
+                vacantJobs.add(jj, getRegionId(jj));
 
                 if (jj.getId() == SiloUtil.trackJj) {
                     SiloUtil.trackWriter.println("Added job " + jj.getId() + " to list of vacant jobs.");
@@ -333,24 +347,98 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     }
     
     private int getNumberOfVacantJobsByRegion(int region) {
-        return vacantJobsByRegion.getOrDefault(region, Collections.EMPTY_LIST).size();
+        return vacantJobs.countInRegion(region);
     }
-    
+
+    /**
+     * Selects a region proportionally to its number of vacant jobs weighted by the commuting time probability from
+     * the home zone, then a vacant job within that region. As the number of vacant jobs by region is kept in a
+     * Fenwick tree, the region is first drawn by vacancies only and accepted with its commuting time probability
+     * relative to the highest one of the home zone (rejection sampling). Only if this fails repeatedly, all regions
+     * are evaluated.
+     */
     @Override
     public Job findVacantJob(Zone homeZone, Collection<Region> regions) {
         // select vacant job for person living in homeZone
+        final Random random = SiloUtil.getRandomObject();
+
+        int selectedRegion = -1;
+        if (regions.size() == vacantJobs.numberOfRegions()) {
+            if (homeZone != null) {
+                selectedRegion = sampleRegionByRejection(homeZone, random);
+            } else {
+                // person has no home location because (s)he is inmigrating right now and a dwelling has not been chosen yet
+                final int index = vacantJobs.sampleRegionIndexByVacancies(random);
+                if (index < 0) {
+                    logger.warn("No jobs remaining. Could not find new job.");
+                    return null;
+                }
+                selectedRegion = vacantJobs.regionId(index);
+            }
+        }
+        if (selectedRegion == -1) {
+            selectedRegion = sampleRegionFromAllRegions(homeZone, regions, random);
+            if (selectedRegion == -1) {
+                return null;
+            }
+        }
+
+        Job selectedJob = vacantJobs.takeRandomJob(selectedRegion, random);
+
+        if (selectedJob.getId() == SiloUtil.trackJj) {
+            SiloUtil.trackWriter.println("Removed job " + selectedJob.getId() + " from list of vacant jobs.");
+        }
+        return selectedJob;
+    }
 
-        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, SiloUtil.getRandomObject());
+    private int sampleRegionByRejection(Zone homeZone, Random random) {
+        final double[] probabilities = getCommutingProbabilities(homeZone);
+        final double maxProbability = probabilities[probabilities.length - 1];
+        if (maxProbability <= 0) {
+            return -1;
+        }
+        for (int attempt = 0; attempt < MAX_REGION_REJECTIONS; attempt++) {
+            final int index = vacantJobs.sampleRegionIndexByVacancies(random);
+            if (index < 0) {
+                return -1;
+            }
+            if (random.nextDouble() * maxProbability < probabilities[index]) {
+                return vacantJobs.regionId(index);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return commuting time probabilities from the home zone by region index, followed by their maximum
+     */
+    private double[] getCommutingProbabilities(Zone homeZone) {
+        return commutingProbabilitiesByHomeZone.computeIfAbsent(homeZone.getZoneId(), id -> {
+            final double[] probabilities = new double[vacantJobs.numberOfRegions() + 1];
+            double max = 0;
+            for (int index = 0; index < vacantJobs.numberOfRegions(); index++) {
+                final Region region = geoData.getRegions().get(vacantJobs.regionId(index));
+                int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, region,
+                        properties.transportModel.peakHour_s, TransportMode.car) + 0.5) / 60.);
+                //todo make region probability sensitve to mode choice to find a vacant job
+                probabilities[index] = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, travelTime_min), TransportMode.car);
+                max = Math.max(max, probabilities[index]);
+            }
+            probabilities[probabilities.length - 1] = max;
+            return probabilities;
+        });
+    }
+
+    private int sampleRegionFromAllRegions(Zone homeZone, Collection<Region> regions, Random random) {
+        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, random);
 
         if (homeZone != null) {
             // person has home location (i.e., is not inmigrating right now)
+            final double[] probabilities = getCommutingProbabilities(homeZone);
             for (Region reg : regions) {
                 int numberOfVacantJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfVacantJobs > 0) {
-                    int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, reg,
-                            properties.transportModel.peakHour_s, TransportMode.car) + 0.5) / 60.);
-                    //todo make region probability sensitve to mode choice to find a vacant job
-                    final double prob = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, travelTime_min), TransportMode.car) * (double) numberOfVacantJobs;
+                    final double prob = probabilities[vacantJobs.regionIndex(reg.getId())] * (double) numberOfVacantJobs;
                     regionSampler.incrementalAdd(reg, prob);
                 }
             }
@@ -366,7 +454,6 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
                 }
             }
         } else {
-            // person has no home location because (s)he is inmigrating right now and a dwelling has not been chosen yet
             for (Region reg : regions) {
                 int numberOfJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfJobs > 0) {
@@ -377,22 +464,14 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
 
         if (regionSampler.getCumulatedProbability() == 0) {
             logger.warn("No jobs remaining. Could not find new job.");
-            return null;
+            return -1;
         }
-        int selectedRegion = -1;
         try {
-            selectedRegion = regionSampler.sampleObject().getId();
+            return regionSampler.sampleObject().getId();
         } catch (SampleException e) {
             e.printStackTrace();
+            return -1;
         }
-
-        List<Job> eligibleJobs = vacantJobsByRegion.get(selectedRegion);
-        Job selectedJob = eligibleJobs.remove(SiloUtil.getRandomObject().nextInt(eligibleJobs.size()));
-
-        if (selectedJob.getId() == SiloUtil.trackJj) {
-            SiloUtil.trackWriter.println("Removed job " + selectedJob.getId() + " from list of vacant jobs.");
-        }
-        return selectedJob;
     }
 
 
@@ -401,17 +480,16 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
      * @param job
      */
     private void addJobToVacancyList(Job job) {
-
-        int region = geoData.getZones().get(job.getZoneId()).getRegion().getId();
-        vacantJobsByRegion.putIfAbsent(region, new ArrayList<>());
-        vacantJobsByRegion.get(region).add(job);
+        vacantJobs.add(job, getRegionId(job));
 
         if (job.getId() == SiloUtil.trackJj) {
             SiloUtil.trackWriter.println("Added job " + job.getId() + " to list of vacant jobs.");
         }
-        }
-
+    }
 
+    private int getRegionId(Job job) {
+        return geoData.getZones().get(job.getZoneId()).getRegion().getId();
+    }
 
 
     private void calculateJobDensityByZone() {
@@ -442,6 +520,9 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     @Override
     public void addJob(Job jj) {
         this.jobData.addJob(jj);
+        if (vacantJobs != null && jj.getWorkerId() == -1) {
+            addJobToVacancyList(jj);
+        }
     }
 
     @Override
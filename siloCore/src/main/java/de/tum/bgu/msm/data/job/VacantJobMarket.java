@@ -0,0 +1,124 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.utils.FenwickTree;
+
+import java.util.*;
+
+/**
+ * Vacant jobs by region. Jobs of a region are kept in an array together with their position, so jobs are
+ * added and removed (by swapping with the last element) in constant time. The number of vacancies by region
+ * is kept in a {@link FenwickTree}, so a region can be drawn proportionally to its vacancies in O(log R).
+ * All methods are synchronized as jobs are added and removed concurrently by the employment forecast.
+ */
+final class VacantJobMarket {
+
+    private final Map<Integer, Integer> regionIndexById = new HashMap<>();
+    private final int[] regionIds;
+    private final RegionJobs[] jobsByRegion;
+    private final FenwickTree vacanciesByRegion;
+
+    private final Map<Integer, Integer> regionIndexByJob = new HashMap<>();
+
+    VacantJobMarket(Collection<Region> regions) {
+        regionIds = new int[regions.size()];
+        jobsByRegion = new RegionJobs[regions.size()];
+        int index = 0;
+        for (Region region : regions) {
+            regionIds[index] = region.getId();
+            regionIndexById.put(region.getId(), index);
+            jobsByRegion[index] = new RegionJobs();
+            index++;
+        }
+        vacanciesByRegion = new FenwickTree(regions.size());
+    }
+
+    int numberOfRegions() {
+        return regionIds.length;
+    }
+
+    int regionIndex(int regionId) {
+        return regionIndexById.get(regionId);
+    }
+
+    int regionId(int regionIndex) {
+        return regionIds[regionIndex];
+    }
+
+    /**
+     * @return false if the job was already vacant
+     */
+    synchronized boolean add(Job job, int regionId) {
+        final int region = regionIndex(regionId);
+        if (regionIndexByJob.putIfAbsent(job.getId(), region) != null) {
+            return false;
+        }
+        jobsByRegion[region].add(job);
+        vacanciesByRegion.add(region, 1);
+        return true;
+    }
+
+    /**
+     * @return false if the job was not vacant
+     */
+    synchronized boolean remove(Job job) {
+        final Integer region = regionIndexByJob.remove(job.getId());
+        if (region == null) {
+            return false;
+        }
+        jobsByRegion[region].remove(job);
+        vacanciesByRegion.add(region, -1);
+        return true;
+    }
+
+    /**
+     * Removes and returns a uniformly drawn vacant job of the given region.
+     */
+    synchronized Job takeRandomJob(int regionId, Random random) {
+        final RegionJobs jobs = jobsByRegion[regionIndex(regionId)];
+        if (jobs.size == 0) {
+            return null;
+        }
+        final Job job = jobs.jobs[random.nextInt(jobs.size)];
+        remove(job);
+        return job;
+    }
+
+    /**
+     * Draws a region index with a probability proportional to the number of vacant jobs in the region.
+     * @return the region index or -1 if there are no vacant jobs
+     */
+    synchronized int sampleRegionIndexByVacancies(Random random) {
+        return vacanciesByRegion.sample(random);
+    }
+
+    synchronized int countInRegion(int regionId) {
+        final Integer index = regionIndexById.get(regionId);
+        return index == null ? 0 : jobsByRegion[index].size;
+    }
+
+    private static final class RegionJobs {
+
+        private Job[] jobs = new Job[16];
+        private int size = 0;
+        private final Map<Integer, Integer> positions = new HashMap<>();
+
+        private void add(Job job) {
+            if (size == jobs.length) {
+                jobs = Arrays.copyOf(jobs, size * 2);
+            }
+            positions.put(job.getId(), size);
+            jobs[size++] = job;
+        }
+
+        private void remove(Job job) {
+            final int position = positions.remove(job.getId());
+            final Job last = jobs[--size];
+            jobs[size] = null;
+            if (position != size) {
+                jobs[position] = last;
+                positions.put(last.getId(), position);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Buffered binary input on a file channel, counterpart of {@link ChannelOutput}.
+ */
+final class ChannelInput implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel file;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ReadableByteChannel channel;
+
+    ChannelInput(Path path) throws IOException {
+        this.file = FileChannel.open(path, StandardOpenOption.READ);
+        this.channel = file;
+        buffer.limit(0);
+    }
+
+    /**
+     * Reads and validates the header.
+     * @return the year of the checkpoint
+     */
+    int readHeader() throws IOException {
+        final int headerSize = Long.BYTES + 2 * Integer.BYTES + 1;
+        // read the header only, so that the remaining bytes can be passed through decompression
+        final ByteBuffer header = ByteBuffer.allocate(headerSize);
+        while (header.hasRemaining()) {
+            if (file.read(header) < 0) {
+                throw new EOFException("Incomplete checkpoint header");
+            }
+        }
+        header.flip();
+        if (header.getLong() != Checkpoint.MAGIC) {
+            throw new IOException("Not a SILO checkpoint file");
+        }
+        final int version = header.getInt();
+        if (version != Checkpoint.VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        final int year = header.getInt();
+        if (header.get() == 1) {
+            channel = Channels.newChannel(new GZIPInputStream(Channels.newInputStream(file), BUFFER_SIZE));
+        }
+        return year;
+    }
+
+    int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    double getDouble() throws IOException {
+        ensure(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    boolean getBoolean() throws IOException {
+        ensure(1);
+        return buffer.get() == 1;
+    }
+
+    String getString() throws IOException {
+        return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+    byte[] getBytes() throws IOException {
+        final byte[] bytes = new byte[getInt()];
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of checkpoint file");
+            }
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        file.close();
+    }
+}
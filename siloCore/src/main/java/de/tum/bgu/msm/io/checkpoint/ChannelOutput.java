@@ -0,0 +1,98 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffered binary output on a file channel. The header written via {@link #writeHeader(int)}
+ * is never compressed, everything afterwards optionally is.
+ */
+final class ChannelOutput implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel file;
+    private final boolean compress;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private WritableByteChannel channel;
+
+    ChannelOutput(Path path, boolean compress) throws IOException {
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.compress = compress;
+        this.channel = file;
+    }
+
+    void writeHeader(int year) throws IOException {
+        buffer.putLong(Checkpoint.MAGIC);
+        buffer.putInt(Checkpoint.VERSION);
+        buffer.putInt(year);
+        buffer.put((byte) (compress ? 1 : 0));
+        flush();
+        if (compress) {
+            channel = Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(file), BUFFER_SIZE));
+        }
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putDouble(double value) throws IOException {
+        ensure(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    void putBoolean(boolean value) throws IOException {
+        ensure(1);
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    void putString(String value) throws IOException {
+        putBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+        putInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+        file.close();
+    }
+}
@@ -0,0 +1,576 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.development.Development;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.household.ColumnarHouseholdData;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.household.HouseholdFactory;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobFactory;
+import de.tum.bgu.msm.data.job.JobFactoryImpl;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
+import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import de.tum.bgu.msm.utils.RandomStreams;
+import de.tum.bgu.msm.utils.RestorableRandom;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
+import org.matsim.api.core.v01.TransportMode;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Binary snapshot of the data container between two simulation years. A checkpoint consists of three files:
+ * <ul>
+ *     <li>population.bin: households, persons, dwellings and jobs. Read via {@link #readPopulation(String)}
+ *     instead of the synthetic population csv files, i.e. before the data container is set up.</li>
+ *     <li>state.bin: size of the population, id counters, development capacities and skims.
+ *     Restored via {@link #restoreState(String)} once the data container is set up.</li>
+ *     <li>random.bin: state of the global random number generators and of the random objects of the models.
+ *     Restored via {@link #restoreRandomState(String)} once the models are set up.</li>
+ * </ul>
+ * Vacancy lists are not stored explicitly but rebuilt from dwelling and job occupancy during setup.
+ * Only attributes defined in the core interfaces are stored, plus the person and job attributes of the given
+ * {@link CheckpointAttributes}. Use cases with their own person or job factories have to provide these, otherwise
+ * checkpoints are refused, as are checkpoints of dwellings of other factories. Other use case data (e.g. schools)
+ * is not part of the checkpoint.
+ */
+public final class Checkpoint {
+
+    private final static Logger logger = Logger.getLogger(Checkpoint.class);
+
+    static final long MAGIC = 0x53494c4f434b5054L; // "SILOCKPT"
+    static final int VERSION = 2;
+
+    private static final String POPULATION_FILE = "population.bin";
+    private static final String STATE_FILE = "state.bin";
+    private static final String RANDOM_FILE = "random.bin";
+    private static final String[] SKIM_MODES = {TransportMode.car, TransportMode.pt};
+
+    private final DataContainer dataContainer;
+    private final CheckpointAttributes attributes;
+    private final ModelContainer modelContainer;
+
+    public Checkpoint(DataContainer dataContainer) {
+        this(dataContainer, CheckpointAttributes.NONE);
+    }
+
+    public Checkpoint(DataContainer dataContainer, CheckpointAttributes attributes) {
+        this(dataContainer, attributes, null);
+    }
+
+    /**
+     * @param modelContainer models whose random objects are stored and restored, may be null
+     */
+    public Checkpoint(DataContainer dataContainer, CheckpointAttributes attributes, ModelContainer modelContainer) {
+        this.dataContainer = dataContainer;
+        this.attributes = attributes;
+        this.modelContainer = modelContainer;
+    }
+
+    /**
+     * Writes the current state of the data container as the state at the beginning of the given year.
+     */
+    public void write(String directory, int year, boolean compress) {
+        logger.info("Writing checkpoint for year " + year + " to " + directory);
+        checkFactories();
+        final long start = System.currentTimeMillis();
+        try {
+            final Path path = Paths.get(directory);
+            Files.createDirectories(path);
+            try (ChannelOutput out = new ChannelOutput(path.resolve(POPULATION_FILE), compress)) {
+                out.writeHeader(year);
+                writeHouseholds(out);
+                writePersons(out);
+                writeDwellings(out);
+                writeJobs(out);
+            }
+            try (ChannelOutput out = new ChannelOutput(path.resolve(STATE_FILE), compress)) {
+                out.writeHeader(year);
+                writePopulationSize(out);
+                writeIdCounters(out);
+                writeDevelopment(out);
+                writeSkims(out);
+            }
+            try (ChannelOutput out = new ChannelOutput(path.resolve(RANDOM_FILE), compress)) {
+                out.writeHeader(year);
+                writeRandomState(out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write checkpoint to " + directory, e);
+        }
+        logger.info("Finished writing checkpoint in " + (System.currentTimeMillis() - start) / 1000. + " seconds.");
+    }
+
+    /**
+     * Adds households, persons, dwellings and jobs of the checkpoint to the (empty) data container.
+     */
+    public void readPopulation(String directory) {
+        logger.info("Reading households, persons, dwellings and jobs from checkpoint " + directory);
+        checkFactories();
+        try (ChannelInput in = new ChannelInput(Paths.get(directory).resolve(POPULATION_FILE))) {
+            final int year = in.readHeader();
+            readHouseholds(in);
+            readPersons(in);
+            readDwellings(in);
+            readJobs(in);
+            logger.info("Read population of year " + year + " from checkpoint.");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read checkpoint from " + directory, e);
+        }
+    }
+
+    /**
+     * Restores id counters, development capacities and skims, and updates the commute probabilities derived from
+     * the skims. Has to be called after the data container is set up, as the setup re-initializes these from the
+     * input files.
+     * @throws IllegalStateException if the population of the data container was not read from this checkpoint
+     */
+    public void restoreState(String directory) {
+        logger.info("Restoring model state from checkpoint " + directory);
+        try (ChannelInput in = new ChannelInput(Paths.get(directory).resolve(STATE_FILE))) {
+            in.readHeader();
+            checkPopulationSize(in);
+            restoreIdCounters(in);
+            restoreDevelopment(in);
+            restoreSkims(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not restore checkpoint from " + directory, e);
+        }
+    }
+
+    /**
+     * Restores the global random number generators and the random objects of the models. Has to be called after
+     * the models are set up, as the setup may draw random numbers.
+     */
+    public void restoreRandomState(String directory) {
+        logger.info("Restoring random number generators from checkpoint " + directory);
+        try (ChannelInput in = new ChannelInput(Paths.get(directory).resolve(RANDOM_FILE))) {
+            in.readHeader();
+            restoreRandomState(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not restore checkpoint from " + directory, e);
+        }
+    }
+
+    /**
+     * Persons and jobs of other factories may carry attributes that would silently be lost without
+     * {@link CheckpointAttributes}. There are no use case specific attributes of dwellings.
+     */
+    private void checkFactories() {
+        final DwellingFactory dwellingFactory = dataContainer.getRealEstateDataManager().getDwellingFactory();
+        if (dwellingFactory.getClass() != DwellingFactoryImpl.class) {
+            throw new IllegalStateException("Checkpoints of dwellings of " + dwellingFactory.getClass().getSimpleName()
+                    + " are not supported.");
+        }
+        if (attributes != CheckpointAttributes.NONE) {
+            return;
+        }
+        final PersonFactory personFactory = dataContainer.getHouseholdDataManager().getPersonFactory();
+        final JobFactory jobFactory = dataContainer.getJobDataManager().getFactory();
+        final boolean corePersons = personFactory.getClass() == PersonFactoryImpl.class
+                || ColumnarHouseholdData.isColumnarPersonFactory(personFactory);
+        if (!corePersons || jobFactory.getClass() != JobFactoryImpl.class) {
+            throw new IllegalStateException("Checkpoints of persons of " + personFactory.getClass().getSimpleName()
+                    + " and jobs of " + jobFactory.getClass().getSimpleName()
+                    + " require the use case specific CheckpointAttributes.");
+        }
+    }
+
+    private void writeHouseholds(ChannelOutput out) throws IOException {
+        final Collection<Household> households = dataContainer.getHouseholdDataManager().getHouseholds();
+        out.putInt(households.size());
+        for (Household household : households) {
+            out.putInt(household.getId());
+            out.putInt(household.getDwellingId());
+            out.putInt(household.getAutos());
+        }
+    }
+
+    private void readHouseholds(ChannelInput in) throws IOException {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        final HouseholdFactory factory = householdDataManager.getHouseholdFactory();
+        final int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            householdDataManager.addHousehold(factory.createHousehold(in.getInt(), in.getInt(), in.getInt()));
+        }
+    }
+
+    private void writePersons(ChannelOutput out) throws IOException {
+        final Collection<Person> persons = dataContainer.getHouseholdDataManager().getPersons();
+        out.putInt(persons.size());
+        out.putInt(attributes.getNumberOfPersonAttributes());
+        final int[] values = new int[attributes.getNumberOfPersonAttributes()];
+        for (Person person : persons) {
+            out.putInt(person.getId());
+            out.putInt(person.getHousehold().getId());
+            out.putInt(person.getAge());
+            out.putInt(person.getGender().getCode());
+            out.putInt(person.getOccupation().getCode());
+            out.putInt(person.getRole().ordinal());
+            out.putInt(person.getJobId());
+            out.putInt(person.getAnnualIncome());
+            out.putBoolean(person.hasDriverLicense());
+            attributes.writePersonAttributes(person, values);
+            for (int value : values) {
+                out.putInt(value);
+            }
+        }
+    }
+
+    private void readPersons(ChannelInput in) throws IOException {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        final PersonFactory factory = householdDataManager.getPersonFactory();
+        final PersonRole[] roles = PersonRole.values();
+        final int size = in.getInt();
+        final int[] values = readAttributeCount(in, attributes.getNumberOfPersonAttributes(), "person");
+        for (int i = 0; i < size; i++) {
+            final int id = in.getInt();
+            final Household household = householdDataManager.getHouseholdFromId(in.getInt());
+            final int age = in.getInt();
+            final Gender gender = Gender.valueOf(in.getInt());
+            final Occupation occupation = Occupation.valueOf(in.getInt());
+            final PersonRole role = roles[in.getInt()];
+            final int jobId = in.getInt();
+            final int income = in.getInt();
+            final Person person = factory.createPerson(id, age, gender, occupation, role, jobId, income);
+            person.setDriverLicense(in.getBoolean());
+            for (int v = 0; v < values.length; v++) {
+                values[v] = in.getInt();
+            }
+            attributes.readPersonAttributes(person, values);
+            householdDataManager.addPerson(person);
+            householdDataManager.addPersonToHousehold(person, household);
+        }
+    }
+
+    private void writeDwellings(ChannelOutput out) throws IOException {
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final List<DwellingType> types = realEstate.getDwellingTypes();
+        final Collection<Dwelling> dwellings = realEstate.getDwellings();
+        out.putInt(dwellings.size());
+        for (Dwelling dwelling : dwellings) {
+            out.putInt(dwelling.getId());
+            out.putInt(dwelling.getZoneId());
+            writeCoordinate(out, dwelling.getCoordinate());
+            out.putInt(dwelling.getResidentId());
+            out.putInt(types.indexOf(dwelling.getType()));
+            out.putInt(dwelling.getBedrooms());
+            out.putInt(dwelling.getQuality());
+            out.putInt(dwelling.getPrice());
+            out.putInt(dwelling.getYearBuilt());
+            out.putInt(dwelling.getFloorSpace());
+            out.putInt(dwelling.getUsage().ordinal());
+        }
+    }
+
+    private void readDwellings(ChannelInput in) throws IOException {
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final DwellingFactory factory = realEstate.getDwellingFactory();
+        final List<DwellingType> types = realEstate.getDwellingTypes();
+        final DwellingUsage[] usages = DwellingUsage.values();
+        final int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            final int id = in.getInt();
+            final int zoneId = in.getInt();
+            final Coordinate coordinate = readCoordinate(in);
+            final int residentId = in.getInt();
+            final DwellingType type = types.get(in.getInt());
+            final int bedrooms = in.getInt();
+            final int quality = in.getInt();
+            final int price = in.getInt();
+            final int yearBuilt = in.getInt();
+            final Dwelling dwelling = factory.createDwelling(id, zoneId, coordinate, residentId, type, bedrooms, quality, price, yearBuilt);
+            dwelling.setFloorSpace(in.getInt());
+            dwelling.setUsage(usages[in.getInt()]);
+            realEstate.addDwelling(dwelling);
+        }
+    }
+
+    private void writeJobs(ChannelOutput out) throws IOException {
+        final Collection<Job> jobs = dataContainer.getJobDataManager().getJobs();
+        out.putInt(jobs.size());
+        out.putInt(attributes.getNumberOfJobAttributes());
+        final int[] values = new int[attributes.getNumberOfJobAttributes()];
+        for (Job job : jobs) {
+            out.putInt(job.getId());
+            out.putInt(job.getZoneId());
+            writeCoordinate(out, job.getCoordinate());
+            out.putInt(job.getWorkerId());
+            out.putString(job.getType());
+            attributes.writeJobAttributes(job, values);
+            for (int value : values) {
+                out.putInt(value);
+            }
+        }
+    }
+
+    private void readJobs(ChannelInput in) throws IOException {
+        final JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        final int size = in.getInt();
+        final int[] values = readAttributeCount(in, attributes.getNumberOfJobAttributes(), "job");
+        for (int i = 0; i < size; i++) {
+            final int id = in.getInt();
+            final int zoneId = in.getInt();
+            final Coordinate coordinate = readCoordinate(in);
+            final int workerId = in.getInt();
+            final String type = in.getString();
+            final Job job = jobDataManager.getFactory().createJob(id, zoneId, coordinate, workerId, type);
+            for (int v = 0; v < values.length; v++) {
+                values[v] = in.getInt();
+            }
+            attributes.readJobAttributes(job, values);
+            jobDataManager.addJob(job);
+        }
+    }
+
+    private static int[] readAttributeCount(ChannelInput in, int expected, String entity) throws IOException {
+        final int stored = in.getInt();
+        if (stored != expected) {
+            throw new IllegalStateException("Checkpoint stores " + stored + " attributes per " + entity
+                    + " but " + expected + " are expected.");
+        }
+        return new int[stored];
+    }
+
+    private void writePopulationSize(ChannelOutput out) throws IOException {
+        out.putInt(dataContainer.getHouseholdDataManager().getHouseholds().size());
+        out.putInt(dataContainer.getHouseholdDataManager().getPersons().size());
+        out.putInt(dataContainer.getRealEstateDataManager().getDwellings().size());
+        out.putInt(dataContainer.getJobDataManager().getJobs().size());
+    }
+
+    /**
+     * Fails if the data builder of the use case read the synthetic population instead of the population of the
+     * checkpoint, as the restored state would not match the population.
+     */
+    private void checkPopulationSize(ChannelInput in) throws IOException {
+        final int households = in.getInt();
+        final int persons = in.getInt();
+        final int dwellings = in.getInt();
+        final int jobs = in.getInt();
+        if (households != dataContainer.getHouseholdDataManager().getHouseholds().size()
+                || persons != dataContainer.getHouseholdDataManager().getPersons().size()
+                || dwellings != dataContainer.getRealEstateDataManager().getDwellings().size()
+                || jobs != dataContainer.getJobDataManager().getJobs().size()) {
+            throw new IllegalStateException("The checkpoint holds " + households + " households, " + persons
+                    + " persons, " + dwellings + " dwellings and " + jobs + " jobs, which differs from the data container."
+                    + " The data builder of the use case has to read the population via Checkpoint#readPopulation"
+                    + " when resuming from a checkpoint.");
+        }
+    }
+
+    private void writeIdCounters(ChannelOutput out) throws IOException {
+        out.putInt(dataContainer.getHouseholdDataManager().getHighestHouseholdIdInUse());
+        out.putInt(dataContainer.getHouseholdDataManager().getHighestPersonIdInUse());
+        out.putInt(dataContainer.getRealEstateDataManager().getHighestDwellingIdInUse());
+        out.putInt(dataContainer.getJobDataManager().getHighestJobIdInUse());
+    }
+
+    /**
+     * Counters are re-initialized from the highest ids in use during setup and may only increase,
+     * so they are advanced until they reach the stored value.
+     */
+    private void restoreIdCounters(ChannelInput in) throws IOException {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        final int highestHouseholdId = in.getInt();
+        while (householdDataManager.getHighestHouseholdIdInUse() < highestHouseholdId) {
+            householdDataManager.getNextHouseholdId();
+        }
+        final int highestPersonId = in.getInt();
+        while (householdDataManager.getHighestPersonIdInUse() < highestPersonId) {
+            householdDataManager.getNextPersonId();
+        }
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final int highestDwellingId = in.getInt();
+        while (realEstate.getHighestDwellingIdInUse() < highestDwellingId) {
+            realEstate.getNextDwellingId();
+        }
+        final JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        final int highestJobId = in.getInt();
+        if (jobDataManager.getHighestJobIdInUse() < highestJobId) {
+            jobDataManager.getNextJobIds(highestJobId - jobDataManager.getHighestJobIdInUse());
+        }
+    }
+
+    private void writeRandomState(ChannelOutput out) throws IOException {
+        writeRandom(out, (RestorableRandom) SiloUtil.getRandomObject());
+        out.putLong(SiloUtil.getRandomStreams().getSeed());
+        final Map<String, RestorableRandom> randoms = modelRandoms();
+        out.putInt(randoms.size());
+        for (Map.Entry<String, RestorableRandom> random : randoms.entrySet()) {
+            out.putString(random.getKey());
+            writeRandom(out, random.getValue());
+        }
+    }
+
+    private void restoreRandomState(ChannelInput in) throws IOException {
+        final long[] state = readRandom(in);
+        SiloUtil.restoreRandomObjects(state, new RandomStreams(in.getLong()));
+        final Map<String, RestorableRandom> randoms = modelRandoms();
+        final int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            final String model = in.getString();
+            final RestorableRandom random = randoms.remove(model);
+            final long[] modelState = readRandom(in);
+            if (random == null) {
+                logger.warn("The checkpoint holds the random state of " + model + ", which is not part of this run.");
+            } else {
+                random.setState(modelState);
+            }
+        }
+        for (String model : randoms.keySet()) {
+            logger.warn("The checkpoint holds no random state of " + model + ". Its random numbers will differ.");
+        }
+    }
+
+    /**
+     * Random objects of the models by model class name. Random objects that are shared by models or that were not
+     * provided by {@link SiloUtil#provideNewRandom()} are not included.
+     */
+    private Map<String, RestorableRandom> modelRandoms() {
+        final Map<String, RestorableRandom> randoms = new LinkedHashMap<>();
+        if (modelContainer == null) {
+            return randoms;
+        }
+        final List<Object> models = new ArrayList<>(modelContainer.getEventModels().values());
+        models.addAll(modelContainer.getModelUpdateListeners());
+        final Set<Random> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.add(SiloUtil.getRandomObject());
+        for (Object model : models) {
+            if (model instanceof AbstractModel) {
+                final Random random = ((AbstractModel) model).getRandom();
+                if (random instanceof RestorableRandom && visited.add(random)) {
+                    String name = model.getClass().getName();
+                    for (int n = 2; randoms.containsKey(name); n++) {
+                        name = model.getClass().getName() + "#" + n;
+                    }
+                    randoms.put(name, (RestorableRandom) random);
+                }
+            }
+        }
+        return randoms;
+    }
+
+    private static void writeRandom(ChannelOutput out, RestorableRandom random) throws IOException {
+        for (long value : random.getState()) {
+            out.putLong(value);
+        }
+    }
+
+    private static long[] readRandom(ChannelInput in) throws IOException {
+        return new long[]{in.getLong(), in.getLong(), in.getLong()};
+    }
+
+    private void writeDevelopment(ChannelOutput out) throws IOException {
+        final Collection<Zone> zones = dataContainer.getGeoData().getZones().values();
+        int count = 0;
+        for (Zone zone : zones) {
+            if (zone.getDevelopment() != null) {
+                count++;
+            }
+        }
+        out.putInt(count);
+        for (Zone zone : zones) {
+            final Development development = zone.getDevelopment();
+            if (development != null) {
+                out.putInt(zone.getZoneId());
+                out.putInt(development.getDwellingCapacity());
+                out.putDouble(development.getDevelopableArea());
+            }
+        }
+    }
+
+    private void restoreDevelopment(ChannelInput in) throws IOException {
+        final Map<Integer, Zone> zones = dataContainer.getGeoData().getZones();
+        final int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            final Development development = zones.get(in.getInt()).getDevelopment();
+            development.changeCapacityBy(in.getInt() - development.getDwellingCapacity());
+            development.changeAreaBy(in.getDouble() - development.getDevelopableArea());
+        }
+    }
+
+    private void writeSkims(ChannelOutput out) throws IOException {
+        // the data container hands out the travel times behind its wrapper
+        if (!(dataContainer.getTravelTimes() instanceof SkimTravelTimes)) {
+            out.putInt(0);
+            return;
+        }
+        final SkimTravelTimes travelTimes = (SkimTravelTimes) dataContainer.getTravelTimes();
+        final List<Zone> zones = sortedZones();
+        out.putInt(SKIM_MODES.length);
+        out.putInt(zones.size());
+        for (Zone zone : zones) {
+            out.putInt(zone.getZoneId());
+        }
+        for (String mode : SKIM_MODES) {
+            out.putString(mode);
+            final IndexedDoubleMatrix2D skim = travelTimes.getPeakSkim(mode);
+            for (Zone origin : zones) {
+                for (Zone destination : zones) {
+                    out.putDouble(skim.getIndexed(origin.getZoneId(), destination.getZoneId()));
+                }
+            }
+        }
+    }
+
+    private void restoreSkims(ChannelInput in) throws IOException {
+        final int modes = in.getInt();
+        if (modes == 0) {
+            return;
+        }
+        final Map<Integer, Zone> zonesById = dataContainer.getGeoData().getZones();
+        final List<Zone> zones = new ArrayList<>();
+        final int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            zones.add(zonesById.get(in.getInt()));
+        }
+        final SkimTravelTimes travelTimes = (SkimTravelTimes) dataContainer.getTravelTimes();
+        for (int m = 0; m < modes; m++) {
+            final String mode = in.getString();
+            final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+            for (Zone origin : zones) {
+                for (Zone destination : zones) {
+                    skim.setIndexed(origin.getZoneId(), destination.getZoneId(), in.getDouble());
+                }
+            }
+            travelTimes.updateSkimMatrix(skim, mode);
+        }
+        travelTimes.updateRegionalTravelTimes(dataContainer.getGeoData().getRegions().values(), zonesById.values());
+        // the commute probabilities were calculated from the skims read during setup
+        dataContainer.getCommuteProbabilityMatrix().update();
+    }
+
+    private List<Zone> sortedZones() {
+        final List<Zone> zones = new ArrayList<>(dataContainer.getGeoData().getZones().values());
+        zones.sort(Comparator.comparingInt(Zone::getZoneId));
+        return zones;
+    }
+
+    private static void writeCoordinate(ChannelOutput out, Coordinate coordinate) throws IOException {
+        out.putBoolean(coordinate != null);
+        if (coordinate != null) {
+            out.putDouble(coordinate.x);
+            out.putDouble(coordinate.y);
+        }
+    }
+
+    private static Coordinate readCoordinate(ChannelInput in) throws IOException {
+        if (in.getBoolean()) {
+            return new Coordinate(in.getDouble(), in.getDouble());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.person.Person;
+
+/**
+ * Use case specific attributes of persons and jobs that are stored in a {@link Checkpoint} in addition to the
+ * attributes of the core interfaces. Attributes are encoded as a fixed number of ints per person and per job.
+ */
+public interface CheckpointAttributes {
+
+    /**
+     * No additional attributes. Only valid for the default person and job factories.
+     */
+    CheckpointAttributes NONE = new CheckpointAttributes() {
+        @Override
+        public int getNumberOfPersonAttributes() {
+            return 0;
+        }
+
+        @Override
+        public void writePersonAttributes(Person person, int[] attributes) {
+        }
+
+        @Override
+        public void readPersonAttributes(Person person, int[] attributes) {
+        }
+
+        @Override
+        public int getNumberOfJobAttributes() {
+            return 0;
+        }
+
+        @Override
+        public void writeJobAttributes(Job job, int[] attributes) {
+        }
+
+        @Override
+        public void readJobAttributes(Job job, int[] attributes) {
+        }
+    };
+
+    int getNumberOfPersonAttributes();
+
+    /**
+     * Encodes the attributes of the person into the given array of length {@link #getNumberOfPersonAttributes()}.
+     */
+    void writePersonAttributes(Person person, int[] attributes);
+
+    /**
+     * Sets the attributes encoded by {@link #writePersonAttributes(Person, int[])} on a newly created person.
+     */
+    void readPersonAttributes(Person person, int[] attributes);
+
+    int getNumberOfJobAttributes();
+
+    /**
+     * Encodes the attributes of the job into the given array of length {@link #getNumberOfJobAttributes()}.
+     */
+    void writeJobAttributes(Job job, int[] attributes);
+
+    /**
+     * Sets the attributes encoded by {@link #writeJobAttributes(Job, int[])} on a newly created job.
+     */
+    void readJobAttributes(Job job, int[] attributes);
+}
@@ -5,19 +5,21 @@ import com.google.common.collect.Multiset;
 import com.google.common.math.Quantiles;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
-import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
+import de.tum.bgu.msm.data.household.PersonCursor;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobType;
 import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.MicroEvent;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
@@ -76,7 +78,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
     private void summarizePopulationByAgeAndGender() {
         int pers[][] = new int[2][101];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor per = dataContainer.getHouseholdDataManager().getPersonCursor(); per.next(); ) {
             Gender gender = per.getGender();
             int age = Math.min(per.getAge(), 100);
             pers[gender.ordinal()][age] += 1;
@@ -153,7 +155,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
     private void summarizeLabourParticipationRates() {
         float[][][] labP = new float[2][2][5];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor per = dataContainer.getHouseholdDataManager().getPersonCursor(); per.next(); ) {
             int age = per.getAge();
             Gender gender = per.getGender();
             boolean employed = per.getJobId() > 0;
@@ -186,19 +188,19 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
     private void summarizeAverageCommutingDistanceByRegion() {
         float[][] commDist = new float[2][dataContainer.getGeoData().getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt() + 1];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
+        final IndexedDoubleMatrix2D carSkim = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car);
+        for (PersonCursor per = dataContainer.getHouseholdDataManager().getPersonCursor(); per.next(); ) {
             boolean employed = per.getJobId() > 0;
             if (employed) {
-                Zone zone = null;
-                Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(per.getHousehold().getId());
+                Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(per.getHouseholdId());
                 Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
-                if (dwelling != null) {
-                    zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
-                }
-                Zone destination = dataContainer.getGeoData().getZones().get(dataContainer.getJobDataManager().getJobFromId(per.getJobId()).getZoneId());
-                double ds = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car).getIndexed(zone.getZoneId(), destination.getZoneId());
-                commDist[0][zone.getRegion().getId()] += ds;
-                commDist[1][zone.getRegion().getId()]++;
+                int zone = dwelling.getZoneId();
+                int destination = dataContainer.getJobDataManager().getJobFromId(per.getJobId()).getZoneId();
+                double ds = carSkim.getIndexed(zone, destination);
+                int region = geoIndex.getRegionOfZone(zone);
+                commDist[0][region] += ds;
+                commDist[1][region]++;
             }
         }
         resultWriter.println("aveCommuteDistByRegion,minutes");
@@ -310,8 +312,9 @@ public class DefaultResultsMonitor implements ResultsMonitor {
         Map<Integer, Region> regions = dataContainer.getGeoData().getRegions();
         final int highestId = regions.keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
         int[][] jobsByTypeAndRegion = new int[JobType.getNumberOfJobTypes()][highestId + 1];
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
         for (Job job : dataContainer.getJobDataManager().getJobs()) {
-            jobsByTypeAndRegion[JobType.getOrdinal(job.getType())][dataContainer.getGeoData().getZones().get(job.getZoneId()).getRegion().getId()]++;
+            jobsByTypeAndRegion[geoIndex.getJobTypeOrdinal(job.getType())][geoIndex.getRegionOfZone(job.getZoneId())]++;
         }
 
         for (int region : regions.keySet()) {
@@ -3,6 +3,8 @@ package de.tum.bgu.msm.models;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.simulator.UpdateListener;
+import de.tum.bgu.msm.utils.RandomStreams;
+import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
 import java.util.Random;
@@ -15,6 +17,8 @@ public class AbstractModel implements UpdateListener {
     protected final Properties properties;
     protected final Random random;
 
+    private final long randomStreamKey = RandomStreams.key(getClass().getName());
+
     public AbstractModel(DataContainer dataContainer, Properties properties, Random random) {
         this.dataContainer = dataContainer;
         this.properties = properties;
@@ -41,6 +45,25 @@ public class AbstractModel implements UpdateListener {
 
     }
 
+    /**
+     * Returns the random object for a decision of the given entity (person, household, dwelling...).
+     * If random streams per entity are enabled, this is a stream that only depends on the seed, the current year,
+     * this model and the entity id. Otherwise, the shared random object of this model is returned.
+     */
+    protected Random getRandomFor(int entityId) {
+        if (properties != null && properties.main.randomStreamsPerEntity) {
+            return SiloUtil.getRandomStreams().stream(randomStreamKey, entityId);
+        }
+        return random;
+    }
+
+    /**
+     * Returns the shared random object of this model, e.g. to store its state in a checkpoint.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
     public void logCurrentRandomState() {
         logger.info(this.getClass().getSimpleName() + " | random: " + random.nextDouble());
     }
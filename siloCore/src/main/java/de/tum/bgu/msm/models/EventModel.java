@@ -1,6 +1,7 @@
 package de.tum.bgu.msm.models;
 
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.simulator.EventFootprint;
 import de.tum.bgu.msm.simulator.UpdateListener;
 
 import java.util.Collection;
@@ -24,4 +25,17 @@ public interface EventModel<T extends MicroEvent> extends UpdateListener {
      */
     boolean handleEvent(T event);
 
+    /**
+     * Declares the households, persons, dwellings and jobs that are read or written when
+     * handling the given event. Only used if parallel event processing is enabled.
+     * @param event the event to be handled
+     * @param footprint collector for the entities touched by the event
+     * @return true if the footprint is complete, i.e. the event does not touch any other shared state
+     *         (such as vacancy lists, id counters or the model's random object) and may be handled concurrently
+     *         with non-conflicting events; false if the event has to be handled on its own (default)
+     */
+    default boolean declareFootprint(T event, EventFootprint footprint) {
+        return false;
+    }
+
 }
@@ -0,0 +1,38 @@
+package de.tum.bgu.msm.models;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.simulator.EventFootprint;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Event model whose events are fully described by the id of a single entity (person, household, dwelling...).
+ * The simulator does not create an event object for these models but keeps a packed primitive descriptor
+ * (event type and entity id) per event instead.
+ */
+public interface EventSource<T extends MicroEvent> extends EventModel<T> {
+
+    /**
+     * Perform model internal preparations for the current year and pass the entity ids of
+     * the planned events to the given consumer, in the same order as {@link #getEventsForCurrentYear(int)}
+     * would create them.
+     * @param year  the current starting year for which events shall be created
+     * @param entityIds consumer of the entity ids, one per event
+     */
+    void getEventIdsForCurrentYear(int year, IntConsumer entityIds);
+
+    /**
+     * Handles the event of the entity with the given id.
+     * @see #handleEvent(MicroEvent)
+     * @return  true if the event is triggered, i.e. a change in data occurred; false otherwise
+     */
+    boolean handleEvent(int entityId);
+
+    /**
+     * Declares the entities read or written when handling the event of the entity with the given id.
+     * @see #declareFootprint(MicroEvent, EventFootprint)
+     */
+    default boolean declareFootprint(int entityId, EventFootprint footprint) {
+        return false;
+    }
+}
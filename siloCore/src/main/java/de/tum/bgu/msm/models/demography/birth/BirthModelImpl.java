@@ -25,6 +25,7 @@ import de.tum.bgu.msm.events.impls.person.BirthEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -43,7 +44,8 @@ import static de.tum.bgu.msm.data.person.Gender.MALE;
 public class BirthModelImpl extends AbstractModel implements BirthModel {
 
     private final PersonFactory factory;
-    private final BirthStrategy strategy;
+    private BirthStrategy strategy;
+    private boolean eventsPreselected = false;
     private final float localScaler = properties.demographics.localScaler;
 
 
@@ -56,6 +58,9 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
 
     @Override
     public void setup() {
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedBirthStrategy.tabulate(strategy);
+        }
 //        final Reader reader;
 //        switch (properties.main.implementation) {
 //            case MUNICH:
@@ -81,10 +86,21 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
     @Override
     public Collection<BirthEvent> getEventsForCurrentYear(int year) {
         final List<BirthEvent> events = new ArrayList<>();
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            final int id = per.getId();
-            if (properties.eventRules.birth && personCanGiveBirth(per)) {
-                events.add(new BirthEvent(id));
+        eventsPreselected = properties.demographics.skipSamplingEvents;
+        if (eventsPreselected) {
+            final SkipSampler sampler = new SkipSampler();
+            for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+                if (properties.eventRules.birth && personCanGiveBirth(per)) {
+                    sampler.add(per.getId(), calculateBirthProbability(per));
+                }
+            }
+            sampler.sample(random, id -> events.add(new BirthEvent(id)));
+        } else {
+            for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+                final int id = per.getId();
+                if (properties.eventRules.birth && personCanGiveBirth(per)) {
+                    events.add(new BirthEvent(id));
+                }
             }
         }
         return events;
@@ -105,15 +121,7 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         final Person person = householdDataManager.getPersonFromId(perId);
         if (person != null && personCanGiveBirth(person)) {
-            // todo: distinguish birth probability by neighborhood type (such as urban, suburban, rural)
-            //now it distinguish by number of children at the household
-            double birthProb = localScaler * strategy.calculateBirthProbability(person.getAge(), HouseholdUtil.getNumberOfChildren(person.getHousehold()));
-            if (person.getRole() == PersonRole.MARRIED) {
-                birthProb *= properties.demographics.marriedScaler;
-            } else {
-                birthProb *= properties.demographics.singleScaler;
-            }
-            if (random.nextDouble() < birthProb) {
+            if (eventsPreselected || getRandomFor(perId).nextDouble() < calculateBirthProbability(person)) {
                 giveBirth(person);
                 return true;
             }
@@ -121,6 +129,18 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
         return false;
     }
 
+    private double calculateBirthProbability(Person person) {
+        // todo: distinguish birth probability by neighborhood type (such as urban, suburban, rural)
+        //now it distinguish by number of children at the household
+        double birthProb = localScaler * strategy.calculateBirthProbability(person.getAge(), HouseholdUtil.getNumberOfChildren(person.getHousehold()));
+        if (person.getRole() == PersonRole.MARRIED) {
+            birthProb *= properties.demographics.marriedScaler;
+        } else {
+            birthProb *= properties.demographics.singleScaler;
+        }
+        return birthProb;
+    }
+
     void giveBirth(Person person) {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         final Household household = person.getHousehold();
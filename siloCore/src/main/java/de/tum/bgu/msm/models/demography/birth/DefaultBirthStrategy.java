@@ -2,28 +2,38 @@ package de.tum.bgu.msm.models.demography.birth;
 
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultBirthStrategy extends JavaScriptCalculator <Double> implements BirthStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getBirthScriptInputStream());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getBirthScriptInputStream());
+    private final ScriptFunction birthProbability =
+            ScriptTranslator.translate(script, "calculateBirthProbability", int.class, int.class);
+    private final ScriptFunction probabilityForGirl = ScriptTranslator.translate(script, "probabilityForAGirl");
 
     /**
      * //TODO
      */
     public DefaultBirthStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateBirthProbability(int personAge, int numberOfChildren) {
+        if (birthProbability != null) {
+            return birthProbability.apply(personAge, numberOfChildren);
+        }
         return super.calculate("calculateBirthProbability", personAge, numberOfChildren);
     }
 
     @Override
     public double getProbabilityForGirl() {
+        if (probabilityForGirl != null) {
+            return probabilityForGirl.apply();
+        }
         return super.calculate("probabilityForAGirl");
     }
 
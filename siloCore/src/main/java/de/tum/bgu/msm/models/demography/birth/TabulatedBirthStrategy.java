@@ -0,0 +1,45 @@
+package de.tum.bgu.msm.models.demography.birth;
+
+import de.tum.bgu.msm.utils.ProbabilityTable;
+
+/**
+ * {@link DefaultBirthStrategy} tabulated by age and number of children. Keys outside the table are passed on.
+ */
+public final class TabulatedBirthStrategy implements BirthStrategy {
+
+    private static final int MAX_AGE = 100;
+    private static final int MAX_CHILDREN = 10;
+
+    private final DefaultBirthStrategy delegate;
+    private final ProbabilityTable table;
+    private final double probabilityForGirl;
+
+    private TabulatedBirthStrategy(DefaultBirthStrategy delegate) {
+        this.delegate = delegate;
+        this.table = ProbabilityTable.tabulate(MAX_AGE + 1, MAX_CHILDREN + 1, delegate::calculateBirthProbability);
+        this.probabilityForGirl = delegate.getProbabilityForGirl();
+    }
+
+    public static BirthStrategy tabulate(BirthStrategy strategy) {
+        if (strategy instanceof TabulatedBirthStrategy) {
+            return new TabulatedBirthStrategy(((TabulatedBirthStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultBirthStrategy.class) {
+            return new TabulatedBirthStrategy((DefaultBirthStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    @Override
+    public double calculateBirthProbability(int personAge, int numberOfChildren) {
+        final double probability = table.get(personAge, numberOfChildren);
+        if (Double.isNaN(probability)) {
+            return delegate.calculateBirthProbability(personAge, numberOfChildren);
+        }
+        return probability;
+    }
+
+    @Override
+    public double getProbabilityForGirl() {
+        return probabilityForGirl;
+    }
+}
@@ -1,18 +1,22 @@
 package de.tum.bgu.msm.models.demography.birthday;
 
 import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.household.PersonCursor;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.BirthDayEvent;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.EventSource;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.EventFootprint;
 import de.tum.bgu.msm.utils.SiloUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.function.IntConsumer;
 
-public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
+public class BirthdayModelImpl extends AbstractModel implements BirthdayModel, EventSource<BirthDayEvent> {
 
     public BirthdayModelImpl(DataContainer dataContainer, Properties properties, Random random) {
         super(dataContainer, properties, random);
@@ -27,7 +31,7 @@ public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
     @Override
     public Collection<BirthDayEvent> getEventsForCurrentYear(int year) {
         List<BirthDayEvent> events = new ArrayList<>();
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor per = dataContainer.getHouseholdDataManager().getPersonCursor(); per.next(); ) {
             final int id = per.getId();
             if(properties.eventRules.birthday) {
                 events.add(new BirthDayEvent(id));
@@ -36,9 +40,34 @@ public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
         return events;
     }
 
+    @Override
+    public void getEventIdsForCurrentYear(int year, IntConsumer personIds) {
+        if(properties.eventRules.birthday) {
+            for (PersonCursor per = dataContainer.getHouseholdDataManager().getPersonCursor(); per.next(); ) {
+                personIds.accept(per.getId());
+            }
+        }
+    }
+
     @Override
     public boolean handleEvent(BirthDayEvent event) {
-        return checkBirthday(event);
+        return checkBirthday(event.getPersonId());
+    }
+
+    @Override
+    public boolean handleEvent(int personId) {
+        return checkBirthday(personId);
+    }
+
+    @Override
+    public boolean declareFootprint(BirthDayEvent event, EventFootprint footprint) {
+        return declareFootprint(event.getPersonId(), footprint);
+    }
+
+    @Override
+    public boolean declareFootprint(int personId, EventFootprint footprint) {
+        footprint.writes(EventFootprint.Entity.PERSON, personId);
+        return true;
     }
 
     @Override
@@ -51,9 +80,9 @@ public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
 
     }
 
-    private boolean checkBirthday(BirthDayEvent event) {
+    private boolean checkBirthday(int personId) {
         // increase age of this person by one year
-        Person per = dataContainer.getHouseholdDataManager().getPersonFromId(event.getPersonId());
+        Person per = dataContainer.getHouseholdDataManager().getPersonFromId(personId);
         if (per == null) {
             return false;  // Person has died or moved away
         }
@@ -4,26 +4,31 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
+import de.tum.bgu.msm.data.household.PersonCursor;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonRole;
 import de.tum.bgu.msm.events.impls.person.DeathEvent;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.EventSource;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.function.IntConsumer;
 
 /**
  * @author Greg Erhardt, Rolf Moeckel
  * Created on Dec 2, 2009
  * Revised on Jan 19, 2018
  */
-public class DeathModelImpl extends AbstractModel implements DeathModel {
+public class DeathModelImpl extends AbstractModel implements DeathModel, EventSource<DeathEvent> {
 
-    private final DeathStrategy strategy;
+    private DeathStrategy strategy;
+    private boolean eventsPreselected = false;
 
     public DeathModelImpl(DataContainer dataContainer, Properties properties, DeathStrategy strategy, Random rnd) {
         super(dataContainer, properties, rnd);
@@ -33,20 +38,41 @@ public class DeathModelImpl extends AbstractModel implements DeathModel {
     @Override
     public Collection<DeathEvent> getEventsForCurrentYear(int year) {
         final List<DeathEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            events.add(new DeathEvent(person.getId()));
-        }
+        getEventIdsForCurrentYear(year, id -> events.add(new DeathEvent(id)));
         return events;
     }
 
+    @Override
+    public void getEventIdsForCurrentYear(int year, IntConsumer personIds) {
+        eventsPreselected = properties.demographics.skipSamplingEvents;
+        if (eventsPreselected) {
+            final SkipSampler sampler = new SkipSampler();
+            for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+                sampler.add(person.getId(), strategy.calculateDeathProbability(person));
+            }
+            sampler.sample(random, personIds);
+        } else {
+            for (PersonCursor person = dataContainer.getHouseholdDataManager().getPersonCursor(); person.next(); ) {
+                personIds.accept(person.getId());
+            }
+        }
+    }
+
+    // Deaths do not declare a footprint and are handled on their own: they remove persons and possibly their
+    // household from the population and return jobs to the vacant job market, which all events share.
     @Override
     public boolean handleEvent(DeathEvent event) {
+        return handleEvent(event.getPersonId());
+    }
+
+    @Override
+    public boolean handleEvent(int personId) {
 
         // simulate if person with ID perId dies in this simulation period
         HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
-        final Person person = householdDataManager.getPersonFromId(event.getPersonId());
+        final Person person = householdDataManager.getPersonFromId(personId);
         if (person != null) {
-            if (random.nextDouble() < strategy.calculateDeathProbability(person)) {
+            if (eventsPreselected || getRandomFor(personId).nextDouble() < strategy.calculateDeathProbability(person)) {
                 return die(person);
             }
         }
@@ -64,6 +90,9 @@ public class DeathModelImpl extends AbstractModel implements DeathModel {
 
     @Override
     public void setup() {
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedDeathStrategy.tabulate(strategy);
+        }
 //        final Reader reader;
 //
 //        switch (properties.main.implementation) {
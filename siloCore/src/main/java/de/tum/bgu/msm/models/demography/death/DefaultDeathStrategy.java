@@ -1,23 +1,35 @@
 package de.tum.bgu.msm.models.demography.death;
 
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultDeathStrategy extends JavaScriptCalculator <Double> implements DeathStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getDeathProbabilityScriptInput());
+    static final int MAX_AGE = 100;
+
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getDeathProbabilityScriptInput());
+    private final ScriptFunction deathProbability =
+            ScriptTranslator.translate(script, "calculateDeathProbability", int.class, Gender.class);
 
     public DefaultDeathStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateDeathProbability(Person person) {
-        final int age = Math.min(person.getAge(), 100);
-        return super.calculate("calculateDeathProbability", age, person.getGender());
+        return calculateDeathProbability(Math.min(person.getAge(), MAX_AGE), person.getGender());
+    }
+
+    public double calculateDeathProbability(int age, Gender gender) {
+        if (deathProbability != null) {
+            return deathProbability.apply(age, gender.ordinal());
+        }
+        return super.calculate("calculateDeathProbability", age, gender);
     }
 }
\ No newline at end of file
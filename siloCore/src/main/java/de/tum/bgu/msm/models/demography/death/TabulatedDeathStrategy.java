@@ -0,0 +1,40 @@
+package de.tum.bgu.msm.models.demography.death;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.utils.ProbabilityTable;
+
+/**
+ * {@link DefaultDeathStrategy} tabulated by age and gender.
+ */
+public final class TabulatedDeathStrategy implements DeathStrategy {
+
+    private final DefaultDeathStrategy delegate;
+    private final ProbabilityTable table;
+
+    private TabulatedDeathStrategy(DefaultDeathStrategy delegate) {
+        this.delegate = delegate;
+        final Gender[] genders = Gender.values();
+        this.table = ProbabilityTable.tabulate(DefaultDeathStrategy.MAX_AGE + 1, genders.length,
+                (age, gender) -> delegate.calculateDeathProbability(age, genders[gender]));
+    }
+
+    public static DeathStrategy tabulate(DeathStrategy strategy) {
+        if (strategy instanceof TabulatedDeathStrategy) {
+            return new TabulatedDeathStrategy(((TabulatedDeathStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultDeathStrategy.class) {
+            return new TabulatedDeathStrategy((DefaultDeathStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    @Override
+    public double calculateDeathProbability(Person person) {
+        final double probability = table.get(Math.min(person.getAge(), DefaultDeathStrategy.MAX_AGE),
+                person.getGender().ordinal());
+        if (Double.isNaN(probability)) {
+            return delegate.calculateDeathProbability(person);
+        }
+        return probability;
+    }
+}
@@ -1,22 +1,33 @@
 package de.tum.bgu.msm.models.demography.divorce;
 
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultDivorceStrategy extends JavaScriptCalculator<Double> implements DivorceStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getDivorceProbabilityScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getDivorceProbabilityScriptInput());
+    private final ScriptFunction divorceProbability =
+            ScriptTranslator.translate(script, "calculateDivorceProbability", int.class);
 
     public DefaultDivorceStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateDivorceProbability(Person per) {
-        return super.calculate("calculateDivorceProbability", per.getType().ordinal());
+        return calculateDivorceProbability(per.getType());
+    }
+
+    public double calculateDivorceProbability(PersonType type) {
+        if (divorceProbability != null) {
+            return divorceProbability.apply(type.ordinal());
+        }
+        return super.calculate("calculateDivorceProbability", type.ordinal());
     }
 }
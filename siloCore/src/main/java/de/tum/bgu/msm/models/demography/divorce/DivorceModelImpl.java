@@ -4,6 +4,7 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.HouseholdFactory;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonRole;
@@ -13,10 +14,12 @@ import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -26,7 +29,8 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
 
     private final MovesModelImpl movesModel;
     private final CreateCarOwnershipModel carOwnership;
-    private final DivorceStrategy strategy;
+    private DivorceStrategy strategy;
+    private boolean eventsPreselected = false;
     private final HouseholdFactory hhFactory;
     private int lackOfDwellingFailedDivorce;
 
@@ -43,6 +47,9 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
 
     @Override
     public void setup() {
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedDivorceStrategy.tabulate(strategy);
+        }
     }
 
     @Override
@@ -53,9 +60,20 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
     @Override
     public Collection<DivorceEvent> getEventsForCurrentYear(int year) {
         final List<DivorceEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            if (person.getRole() == PersonRole.MARRIED) {
-                events.add(new DivorceEvent(person.getId()));
+        eventsPreselected = properties.demographics.skipSamplingEvents;
+        if (eventsPreselected) {
+            final SkipSampler sampler = new SkipSampler();
+            for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+                if (person.getRole() == PersonRole.MARRIED) {
+                    sampler.add(person.getId(), strategy.calculateDivorceProbability(person) / 2);
+                }
+            }
+            sampler.sample(random, id -> events.add(new DivorceEvent(id)));
+        } else {
+            for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+                if (person.getRole() == PersonRole.MARRIED) {
+                    events.add(new DivorceEvent(person.getId()));
+                }
             }
         }
         return events;
@@ -85,13 +103,11 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         Person per = householdDataManager.getPersonFromId(perId);
         if (per != null && per.getRole() == PersonRole.MARRIED) {
-            final double probability = strategy.calculateDivorceProbability(per) / 2;
-            if (random.nextDouble() < probability) {
+            if (eventsPreselected || getRandomFor(perId).nextDouble() < strategy.calculateDivorceProbability(per) / 2) {
                 // check if vacant dwelling is available
 
-                Household fakeHypotheticalHousehold = hhFactory.createHousehold(-1, -1, 0);
-                fakeHypotheticalHousehold.addPerson(per);
-                int newDwellingId = movesModel.searchForNewDwelling(fakeHypotheticalHousehold);
+                HouseholdProfile hypotheticalHousehold = HouseholdProfile.of(Collections.singletonList(per), 0, hhFactory);
+                int newDwellingId = movesModel.searchForNewDwelling(hypotheticalHousehold);
                 if (newDwellingId < 0) {
                     if (perId == SiloUtil.trackPp || per.getHousehold().getId() == SiloUtil.trackHh) {
                         SiloUtil.trackWriter.println(
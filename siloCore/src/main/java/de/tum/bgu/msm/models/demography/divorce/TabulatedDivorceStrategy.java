@@ -0,0 +1,39 @@
+package de.tum.bgu.msm.models.demography.divorce;
+
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
+import de.tum.bgu.msm.utils.ProbabilityTable;
+
+/**
+ * {@link DefaultDivorceStrategy} tabulated by person type.
+ */
+public final class TabulatedDivorceStrategy implements DivorceStrategy {
+
+    private final DefaultDivorceStrategy delegate;
+    private final ProbabilityTable table;
+
+    private TabulatedDivorceStrategy(DefaultDivorceStrategy delegate) {
+        this.delegate = delegate;
+        final PersonType[] types = PersonType.values();
+        this.table = ProbabilityTable.tabulate(types.length,
+                (type, unused) -> delegate.calculateDivorceProbability(types[type]));
+    }
+
+    public static DivorceStrategy tabulate(DivorceStrategy strategy) {
+        if (strategy instanceof TabulatedDivorceStrategy) {
+            return new TabulatedDivorceStrategy(((TabulatedDivorceStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultDivorceStrategy.class) {
+            return new TabulatedDivorceStrategy((DefaultDivorceStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    @Override
+    public double calculateDivorceProbability(Person per) {
+        final double probability = table.get(per.getType().ordinal());
+        if (Double.isNaN(probability)) {
+            return delegate.calculateDivorceProbability(per);
+        }
+        return probability;
+    }
+}
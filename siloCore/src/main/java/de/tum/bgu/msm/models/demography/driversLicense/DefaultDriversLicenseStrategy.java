@@ -1,31 +1,51 @@
 package de.tum.bgu.msm.models.demography.driversLicense;
 
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 /**
  * Created by matthewokrah on 13/11/2017.
  */
 public class DefaultDriversLicenseStrategy extends JavaScriptCalculator<Double> implements DriversLicenseStrategy{
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getDriversLicenseProbabilityScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getDriversLicenseProbabilityScriptInput());
+    private final ScriptFunction changeLicenseProbability =
+            ScriptTranslator.translate(script, "calculateChangeDriversLicenseProbability", PersonType.class);
+    private final ScriptFunction createLicenseProbability =
+            ScriptTranslator.translate(script, "calculateCreateDriversLicenseProbability", PersonType.class);
 
     public DefaultDriversLicenseStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
 
     @Override
     public double calculateChangeDriversLicenseProbability(Person person) {
-        return super.calculate("calculateChangeDriversLicenseProbability", person.getType());
+        return calculateChangeDriversLicenseProbability(person.getType());
+    }
+
+    public double calculateChangeDriversLicenseProbability(PersonType type) {
+        if (changeLicenseProbability != null) {
+            return changeLicenseProbability.apply(type.ordinal());
+        }
+        return super.calculate("calculateChangeDriversLicenseProbability", type);
     }
 
     @Override
     public double calculateCreateDriversLicenseProbability(Person pp) {
-        return super.calculate("calculateCreateDriversLicenseProbability", pp.getType());
+        return calculateCreateDriversLicenseProbability(pp.getType());
+    }
+
+    public double calculateCreateDriversLicenseProbability(PersonType type) {
+        if (createLicenseProbability != null) {
+            return createLicenseProbability.apply(type.ordinal());
+        }
+        return super.calculate("calculateCreateDriversLicenseProbability", type);
     }
 }
@@ -5,6 +5,7 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.LicenseEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.EventFootprint;
 import de.tum.bgu.msm.utils.SiloUtil;
 
 import java.util.ArrayList;
@@ -20,7 +21,7 @@ import java.util.Random;
 
 public class DriversLicenseModelImpl extends AbstractModel implements DriversLicenseModel {
 
-    private final DriversLicenseStrategy strategy;
+    private DriversLicenseStrategy strategy;
 
     public DriversLicenseModelImpl(DataContainer dataContainer, Properties properties, DriversLicenseStrategy strategy, Random rnd) {
         super(dataContainer, properties, rnd);
@@ -28,7 +29,11 @@ public class DriversLicenseModelImpl extends AbstractModel implements DriversLic
     }
 
     @Override
-    public void setup() {}
+    public void setup() {
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedDriversLicenseStrategy.tabulate(strategy);
+        }
+    }
 
     @Override
     public void prepareYear(int year) {}
@@ -48,13 +53,28 @@ public class DriversLicenseModelImpl extends AbstractModel implements DriversLic
         //assign new licenses to adults who does not have one, no license is revoked at any time
         if (pp != null && !pp.hasDriverLicense() && pp.getAge()>= 18) {
             final double changeProb = strategy.calculateChangeDriversLicenseProbability(pp);
-            if (random.nextDouble() < changeProb) {
+            if (getRandomFor(pp.getId()).nextDouble() < changeProb) {
                 return createLicense(pp);
             }
         }
         return false;
     }
 
+    /**
+     * Changing the license only reads and writes the person. The event is handled concurrently only if each
+     * person draws from its own random stream and the strategy does not evaluate the script, as neither the
+     * model random nor the script engine can be shared between threads.
+     */
+    @Override
+    public boolean declareFootprint(LicenseEvent event, EventFootprint footprint) {
+        if (!properties.main.randomStreamsPerEntity || !(strategy instanceof TabulatedDriversLicenseStrategy)
+                || !((TabulatedDriversLicenseStrategy) strategy).isComplete()) {
+            return false;
+        }
+        footprint.writes(EventFootprint.Entity.PERSON, event.getPersonId());
+        return true;
+    }
+
     @Override
     public void endYear(int year) {
     }
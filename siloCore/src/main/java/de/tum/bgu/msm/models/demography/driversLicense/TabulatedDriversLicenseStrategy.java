@@ -0,0 +1,65 @@
+package de.tum.bgu.msm.models.demography.driversLicense;
+
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
+import de.tum.bgu.msm.utils.ProbabilityTable;
+
+/**
+ * {@link DefaultDriversLicenseStrategy} tabulated by person type.
+ */
+public final class TabulatedDriversLicenseStrategy implements DriversLicenseStrategy {
+
+    private final DefaultDriversLicenseStrategy delegate;
+    private final ProbabilityTable changeTable;
+    private final ProbabilityTable createTable;
+    private final boolean complete;
+
+    private TabulatedDriversLicenseStrategy(DefaultDriversLicenseStrategy delegate) {
+        this.delegate = delegate;
+        final PersonType[] types = PersonType.values();
+        this.changeTable = ProbabilityTable.tabulate(types.length,
+                (type, unused) -> delegate.calculateChangeDriversLicenseProbability(types[type]));
+        this.createTable = ProbabilityTable.tabulate(types.length,
+                (type, unused) -> delegate.calculateCreateDriversLicenseProbability(types[type]));
+        boolean complete = true;
+        for (int type = 0; type < types.length; type++) {
+            complete &= !Double.isNaN(changeTable.get(type)) && !Double.isNaN(createTable.get(type));
+        }
+        this.complete = complete;
+    }
+
+    public static DriversLicenseStrategy tabulate(DriversLicenseStrategy strategy) {
+        if (strategy instanceof TabulatedDriversLicenseStrategy) {
+            return new TabulatedDriversLicenseStrategy(((TabulatedDriversLicenseStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultDriversLicenseStrategy.class) {
+            return new TabulatedDriversLicenseStrategy((DefaultDriversLicenseStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    /**
+     * @return true if the probabilities of all person types were tabulated, so that this strategy never falls back
+     * to the script and may be called concurrently
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public double calculateChangeDriversLicenseProbability(Person pp) {
+        final double probability = changeTable.get(pp.getType().ordinal());
+        if (Double.isNaN(probability)) {
+            return delegate.calculateChangeDriversLicenseProbability(pp);
+        }
+        return probability;
+    }
+
+    @Override
+    public double calculateCreateDriversLicenseProbability(Person pp) {
+        final double probability = createTable.get(pp.getType().ordinal());
+        if (Double.isNaN(probability)) {
+            return delegate.calculateCreateDriversLicenseProbability(pp);
+        }
+        return probability;
+    }
+}
@@ -1,11 +1,13 @@
 package de.tum.bgu.msm.models.demography.education;
 
 import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.household.PersonCursor;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.EducationEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.EventFootprint;
 import de.tum.bgu.msm.utils.SiloUtil;
 
 import java.util.ArrayList;
@@ -27,7 +29,7 @@ public class EducationModelImpl extends AbstractModel implements EducationModel
     @Override
     public Collection<EducationEvent> getEventsForCurrentYear(int year) {
         final List<EducationEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor person = dataContainer.getHouseholdDataManager().getPersonCursor(); person.next(); ) {
             if (person.getAge() >= 19 && person.getOccupation().equals(Occupation.STUDENT)) {
                 events.add(new EducationEvent(person.getId()));
             }
@@ -44,6 +46,12 @@ public class EducationModelImpl extends AbstractModel implements EducationModel
         return false;
     }
 
+    @Override
+    public boolean declareFootprint(EducationEvent event, EventFootprint footprint) {
+        footprint.writes(EventFootprint.Entity.PERSON, event.getPersonId());
+        return true;
+    }
+
     @Override
     public void endYear(int year) {
     }
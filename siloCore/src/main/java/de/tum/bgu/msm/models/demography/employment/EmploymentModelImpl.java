@@ -4,6 +4,7 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.PersonCursor;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Occupation;
@@ -11,6 +12,7 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.EmploymentEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.AliasSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
@@ -28,11 +30,26 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
 
     private final static Logger logger = Logger.getLogger(EmploymentModelImpl.class);
 
+    private static final int INCOME_CHANGES = 21;
+
     private float[][] laborParticipationShares;
     private int missingJob;
 
+    private final int[] incomeChanges = new int[INCOME_CHANGES];
+    private final AliasSampler incomeChangeSampler;
+
     public EmploymentModelImpl(DataContainer dataContainer, Properties properties, Random rnd) {
         super(dataContainer, properties, rnd);
+        final float meanIncomeChange = properties.householdData.meanIncomeChange;
+        final double[] prob = new double[INCOME_CHANGES];
+        for (int i = 0; i < prob.length; i++) {
+            // normal distribution to calculate change of income
+            //TODO: Use normal distribution from library (e.g. commons math)
+            incomeChanges[i] = (int) (-5000f + 10000f * (float) i / (prob.length - 1f));
+            prob[i] = (1 / (meanIncomeChange * Math.sqrt(2 * 3.1416))) *
+                    Math.exp(-(Math.pow(incomeChanges[i], 2) / (2 * Math.pow(meanIncomeChange, 2))));
+        }
+        incomeChangeSampler = new AliasSampler(prob);
     }
 
     @Override
@@ -45,7 +62,7 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
         // count currently employed people
         final float[][] currentlyEmployed = new float[2][100];
         final float[][] currentlyUnemployed = new float[2][100];
-        for (Person pp : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor pp = dataContainer.getHouseholdDataManager().getPersonCursor(); pp.next(); ) {
             int age = pp.getAge();
             if (age > 99) {
                 // people older than 99 will always be unemployed/retired
@@ -76,7 +93,7 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
             }
         }
 
-        for (Person pp : dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor pp = dataContainer.getHouseholdDataManager().getPersonCursor(); pp.next(); ) {
             int age = pp.getAge();
             if (age > 99) {
                 continue;  // people older than 99 will always be unemployed/retired
@@ -100,6 +117,8 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
         return events;
     }
 
+    // Employment events do not declare a footprint and are handled on their own: finding and quitting a job
+    // take jobs from or return them to the vacant job market, which all events share.
     @Override
     public boolean handleEvent(EmploymentEvent event) {
         switch(event.getType()) {
@@ -131,7 +150,7 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
 
         laborParticipationShares = new float[2][100];
         int[][] count = new int[2][100];
-        for (Person pp: dataContainer.getHouseholdDataManager().getPersons()) {
+        for (PersonCursor pp = dataContainer.getHouseholdDataManager().getPersonCursor(); pp.next(); ) {
             int age = pp.getAge();
             if (age > 99) {
                 // people older than 99 will always be unemployed/retired
@@ -201,19 +220,9 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
 
         final Gender gender = person.getGender();
         final int age = Math.min(99, person.getAge());
-        final float meanIncomeChange = properties.householdData.meanIncomeChange;
-        final double[] prob = new double[21];
-        final int[] change = new int[21];
-        for (int i = 0; i < prob.length; i++) {
-            // normal distribution to calculate change of income
-            //TODO: Use normal distribution from library (e.g. commons math)
-            change[i] = (int) (-5000f + 10000f * (float) i / (prob.length - 1f));
-            prob[i] = (1 / (meanIncomeChange * Math.sqrt(2 * 3.1416))) *
-                    Math.exp(-(Math.pow(change[i], 2) / (2 * Math.pow(meanIncomeChange, 2))));
-        }
-        final int sel = SiloUtil.select(prob, random);
+        final int sel = incomeChangeSampler.sample(random);
         float avgIncome = dataContainer.getHouseholdDataManager().getAverageIncome(gender, age, person.getOccupation());
-        final int inc = Math.max((int) avgIncome + change[sel], 0);
+        final int inc = Math.max((int) avgIncome + incomeChanges[sel], 0);
         person.setIncome(inc);
 
 
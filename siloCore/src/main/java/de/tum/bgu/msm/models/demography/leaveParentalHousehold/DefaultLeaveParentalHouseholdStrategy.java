@@ -1,22 +1,33 @@
 package de.tum.bgu.msm.models.demography.leaveParentalHousehold;
 
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultLeaveParentalHouseholdStrategy extends JavaScriptCalculator<Double> implements LeaveParentalHouseholdStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getLeaveParentalHouseholdScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getLeaveParentalHouseholdScriptInput());
+    private final ScriptFunction leaveParentsProbability =
+            ScriptTranslator.translate(script, "calculateLeaveParentsProbability", PersonType.class);
 
     public DefaultLeaveParentalHouseholdStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateLeaveParentsProbability(Person person) {
-        return super.calculate("calculateLeaveParentsProbability", person.getType());
+        return calculateLeaveParentsProbability(person.getType());
+    }
+
+    public double calculateLeaveParentsProbability(PersonType type) {
+        if (leaveParentsProbability != null) {
+            return leaveParentsProbability.apply(type.ordinal());
+        }
+        return super.calculate("calculateLeaveParentsProbability", type);
     }
 }
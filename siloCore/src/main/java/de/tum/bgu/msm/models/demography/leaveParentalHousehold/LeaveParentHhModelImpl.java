@@ -20,6 +20,7 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.HouseholdFactory;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonRole;
 import de.tum.bgu.msm.events.impls.person.LeaveParentsEvent;
@@ -28,10 +29,12 @@ import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -48,7 +51,8 @@ public class LeaveParentHhModelImpl extends AbstractModel implements LeaveParent
     private final HouseholdFactory hhFactory;
     private final MovesModelImpl movesModel;
     private HouseholdDataManager householdDataManager;
-    private final LeaveParentalHouseholdStrategy strategy;
+    private LeaveParentalHouseholdStrategy strategy;
+    private boolean eventsPreselected = false;
     private int lackOfDwellingFailedLeavingChild;
 
 
@@ -65,6 +69,9 @@ public class LeaveParentHhModelImpl extends AbstractModel implements LeaveParent
 
     @Override
     public void setup() {
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedLeaveParentalHouseholdStrategy.tabulate(strategy);
+        }
     }
 
     @Override
@@ -75,20 +82,32 @@ public class LeaveParentHhModelImpl extends AbstractModel implements LeaveParent
     @Override
     public Collection<LeaveParentsEvent> getEventsForCurrentYear(int year) {
         final List<LeaveParentsEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            if (qualifiesForParentalHHLeave(person)) {
-                events.add(new LeaveParentsEvent(person.getId()));
+        eventsPreselected = properties.demographics.skipSamplingEvents;
+        if (eventsPreselected) {
+            final SkipSampler sampler = new SkipSampler();
+            for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+                if (qualifiesForParentalHHLeave(person)) {
+                    sampler.add(person.getId(), strategy.calculateLeaveParentsProbability(person));
+                }
+            }
+            sampler.sample(random, id -> events.add(new LeaveParentsEvent(id)));
+        } else {
+            for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+                if (qualifiesForParentalHHLeave(person)) {
+                    events.add(new LeaveParentsEvent(person.getId()));
+                }
             }
         }
         return events;
     }
 
+    // Leaving the parents does not declare a footprint and is handled on its own: it draws a new household id
+    // and searches a dwelling in the vacancy lists, which all events share.
     @Override
     public boolean handleEvent(LeaveParentsEvent event) {
         final Person per = householdDataManager.getPersonFromId(event.getPersonId());
         if (per != null && qualifiesForParentalHHLeave(per)) {
-            final double prob = strategy.calculateLeaveParentsProbability(per);
-            if (random.nextDouble() < prob) {
+            if (eventsPreselected || getRandomFor(per.getId()).nextDouble() < strategy.calculateLeaveParentsProbability(per)) {
                 return leaveHousehold(per);
             }
         }
@@ -111,9 +130,8 @@ public class LeaveParentHhModelImpl extends AbstractModel implements LeaveParent
 
     boolean leaveHousehold(Person per) {
         // search if dwelling is available
-        Household fakeHypotheticalHousehold = hhFactory.createHousehold(-1, -1, 0);
-        fakeHypotheticalHousehold.addPerson(per);
-        final int newDwellingId = movesModel.searchForNewDwelling(fakeHypotheticalHousehold);
+        final HouseholdProfile hypotheticalHousehold = HouseholdProfile.of(Collections.singletonList(per), 0, hhFactory);
+        final int newDwellingId = movesModel.searchForNewDwelling(hypotheticalHousehold);
         if (newDwellingId < 0) {
             if (per.getId() == SiloUtil.trackPp || per.getHousehold().getId() == SiloUtil.trackHh) {
                 SiloUtil.trackWriter.println(
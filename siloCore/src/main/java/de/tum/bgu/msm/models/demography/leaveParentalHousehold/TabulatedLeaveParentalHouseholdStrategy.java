@@ -0,0 +1,39 @@
+package de.tum.bgu.msm.models.demography.leaveParentalHousehold;
+
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonType;
+import de.tum.bgu.msm.utils.ProbabilityTable;
+
+/**
+ * {@link DefaultLeaveParentalHouseholdStrategy} tabulated by person type.
+ */
+public final class TabulatedLeaveParentalHouseholdStrategy implements LeaveParentalHouseholdStrategy {
+
+    private final DefaultLeaveParentalHouseholdStrategy delegate;
+    private final ProbabilityTable table;
+
+    private TabulatedLeaveParentalHouseholdStrategy(DefaultLeaveParentalHouseholdStrategy delegate) {
+        this.delegate = delegate;
+        final PersonType[] types = PersonType.values();
+        this.table = ProbabilityTable.tabulate(types.length,
+                (type, unused) -> delegate.calculateLeaveParentsProbability(types[type]));
+    }
+
+    public static LeaveParentalHouseholdStrategy tabulate(LeaveParentalHouseholdStrategy strategy) {
+        if (strategy instanceof TabulatedLeaveParentalHouseholdStrategy) {
+            return new TabulatedLeaveParentalHouseholdStrategy(((TabulatedLeaveParentalHouseholdStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultLeaveParentalHouseholdStrategy.class) {
+            return new TabulatedLeaveParentalHouseholdStrategy((DefaultLeaveParentalHouseholdStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    @Override
+    public double calculateLeaveParentsProbability(Person person) {
+        final double probability = table.get(person.getType().ordinal());
+        if (Double.isNaN(probability)) {
+            return delegate.calculateLeaveParentsProbability(person);
+        }
+        return probability;
+    }
+}
@@ -0,0 +1,286 @@
+package de.tum.bgu.msm.models.demography.marriage;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.properties.modules.DemographicsProperties;
+import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Marriage market of one simulation year. Persons looking for a partner are active partners, persons that may be
+ * chosen are kept as passive partners in one bucket per age and gender. An active partner first chooses the age of
+ * the partner, weighting the age preferences with the number of remaining candidates of that age, and then a
+ * partner of that age. Chosen partners are removed from their bucket in constant time by moving the last
+ * candidate of the bucket into their place.
+ * <p>
+ * Active partners only choose partners within {@link #AGE_OFFSET} years of their own age. Active partners of age
+ * bands that are more than twice that far apart never compete for the same candidates, so matching can run in
+ * parallel for every other band.
+ */
+public final class MarriageMarket {
+
+    private final static Logger logger = Logger.getLogger(MarriageMarket.class);
+
+    public final static int MIN_AGE = 16;
+    public final static int MAX_AGE = 100;
+
+    // ageOffset is the range of ages above and below a persons age that are considered for marriage
+    // needs to cover -9 to +9 to reach one person type above and one person type below
+    // (e.g., for 25-old person consider partners from 20 to 34). ageOffset is 10 and not 9 to
+    // capture if potential partner has celebrated BIRTHDAY already (i.e. turned 35). To improve
+    // performance, the person type of this person in the marriage market is not updated.
+    public final static int AGE_OFFSET = 10;
+
+    private final static int AGE_DIFFS = 2 * AGE_OFFSET + 1;
+    private final static int BAND_WIDTH = AGE_DIFFS;
+    private final static Gender[] GENDERS = Gender.values();
+
+    /**
+     * Chooses the partner of a person among the candidates of the selected age and gender.
+     */
+    public interface PartnerSelector {
+        /**
+         * @param sameRace whether the person prefers a partner of the same race or nationality
+         * @return the index of the chosen candidate
+         */
+        int selectPartner(Person person, boolean sameRace, Candidates candidates, Random random);
+    }
+
+    /**
+     * Chooses a candidate at random.
+     */
+    public final static PartnerSelector ANY_PARTNER = (person, sameRace, candidates, random) ->
+            random.nextInt(candidates.size());
+
+    /**
+     * Strongly prefers candidates of the same group as the person if a partner of the same race is preferred
+     * and candidates of another group otherwise.
+     */
+    public static PartnerSelector preferringGroup(Function<Person, ?> group) {
+        return (person, sameRace, candidates, random) -> {
+            final Object groupOfPerson = group.apply(person);
+            final double[] weights = new double[candidates.size()];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                final boolean sameGroup = Objects.equals(groupOfPerson, group.apply(candidates.get(i)));
+                weights[i] = sameRace == sameGroup ? 10000f : 0.001f;
+                sum += weights[i];
+            }
+            final double selectedWeight = random.nextDouble() * sum;
+            double cumulated = 0;
+            for (int i = 0; i < weights.length; i++) {
+                cumulated += weights[i];
+                if (cumulated > selectedWeight) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        };
+    }
+
+    /**
+     * Candidates of one age and gender.
+     */
+    public final static class Candidates {
+
+        private Person[] persons = new Person[8];
+        private int size = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public Person get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " for " + size + " candidates");
+            }
+            return persons[index];
+        }
+
+        private void add(Person person) {
+            if (size == persons.length) {
+                persons = Arrays.copyOf(persons, size << 1);
+            }
+            persons[size++] = person;
+        }
+
+        private Person remove(int index) {
+            final Person removed = get(index);
+            persons[index] = persons[--size];
+            persons[size] = null;
+            return removed;
+        }
+    }
+
+    /**
+     * Preferences for the age difference between partners, weighted by gender of the searching person.
+     * Precomputed once per simulation from the demographic properties.
+     */
+    public final static class AgePreferences {
+
+        private final double[][] weightsByGenderAndAgeDiff = new double[GENDERS.length][AGE_DIFFS];
+
+        public AgePreferences(DemographicsProperties properties) {
+            for (int ageDiff = -AGE_OFFSET; ageDiff <= AGE_OFFSET; ageDiff++) {
+                int ageFactor = ageDiff;
+                for (Gender gender : GENDERS) {
+                    if (gender == Gender.MALE) {
+                        // man searches woman
+                        ageFactor += properties.marryAbsAgeDiff;
+                    } else {
+                        // woman searches man
+                        ageFactor -= properties.marryAbsAgeDiff;
+                    }
+                    weightsByGenderAndAgeDiff[gender.ordinal()][ageDiff + AGE_OFFSET] =
+                            1 / Math.exp(Math.pow(ageFactor, 2) * properties.marryAgeSpreadFac);
+                }
+            }
+        }
+
+        public double getWeight(Gender genderOfSearchingPerson, int ageDiff) {
+            return weightsByGenderAndAgeDiff[genderOfSearchingPerson.ordinal()][ageDiff + AGE_OFFSET];
+        }
+    }
+
+    private final AgePreferences preferences;
+    private final float interRacialMarriageShare;
+    private final List<Person> activePartners = new ArrayList<>();
+    private final Candidates[] candidates = new Candidates[(MAX_AGE - MIN_AGE + 1) * GENDERS.length];
+    private final Candidates noCandidates = new Candidates();
+
+    public MarriageMarket(AgePreferences preferences, float interRacialMarriageShare) {
+        this.preferences = preferences;
+        this.interRacialMarriageShare = interRacialMarriageShare;
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = new Candidates();
+        }
+    }
+
+    public void addActivePartner(Person person) {
+        activePartners.add(person);
+    }
+
+    public void addPassivePartner(Person person) {
+        if (person.getAge() < MIN_AGE || person.getAge() > MAX_AGE) {
+            throw new IllegalArgumentException("Person " + person.getId() + " of age " + person.getAge()
+                    + " cannot be a partner in the marriage market.");
+        }
+        candidatesOf(person.getAge(), person.getGender()).add(person);
+    }
+
+    public int getNumberOfActivePartners() {
+        return activePartners.size();
+    }
+
+    /**
+     * @return the remaining candidates of the given age and gender, empty if the age is outside of the market
+     */
+    public Candidates getCandidates(int age, Gender gender) {
+        return candidatesOf(age, gender);
+    }
+
+    private Candidates candidatesOf(int age, Gender gender) {
+        if (age < MIN_AGE || age > MAX_AGE) {
+            return noCandidates;
+        }
+        return candidates[(age - MIN_AGE) * GENDERS.length + gender.ordinal()];
+    }
+
+    /**
+     * Lets all active partners choose a partner in the order they were added, drawing from the given random
+     * object. Couples are passed to the consumer as (active partner, chosen partner).
+     */
+    public void match(PartnerSelector selector, Random random, BiConsumer<Person, Person> couples) {
+        final double[] cumulatedWeights = new double[AGE_DIFFS];
+        for (Person person : activePartners) {
+            final Person partner = findPartner(person, selector, random, cumulatedWeights);
+            if (partner != null) {
+                couples.accept(person, partner);
+            }
+        }
+    }
+
+    /**
+     * Matches active partners in age bands of {@link #BAND_WIDTH} years on the given number of threads. Bands
+     * with an even index are matched first, then bands with an odd index, so that concurrently matched bands never
+     * share candidates. Each band draws from its own random object, seeded from the given one in band order, and
+     * couples are passed to the consumer in band order. The result therefore does not depend on the number of
+     * threads.
+     */
+    public void matchInParallel(PartnerSelector selector, Random random, int numberOfThreads,
+                                BiConsumer<Person, Person> couples) {
+        final int numberOfBands = (MAX_AGE - MIN_AGE) / BAND_WIDTH + 1;
+        final List<List<Person>> activePartnersByBand = new ArrayList<>();
+        final List<List<Person[]>> couplesByBand = new ArrayList<>();
+        final long[] seeds = new long[numberOfBands];
+        for (int band = 0; band < numberOfBands; band++) {
+            activePartnersByBand.add(new ArrayList<>());
+            couplesByBand.add(new ArrayList<>());
+            seeds[band] = random.nextLong();
+        }
+        for (Person person : activePartners) {
+            final int age = Math.max(MIN_AGE, Math.min(MAX_AGE, person.getAge()));
+            activePartnersByBand.get((age - MIN_AGE) / BAND_WIDTH).add(person);
+        }
+
+        for (int parity = 0; parity < 2; parity++) {
+            final ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(numberOfThreads);
+            for (int band = parity; band < numberOfBands; band += 2) {
+                final List<Person> bandPartners = activePartnersByBand.get(band);
+                final List<Person[]> bandCouples = couplesByBand.get(band);
+                final Random bandRandom = new Random(seeds[band]);
+                executor.addTaskToQueue(() -> {
+                    final double[] cumulatedWeights = new double[AGE_DIFFS];
+                    for (Person person : bandPartners) {
+                        final Person partner = findPartner(person, selector, bandRandom, cumulatedWeights);
+                        if (partner != null) {
+                            bandCouples.add(new Person[]{person, partner});
+                        }
+                    }
+                    return null;
+                });
+            }
+            executor.execute();
+        }
+
+        for (List<Person[]> bandCouples : couplesByBand) {
+            for (Person[] couple : bandCouples) {
+                couples.accept(couple[0], couple[1]);
+            }
+        }
+    }
+
+    private Person findPartner(Person person, PartnerSelector selector, Random random, double[] cumulatedWeights) {
+        final Gender partnerGender = person.getGender().opposite();
+        final boolean sameRace = random.nextDouble() >= interRacialMarriageShare;
+
+        double sum = 0;
+        for (int ageDiff = -AGE_OFFSET; ageDiff <= AGE_OFFSET; ageDiff++) {
+            final int resultingAge = person.getAge() + ageDiff;
+            sum += preferences.getWeight(person.getGender(), ageDiff)
+                    * candidatesOf(resultingAge, partnerGender).size();
+            cumulatedWeights[ageDiff + AGE_OFFSET] = sum;
+        }
+
+        if (sum == 0) {
+            logger.warn("Marriage market ran empty, increase share of persons. Age: " + person.getAge());
+            return null;
+        }
+
+        final double selectedWeight = sum * random.nextDouble();
+        int selectedAgeDiff = 0;
+        while (cumulatedWeights[selectedAgeDiff] <= selectedWeight) {
+            selectedAgeDiff++;
+        }
+        final Candidates possiblePartners = candidatesOf(person.getAge() + selectedAgeDiff - AGE_OFFSET, partnerGender);
+        return possiblePartners.remove(selector.selectPartner(person, sameRace, possiblePartners, random));
+    }
+}
@@ -7,9 +7,11 @@ import de.tum.bgu.msm.data.accessibility.Accessibility;
 import de.tum.bgu.msm.data.development.Development;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingFactory;
+import de.tum.bgu.msm.data.dwelling.DwellingStatistics;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.events.impls.realEstate.ConstructionEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
@@ -18,7 +20,6 @@ import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Build new dwellings based on current demand. Model works in two steps. At the end of each simulation period,
@@ -41,7 +42,7 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
     private float betaForZoneChoice;
     private float priceIncreaseForNewDwelling;
-    private Map<Integer, List<Dwelling>> dwellingsByRegion;
+    private int[] dwellingCountByRegion;
 
     public ConstructionModelImpl(DataContainer dataContainer, DwellingFactory factory,
                                  Properties properties, ConstructionLocationStrategy locationStrategy,
@@ -63,9 +64,13 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
     @Override
     public void prepareYear(int year) {
-        dwellingsByRegion = dataContainer.getRealEstateDataManager().getDwellings()
-                .stream().collect(Collectors.groupingBy(d -> geoData.getZones().get(d.getZoneId()).getRegion().getId()
-        ));
+        final int[][] countByTypeAndRegion = dataContainer.getRealEstateDataManager().getDwellingStatistics().getCountByTypeAndRegion();
+        dwellingCountByRegion = new int[countByTypeAndRegion[0].length];
+        for (int[] countThisType : countByTypeAndRegion) {
+            for (int region = 0; region < countThisType.length; region++) {
+                dwellingCountByRegion[region] += countThisType[region];
+            }
+        }
     }
 
     @Override
@@ -90,10 +95,10 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             for (int region : geoData.getRegions().keySet()) {
-                if (dwellingsByRegion.containsKey(region)){
-                    demandByRegion[dto][region] = demandStrategy.calculateConstructionDemand(vacancyByRegion[dto][region], dt, dwellingsByRegion.get(region).size());
+                if (region < dwellingCountByRegion.length && dwellingCountByRegion[region] > 0){
+                    demandByRegion[dto][region] = demandStrategy.calculateConstructionDemand(vacancyByRegion[dto][region], dt, dwellingCountByRegion[region]);
                 } else {
-                    //regions that, after scaling down the population, do not have any dwelling, thus are not in the map dwellingsByRegion
+                    //regions that, after scaling down the population, do not have any dwelling
                     demandByRegion[dto][region] = 0;
                 }
 
@@ -103,12 +108,13 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         int[][] existingDwellings = realEstate.getDwellingCountByTypeAndRegion();
 
 
-        final int highestZoneId = geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get();
-        double utilitiesByDwellingTypeByZone[][] = new double[dwellingTypes.size()][highestZoneId + 1];
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
+        double utilitiesByDwellingTypeByZone[][] = new double[dwellingTypes.size()][geoIndex.getNumberOfZones()];
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             for (Zone zone : geoData.getZones().values()) {
-                double avePrice = avePriceByTypeAndZone[dto][zone.getId()];
+                final int zoneOrdinal = geoIndex.getZoneOrdinal(zone.getZoneId());
+                double avePrice = avePriceByTypeAndZone[dto][zoneOrdinal];
                 if (avePrice == 0) {
                     avePrice = avePriceByTypeAndRegion[dto][zone.getRegion().getId()];
                     if (avePrice == 0) {
@@ -116,8 +122,8 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
                     }
                 }
                 // evaluate utility for building DwellingType dt where the average price of this dwelling type in this zone is avePrice
-                utilitiesByDwellingTypeByZone[dto][zone.getId()] =
-                        locationStrategy.calculateConstructionProbability(dt, avePrice, accessibility.getAutoAccessibilityForZone(geoData.getZones().get(zone.getId())));
+                utilitiesByDwellingTypeByZone[dto][zoneOrdinal] =
+                        locationStrategy.calculateConstructionProbability(dt, avePrice, accessibility.getAutoAccessibilityForZone(zone));
             }
         }
 
@@ -126,48 +132,36 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
         for (DwellingType dt : sortedDwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
+            // weights only change in zones where a dwelling is planned, so they are updated for that zone only
+            ConstructionZoneWeights zoneWeights = new ConstructionZoneWeights(geoData.getRegions().values(), geoIndex,
+                    zone -> calculateZoneWeight(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone),
+                    zone -> calculateSpillOverZoneWeight(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone));
             for (int region : geoData.getRegions().keySet()) {
                 int unrealizedDwellings = 0;
                 int demand = (int) (existingDwellings[dto][region] * demandByRegion[dto][region] + 0.5);
                 if (demand == 0) {
                     continue;
                 }
-                int[] zonesInThisRegion = geoData.getRegions().get(region).getZones().stream().mapToInt(Zone::getZoneId).toArray();
-                double[] prob = new double[SiloUtil.getHighestVal(zonesInThisRegion) + 1];
                 // walk through every dwelling to be built
                 for (int i = 1; i <= demand; i++) {
-                    double probSum = 0;
-                    for (int zone : zonesInThisRegion) {
-                        Development development = dataContainer.getGeoData().getZones().get(zone).getDevelopment();
-                        boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
-                        double availableLand = realEstate.getAvailableCapacityForConstruction(zone);
-                        if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
-                                (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
-                                !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
-                            prob[zone] = 0.;
-                        } else {
-                            prob[zone] = betaForZoneChoice * availableLand * utilitiesByDwellingTypeByZone[dto][zone];
-                            probSum += prob[zone];
-                        }
-                    }
-                    if (probSum == 0) {
+                    int zone = zoneWeights.selectZoneInRegion(region, random);
+                    if (zone < 0) {
                         unrealizedDwellings++;
                         continue;
                     }
-                    for (int zone : zonesInThisRegion) {
-                        prob[zone] = prob[zone] / probSum;
-                    }
-                    int zone = SiloUtil.select(prob, random);
                     events.add(createNewDwelling(realEstate, aveSizeByTypeAndRegion, avePriceByTypeAndZone,
                             avePriceByTypeAndRegion, dt, dto, region, zone));
+                    zoneWeights.update(zone);
                 }
                 for (int i = 1; i <= unrealizedDwellings; i++) {
-                    int zone = allocateUnrealizedDemandInDifferentRegion(realEstate, dt, dto,
-                            avePriceByTypeAndZone, avePriceByTypeAndRegion, utilitiesByDwellingTypeByZone);
+                    // Due to limited available land or zoning, not all demand can be realized in all zones. Find an
+                    // alternative region where demand can be built
+                    int zone = zoneWeights.selectZoneForSpillOver(random);
 
                     if (zone > -1) {
                         events.add(createNewDwelling(realEstate, aveSizeByTypeAndRegion, avePriceByTypeAndZone,
                                 avePriceByTypeAndRegion, dt, dto, region, zone));
+                        zoneWeights.update(zone);
                     } else {
                         unrealizedDemandCounter++;
                     }
@@ -206,35 +200,22 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
     }
 
+    /**
+     * @return scaled average housing price indexed by [dwelling type][zone ordinal]
+     */
     private double[][] calculateScaledAveragePriceByZone(float scaler) {
-        // calculate scaled average housing price by dwelling type and zone
-
         RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
         List<DwellingType> dwellingTypes = realEstate.getDwellingTypes();
 
-        final int highestZoneId = geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get();
-        double[][] avePrice = new double[dwellingTypes.size()][highestZoneId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestZoneId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int zone = geoData.getZones().get(dd.getZoneId()).getZoneId();
-            counter[dt][zone]++;
-            avePrice[dt][zone] += dd.getPrice();
-        }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
-            double[] avePriceThisType = new double[highestZoneId + 1];
-            for (int zone : geoData.getZones().keySet()) {
-                if (counter[dto][zone] > 0) {
-                    avePriceThisType[zone] = avePrice[dto][zone] / counter[dto][zone];
-                } else {
-                    avePriceThisType[zone] = 0;
+        final DwellingStatistics statistics = realEstate.getDwellingStatistics();
+        double[][] avePrice = new double[dwellingTypes.size()][statistics.getNumberOfZones()];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
+            for (int zone = 0; zone < statistics.getNumberOfZones(); zone++) {
+                if (statistics.getCount(dto, zone) > 0) {
+                    avePrice[dto][zone] = statistics.getPriceSum(dto, zone) / (double) statistics.getCount(dto, zone);
                 }
             }
-            double[] scaledAvePriceThisDwellingType = SiloUtil.scaleArray(avePriceThisType, scaler);
-            for (int zones : geoData.getZones().keySet()) {
-                avePrice[dto][zones] = scaledAvePriceThisDwellingType[zones];
-            }
+            SiloUtil.scaleArray(avePrice[dto], scaler);
         }
         return avePrice;
     }
@@ -248,7 +229,7 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         int quality = properties.main.qualityLevels;  // set all new dwellings to highest quality level
 
         // dwelling is unrestricted, generate free-market price
-        double avePrice = avePriceByTypeAndZone[dto][zone];
+        double avePrice = avePriceByTypeAndZone[dto][dataContainer.getGeoIndex().getZoneOrdinal(zone)];
         if (avePrice == 0) {
             avePrice = avePriceByTypeAndRegion[dto][region];
         }
@@ -267,36 +248,27 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         return (new ConstructionEvent(plannedDwelling));
     }
 
-    private int allocateUnrealizedDemandInDifferentRegion(RealEstateDataManager realEstate, DwellingType dt, int dto,
-                                                          double[][] avePriceByTypeAndZone, double[][] avePriceByTypeAndRegion, double[][] utilitiesByDwellingTypeByZone) {
-        // Due to limited available land or zoning, not all demand can be realized in all zones. Find an alternative
-        // region where demand can be built
-        int selectedZone = 1;
-        double probSum = 0;
-        double[] prob = new double[geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get() + 1];
-        for (Map.Entry<Integer, Zone> zone : geoData.getZones().entrySet()) {
-            double availableLand = realEstate.getAvailableCapacityForConstruction(zone.getValue().getId());
-            if (availableLand < dt.getAreaPerDwelling()) {
-                continue;
-            }
-            Development development = zone.getValue().getDevelopment();
-            boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
-            if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
-                    (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
-                    !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
-                prob[zone.getValue().getId()] = 0.;
-            } else {
-                prob[zone.getValue().getId()] = betaForZoneChoice * availableLand * utilitiesByDwellingTypeByZone[dto][zone.getValue().getId()];
-                probSum += prob[zone.getValue().getId()];
-            }
-        }
-        if (probSum == 0) {
-            return -1;
+    private double calculateZoneWeight(RealEstateDataManager realEstate, DwellingType dt, int dto, Zone zone,
+                                       double[][] utilitiesByDwellingTypeByZone) {
+        Development development = zone.getDevelopment();
+        boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
+        double availableLand = realEstate.getAvailableCapacityForConstruction(zone.getZoneId());
+        if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
+                (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
+                !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
+            return 0.;
         }
-        for (Map.Entry<Integer, Zone> zone : geoData.getZones().entrySet()) {
-            prob[zone.getValue().getId()] = prob[zone.getValue().getId()] / probSum;
+        return betaForZoneChoice * availableLand
+                * utilitiesByDwellingTypeByZone[dto][dataContainer.getGeoIndex().getZoneOrdinal(zone.getZoneId())];
+    }
+
+    private double calculateSpillOverZoneWeight(RealEstateDataManager realEstate, DwellingType dt, int dto, Zone zone,
+                                                double[][] utilitiesByDwellingTypeByZone) {
+        // demand from other regions is only allocated to zones with enough land for a dwelling of this type
+        if (realEstate.getAvailableCapacityForConstruction(zone.getZoneId()) < dt.getAreaPerDwelling()) {
+            return 0.;
         }
-        return SiloUtil.select(prob, random);
+        return calculateZoneWeight(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone);
     }
 
 
@@ -305,20 +277,15 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
         List<DwellingType> dwellingTypes = realEstate.getDwellingTypes();
         final int highestRegionId = geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get();
+        final int[][] counter = realEstate.getDwellingStatistics().getCountByTypeAndRegion();
+        final long[][] priceSum = realEstate.getDwellingStatistics().getPriceSumByTypeAndRegion();
         double[][] avePrice = new double[dwellingTypes.size()][highestRegionId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestRegionId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-            counter[dt][region]++;
-            avePrice[dt][region] += dd.getPrice();
-        }
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             double[] avePriceThisType = new double[highestRegionId + 1];
             for (int region : geoData.getRegions().keySet()) {
-                if (counter[dto][region] > 0) {
-                    avePriceThisType[region] = avePrice[dto][region] / counter[dto][region];
+                if (region < counter[dto].length && counter[dto][region] > 0) {
+                    avePriceThisType[region] = priceSum[dto][region] / (double) counter[dto][region];
                 } else {
                     avePriceThisType[region] = 0;
                 }
@@ -336,19 +303,15 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         // calculate average housing size by dwelling type and region
         final int highestRegionId = geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get();
         List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes();
+        final DwellingStatistics statistics = dataContainer.getRealEstateDataManager().getDwellingStatistics();
+        final int[][] counter = statistics.getCountByTypeAndRegion();
+        final long[][] bedroomSum = statistics.getBedroomSumByTypeAndRegion();
         float[][] aveSize = new float[dwellingTypes.size()][highestRegionId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestRegionId + 1];
-        for (Dwelling dd : dataContainer.getRealEstateDataManager().getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-            counter[dt][region]++;
-            aveSize[dt][region] += dd.getBedrooms();
-        }
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             for (int region : geoData.getRegions().keySet()) {
-                if (counter[dto][region] > 0) {
-                    aveSize[dto][region] = aveSize[dto][region] / counter[dto][region];
+                if (region < counter[dto].length && counter[dto][region] > 0) {
+                    aveSize[dto][region] = (float) bedroomSum[dto][region] / counter[dto][region];
                 } else {
                     aveSize[dto][region] = 0;
                 }
@@ -0,0 +1,125 @@
+package de.tum.bgu.msm.models.realEstate.construction;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.geo.GeoIndex;
+import de.tum.bgu.msm.utils.FenwickTree;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Zone choice weights for the construction of one dwelling type. Every region keeps the weights of its zones in a
+ * {@link FenwickTree}, and the spill-over weights of unrealized demand are summed up per region in another tree.
+ * Drawing a zone and updating the weights of a zone after construction both take O(log zones), so weights do not
+ * have to be recalculated for all zones after every new dwelling. Not thread safe.
+ */
+final class ConstructionZoneWeights {
+
+    private final ToDoubleFunction<Zone> weight;
+    private final ToDoubleFunction<Zone> spillOverWeight;
+
+    private final GeoIndex geoIndex;
+    private final Zone[][] zonesByRegion;
+    private final int[] indexInRegionByZone;
+
+    private final FenwickTree[] weightsByRegion;
+    private final FenwickTree[] spillOverWeightsByRegion;
+    private final FenwickTree spillOverWeightByRegion;
+
+    // rounding errors may leave a small positive sum after all weights of a region dropped to zero
+    private final int[] positiveZonesByRegion;
+    private final int[] positiveSpillOverZonesByRegion;
+
+    /**
+     * @param regions         the regions of the zones of the geo index
+     * @param weight          weight of a zone for demand of its own region
+     * @param spillOverWeight weight of a zone for demand that could not be realized in another region
+     */
+    ConstructionZoneWeights(Collection<Region> regions, GeoIndex geoIndex, ToDoubleFunction<Zone> weight,
+                            ToDoubleFunction<Zone> spillOverWeight) {
+        this.geoIndex = geoIndex;
+        this.weight = weight;
+        this.spillOverWeight = spillOverWeight;
+
+        final int numberOfRegions = geoIndex.getNumberOfRegions();
+        indexInRegionByZone = new int[geoIndex.getNumberOfZones()];
+        zonesByRegion = new Zone[numberOfRegions][];
+        weightsByRegion = new FenwickTree[numberOfRegions];
+        spillOverWeightsByRegion = new FenwickTree[numberOfRegions];
+        positiveZonesByRegion = new int[numberOfRegions];
+        positiveSpillOverZonesByRegion = new int[numberOfRegions];
+        final double[] spillOverSums = new double[numberOfRegions];
+        for (Region region : regions) {
+            final int r = geoIndex.getRegionOrdinal(region.getId());
+            final Zone[] zones = region.getZones().toArray(new Zone[0]);
+            final double[] weights = new double[zones.length];
+            final double[] spillOverWeights = new double[zones.length];
+            for (int i = 0; i < zones.length; i++) {
+                indexInRegionByZone[geoIndex.getZoneOrdinal(zones[i].getZoneId())] = i;
+                weights[i] = weight.applyAsDouble(zones[i]);
+                spillOverWeights[i] = spillOverWeight.applyAsDouble(zones[i]);
+                if (weights[i] > 0) {
+                    positiveZonesByRegion[r]++;
+                }
+                if (spillOverWeights[i] > 0) {
+                    positiveSpillOverZonesByRegion[r]++;
+                }
+            }
+            zonesByRegion[r] = zones;
+            weightsByRegion[r] = new FenwickTree(weights);
+            spillOverWeightsByRegion[r] = new FenwickTree(spillOverWeights);
+            spillOverSums[r] = spillOverWeightsByRegion[r].total();
+        }
+        spillOverWeightByRegion = new FenwickTree(spillOverSums);
+    }
+
+    /**
+     * @return the id of a zone of the given region, drawn proportionally to its weight, or -1 if no zone of the
+     * region has a positive weight
+     */
+    int selectZoneInRegion(int regionId, Random random) {
+        final int r = geoIndex.getRegionOrdinal(regionId);
+        if (r < 0 || positiveZonesByRegion[r] == 0) {
+            return -1;
+        }
+        final int index = weightsByRegion[r].sample(random);
+        return index < 0 ? -1 : zonesByRegion[r][index].getZoneId();
+    }
+
+    /**
+     * @return the id of a zone in any region, drawn proportionally to its spill-over weight, or -1 if no zone has
+     * a positive spill-over weight
+     */
+    int selectZoneForSpillOver(Random random) {
+        final int r = spillOverWeightByRegion.sample(random);
+        if (r < 0) {
+            return -1;
+        }
+        final int index = spillOverWeightsByRegion[r].sample(random);
+        return index < 0 ? -1 : zonesByRegion[r][index].getZoneId();
+    }
+
+    /**
+     * Recalculates the weights of the given zone, e.g. after its capacity for construction was reduced.
+     */
+    void update(int zoneId) {
+        final int r = geoIndex.getRegionOrdinal(geoIndex.getRegionOfZone(zoneId));
+        final int index = indexInRegionByZone[geoIndex.getZoneOrdinal(zoneId)];
+        final Zone zone = zonesByRegion[r][index];
+        final double newWeight = weight.applyAsDouble(zone);
+        positiveZonesByRegion[r] += countIfPositive(newWeight) - countIfPositive(weightsByRegion[r].get(index));
+        weightsByRegion[r].set(index, newWeight);
+
+        final double newSpillOverWeight = spillOverWeight.applyAsDouble(zone);
+        positiveSpillOverZonesByRegion[r] += countIfPositive(newSpillOverWeight)
+                - countIfPositive(spillOverWeightsByRegion[r].get(index));
+        spillOverWeightsByRegion[r].set(index, newSpillOverWeight);
+        spillOverWeightByRegion.set(r, positiveSpillOverZonesByRegion[r] > 0 ? spillOverWeightsByRegion[r].total() : 0);
+    }
+
+    private static int countIfPositive(double weight) {
+        return weight > 0 ? 1 : 0;
+    }
+}
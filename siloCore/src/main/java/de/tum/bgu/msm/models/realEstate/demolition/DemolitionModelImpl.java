@@ -10,6 +10,7 @@ import de.tum.bgu.msm.models.relocation.migration.InOutMigration;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
@@ -29,9 +30,10 @@ public class DemolitionModelImpl extends AbstractModel implements DemolitionMode
 
     private final MovesModelImpl moves;
     private final InOutMigration inOutMigration;
-    private final DemolitionStrategy strategy;
+    private DemolitionStrategy strategy;
 
     private int currentYear = -1;
+    private boolean eventsPreselected = false;
     private int forcedOutmigrationByDemolition;
 
     public DemolitionModelImpl(DataContainer dataContainer, MovesModelImpl moves,
@@ -45,7 +47,9 @@ public class DemolitionModelImpl extends AbstractModel implements DemolitionMode
 
     @Override
     public void setup() {
-
+        if (properties.main.tabulateScriptProbabilities) {
+            strategy = TabulatedDemolitionStrategy.tabulate(strategy);
+        }
     }
 
     @Override
@@ -57,8 +61,17 @@ public class DemolitionModelImpl extends AbstractModel implements DemolitionMode
     public Collection<DemolitionEvent> getEventsForCurrentYear(int year) {
         currentYear = year;
         final List<DemolitionEvent> events = new ArrayList<>();
-        for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
-            events.add(new DemolitionEvent(dwelling.getId()));
+        eventsPreselected = properties.realEstate.skipSamplingEvents;
+        if (eventsPreselected) {
+            final SkipSampler sampler = new SkipSampler();
+            for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
+                sampler.add(dwelling.getId(), strategy.calculateDemolitionProbability(dwelling, year));
+            }
+            sampler.sample(random, id -> events.add(new DemolitionEvent(id)));
+        } else {
+            for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
+                events.add(new DemolitionEvent(dwelling.getId()));
+            }
         }
         return events;
     }
@@ -67,7 +80,7 @@ public class DemolitionModelImpl extends AbstractModel implements DemolitionMode
     public boolean handleEvent(DemolitionEvent event) {
         Dwelling dd = dataContainer.getRealEstateDataManager().getDwelling(event.getDwellingId());
         if (dd != null) {
-            if (random.nextDouble() < strategy.calculateDemolitionProbability(dd, currentYear)) {
+            if (eventsPreselected || random.nextDouble() < strategy.calculateDemolitionProbability(dd, currentYear)) {
                 return demolishDwelling(dd);
             }
         }
@@ -0,0 +1,78 @@
+package de.tum.bgu.msm.models.realEstate.demolition;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.dwelling.DwellingUsage;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DefaultDemolitionStrategy} tabulated by quality, type, usage and age of a dwelling, per year.
+ */
+public final class TabulatedDemolitionStrategy implements DemolitionStrategy {
+
+    private final DefaultDemolitionStrategy delegate;
+    private final Map<DwellingClass, Double> table = new ConcurrentHashMap<>();
+    private volatile int tabulatedYear = Integer.MIN_VALUE;
+
+    private TabulatedDemolitionStrategy(DefaultDemolitionStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    public static DemolitionStrategy tabulate(DemolitionStrategy strategy) {
+        if (strategy instanceof TabulatedDemolitionStrategy) {
+            return new TabulatedDemolitionStrategy(((TabulatedDemolitionStrategy) strategy).delegate);
+        } else if (strategy != null && strategy.getClass() == DefaultDemolitionStrategy.class) {
+            return new TabulatedDemolitionStrategy((DefaultDemolitionStrategy) strategy);
+        }
+        return strategy;
+    }
+
+    @Override
+    public double calculateDemolitionProbability(Dwelling dd, int currentYear) {
+        if (tabulatedYear != currentYear) {
+            synchronized (table) {
+                if (tabulatedYear != currentYear) {
+                    table.clear();
+                    tabulatedYear = currentYear;
+                }
+            }
+        }
+        return table.computeIfAbsent(new DwellingClass(dd, currentYear),
+                dwellingClass -> delegate.calculateDemolitionProbability(dd, currentYear));
+    }
+
+    private static final class DwellingClass {
+
+        private final int quality;
+        private final DwellingType type;
+        private final DwellingUsage usage;
+        private final int age;
+
+        private DwellingClass(Dwelling dd, int year) {
+            this.quality = dd.getQuality();
+            this.type = dd.getType();
+            this.usage = dd.getUsage();
+            this.age = year - dd.getYearBuilt();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final DwellingClass that = (DwellingClass) o;
+            return quality == that.quality && age == that.age && Objects.equals(type, that.type) && usage == that.usage;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(quality, type, usage, age);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package de.tum.bgu.msm.models.realEstate.pricing;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
@@ -19,6 +21,8 @@ import java.util.Random;
 public final class PricingModelImpl extends AbstractModel implements PricingModel {
 
     private final static Logger logger = Logger.getLogger(PricingModelImpl.class);
+    private final static int DWELLINGS_PER_TASK = 10000;
+
     private final PricingStrategy strategy;
 
 
@@ -53,42 +57,60 @@ public final class PricingModelImpl extends AbstractModel implements PricingMode
         // get vacancy rate
         double[][] vacRate = dataContainer.getRealEstateDataManager().getVacancyRateByTypeAndRegion();
         List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes();
-//        HashMap<String, Integer> priceChange = new HashMap<>();
-
-        int[] cnt = new int[dwellingTypes.size()];
-        double[] sumOfPrices = new double[dwellingTypes.size()];
-        for (Dwelling dd: dataContainer.getRealEstateDataManager().getDwellings()) {
-            if (!strategy.isPriceUpdateAllowed(dd)) {
-                continue;
-            }
-            int dto = dwellingTypes.indexOf(dd.getType());
-            int currentPrice = dd.getPrice();
-            int region = dataContainer.getGeoData().getZones().get(dd.getZoneId()).getRegion().getId();
-            double vacancyRateAtThisRegion = vacRate[dto][region];
-            float structuralVacancyRate = dd.getType().getStructuralVacancyRate();
-            double changeRate = strategy.getPriceChangeRate(vacancyRateAtThisRegion, structuralVacancyRate);
-
-
-
-
-            double newPrice = currentPrice * changeRate;
+        final double[][] changeRates = calculateChangeRates(vacRate, dwellingTypes);
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
+
+        // new prices are calculated in parallel, but set serially as the dwelling statistics are not thread safe
+        final Dwelling[] dwellings = dataContainer.getRealEstateDataManager().getDwellings().toArray(new Dwelling[0]);
+        final int[] newPrices = new int[dwellings.length];
+        final int numberOfChunks = (dwellings.length + DWELLINGS_PER_TASK - 1) / DWELLINGS_PER_TASK;
+        final int[][] cntByChunk = new int[numberOfChunks][dwellingTypes.size()];
+        final double[][] sumOfPricesByChunk = new double[numberOfChunks][dwellingTypes.size()];
+        ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(properties.main.numberOfThreads);
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            final int first = chunk * DWELLINGS_PER_TASK;
+            final int last = Math.min(dwellings.length, first + DWELLINGS_PER_TASK);
+            final int[] cnt = cntByChunk[chunk];
+            final double[] sumOfPrices = sumOfPricesByChunk[chunk];
+            executor.addTaskToQueue(() -> {
+                for (int i = first; i < last; i++) {
+                    Dwelling dd = dwellings[i];
+                    if (!strategy.isPriceUpdateAllowed(dd)) {
+                        newPrices[i] = dd.getPrice();
+                        continue;
+                    }
+                    int dto = geoIndex.getDwellingTypeOrdinal(dd.getType());
+                    double newPrice = dd.getPrice() * changeRates[dto][geoIndex.getRegionOfZone(dd.getZoneId())];
+                    newPrices[i] = (int) (newPrice + 0.5);
+                    cnt[dto]++;
+                    sumOfPrices[dto] += newPrice;
+                }
+                return null;
+            });
+        }
+        executor.execute();
 
-            if (dd.getId() == SiloUtil.trackDd) {
+        for (int i = 0; i < dwellings.length; i++) {
+            Dwelling dd = dwellings[i];
+            if (dd.getId() == SiloUtil.trackDd && strategy.isPriceUpdateAllowed(dd)) {
+                int dto = geoIndex.getDwellingTypeOrdinal(dd.getType());
+                double newPrice = dd.getPrice() * changeRates[dto][geoIndex.getRegionOfZone(dd.getZoneId())];
                 SiloUtil.trackWriter.println("The monthly costs of dwelling " +
-                        dd.getId() + " was changed from " + currentPrice + " to " + newPrice +
+                        dd.getId() + " was changed from " + dd.getPrice() + " to " + newPrice +
                         " (in constant currency value without inflation).");
             }
-            dd.setPrice((int) (newPrice + 0.5));
-            cnt[dto]++;
-            sumOfPrices[dto] += newPrice;
-
-//            String token = dto+"_"+vacRate[dto][region]+"_"+currentPrice+"_"+newPrice;
-//            if (priceChange.containsKey(token)) {
-//                priceChange.put(token, (priceChange.get(token) + 1));
-//            } else {
-//                priceChange.put(token, 1);
-//            }
+            if (newPrices[i] != dd.getPrice()) {
+                dataContainer.getRealEstateDataManager().setDwellingPrice(dd, newPrices[i]);
+            }
+        }
 
+        int[] cnt = new int[dwellingTypes.size()];
+        double[] sumOfPrices = new double[dwellingTypes.size()];
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            for (int dto = 0; dto < dwellingTypes.size(); dto++) {
+                cnt[dto] += cntByChunk[chunk][dto];
+                sumOfPrices[dto] += sumOfPricesByChunk[chunk][dto];
+            }
         }
         double[] averagePrice = new double[dwellingTypes.size()];
         logger.info("Updated average real-estate prices by dwelling type:");
@@ -99,4 +121,20 @@ public final class PricingModelImpl extends AbstractModel implements PricingMode
         }
         dataContainer.getRealEstateDataManager().setAvePriceByDwellingType(averagePrice);
     }
+
+    /**
+     * The change rate only depends on the vacancy rate of the dwelling type in the region, so the strategy is
+     * evaluated once per dwelling type and region instead of once per dwelling.
+     */
+    private double[][] calculateChangeRates(double[][] vacRate, List<DwellingType> dwellingTypes) {
+        double[][] changeRates = new double[vacRate.length][];
+        for (int dto = 0; dto < vacRate.length; dto++) {
+            float structuralVacancyRate = dwellingTypes.get(dto).getStructuralVacancyRate();
+            changeRates[dto] = new double[vacRate[dto].length];
+            for (int region = 0; region < vacRate[dto].length; region++) {
+                changeRates[dto][region] = strategy.getPriceChangeRate(vacRate[dto][region], structuralVacancyRate);
+            }
+        }
+        return changeRates;
+    }
 }
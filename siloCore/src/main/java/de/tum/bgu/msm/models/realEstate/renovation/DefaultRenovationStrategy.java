@@ -3,17 +3,23 @@ package de.tum.bgu.msm.models.realEstate.renovation;
 
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultRenovationStrategy extends JavaScriptCalculator<Double> implements RenovationStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getRenovationScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getRenovationScriptInput());
+    private final ScriptFunction renovationProbability =
+            ScriptTranslator.translate(script, "calculateRenovationProbability", int.class, int.class);
 
-    public DefaultRenovationStrategy() {super(reader);}
+    public DefaultRenovationStrategy() {super(new StringReader(script));}
 
     public double calculateRenovationProbability(int quality, int newQuality) {
+        if (renovationProbability != null) {
+            return renovationProbability.apply(quality, newQuality);
+        }
         return super.calculate("calculateRenovationProbability", quality, newQuality);
     }
 }
@@ -7,6 +7,7 @@ import de.tum.bgu.msm.events.impls.realEstate.RenovationEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.SkipSampler;
 
 import java.util.*;
 
@@ -19,6 +20,8 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
 
     private final RenovationStrategy strategy;
     private double[][] renovationProbability;
+    private double[][] transitionProbability;
+    private boolean eventsPreselected = false;
 
     private enum DdQualityChange {
         DECREASE_2 {
@@ -73,9 +76,32 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
 
     @Override
     public Collection<RenovationEvent> getEventsForCurrentYear(int year) {
+        // quality shares are updated once per year, so are the transition probabilities
+        transitionProbability = new double[properties.main.qualityLevels][];
+        for (int quality = 1; quality <= properties.main.qualityLevels; quality++) {
+            transitionProbability[quality - 1] = calculateTransitionProbabilities(quality);
+        }
+
         final List<RenovationEvent> events = new ArrayList<>();
-        for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
-            events.add(new RenovationEvent(dwelling.getId()));
+        eventsPreselected = properties.realEstate.skipSamplingEvents;
+        if (eventsPreselected) {
+            // only dwellings that change their quality get an event
+            final double[] changeProbability = new double[transitionProbability.length];
+            for (int quality = 0; quality < transitionProbability.length; quality++) {
+                final double sum = Arrays.stream(transitionProbability[quality]).sum();
+                if (sum > 0) {
+                    changeProbability[quality] = 1 - transitionProbability[quality][DdQualityChange.UNCHANGED.ordinal()] / sum;
+                }
+            }
+            final SkipSampler sampler = new SkipSampler();
+            for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
+                sampler.add(dwelling.getId(), changeProbability[dwelling.getQuality() - 1]);
+            }
+            sampler.sample(random, id -> events.add(new RenovationEvent(id)));
+        } else {
+            for (Dwelling dwelling : dataContainer.getRealEstateDataManager().getDwellings()) {
+                events.add(new RenovationEvent(dwelling.getId()));
+            }
         }
         return events;
     }
@@ -106,12 +132,24 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
     }
 
     private Map<DdQualityChange, Double> getProbabilities(int currentQual) {
+        Map<DdQualityChange, Double> probs = new EnumMap<>(DdQualityChange.class);
+        for (DdQualityChange change: DdQualityChange.values()) {
+            if (eventsPreselected && change == DdQualityChange.UNCHANGED) {
+                // preselected dwellings change their quality for sure
+                continue;
+            }
+            probs.put(change, transitionProbability[currentQual - 1][change.ordinal()]);
+        }
+        return probs;
+    }
+
+    private double[] calculateTransitionProbabilities(int currentQual) {
         // return probabilities to upgrade or deteriorate based on current quality of dwelling and average
         // quality of all dwellings
         Map<Integer, Double> currentShare = dataContainer.getRealEstateDataManager().getUpdatedQualityShares();
         Map<Integer, Double> initialShare = dataContainer.getRealEstateDataManager().getInitialQualShares();
 
-        Map<DdQualityChange, Double> probs = new EnumMap<>(DdQualityChange.class);
+        double[] probs = new double[DdQualityChange.values().length];
         for (DdQualityChange change: DdQualityChange.values()) {
             int potentialNewQual = currentQual + change.getChange();
             potentialNewQual = Math.min(Math.max(1, potentialNewQual), properties.main.qualityLevels);
@@ -119,10 +157,8 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
             double ratio = initialShare.getOrDefault(potentialNewQual, 0.01)
                     / currentShare.getOrDefault(potentialNewQual, 0.01);
 
-            double prob = renovationProbability[currentQual - 1][change.ordinal()] * ratio;
-            probs.put(change, prob);
+            probs[change.ordinal()] = renovationProbability[currentQual - 1][change.ordinal()] * ratio;
         }
         return probs;
     }
 }
-
@@ -104,6 +104,9 @@ public class InOutMigrationImpl extends AbstractModel implements InOutMigration
                 inmigrants = target - currentPopulation;
             }
         }
+        // Inmigrants are duplicated here rather than searching by a HouseholdProfile and creating them on a
+        // successful move: ids are drawn in event order, so later duplication would renumber all households and
+        // persons created afterwards in the same year.
         int createdInmigrants = 0;
         while (createdInmigrants < inmigrants) {
             Household hh = hhs[(int) (hhs.length * this.random.nextDouble())];
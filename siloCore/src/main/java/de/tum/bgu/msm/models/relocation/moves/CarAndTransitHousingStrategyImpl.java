@@ -4,12 +4,15 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManagerImpl;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.household.IncomeCategory;
@@ -17,15 +20,18 @@ import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix1D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -61,6 +67,8 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
     private final TravelTimes travelTimes;
     private final Accessibility accessibility;
     private final CommutingTimeProbability commutingTimeProbability;
+    private final CommuteProbabilityMatrix commuteProbabilityMatrix;
+    private final boolean zoneBasedTravelTimes;
 
     private final DwellingUtilityStrategy dwellingUtilityStrategy;
     private final DwellingProbabilityStrategy dwellingProbabilityStrategy;
@@ -69,6 +77,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
     private final RegionProbabilityStrategy regionProbabilityStrategy;
 
     private EnumMap<IncomeCategory, Map<Integer, Double>> utilityByIncomeByRegion = new EnumMap<>(IncomeCategory.class);
+    private RegionUtilityCache regionUtilityCache;
 
     public CarAndTransitHousingStrategyImpl(DataContainer dataContainer,
                                             Properties properties,
@@ -82,11 +91,14 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
         this.travelTimes = travelTimes;
         accessibility = dataContainer.getAccessibility();
         commutingTimeProbability = dataContainer.getCommutingTimeProbability();
+        commuteProbabilityMatrix = dataContainer.getCommuteProbabilityMatrix();
+        zoneBasedTravelTimes = travelTimes instanceof SkimTravelTimes;
         this.dwellingUtilityStrategy = dwellingUtilityStrategy;
         this.dwellingProbabilityStrategy = dwellingProbabilityStrategy;
         this.regionUtilityStrategy = regionUtilityStrategy;
         this.realEstateDataManager = dataContainer.getRealEstateDataManager();
         this.regionProbabilityStrategy = regionProbabilityStrategy;
+        this.regionUtilityCache = new RegionUtilityCache(properties.moves.regionUtilityCacheSize);
     }
 
 
@@ -101,53 +113,68 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
         return true;
     }
 
+    @Override
+    public boolean isHouseholdEligibleToLiveHere(HouseholdProfile profile, Dwelling dd) {
+        return true;
+    }
+
     @Override
     public double calculateHousingUtility(Household hh, Dwelling dwelling) {
         if(dwelling == null) {
             logger.warn("Household " + hh.getId() + " has no dwelling. Setting housing satisfaction to 0");
             return 0;
         }
+        double carToWorkersRatio = Math.min(1., ((double) hh.getAutos() / HouseholdUtil.getNumberOfWorkers(hh)));
+        double workDistanceUtility = 1;
+        for (Person pp: hh.getPersons().values()) {
+            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+                workDistanceUtility *= getWorkDistanceFactor(dwelling, pp.getJobId(), carToWorkersRatio);
+            }
+        }
+        return calculateHousingUtility(hh.getHouseholdType(), dwelling, workDistanceUtility);
+    }
+
+    @Override
+    public double calculateHousingUtility(HouseholdProfile profile, Dwelling dwelling) {
+        if(dwelling == null) {
+            logger.warn("Household " + profile.getId() + " has no dwelling. Setting housing satisfaction to 0");
+            return 0;
+        }
+        double carToWorkersRatio = Math.min(1., ((double) profile.getAutos() / profile.getNumberOfWorkers()));
+        double workDistanceUtility = 1;
+        for (int jobId : profile.getWorkplaces()) {
+            workDistanceUtility *= getWorkDistanceFactor(dwelling, jobId, carToWorkersRatio);
+        }
+        return calculateHousingUtility(profile.getHouseholdType(), dwelling, workDistanceUtility);
+    }
+
+    private double calculateHousingUtility(HouseholdType ht, Dwelling dwelling, double workDistanceUtility) {
         double ddQualityUtility = convertQualityToUtility(dwelling.getQuality());
         double ddSizeUtility = convertAreaToUtility(dwelling.getBedrooms());
         double ddAutoAccessibilityUtility = convertAccessToUtility(accessibility.getAutoAccessibilityForZone(geoData.getZones().get(dwelling.getZoneId())));
         double transitAccessibilityUtility = convertAccessToUtility(accessibility.getTransitAccessibilityForZone(geoData.getZones().get(dwelling.getZoneId())));
-        HouseholdType ht = hh.getHouseholdType();
         double ddPriceUtility = convertPriceToUtility(dwelling.getPrice(), ht.getIncomeCategory());
 
-
-        double carToWorkersRatio = Math.min(1., ((double) hh.getAutos() / HouseholdUtil.getNumberOfWorkers(hh)));
-
-        //currently this is re-filtering persons to find workers (it was done previously in select region)
-        // This way looks more flexible to account for other trips, such as education, though.
-
         double travelCostUtility = 1; //do not have effect at the moment;
-        double factorForThisZone;
-        JobDataManager jobDataManager = dataContainer.getJobDataManager();
-        double workDistanceUtility = 1;
-        for (Person pp: hh.getPersons().values()) {
-            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                final Job job = jobDataManager.getJobFromId(pp.getJobId());
-                if(carToWorkersRatio == 0.) {
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.pt);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
-                } else if( carToWorkersRatio == 1.) {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                } else {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.pt);
-                    double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                    double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
-                    factorForThisZone= factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
-                }
-                workDistanceUtility *= factorForThisZone;
-            }
-        }
+
         return dwellingUtilityStrategy.calculateSelectDwellingUtility(ht, ddSizeUtility, ddPriceUtility,
                 ddQualityUtility, ddAutoAccessibilityUtility,
                 transitAccessibilityUtility, workDistanceUtility);
     }
 
+    private double getWorkDistanceFactor(Dwelling dwelling, int jobId, double carToWorkersRatio) {
+        final Job job = dataContainer.getJobDataManager().getJobFromId(jobId);
+        if(carToWorkersRatio == 0.) {
+            return getCommuteProbability(dwelling, job, TransportMode.pt);
+        } else if( carToWorkersRatio == 1.) {
+            return getCommuteProbability(dwelling, job, TransportMode.car);
+        } else {
+            double factorCar = getCommuteProbability(dwelling, job, TransportMode.car);
+            double factorPt = getCommuteProbability(dwelling, job, TransportMode.pt);
+            return factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
+        }
+    }
+
     @Override
     public double calculateSelectDwellingProbability(double util) {
         return dwellingProbabilityStrategy.calculateSelectDwellingProbability(util);
@@ -162,6 +189,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
     public void prepareYear() {
         calculateShareOfForeignersByZoneAndRegion();
         calculateRegionalUtilities();
+        regionUtilityCache.invalidate();
     }
 
     @Override
@@ -175,26 +203,91 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 final Job job = jobDataManager.getJobFromId(pp.getJobId());
                 if(job != null) {
-                    Zone workZone = geoData.getZones().get(job.getZoneId());
-                    if(carToWorkersRatio <= 0.) {
-                        int ptTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.pt);
-                        thisRegionFactor = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
-                    } else if( carToWorkersRatio >= 1.) {
-                        int carTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone,properties.transportModel.peakHour_s, TransportMode.car);
-                        thisRegionFactor = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                    } else {
-                        int carTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.car);
-                        int ptTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.pt);
-                        double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                        double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime),TransportMode.pt);
-
-                        thisRegionFactor= factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
-                    }
+                    thisRegionFactor = getRegionFactor(job, region, carToWorkersRatio);
                 }
             }
         }
-        double util = utilityByIncomeByRegion.get(household.getHouseholdType().getIncomeCategory()).get(region.getId()) * thisRegionFactor;
-        return normalize(region, util);
+        return normalize(region, calculateBaseRegionalUtility(household.getHouseholdType(), region, thisRegionFactor));
+    }
+
+    @Override
+    public double calculateRegionalUtility(HouseholdProfile profile, Region region) {
+        return normalize(region, calculateBaseRegionalUtility(profile, region));
+    }
+
+    @Override
+    public double[] calculateRegionalUtilities(HouseholdProfile profile, Collection<Region> regions,
+                                               Predicate<Region> considered) {
+        final double[] baseUtilities = regionUtilityCache.get(signatureOf(profile), signature -> {
+            final double[] utilities = new double[regions.size()];
+            int i = 0;
+            for (Region region : regions) {
+                utilities[i++] = calculateBaseRegionalUtility(profile, region);
+            }
+            return utilities;
+        });
+        final double[] utilities = new double[baseUtilities.length];
+        int i = 0;
+        for (Region region : regions) {
+            if (considered.test(region)) {
+                utilities[i] = normalize(region, baseUtilities[i]);
+            }
+            i++;
+        }
+        return utilities;
+    }
+
+    /**
+     * Regional utility before normalization, depends on income category, autos, workers and workplace zones only.
+     */
+    private double calculateBaseRegionalUtility(HouseholdProfile profile, Region region) {
+        JobDataManager jobDataManager = dataContainer.getJobDataManager();
+
+        double carToWorkersRatio = Math.min(1., ((double) profile.getAutos() / profile.getNumberOfWorkers()));
+
+        double thisRegionFactor = 1;
+        for (int jobId : profile.getWorkplaces()) {
+            final Job job = jobDataManager.getJobFromId(jobId);
+            if(job != null) {
+                thisRegionFactor = getRegionFactor(job, region, carToWorkersRatio);
+            }
+        }
+        return calculateBaseRegionalUtility(profile.getHouseholdType(), region, thisRegionFactor);
+    }
+
+    private double calculateBaseRegionalUtility(HouseholdType ht, Region region, double thisRegionFactor) {
+        return utilityByIncomeByRegion.get(ht.getIncomeCategory()).get(region.getId()) * thisRegionFactor;
+    }
+
+    private double getRegionFactor(Job job, Region region, double carToWorkersRatio) {
+        Zone workZone = geoData.getZones().get(job.getZoneId());
+        if(carToWorkersRatio <= 0.) {
+            int ptTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.pt);
+            return commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
+        } else if( carToWorkersRatio >= 1.) {
+            int carTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone,properties.transportModel.peakHour_s, TransportMode.car);
+            return commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
+        } else {
+            int carTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.car);
+            int ptTime = (int) travelTimes.getTravelTimeFromRegion(region, workZone, properties.transportModel.peakHour_s, TransportMode.pt);
+            double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
+            double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime),TransportMode.pt);
+            return factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
+        }
+    }
+
+    private RegionUtilityCache.Signature signatureOf(HouseholdProfile profile) {
+        JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        final int[] attributes = new int[profile.getWorkplaces().size() + 3];
+        int i = 0;
+        attributes[i++] = profile.getHouseholdType().getIncomeCategory().ordinal();
+        attributes[i++] = Math.min(profile.getAutos(), profile.getNumberOfWorkers());
+        attributes[i++] = profile.getNumberOfWorkers();
+        for (int jobId : profile.getWorkplaces()) {
+            final Job job = jobDataManager.getJobFromId(jobId);
+            attributes[i++] = job != null ? job.getZoneId() : -1;
+        }
+        return RegionUtilityCache.signature(attributes);
     }
 
     @Override
@@ -204,12 +297,14 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy);
         strategy.hhByRegion = hhByRegion;
         strategy.utilityByIncomeByRegion = utilityByIncomeByRegion;
+        strategy.regionUtilityCache = regionUtilityCache;
         return strategy;
     }
 
     private void calculateShareOfForeignersByZoneAndRegion() {
         final IndexedDoubleMatrix1D hhByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
         hhByRegion.assign(0);
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             int zone;
             Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId());
@@ -220,7 +315,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
                         + hh.getDwellingId() + ". Should not happen!");
                 continue;
             }
-            final int region = geoData.getZones().get(zone).getRegion().getId();
+            final int region = geoIndex.getRegionOfZone(zone);
             hhByZone.setIndexed(zone, hhByZone.getIndexed(zone) + 1);
             hhByRegion.setIndexed(region, hhByRegion.getIndexed(region) + 1);
 
@@ -287,6 +382,14 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
         }
     }
 
+    private double getCommuteProbability(Dwelling dwelling, Job job, String mode) {
+        if (zoneBasedTravelTimes && commuteProbabilityMatrix.covers(mode)) {
+            return commuteProbabilityMatrix.getProbability(dwelling.getZoneId(), job.getZoneId(), mode);
+        }
+        int time = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, mode);
+        return commutingTimeProbability.getCommutingTimeProbability(Math.max(1, time), mode);
+    }
+
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
         Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
@@ -4,27 +4,33 @@ import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManagerImpl;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.IncomeCategory;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix1D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -60,6 +66,8 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
     private final TravelTimes travelTimes;
     private final Accessibility accessibility;
     private final CommutingTimeProbability commutingTimeProbability;
+    private final CommuteProbabilityMatrix commuteProbabilityMatrix;
+    private final boolean zoneBasedTravelTimes;
 
     private final DwellingUtilityStrategy dwellingUtilityStrategy;
     private final DwellingProbabilityStrategy dwellingProbabilityStrategy;
@@ -68,6 +76,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
     private final RegionProbabilityStrategy regionProbabilityStrategy;
 
     private EnumMap<IncomeCategory, Map<Integer, Double>> utilityByIncomeByRegion = new EnumMap<>(IncomeCategory.class);
+    private RegionUtilityCache regionUtilityCache;
 
     public CarOnlyHousingStrategyImpl(DataContainer dataContainer,
                                       Properties properties,
@@ -81,11 +90,14 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
         this.travelTimes = travelTimes;
         accessibility = dataContainer.getAccessibility();
         commutingTimeProbability = dataContainer.getCommutingTimeProbability();
+        commuteProbabilityMatrix = dataContainer.getCommuteProbabilityMatrix();
+        zoneBasedTravelTimes = travelTimes instanceof SkimTravelTimes;
         this.dwellingUtilityStrategy = dwellingUtilityStrategy;
         this.dwellingProbabilityStrategy = dwellingProbabilityStrategy;
         this.regionUtilityStrategy = regionUtilityStrategy;
         this.realEstateDataManager = dataContainer.getRealEstateDataManager();
         this.regionProbabilityStrategy = regionProbabilityStrategy;
+        this.regionUtilityCache = new RegionUtilityCache(properties.moves.regionUtilityCacheSize);
     }
 
 
@@ -100,41 +112,57 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
         return true;
     }
 
+    @Override
+    public boolean isHouseholdEligibleToLiveHere(HouseholdProfile profile, Dwelling dd) {
+        return true;
+    }
+
     @Override
     public double calculateHousingUtility(Household hh, Dwelling dwelling) {
         if(dwelling == null) {
             logger.warn("Household " + hh.getId() + " has no dwelling. Setting housing satisfaction to 0");
             return 0;
         }
+        double workDistanceUtility = 1;
+        for (Person pp: hh.getPersons().values()) {
+            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+                workDistanceUtility *= getWorkDistanceFactor(dwelling, pp.getJobId());
+            }
+        }
+        return calculateHousingUtility(hh.getHouseholdType(), dwelling, workDistanceUtility);
+    }
+
+    @Override
+    public double calculateHousingUtility(HouseholdProfile profile, Dwelling dwelling) {
+        if(dwelling == null) {
+            logger.warn("Household " + profile.getId() + " has no dwelling. Setting housing satisfaction to 0");
+            return 0;
+        }
+        double workDistanceUtility = 1;
+        for (int jobId : profile.getWorkplaces()) {
+            workDistanceUtility *= getWorkDistanceFactor(dwelling, jobId);
+        }
+        return calculateHousingUtility(profile.getHouseholdType(), dwelling, workDistanceUtility);
+    }
+
+    private double calculateHousingUtility(HouseholdType ht, Dwelling dwelling, double workDistanceUtility) {
         double ddQualityUtility = convertQualityToUtility(dwelling.getQuality());
         double ddSizeUtility = convertAreaToUtility(dwelling.getBedrooms());
         double ddAutoAccessibilityUtility = convertAccessToUtility(accessibility.getAutoAccessibilityForZone(geoData.getZones().get(dwelling.getZoneId())));
-        HouseholdType ht = hh.getHouseholdType();
         double ddPriceUtility = convertPriceToUtility(dwelling.getPrice(), ht.getIncomeCategory());
 
-
-        //currently this is re-filtering persons to find workers (it was done previously in select region)
-        // This way looks more flexible to account for other trips, such as education, though.
-
         double travelCostUtility = 1; //do not have effect at the moment;
 
-        JobDataManager jobDataManager = dataContainer.getJobDataManager();
-        double workDistanceUtility = 1;
-        for (Person pp: hh.getPersons().values()) {
-            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                final Job job = jobDataManager.getJobFromId(pp.getJobId());
-                if(job != null) {
-                    int expectedCommuteTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.car);
-                    double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
-                    workDistanceUtility *= factorForThisZone;
-                }
-            }
-        }
         return dwellingUtilityStrategy.calculateSelectDwellingUtility(ht, ddSizeUtility, ddPriceUtility,
                 ddQualityUtility, ddAutoAccessibilityUtility,
                 0, workDistanceUtility);
     }
 
+    private double getWorkDistanceFactor(Dwelling dwelling, int jobId) {
+        final Job job = dataContainer.getJobDataManager().getJobFromId(jobId);
+        return job != null ? getCommuteProbability(dwelling, job, TransportMode.car) : 1;
+    }
+
     @Override
     public double calculateSelectDwellingProbability(double util) {
         return dwellingProbabilityStrategy.calculateSelectDwellingProbability(util);
@@ -149,26 +177,83 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
     public void prepareYear() {
         calculateShareOfForeignersByZoneAndRegion();
         calculateRegionalUtilities();
+        regionUtilityCache.invalidate();
     }
 
     @Override
     public double calculateRegionalUtility(Household household, Region region) {
-        JobDataManager jobDataManager = dataContainer.getJobDataManager();
         double thisRegionFactor = 1;
         for (Person pp: household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                final Job job = jobDataManager.getJobFromId(pp.getJobId());
-                if(job != null) {
-                    Zone workZone = geoData.getZones().get(job.getZoneId());
-                    int timeFromZoneToRegion = (int) dataContainer.getTravelTimes().getTravelTimeToRegion(
-                            workZone, region, properties.transportModel.peakHour_s, TransportMode.car);
-                    thisRegionFactor = thisRegionFactor * commutingTimeProbability.getCommutingTimeProbability(timeFromZoneToRegion, TransportMode.car);
+                thisRegionFactor *= getRegionFactor(pp.getJobId(), region);
+            }
+        }
+        return normalize(region, calculateBaseRegionalUtility(household.getHouseholdType(), region, thisRegionFactor));
+    }
 
-                }
+    @Override
+    public double calculateRegionalUtility(HouseholdProfile profile, Region region) {
+        return normalize(region, calculateBaseRegionalUtility(profile, region));
+    }
+
+    @Override
+    public double[] calculateRegionalUtilities(HouseholdProfile profile, Collection<Region> regions,
+                                               Predicate<Region> considered) {
+        final double[] baseUtilities = regionUtilityCache.get(signatureOf(profile), signature -> {
+            final double[] utilities = new double[regions.size()];
+            int i = 0;
+            for (Region region : regions) {
+                utilities[i++] = calculateBaseRegionalUtility(profile, region);
             }
+            return utilities;
+        });
+        final double[] utilities = new double[baseUtilities.length];
+        int i = 0;
+        for (Region region : regions) {
+            if (considered.test(region)) {
+                utilities[i] = normalize(region, baseUtilities[i]);
+            }
+            i++;
+        }
+        return utilities;
+    }
+
+    /**
+     * Regional utility before normalization, depends on income category and workplace zones only.
+     */
+    private double calculateBaseRegionalUtility(HouseholdProfile profile, Region region) {
+        double thisRegionFactor = 1;
+        for (int jobId : profile.getWorkplaces()) {
+            thisRegionFactor *= getRegionFactor(jobId, region);
+        }
+        return calculateBaseRegionalUtility(profile.getHouseholdType(), region, thisRegionFactor);
+    }
+
+    private double calculateBaseRegionalUtility(HouseholdType ht, Region region, double thisRegionFactor) {
+        return utilityByIncomeByRegion.get(ht.getIncomeCategory()).get(region.getId()) * thisRegionFactor;
+    }
+
+    private double getRegionFactor(int jobId, Region region) {
+        final Job job = dataContainer.getJobDataManager().getJobFromId(jobId);
+        if (job == null) {
+            return 1;
         }
-        double util = utilityByIncomeByRegion.get(household.getHouseholdType().getIncomeCategory()).get(region.getId()) * thisRegionFactor;
-        return normalize(region, util);
+        Zone workZone = geoData.getZones().get(job.getZoneId());
+        int timeFromZoneToRegion = (int) dataContainer.getTravelTimes().getTravelTimeToRegion(
+                workZone, region, properties.transportModel.peakHour_s, TransportMode.car);
+        return commutingTimeProbability.getCommutingTimeProbability(timeFromZoneToRegion, TransportMode.car);
+    }
+
+    private RegionUtilityCache.Signature signatureOf(HouseholdProfile profile) {
+        JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        final int[] attributes = new int[profile.getWorkplaces().size() + 1];
+        int i = 0;
+        attributes[i++] = profile.getHouseholdType().getIncomeCategory().ordinal();
+        for (int jobId : profile.getWorkplaces()) {
+            final Job job = jobDataManager.getJobFromId(jobId);
+            attributes[i++] = job != null ? job.getZoneId() : -1;
+        }
+        return RegionUtilityCache.signature(attributes);
     }
 
     @Override
@@ -178,12 +263,14 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy);
         strategy.hhByRegion = hhByRegion;
         strategy.utilityByIncomeByRegion = utilityByIncomeByRegion;
+        strategy.regionUtilityCache = regionUtilityCache;
         return strategy;
     }
 
     private void calculateShareOfForeignersByZoneAndRegion() {
         final IndexedDoubleMatrix1D hhByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
         hhByRegion.assign(0);
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             int zone;
             Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId());
@@ -194,7 +281,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
                         + hh.getDwellingId() + ". Should not happen!");
                 continue;
             }
-            final int region = geoData.getZones().get(zone).getRegion().getId();
+            final int region = geoIndex.getRegionOfZone(zone);
             hhByZone.setIndexed(zone, hhByZone.getIndexed(zone) + 1);
             hhByRegion.setIndexed(region, hhByRegion.getIndexed(region) + 1);
 
@@ -261,6 +348,14 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
         }
     }
 
+    private double getCommuteProbability(Dwelling dwelling, Job job, String mode) {
+        if (zoneBasedTravelTimes && commuteProbabilityMatrix.covers(mode)) {
+            return commuteProbabilityMatrix.getProbability(dwelling.getZoneId(), job.getZoneId(), mode);
+        }
+        int time = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, mode);
+        return commutingTimeProbability.getCommutingTimeProbability(Math.max(1, time), mode);
+    }
+
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
         Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
@@ -2,17 +2,25 @@ package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultDwellingProbabilityStrategy extends JavaScriptCalculator<Double> implements DwellingProbabilityStrategy {
 
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getDwellingProbabilityScriptInput());
+    private final ScriptFunction dwellingProbability =
+            ScriptTranslator.translate(script, "calculateSelectDwellingProbability", double.class);
+
     public DefaultDwellingProbabilityStrategy() {
-        super(new InputStreamReader(ScriptInputProvider.getDwellingProbabilityScriptInput()));
+        super(new StringReader(script));
     }
 
     public double calculateSelectDwellingProbability(double dwellingUtility) {
+        if (dwellingProbability != null) {
+            return dwellingProbability.apply(dwellingUtility);
+        }
         return super.calculate("calculateSelectDwellingProbability", dwellingUtility);
     }
 }
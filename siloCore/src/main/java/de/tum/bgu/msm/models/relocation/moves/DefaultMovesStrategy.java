@@ -2,19 +2,25 @@ package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DefaultMovesStrategy extends JavaScriptCalculator<Double> implements MovesStrategy{
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getMovesScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getMovesScriptInput());
+    private final ScriptFunction movingProbability =
+            ScriptTranslator.translate(script, "calculateMovingProbability", double.class, double.class);
 
     public DefaultMovesStrategy() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     public double getMovingProbability(double householdSatisfaction, double currentDwellingUtility) {
+        if (movingProbability != null) {
+            return movingProbability.apply(householdSatisfaction, currentDwellingUtility);
+        }
         return super.calculate("calculateMovingProbability", householdSatisfaction, currentDwellingUtility);
     }
 
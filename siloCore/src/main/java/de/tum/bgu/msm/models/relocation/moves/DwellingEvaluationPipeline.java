@@ -0,0 +1,76 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluates the selection probabilities of candidate dwellings on a fixed pool of worker threads. The
+ * candidates of a search are split into at most one work unit per thread, and results are written into a
+ * buffer owned by the search, so concurrent searches do not share any state. Each worker uses its own
+ * duplicate of the housing strategy. Idle workers block on the pool's queue instead of spinning.
+ */
+final class DwellingEvaluationPipeline {
+
+    private final ExecutorService executor;
+    private final ThreadLocal<HousingStrategy> strategies;
+    private final int threads;
+
+    DwellingEvaluationPipeline(HousingStrategy strategy, int threads) {
+        this.threads = threads;
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "dwelling-evaluation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.strategies = ThreadLocal.withInitial(() -> {
+            synchronized (strategy) {
+                return strategy.duplicate();
+            }
+        });
+    }
+
+    /**
+     * @return the selection probability of each candidate, in the order of the given list
+     */
+    double[] evaluate(HouseholdProfile profile, List<Dwelling> candidates) {
+        final double[] probabilities = new double[candidates.size()];
+        if (candidates.isEmpty()) {
+            return probabilities;
+        }
+        final int unitSize = (candidates.size() + threads - 1) / threads;
+        final List<Callable<Void>> units = new ArrayList<>();
+        for (int start = 0; start < candidates.size(); start += unitSize) {
+            final int from = start;
+            final int to = Math.min(start + unitSize, candidates.size());
+            units.add(() -> {
+                final HousingStrategy strategy = strategies.get();
+                for (int i = from; i < to; i++) {
+                    final double utility = strategy.calculateHousingUtility(profile, candidates.get(i));
+                    probabilities[i] = strategy.calculateSelectDwellingProbability(utility);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> unit : executor.invokeAll(units)) {
+                unit.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return probabilities;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,23 +3,30 @@ package de.tum.bgu.msm.models.relocation.moves;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class DwellingUtilityStrategyImpl extends JavaScriptCalculator<Double> implements DwellingUtilityStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getDwellingUtilityScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getDwellingUtilityScriptInput());
+    private final ScriptFunction dwellingUtility = ScriptTranslator.translate(script, "calculateSelectDwellingUtility",
+            HouseholdType.class, double.class, double.class, double.class, double.class, double.class, double.class);
 
 
     public DwellingUtilityStrategyImpl() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateSelectDwellingUtility(HouseholdType ht, double ddSizeUtility, double ddPriceUtility,
                                                  double ddQualityUtility, double ddAutoAccessibilityUtility,
                                                  double transitAccessibilityUtility, double ddWorkDistanceUtility) {
+        if (dwellingUtility != null) {
+            return dwellingUtility.apply(ht.ordinal(), ddSizeUtility, ddPriceUtility, ddQualityUtility,
+                    ddAutoAccessibilityUtility, transitAccessibilityUtility, ddWorkDistanceUtility);
+        }
        return super.calculate("calculateSelectDwellingUtility", ht, ddSizeUtility, ddPriceUtility,
                 ddQualityUtility, ddAutoAccessibilityUtility,
                 transitAccessibilityUtility, ddWorkDistanceUtility);
@@ -0,0 +1,91 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.person.Person;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Housing satisfaction of households, indexed by household id. Each value is stored together with a fingerprint
+ * of the inputs it was calculated from, so that it only needs to be recalculated if one of the inputs changed.
+ * Values of different households may be written concurrently, as long as the capacity was ensured before.
+ */
+final class HousingSatisfactionCache {
+
+    private double[] satisfactions = new double[0];
+    private long[] fingerprints = new long[0];
+
+    void ensureCapacity(int highestHouseholdId) {
+        if (highestHouseholdId >= satisfactions.length) {
+            final int oldLength = satisfactions.length;
+            final int newLength = Math.max(highestHouseholdId + 1, oldLength + (oldLength >> 1));
+            satisfactions = Arrays.copyOf(satisfactions, newLength);
+            fingerprints = Arrays.copyOf(fingerprints, newLength);
+            Arrays.fill(satisfactions, oldLength, newLength, Double.NaN);
+        }
+    }
+
+    /**
+     * @return the satisfaction of the given household, or NaN if it was not calculated yet
+     */
+    double get(int householdId) {
+        if (householdId < 0 || householdId >= satisfactions.length) {
+            return Double.NaN;
+        }
+        return satisfactions[householdId];
+    }
+
+    boolean isUpToDate(int householdId, long fingerprint) {
+        return !Double.isNaN(satisfactions[householdId]) && fingerprints[householdId] == fingerprint;
+    }
+
+    /**
+     * @return the satisfaction of the given household if it is up to date with the given fingerprint. Otherwise,
+     * the satisfaction is calculated, stored and returned. The capacity for the household has to be ensured before.
+     */
+    double getOrCalculate(int householdId, long fingerprint, DoubleSupplier calculation) {
+        if (isUpToDate(householdId, fingerprint)) {
+            return satisfactions[householdId];
+        }
+        final double satisfaction = calculation.getAsDouble();
+        put(householdId, fingerprint, satisfaction);
+        return satisfaction;
+    }
+
+    void put(int householdId, long fingerprint, double satisfaction) {
+        fingerprints[householdId] = fingerprint;
+        satisfactions[householdId] = satisfaction;
+    }
+
+    void invalidateAll() {
+        Arrays.fill(satisfactions, Double.NaN);
+    }
+
+    /**
+     * Fingerprints the household specific inputs of the housing satisfaction: the dwelling and its price,
+     * quality and size, the accessibilities of its zone, the autos of the household, and id, occupation, job
+     * and income of each member.
+     */
+    static long fingerprint(Household household, Dwelling dwelling, double autoAccessibility, double transitAccessibility) {
+        long hash = mix(household.getAutos(), dwelling.getId());
+        hash = mix(hash, dwelling.getPrice());
+        hash = mix(hash, dwelling.getQuality());
+        hash = mix(hash, dwelling.getBedrooms());
+        hash = mix(hash, Double.doubleToLongBits(autoAccessibility));
+        hash = mix(hash, Double.doubleToLongBits(transitAccessibility));
+        for (Person person : household.getPersons().values()) {
+            hash = mix(hash, person.getId());
+            hash = mix(hash, person.getOccupation().ordinal());
+            hash = mix(hash, person.getJobId());
+            hash = mix(hash, person.getAnnualIncome());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+}
@@ -3,8 +3,12 @@ package de.tum.bgu.msm.models.relocation.moves;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.utils.Sampler;
 
+import java.util.Collection;
+import java.util.function.Predicate;
+
 /**
  * @author Nico
  * Interface specification of housing related utilities/decisions.
@@ -25,6 +29,15 @@ public interface HousingStrategy<T extends Dwelling> {
      */
     boolean isHouseholdEligibleToLiveHere(Household household, T dd);
 
+    /**
+     * Evaluates whether a household of the given profile is allowed to live in the given dwelling.
+     * Implementations that can decide on the profile alone should override this method. The default
+     * evaluates {@link HouseholdProfile#asHousehold()}.
+     */
+    default boolean isHouseholdEligibleToLiveHere(HouseholdProfile profile, T dd) {
+        return isHouseholdEligibleToLiveHere(profile.asHousehold(), dd);
+    }
+
     /**
      * Calculates the utility/satisfaction the given household derives from
      * the given dwelling.
@@ -32,6 +45,15 @@ public interface HousingStrategy<T extends Dwelling> {
      */
     double calculateHousingUtility(Household hh, T dwelling);
 
+    /**
+     * Calculates the utility a household of the given profile derives from the given dwelling.
+     * Implementations that can decide on the profile alone should override this method. The default
+     * evaluates {@link HouseholdProfile#asHousehold()}.
+     */
+    default double calculateHousingUtility(HouseholdProfile profile, T dwelling) {
+        return calculateHousingUtility(profile.asHousehold(), dwelling);
+    }
+
     /**
      * Calculates the selection probability for choosing a dwelling with
      * the given utility
@@ -54,6 +76,34 @@ public interface HousingStrategy<T extends Dwelling> {
      */
     double calculateRegionalUtility(Household household, Region region);
 
+    /**
+     * Calculates the utility a household of the given profile derives from searching for a dwelling in this
+     * region. Implementations that can decide on the profile alone should override this method. The default
+     * evaluates {@link HouseholdProfile#asHousehold()}.
+     */
+    default double calculateRegionalUtility(HouseholdProfile profile, Region region) {
+        return calculateRegionalUtility(profile.asHousehold(), region);
+    }
+
+    /**
+     * Calculates the regional utilities of a household of the given profile for all given regions, in their
+     * iteration order. Regions that are not considered get a utility of 0. Callers always pass all regions of the
+     * study area in the order of {@link de.tum.bgu.msm.data.geo.GeoData#getRegions()}, so implementations may
+     * reuse utilities of households with equal profiles, see {@link RegionUtilityCache}.
+     */
+    default double[] calculateRegionalUtilities(HouseholdProfile profile, Collection<Region> regions,
+                                                Predicate<Region> considered) {
+        final double[] utilities = new double[regions.size()];
+        int i = 0;
+        for (Region region : regions) {
+            if (considered.test(region)) {
+                utilities[i] = calculateRegionalUtility(profile, region);
+            }
+            i++;
+        }
+        return utilities;
+    }
+
     /**
      * This method duplicates the strategy object for usage in concurrent environments.
      * Implementations should ensure thread safety.
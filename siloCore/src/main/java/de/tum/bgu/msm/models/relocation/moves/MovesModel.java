@@ -1,6 +1,7 @@
 package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.events.impls.household.MoveEvent;
 import de.tum.bgu.msm.models.EventModel;
 
@@ -15,7 +16,15 @@ public interface MovesModel extends EventModel<MoveEvent> {
      * Searches for a new dwelling for the given household and returns its id.
      * If no suitable dwelling is found, -1 is returned.
      */
-    int searchForNewDwelling(Household household);
+    default int searchForNewDwelling(Household household) {
+        return searchForNewDwelling(HouseholdProfile.of(household));
+    }
+
+    /**
+     * Searches for a new dwelling for a household of the given profile and returns its id.
+     * If no suitable dwelling is found, -1 is returned.
+     */
+    int searchForNewDwelling(HouseholdProfile profile);
 
     /**
      * This method moves the given household from the old dwelling to the new dwelling
@@ -1,18 +1,21 @@
 package de.tum.bgu.msm.models.relocation.moves;
 
-import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Iterables;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.household.HouseholdProfile;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.events.impls.household.MoveEvent;
 import de.tum.bgu.msm.io.output.YearByYearCsvModelTracker;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.EventSource;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
@@ -26,10 +29,10 @@ import org.locationtech.jts.geom.Coordinate;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 
 /**
  * @author Nico
@@ -37,7 +40,7 @@ import java.util.concurrent.CyclicBarrier;
  * and move logic based on housing satisfaction/utility. The actual utility calculations are defined
  * in the {@link HousingStrategy} argument.
  */
-public class MovesModelImpl extends AbstractModel implements MovesModel {
+public class MovesModelImpl extends AbstractModel implements MovesModel, EventSource<MoveEvent> {
 
 //    public static BufferedWriter fileWriter;
 
@@ -50,9 +53,10 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     private final HousingStrategy housingStrategy;
 
     private final boolean threaded;
+    private DwellingEvaluationPipeline evaluationPipeline;
 
     private final Map<HouseholdType, Double> averageHousingSatisfaction = new ConcurrentHashMap<>();
-    private final Map<Integer, Double> satisfactionByHousehold = new ConcurrentHashMap<>();
+    private final HousingSatisfactionCache satisfactionCache = new HousingSatisfactionCache();
     private final HashMap<Integer, Integer> householdsByZone = new HashMap<>();
     private final HashMap<Integer, Double > sumOfSatisfactionsByZone = new HashMap<>();
     private YearByYearCsvModelTracker relocationTracker;
@@ -85,7 +89,7 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     public void prepareYear(int year) {
         housingStrategy.prepareYear();
         track = false;
-        calculateAverageHousingUtility();
+        calculateAverageHousingUtility(year);
         track = true;
         relocationTracker.newYear(year);
     }
@@ -96,18 +100,32 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             events.add(new MoveEvent(hh.getId()));
         }
-        if (threaded) {
+        startUtilityThreads();
+        return events;
+    }
+
+    @Override
+    public void getEventIdsForCurrentYear(int year, IntConsumer householdIds) {
+        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
+            householdIds.accept(hh.getId());
+        }
+        startUtilityThreads();
+    }
+
+    private void startUtilityThreads() {
+        if (threaded && evaluationPipeline == null) {
             final int threads = Math.max(properties.main.numberOfThreads - 1, 1);
-            UtilityUtils.startThreads(housingStrategy, threads);
+            evaluationPipeline = new DwellingEvaluationPipeline(housingStrategy, threads);
             logger.info("Started " + threads + " background threads for dwelling utility evaluation");
         }
-
-        return events;
     }
 
     @Override
     public void endYear(int year) {
-        UtilityUtils.endYear();
+        if (evaluationPipeline != null) {
+            evaluationPipeline.shutdown();
+            evaluationPipeline = null;
+        }
     }
 
     @Override
@@ -125,8 +143,12 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
      */
     @Override
     public boolean handleEvent(MoveEvent event) {
+        return handleEvent(event.getHouseholdId());
+    }
+
+    @Override
+    public boolean handleEvent(int hhId) {
 
-        int hhId = event.getHouseholdId();
         Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(hhId);
         if (household == null) {
             // Household does not exist anymore
@@ -194,22 +216,20 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     }
 
     @Override
-    public int searchForNewDwelling(Household household) {
+    public int searchForNewDwelling(HouseholdProfile profile) {
 
         // Step 1: select region
         final GeoData geoData = dataContainer.getGeoData();
         Sampler<Region> regionSampler = new Sampler<>(geoData.getRegions().size(), Region.class, this.random);
+        // if utility it normalized by regional attibutes other than number of vacant dwellings, it could happen
+        // that a region is chosen with 0 vacant dwellings. To avoid this case, set utility to 0 if no vacant
+        // dwellings are available in that region.
+        final Predicate<Region> hasVacantDwellings =
+                region -> dataContainer.getRealEstateDataManager().getNumberOfVacantDDinRegion(region.getId()) > 0;
+        final double[] utilities = housingStrategy.calculateRegionalUtilities(profile, geoData.getRegions().values(), hasVacantDwellings);
+        int regionIndex = 0;
         for (Region region : geoData.getRegions().values()) {
-            double utility;
-            if (dataContainer.getRealEstateDataManager().getNumberOfVacantDDinRegion(region.getId()) == 0) {
-                // if utility it normalized by regional attibutes other than number of vacant dwellings, it could happen
-                // that a region is chosen with 0 vacant dwellings. To avoid this case, set utility to 0 if no vacant
-                // dwellings are available in that region.
-                utility = 0;
-            } else {
-                utility = housingStrategy.calculateRegionalUtility(household, region);
-            }
-            regionSampler.incrementalAdd(region, utility);
+            regionSampler.incrementalAdd(region, utilities[regionIndex++]);
         }
         if (regionSampler.getCumulatedProbability() == 0.) {
             return -1;
@@ -222,45 +242,32 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
 
         // Step 2: select vacant dwelling in selected region
-        List<Dwelling> vacantDwellings
-                = new ArrayList<>(dataContainer.getRealEstateDataManager().getListOfVacantDwellingsInRegion(selectedRegion.getId()));
+        /** No household will evaluate more than {@link MAX_NUMBER_DWELLINGS} dwellings */
+        List<Dwelling> vacantDwellings = dataContainer.getRealEstateDataManager()
+                .sampleVacantDwellingsInRegion(selectedRegion.getId(), MAX_NUMBER_DWELLINGS, this.random);
         if (vacantDwellings.isEmpty()) {
             return -1;
         }
 
-        /** No household will evaluate more than {@link MAX_NUMBER_DWELLINGS} dwellings */
-        int maxNumberOfDwellings = Math.min(MAX_NUMBER_DWELLINGS, vacantDwellings.size());
-
-        UtilityUtils.reset();
-
-        Collections.shuffle(vacantDwellings, this.random);
-        for (int i = 0; i < maxNumberOfDwellings; i++) {
-            Dwelling dwelling = vacantDwellings.get(i);
-            if (housingStrategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
-                if (threaded) {
-                    UtilityUtils.queue.add(new UtilityTask(i, dwelling, household));
-                } else {
-                    double util = housingStrategy.calculateHousingUtility(household, dwelling);
-                    double prob = housingStrategy.calculateSelectDwellingProbability(util);
-                    UtilityUtils.probabilities[i] = prob;
-                    UtilityUtils.dwellings[i] = dwelling;
-                }
-            } else {
-                maxNumberOfDwellings--;
+        final List<Dwelling> candidates = new ArrayList<>(vacantDwellings.size());
+        for (Dwelling dwelling : vacantDwellings) {
+            if (housingStrategy.isHouseholdEligibleToLiveHere(profile, dwelling)) {
+                candidates.add(dwelling);
             }
         }
 
-
-        if (threaded) {
-            try {
-                UtilityUtils.barrier.await();
-                UtilityUtils.barrier.await();
-            } catch (InterruptedException | BrokenBarrierException e) {
-                e.printStackTrace();
+        final double[] probabilities;
+        if (evaluationPipeline != null) {
+            probabilities = evaluationPipeline.evaluate(profile, candidates);
+        } else {
+            probabilities = new double[candidates.size()];
+            for (int i = 0; i < candidates.size(); i++) {
+                double util = housingStrategy.calculateHousingUtility(profile, candidates.get(i));
+                probabilities[i] = housingStrategy.calculateSelectDwellingProbability(util);
             }
         }
 
-        Sampler<Dwelling> sampler = new Sampler<>(UtilityUtils.dwellings, UtilityUtils.probabilities, this.random);
+        Sampler<Dwelling> sampler = new Sampler<>(candidates.toArray(new Dwelling[0]), probabilities, this.random);
         try {
             return sampler.sampleObject().getId();
         } catch (SampleException e) {
@@ -275,24 +282,40 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         if (!housingStrategy.isHouseholdEligibleToLiveHere(household, dd)) {
             return true;
         }
-        final double currentUtil = satisfactionByHousehold.get(household.getId());
+        final double currentUtil;
+        if (dd == null) {
+            currentUtil = housingStrategy.calculateHousingUtility(household, dd);
+        } else {
+            // households that were created or changed since the start of the year are not up to date in the cache
+            satisfactionCache.ensureCapacity(household.getId());
+            currentUtil = satisfactionCache.getOrCalculate(household.getId(), fingerprint(household, dd),
+                    () -> housingStrategy.calculateHousingUtility(household, dd));
+        }
         final double avgSatisfaction = averageHousingSatisfaction.getOrDefault(hhType, currentUtil);
 
         final double prop = movesStrategy.getMovingProbability(avgSatisfaction, currentUtil);
-        return this.random.nextDouble() <= prop;
+        return getRandomFor(household.getId()).nextDouble() <= prop;
     }
 
 
-    private void calculateAverageHousingUtility() {
+    private void calculateAverageHousingUtility(int year) {
         HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
-        logger.info("Evaluating average housing utility of " + householdDataManager.getHouseholds().size() + " households.");
-        satisfactionByHousehold.clear();
-        averageHousingSatisfaction.replaceAll((householdType, aDouble) -> 0.);
-        householdsByZone.clear();
-        sumOfSatisfactionsByZone.clear();
-
         final Collection<Household> households = householdDataManager.getHouseholds();
-        ConcurrentHashMultiset<HouseholdType> hhByType = ConcurrentHashMultiset.create();
+
+        // travel times are updated at the end of skim and transport model years and are not part of the
+        // fingerprint of a household, so all satisfactions are recalculated in the following year
+        if (!properties.moves.incrementalHousingSatisfaction
+                || properties.accessibility.skimYears.contains(year - 1)
+                || properties.transportModel.transportModelYears.contains(year - 1)) {
+            satisfactionCache.invalidateAll();
+        }
+        int highestHouseholdId = 0;
+        for (Household hh : households) {
+            highestHouseholdId = Math.max(highestHouseholdId, hh.getId());
+        }
+        satisfactionCache.ensureCapacity(highestHouseholdId);
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
+        final int zones = geoIndex.getNumberOfZones();
 
         int numberOfTasks;
 
@@ -305,23 +328,39 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         Iterable<List<Household>> partitions = Iterables.partition(households, partitionSize);
         ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(Properties.get().main.numberOfThreads);
 
-        logger.info("Using " + numberOfTasks + " thread(s)" +
-                " with partitions of size " + partitionSize);
+        logger.info("Evaluating average housing utility of " + households.size() + " households using "
+                + numberOfTasks + " thread(s) with partitions of size " + partitionSize);
 
+        final List<SatisfactionSums> partialSums = new ArrayList<>();
+        final AtomicInteger evaluated = new AtomicInteger();
         for (final List<Household> partition : partitions) {
             HousingStrategy strategy = housingStrategy.duplicate();
+            final SatisfactionSums sums = new SatisfactionSums(zones);
+            partialSums.add(sums);
             executor.addTaskToQueue(() -> {
                 try {
+                    int evaluatedInPartition = 0;
                     for (Household hh : partition) {
-                        final HouseholdType householdType = hh.getHouseholdType();
-                        hhByType.add(householdType);
                         Dwelling dd = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId());
-                        final double util = strategy.calculateHousingUtility(hh, dd);
-                        satisfactionByHousehold.put(hh.getId(), util);
-                        householdsByZone.put(dd.getZoneId(), householdsByZone.getOrDefault(dd.getZoneId(), 0) + 1);
-                        sumOfSatisfactionsByZone.put(dd.getZoneId(), sumOfSatisfactionsByZone.getOrDefault(dd.getZoneId(), 0.) + util);
-                        averageHousingSatisfaction.merge(householdType, util, (oldUtil, newUtil) -> oldUtil + newUtil);
+                        double util;
+                        if (dd == null) {
+                            util = strategy.calculateHousingUtility(hh, dd);
+                        } else {
+                            final long fingerprint = fingerprint(hh, dd);
+                            if (!satisfactionCache.isUpToDate(hh.getId(), fingerprint)) {
+                                evaluatedInPartition++;
+                            }
+                            util = satisfactionCache.getOrCalculate(hh.getId(), fingerprint,
+                                    () -> strategy.calculateHousingUtility(hh, dd));
+                            final int zoneOrdinal = geoIndex.getZoneOrdinal(dd.getZoneId());
+                            sums.householdsByZone[zoneOrdinal]++;
+                            sums.satisfactionByZone[zoneOrdinal] += util;
+                        }
+                        final int type = hh.getHouseholdType().ordinal();
+                        sums.householdsByType[type]++;
+                        sums.satisfactionByType[type] += util;
                     }
+                    evaluated.addAndGet(evaluatedInPartition);
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
@@ -329,10 +368,64 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
             });
         }
         executor.execute();
-        logger.info("Done evaluating average housing utility.");
+        logger.info("Done evaluating average housing utility. Recalculated the utility of "
+                + evaluated.get() + " households.");
 
-        averageHousingSatisfaction.replaceAll((householdType, satisfaction) ->
-                Precision.round(satisfaction / (1. * hhByType.count(householdType)), 5));
+        final SatisfactionSums total = new SatisfactionSums(zones);
+        for (SatisfactionSums sums : partialSums) {
+            total.add(sums);
+        }
+        householdsByZone.clear();
+        sumOfSatisfactionsByZone.clear();
+        for (int zone = 0; zone < zones; zone++) {
+            if (total.householdsByZone[zone] > 0) {
+                householdsByZone.put(geoIndex.getZoneId(zone), total.householdsByZone[zone]);
+                sumOfSatisfactionsByZone.put(geoIndex.getZoneId(zone), total.satisfactionByZone[zone]);
+            }
+        }
+        for (HouseholdType householdType : HouseholdType.values()) {
+            final int type = householdType.ordinal();
+            if (total.householdsByType[type] > 0) {
+                averageHousingSatisfaction.put(householdType,
+                        Precision.round(total.satisfactionByType[type] / (1. * total.householdsByType[type]), 5));
+            } else {
+                // without households of this type, households compare their satisfaction to their own
+                averageHousingSatisfaction.remove(householdType);
+            }
+        }
+    }
+
+    private long fingerprint(Household household, Dwelling dwelling) {
+        final Zone zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
+        return HousingSatisfactionCache.fingerprint(household, dwelling,
+                dataContainer.getAccessibility().getAutoAccessibilityForZone(zone),
+                dataContainer.getAccessibility().getTransitAccessibilityForZone(zone));
+    }
+
+    /**
+     * Sums of housing satisfaction by zone ordinal and household type of one partition of households.
+     */
+    private static final class SatisfactionSums {
+        private final int[] householdsByZone;
+        private final double[] satisfactionByZone;
+        private final int[] householdsByType = new int[HouseholdType.values().length];
+        private final double[] satisfactionByType = new double[HouseholdType.values().length];
+
+        private SatisfactionSums(int zones) {
+            householdsByZone = new int[zones];
+            satisfactionByZone = new double[zones];
+        }
+
+        private void add(SatisfactionSums other) {
+            for (int i = 0; i < householdsByZone.length; i++) {
+                householdsByZone[i] += other.householdsByZone[i];
+                satisfactionByZone[i] += other.satisfactionByZone[i];
+            }
+            for (int i = 0; i < householdsByType.length; i++) {
+                householdsByType[i] += other.householdsByType[i];
+                satisfactionByType[i] += other.satisfactionByType[i];
+            }
+        }
     }
 
     @Override
@@ -354,110 +447,6 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
     }
 
-    private static class UtilityTask {
-        private final int id;
-        private final Dwelling dwelling;
-        private final Household household;
-
-        private UtilityTask(int id, Dwelling dwelling, Household household) {
-            this.id = id;
-            this.dwelling = dwelling;
-            this.household = household;
-        }
-    }
-
-    private static class UtilityUtils extends Thread {
-
-        /**
-         * The queue that each thread listens to to poll for new dwelling evaluations.
-         * Tasks are put into the queue from the main thread inside the searchForNewDwelling method
-         */
-        private static final Queue<UtilityTask> queue = new ConcurrentLinkedQueue<>();
-
-        private static CyclicBarrier barrier;
-
-        /**
-         * boolean that is used to stop threads once they're running.
-         */
-        private static boolean run = false;
-
-        /**
-         * static array that is used to store probabilities of dwelling evaluations accessed
-         * from different threads
-         */
-        private static double[] probabilities;
-
-        /**
-         * static array that is used to store dwellings of evaluations accessed
-         * from different threads
-         */
-        private static Dwelling[] dwellings;
-
-        /**
-         * the strategy for each thread that is used for dwelling evaluation
-         */
-        private HousingStrategy strategy;
-
-        private UtilityUtils(HousingStrategy strategy) {
-            this.strategy = strategy;
-        }
-
-        /**
-         * reset static probability and dwelling arrays for the next dwelling search.
-         * reset the job counter.
-         */
-        private static void reset() {
-            probabilities = new double[MAX_NUMBER_DWELLINGS];
-            dwellings = new Dwelling[MAX_NUMBER_DWELLINGS];
-        }
-
-        /**
-         * start the given number of background threads with the given housing strategy.
-         * The strategy will be duplicated for each thread to ensure thread-safety.
-         */
-        private static void startThreads(HousingStrategy strategy, int threads) {
-            run = true;
-            barrier = new CyclicBarrier(threads +1);
-            for (int i = 0; i < threads; i++) {
-                new UtilityUtils(strategy.duplicate()).start();
-            }
-        }
-
-        /**
-         * stop the background threads from running
-         */
-        private static void endYear() {
-            run = false;
-        }
-
-        /**
-         * when running, a thread polls the queue for utility tasks. for each task
-         * a dwelling has to be evaluated. after the evaluation, the probabilities
-         * are stored in the static array that is shared among the threads and the
-         * jobcounter is incremented
-         */
-        @Override
-        public void run() {
-            while (run) {
-                final UtilityTask poll = queue.poll();
-                if (poll != null) {
-                    final Dwelling dwelling = poll.dwelling;
-                    final double util = strategy.calculateHousingUtility(poll.household, dwelling);
-                    double probability = strategy.calculateSelectDwellingProbability(util);
-                    final int i = poll.id;
-                    probabilities[i] = probability;
-                    dwellings[i] = dwelling;
-                } else {
-                    try {
-                        barrier.await();
-                    } catch (InterruptedException | BrokenBarrierException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-        }
-    }
-
     public HashMap<Integer, Integer> getHouseholdsByZone() {
         return householdsByZone;
     }
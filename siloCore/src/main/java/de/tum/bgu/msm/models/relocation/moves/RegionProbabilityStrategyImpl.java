@@ -2,17 +2,26 @@ package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
+import java.io.StringReader;
 
 public class RegionProbabilityStrategyImpl extends JavaScriptCalculator<Double> implements RegionProbabilityStrategy {
 
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getRegionProbabilityScriptInput());
+    private final ScriptFunction regionProbability =
+            ScriptTranslator.translate(script, "calculateSelectRegionProbability", double.class);
+
     public RegionProbabilityStrategyImpl() {
-        super(new InputStreamReader(ScriptInputProvider.getRegionProbabilityScriptInput()));
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateSelectRegionProbability(double util) {
+        if (regionProbability != null) {
+            return regionProbability.apply(util);
+        }
         return super.calculate("calculateSelectRegionProbability", util);
     }
 }
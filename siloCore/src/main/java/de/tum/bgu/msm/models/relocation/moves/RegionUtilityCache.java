@@ -0,0 +1,90 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Regional utilities of households, before normalization by vacant dwellings, shared by all households with the
+ * same {@link Signature}. A signature consists of all household attributes a housing strategy uses for its regional
+ * utilities, e.g. income category and the zones of the workplaces. Utilities are calculated on first use and kept
+ * until the cache is invalidated, which housing strategies do whenever they update their regional utilities.
+ * <p>
+ * The cache is bounded. Once it holds the maximum number of signatures, it is cleared before new utilities are
+ * added. A maximum size of 0 disables caching.
+ */
+public final class RegionUtilityCache {
+
+    private final int maximumSize;
+    private final Map<Signature, double[]> utilitiesBySignature = new ConcurrentHashMap<>();
+
+    public RegionUtilityCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return the cached utilities of the given signature, which are calculated if they are not cached yet.
+     * The returned array must not be modified.
+     */
+    public double[] get(Signature signature, Function<Signature, double[]> calculator) {
+        if (maximumSize <= 0) {
+            return calculator.apply(signature);
+        }
+        double[] utilities = utilitiesBySignature.get(signature);
+        if (utilities == null) {
+            utilities = calculator.apply(signature);
+            if (utilitiesBySignature.size() >= maximumSize) {
+                utilitiesBySignature.clear();
+            }
+            final double[] previous = utilitiesBySignature.putIfAbsent(signature, utilities);
+            if (previous != null) {
+                utilities = previous;
+            }
+        }
+        return utilities;
+    }
+
+    public void invalidate() {
+        utilitiesBySignature.clear();
+    }
+
+    public int size() {
+        return utilitiesBySignature.size();
+    }
+
+    public static Signature signature(int... attributes) {
+        return new Signature(attributes);
+    }
+
+    /**
+     * Compact, immutable description of a household for the purpose of regional utilities.
+     */
+    public static final class Signature {
+
+        private final int[] attributes;
+        private final int hash;
+
+        private Signature(int[] attributes) {
+            this.attributes = attributes.clone();
+            this.hash = Arrays.hashCode(this.attributes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Signature signature = (Signature) o;
+            return hash == signature.hash && Arrays.equals(attributes, signature.attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -3,22 +3,28 @@ package de.tum.bgu.msm.models.relocation.moves;
 import de.tum.bgu.msm.data.household.IncomeCategory;
 import de.tum.bgu.msm.models.ScriptInputProvider;
 import de.tum.bgu.msm.util.js.JavaScriptCalculator;
+import de.tum.bgu.msm.utils.js.ScriptFunction;
+import de.tum.bgu.msm.utils.js.ScriptTranslator;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.StringReader;
 
 public class RegionUtilityStrategyImpl extends JavaScriptCalculator<Double> implements RegionUtilityStrategy {
 
-    private final static Reader reader = new InputStreamReader(ScriptInputProvider.getRegionUtilityScriptInput());
+    private final static String script = ScriptTranslator.read(ScriptInputProvider.getRegionUtilityScriptInput());
+    private final ScriptFunction regionUtility = ScriptTranslator.translate(script, "calculateRegionUtility",
+            IncomeCategory.class, float.class, float.class, float.class);
 
 
     public RegionUtilityStrategyImpl() {
-        super(reader);
+        super(new StringReader(script));
     }
 
     @Override
     public double calculateSelectRegionProbability(IncomeCategory incomeCategory,
                                                    float price, float accessibility, float share) {
+        if (regionUtility != null) {
+            return regionUtility.apply(incomeCategory.ordinal(), price, accessibility, share);
+        }
         return super.calculate("calculateRegionUtility", incomeCategory, price, accessibility, share);
     }
 }
@@ -9,6 +9,7 @@ import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManagerImpl;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
@@ -179,6 +180,7 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
     private void calculateShareOfForeignersByZoneAndRegion() {
         final IndexedDoubleMatrix1D hhByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
         hhByRegion.assign(0);
+        final GeoIndex geoIndex = dataContainer.getGeoIndex();
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             int zone;
             Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId());
@@ -189,7 +191,7 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
                         + hh.getDwellingId() + ". Should not happen!");
                 continue;
             }
-            final int region = geoData.getZones().get(zone).getRegion().getId();
+            final int region = geoIndex.getRegionOfZone(zone);
             hhByZone.setIndexed(zone, hhByZone.getIndexed(zone) + 1);
             hhByRegion.setIndexed(region, hhByRegion.getIndexed(region) + 1);
 
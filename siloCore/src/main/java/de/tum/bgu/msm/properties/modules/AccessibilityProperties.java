@@ -42,6 +42,20 @@ public class AccessibilityProperties {
     public final double skimFileFactorTransit;
     public final Set<Integer> skimYears;
 
+    /**
+     * Whether commuting time probabilities between all pairs of zones are precomputed after each skim update.
+     * Only applies to skim based travel times.
+     * Default = true.
+     */
+    public final boolean precomputeCommuteProbabilities;
+
+    /**
+     * Travel time in minutes beyond which zone pairs do not contribute to Hansen accessibilities. Values that are
+     * not positive consider all zone pairs.
+     * Default = 0.
+     */
+    public final double hansenTravelTimeCutoff;
+
     public AccessibilityProperties(ResourceBundle bundle, int startYear) {
         PropertiesUtil.newPropertySubmodule("Accessibility properties");
         this.bundle = bundle;
@@ -50,6 +64,7 @@ public class AccessibilityProperties {
         betaAuto = (float) PropertiesUtil.getDoubleProperty(bundle, "auto.accessibility.beta", -0.3);
         alphaTransit = (float) PropertiesUtil.getDoubleProperty(bundle, "transit.accessibility.a", 1.2);
         betaTransit = (float) PropertiesUtil.getDoubleProperty(bundle, "transit.accessibility.b", -0.3);
+        hansenTravelTimeCutoff = PropertiesUtil.getDoubleProperty(bundle, "accessibility.travel.time.cutoff", 0.);
 
         PropertiesUtil.newPropertySubmodule("Accessibility - travel time distribution");
         htsWorkTLFD = PropertiesUtil.getStringProperty(bundle, "hts.work.tlfd", "input/hts_work_tripLengthFrequencyDistribution.csv");
@@ -71,6 +86,7 @@ public class AccessibilityProperties {
         skimFileFactorCar = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.car", 1.);
         transitPeakSkim = PropertiesUtil.getStringProperty(bundle,"transit.peak.time.matrix.name", "travelTimeTransit");
         skimFileFactorTransit = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.transit", 1.);
+        precomputeCommuteProbabilities = PropertiesUtil.getBooleanProperty(bundle, "commute.probability.matrix", true);
     }
 
     public String autoSkimFile(int year) {
@@ -17,6 +17,8 @@ public class DemographicsProperties {
     public final double marryAbsAgeDiff;
     public final double marryAgeSpreadFac;
     public final float interracialMarriageShare;
+    public final boolean skipSamplingEvents;
+    public final boolean parallelMarriageMatching;
 
     public DemographicsProperties(ResourceBundle bundle) {
         PropertiesUtil.newPropertySubmodule("Demographic properties");
@@ -29,6 +31,8 @@ public class DemographicsProperties {
         marryAbsAgeDiff = PropertiesUtil.getDoubleProperty(bundle, "demographics.age.diff.of.partners.absolute", 2.3);
         marryAgeSpreadFac = PropertiesUtil.getDoubleProperty(bundle, "demographics.age.diff.of.partners.spreadfc", 0.5);
         interracialMarriageShare = (float) PropertiesUtil.getDoubleProperty(bundle, "demographics.interracial.marriage.share", 0.02);
+        skipSamplingEvents = PropertiesUtil.getBooleanProperty(bundle, "demographics.events.skip.sampling", false);
+        parallelMarriageMatching = PropertiesUtil.getBooleanProperty(bundle, "demographics.marriage.parallel.matching", false);
 
     }
 }
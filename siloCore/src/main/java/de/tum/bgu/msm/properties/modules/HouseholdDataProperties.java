@@ -12,6 +12,7 @@ public final class HouseholdDataProperties {
     public final boolean summarizeMetro;
     public final String selectedMetroStopsFile;
     public final String householdsNearMetroFile;
+    public final boolean columnarHouseholdData;
 
     public final String householdFinalFileName;
     public final String personFinalFileName;
@@ -29,5 +30,8 @@ public final class HouseholdDataProperties {
         summarizeMetro = PropertiesUtil.getBooleanProperty(bundle, "summarize.hh.near.selected.metro.stp", false);
         selectedMetroStopsFile = PropertiesUtil.getStringProperty(bundle, "selected.metro.stops","input/housingNearMetroTracer.csv" );
         householdsNearMetroFile = PropertiesUtil.getStringProperty(bundle, "hh.near.selected.metro.stops.summary", "householdNearSelectedMetroStops");
+
+        PropertiesUtil.newPropertySubmodule("Household data properties - storage");
+        columnarHouseholdData = PropertiesUtil.getBooleanProperty(bundle, "household.data.columnar", false);
     }
 }
@@ -61,6 +61,12 @@ public class MainProperties {
      */
     public final int randomSeed;
 
+    /**
+     * Draw random numbers of agents from independent streams per year, model and agent (true or false).
+     * Results then do not depend on event order and number of threads.
+     */
+    public final boolean randomStreamsPerEntity;
+
     /**
      * Print out the synthetic population nd the development capacity file at the final year
      */
@@ -76,6 +82,42 @@ public class MainProperties {
      */
     public final double scaleFactor;
 
+    /**
+     * Handle non-conflicting events of a year concurrently (true or false)
+     */
+    public final boolean parallelEventProcessing;
+
+    /**
+     * Batches of non-conflicting events smaller than this are handled sequentially.
+     */
+    public final int minimumParallelEventBatchSize;
+
+    /**
+     * Maximum number of events in a batch of non-conflicting events.
+     */
+    public final int maximumParallelEventBatchSize;
+
+    /**
+     * Evaluate the default demographic probability scripts once per age, gender or person type and look up the
+     * results during the simulation (true or false)
+     */
+    public final boolean tabulateScriptProbabilities;
+
+    /**
+     * Years at the end of which a binary checkpoint of the data container is written.
+     */
+    public final Set<Integer> checkpointYears;
+
+    /**
+     * Compress checkpoints with gzip (true or false)
+     */
+    public final boolean compressCheckpoints;
+
+    /**
+     * Resume the simulation at the start year from the checkpoint written for that year (true or false)
+     */
+    public final boolean resumeFromCheckpoint;
+
     @Deprecated
     public final String prestoZoneFile;
     @Deprecated
@@ -115,6 +157,7 @@ public class MainProperties {
         startYear = PropertiesUtil.getIntProperty(bundle, "start.year", baseYear);
         endYear = PropertiesUtil.getIntProperty(bundle, "end.year");
         randomSeed = PropertiesUtil.getIntProperty(bundle, "random.seed", -1);
+        randomStreamsPerEntity = PropertiesUtil.getBooleanProperty(bundle, "random.streams.per.entity", false);
         printOutFinalSyntheticPopulation = PropertiesUtil.getBooleanProperty(bundle, "print.out.sp.final", false);
 
         PropertiesUtil.newPropertySubmodule("Main - runtime tracking");
@@ -143,5 +186,24 @@ public class MainProperties {
         numberOfThreads = PropertiesUtil.getIntProperty(bundle, "number.of.threads", Runtime.getRuntime().availableProcessors());
 
         scaleFactor = PropertiesUtil.getDoubleProperty(bundle, "scale.factor", 1.);
+
+        PropertiesUtil.newPropertySubmodule("Main - event processing");
+        parallelEventProcessing = PropertiesUtil.getBooleanProperty(bundle, "parallel.event.processing", false);
+        minimumParallelEventBatchSize = PropertiesUtil.getIntProperty(bundle, "parallel.event.batch.min", 256);
+        maximumParallelEventBatchSize = PropertiesUtil.getIntProperty(bundle, "parallel.event.batch.max", 65536);
+        tabulateScriptProbabilities = PropertiesUtil.getBooleanProperty(bundle, "tabulate.script.probabilities", true);
+
+        PropertiesUtil.newPropertySubmodule("Main - checkpoints");
+        checkpointYears = Arrays.stream(PropertiesUtil.getIntPropertyArray(bundle, "checkpoint.years", new int[] {-1}))
+                .boxed().filter(i -> i > 0).collect(Collectors.toSet());
+        compressCheckpoints = PropertiesUtil.getBooleanProperty(bundle, "checkpoint.compress", true);
+        resumeFromCheckpoint = PropertiesUtil.getBooleanProperty(bundle, "checkpoint.resume", false);
+    }
+
+    /**
+     * Directory of the checkpoint holding the state at the beginning of the given year.
+     */
+    public String checkpointDirectory(int year) {
+        return baseDirectory + "scenOutput/" + scenarioName + "/checkpoint/" + year + "/";
     }
 }
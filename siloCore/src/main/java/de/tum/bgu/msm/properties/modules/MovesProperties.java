@@ -16,6 +16,8 @@ public final class MovesProperties {
     public final double populationGrowthRateInPercentage;
 
     public final boolean trackRelocations;
+    public final boolean incrementalHousingSatisfaction;
+    public final int regionUtilityCacheSize;
 
     public enum PopulationControlTotalMethod {
         POPULATION, MIGRATION, RATE;
@@ -34,6 +36,8 @@ public final class MovesProperties {
         provideLowIncomeSubsidy = PropertiesUtil.getBooleanProperty(bundle, "provide.housing.subsidy.to.low.inc", false);
 
         trackRelocations = PropertiesUtil.getBooleanProperty(bundle, "track.relocations", true);
+        incrementalHousingSatisfaction = PropertiesUtil.getBooleanProperty(bundle, "moves.incremental.satisfaction", false);
+        regionUtilityCacheSize = PropertiesUtil.getIntProperty(bundle, "moves.region.utility.cache.size", 4096);
 
     }
 }
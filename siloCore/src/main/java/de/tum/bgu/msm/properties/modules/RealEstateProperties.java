@@ -17,6 +17,7 @@ public class RealEstateProperties {
     public final float levelOfAffordability;
     public final float constructionLogModelBeta;
     public final float constructionLogModelInflator;
+    public final boolean skipSamplingEvents;
 
     public RealEstateProperties(ResourceBundle bundle) {
         PropertiesUtil.newPropertySubmodule("Real state properties");
@@ -34,5 +35,6 @@ public class RealEstateProperties {
         levelOfAffordability = (float) PropertiesUtil.getDoubleProperty(bundle, "level.of.affordability.setting", 0.3);
         constructionLogModelBeta = (float) PropertiesUtil.getDoubleProperty(bundle, "construct.dwelling.mn.log.model.beta", 0.5);
         constructionLogModelInflator = (float) PropertiesUtil.getDoubleProperty(bundle, "construct.dwelling.mn.log.model.inflator", 1.5);
+        skipSamplingEvents = PropertiesUtil.getBooleanProperty(bundle, "real.estate.events.skip.sampling", false);
     }
 }
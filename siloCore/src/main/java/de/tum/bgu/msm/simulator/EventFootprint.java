@@ -0,0 +1,67 @@
+package de.tum.bgu.msm.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Collects the households, persons, dwellings and jobs an event reads or writes when it is handled.
+ * Two events conflict if one of them writes an entity the other one reads or writes.
+ * Instances are reused by the {@link Simulator} and must not be kept by event models.
+ */
+public final class EventFootprint {
+
+    public enum Entity {HOUSEHOLD, PERSON, DWELLING, JOB}
+
+    private long[] reads = new long[8];
+    private int numberOfReads = 0;
+
+    private long[] writes = new long[8];
+    private int numberOfWrites = 0;
+
+    public EventFootprint reads(Entity entity, int id) {
+        if (numberOfReads == reads.length) {
+            reads = Arrays.copyOf(reads, reads.length * 2);
+        }
+        reads[numberOfReads++] = key(entity, id);
+        return this;
+    }
+
+    public EventFootprint writes(Entity entity, int id) {
+        if (numberOfWrites == writes.length) {
+            writes = Arrays.copyOf(writes, writes.length * 2);
+        }
+        writes[numberOfWrites++] = key(entity, id);
+        return this;
+    }
+
+    void clear() {
+        numberOfReads = 0;
+        numberOfWrites = 0;
+    }
+
+    boolean conflictsWith(LongKeySet claimedReads, LongKeySet claimedWrites) {
+        for (int i = 0; i < numberOfWrites; i++) {
+            if (claimedWrites.contains(writes[i]) || claimedReads.contains(writes[i])) {
+                return true;
+            }
+        }
+        for (int i = 0; i < numberOfReads; i++) {
+            if (claimedWrites.contains(reads[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void claim(LongKeySet claimedReads, LongKeySet claimedWrites) {
+        for (int i = 0; i < numberOfReads; i++) {
+            claimedReads.add(reads[i]);
+        }
+        for (int i = 0; i < numberOfWrites; i++) {
+            claimedWrites.add(writes[i]);
+        }
+    }
+
+    static long key(Entity entity, int id) {
+        return ((long) entity.ordinal() << 32) | (id & 0xffffffffL);
+    }
+}
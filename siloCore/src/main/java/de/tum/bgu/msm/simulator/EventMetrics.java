@@ -0,0 +1,213 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records count, success rate and handling latency per event type, as well as the overall
+ * throughput per year. Every thread handling events writes into its own recorder without
+ * any synchronization, recorders are merged at the end of the year when no events are handled.
+ * Latencies are kept in a log-linear histogram with eight sub-buckets per power of two
+ * (i.e. a relative error of at most 12.5%).
+ * Results are written to eventMetrics.csv and eventMetrics.json next to the time tracker file.
+ */
+final class EventMetrics {
+
+    private final static Logger logger = Logger.getLogger(EventMetrics.class);
+
+    private static final String CSV_FILE = "eventMetrics.csv";
+    private static final String JSON_FILE = "eventMetrics.json";
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final List<Class<? extends MicroEvent>> eventClasses;
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Recorder> localRecorder;
+
+    private final StringBuilder json = new StringBuilder();
+    private long yearStart;
+    private boolean firstYear = true;
+
+    EventMetrics(List<Class<? extends MicroEvent>> eventClasses) {
+        this.eventClasses = new ArrayList<>(eventClasses);
+        this.localRecorder = ThreadLocal.withInitial(() -> {
+            Recorder recorder = new Recorder(this.eventClasses.size());
+            recorders.add(recorder);
+            return recorder;
+        });
+    }
+
+    void startYear() {
+        yearStart = System.nanoTime();
+    }
+
+    /**
+     * Records a handled event. Must only be called while events are processed.
+     */
+    void record(int eventType, boolean success, long nanos) {
+        localRecorder.get().record(eventType, success, nanos);
+    }
+
+    /**
+     * Merges the recorders of all threads, resets them and writes out the statistics of the given year.
+     */
+    void endYear(int year) {
+        final double wallSeconds = (System.nanoTime() - yearStart) / 1e9;
+        final Recorder total = new Recorder(eventClasses.size());
+        for (Recorder recorder : recorders) {
+            total.add(recorder);
+            recorder.clear();
+        }
+
+        final String directory = Properties.get().main.baseDirectory + "scenOutput/" + Properties.get().main.scenarioName + "/";
+        final boolean append = (!firstYear || Properties.get().main.startYear != Properties.get().main.baseYear)
+                && new File(directory + CSV_FILE).exists();
+        firstYear = false;
+        final PrintWriter pw = SiloUtil.openFileForSequentialWriting(directory + CSV_FILE, append);
+        if (!append) {
+            pw.println("year,event,count,successes,successRate,p50Micros,p99Micros,maxMicros,handlingSeconds,eventsPerSecond");
+        }
+        if (json.length() > 0) {
+            json.append(",\n");
+        }
+        json.append("  {\"year\": ").append(year).append(", \"events\": [");
+
+        long count = 0;
+        long successes = 0;
+        long nanos = 0;
+        for (int type = 0; type < eventClasses.size(); type++) {
+            final long typeCount = total.counts[type];
+            if (typeCount == 0) {
+                continue;
+            }
+            final String name = eventClasses.get(type).getSimpleName();
+            final double handlingSeconds = total.nanos[type] / 1e9;
+            final double p50 = total.percentile(type, 0.5) / 1e3;
+            final double p99 = total.percentile(type, 0.99) / 1e3;
+            final double max = total.max[type] / 1e3;
+            final double successRate = (double) total.successes[type] / typeCount;
+            pw.println(year + "," + name + "," + typeCount + "," + total.successes[type] + "," + successRate + ","
+                    + p50 + "," + p99 + "," + max + "," + handlingSeconds + "," + typeCount / handlingSeconds);
+            if (count > 0) {
+                json.append(",");
+            }
+            json.append("\n    {\"event\": \"").append(name)
+                    .append("\", \"count\": ").append(typeCount)
+                    .append(", \"successes\": ").append(total.successes[type])
+                    .append(", \"successRate\": ").append(successRate)
+                    .append(", \"p50Micros\": ").append(p50)
+                    .append(", \"p99Micros\": ").append(p99)
+                    .append(", \"maxMicros\": ").append(max)
+                    .append(", \"handlingSeconds\": ").append(handlingSeconds).append("}");
+            count += typeCount;
+            successes += total.successes[type];
+            nanos += total.nanos[type];
+        }
+        final double eventsPerSecond = count / wallSeconds;
+        pw.println(year + ",ALL," + count + "," + successes + "," + (count > 0 ? (double) successes / count : 0) + ",,,,"
+                + nanos / 1e9 + "," + eventsPerSecond);
+        pw.close();
+        json.append("],\n   \"count\": ").append(count)
+                .append(", \"wallSeconds\": ").append(wallSeconds)
+                .append(", \"eventsPerSecond\": ").append(eventsPerSecond).append("}");
+
+        final PrintWriter jsonWriter = SiloUtil.openFileForSequentialWriting(directory + JSON_FILE, false);
+        jsonWriter.println("[");
+        jsonWriter.println(json);
+        jsonWriter.println("]");
+        jsonWriter.close();
+        logger.info("  Handled " + count + " events at " + Math.round(eventsPerSecond) + " events per second.");
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        final int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value falling into the given bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static final class Recorder {
+        private final long[] counts;
+        private final long[] successes;
+        private final long[] nanos;
+        private final long[] max;
+        private final long[] histogram;
+
+        private Recorder(int numberOfTypes) {
+            counts = new long[numberOfTypes];
+            successes = new long[numberOfTypes];
+            nanos = new long[numberOfTypes];
+            max = new long[numberOfTypes];
+            histogram = new long[numberOfTypes * BUCKETS];
+        }
+
+        private void record(int type, boolean success, long time) {
+            counts[type]++;
+            if (success) {
+                successes[type]++;
+            }
+            nanos[type] += time;
+            if (time > max[type]) {
+                max[type] = time;
+            }
+            histogram[type * BUCKETS + bucket(time)]++;
+        }
+
+        private void add(Recorder other) {
+            for (int type = 0; type < counts.length; type++) {
+                counts[type] += other.counts[type];
+                successes[type] += other.successes[type];
+                nanos[type] += other.nanos[type];
+                max[type] = Math.max(max[type], other.max[type]);
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+
+        private long percentile(int type, double percentile) {
+            final long rank = Math.max(1, (long) Math.ceil(percentile * counts[type]));
+            long cumulated = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                cumulated += histogram[type * BUCKETS + bucket];
+                if (cumulated >= rank) {
+                    return Math.min(upperBound(bucket), max[type]);
+                }
+            }
+            return max[type];
+        }
+
+        private void clear() {
+            Arrays.fill(counts, 0);
+            Arrays.fill(successes, 0);
+            Arrays.fill(nanos, 0);
+            Arrays.fill(max, 0);
+            Arrays.fill(histogram, 0);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.models.EventModel;
+import de.tum.bgu.msm.models.EventSource;
+
+import java.util.*;
+
+/**
+ * Events of a year as packed primitive descriptors. Events of {@link EventSource}s are stored as
+ * <code>(type &lt;&lt; 32) | entity id</code>, where type is the registration index of the source.
+ * All other events are kept in a list and referenced by a negative descriptor <code>~index</code>.
+ * No object is created per event of an event source.
+ */
+final class EventQueue {
+
+    private final List<EventModel> models = new ArrayList<>();
+    private final List<Class<? extends MicroEvent>> eventClasses = new ArrayList<>();
+    private final Map<Class<? extends MicroEvent>, EventModel> modelsByEventClass = new HashMap<>();
+    private final Map<Class<? extends MicroEvent>, Integer> typesByEventClass = new HashMap<>();
+
+    private final List<MicroEvent> objectEvents = new ArrayList<>();
+    private long[] descriptors = new long[1024];
+    private int size = 0;
+
+    <T extends MicroEvent> void register(Class<T> klass, EventModel<T> model) {
+        models.add(model);
+        eventClasses.add(klass);
+        modelsByEventClass.put(klass, model);
+        typesByEventClass.put(klass, eventClasses.size() - 1);
+    }
+
+    List<Class<? extends MicroEvent>> getEventClasses() {
+        return Collections.unmodifiableList(eventClasses);
+    }
+
+    /**
+     * Collects the events of the model registered for the given event class for the given year.
+     * @return the number of events added
+     */
+    int addEventsOf(Class<? extends MicroEvent> klass, int year) {
+        final int before = size;
+        final int type = eventClasses.indexOf(klass);
+        final EventModel<? extends MicroEvent> model = models.get(type);
+        if (model instanceof EventSource) {
+            ((EventSource<?>) model).getEventIdsForCurrentYear(year, id -> add(((long) type << 32) | (id & 0xffffffffL)));
+        } else {
+            for (MicroEvent event : model.getEventsForCurrentYear(year)) {
+                add(~(long) objectEvents.size());
+                objectEvents.add(event);
+            }
+        }
+        return size - before;
+    }
+
+    private void add(long descriptor) {
+        if (size == descriptors.length) {
+            descriptors = Arrays.copyOf(descriptors, descriptors.length + (descriptors.length >> 1));
+        }
+        descriptors[size++] = descriptor;
+    }
+
+    /**
+     * Shuffles the events with the same sequence of random draws as
+     * {@link Collections#shuffle(List, Random)} does for a list of equal size.
+     */
+    void shuffle(Random random) {
+        for (int i = size; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final long tmp = descriptors[i - 1];
+            descriptors[i - 1] = descriptors[j];
+            descriptors[j] = tmp;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return descriptors[index];
+    }
+
+    /**
+     * @return the registration index of the event class of the given event
+     */
+    int eventType(long descriptor) {
+        if (descriptor < 0) {
+            return typesByEventClass.get(objectEvents.get((int) ~descriptor).getClass());
+        } else {
+            return (int) (descriptor >>> 32);
+        }
+    }
+
+    Class<? extends MicroEvent> eventClass(long descriptor) {
+        return eventClasses.get(eventType(descriptor));
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean handle(long descriptor) {
+        if (descriptor < 0) {
+            final MicroEvent event = objectEvents.get((int) ~descriptor);
+            return modelsByEventClass.get(event.getClass()).handleEvent(event);
+        } else {
+            return ((EventSource) models.get((int) (descriptor >>> 32))).handleEvent((int) descriptor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean declareFootprint(long descriptor, EventFootprint footprint) {
+        if (descriptor < 0) {
+            final MicroEvent event = objectEvents.get((int) ~descriptor);
+            return modelsByEventClass.get(event.getClass()).declareFootprint(event, footprint);
+        } else {
+            return ((EventSource) models.get((int) (descriptor >>> 32))).declareFootprint((int) descriptor, footprint);
+        }
+    }
+
+    void clear() {
+        objectEvents.clear();
+        size = 0;
+    }
+}
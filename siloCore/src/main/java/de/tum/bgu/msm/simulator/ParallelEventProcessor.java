@@ -0,0 +1,110 @@
+package de.tum.bgu.msm.simulator;
+
+import com.google.common.collect.Multiset;
+import de.tum.bgu.msm.events.MicroEvent;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Handles the shuffled events of a year in batches of non-conflicting events. The shuffled list is
+ * scanned in order and a batch is closed as soon as the next event conflicts with one of the events
+ * already in the batch (see {@link EventFootprint}). Events without a declared footprint are handled
+ * on their own. Thus, conflicting events keep their shuffled order, and as long as the handlers of
+ * concurrently processed events do not draw from shared random objects, the result does not depend
+ * on the number of threads.
+ * <p>
+ * Birthdays, education and, with random streams per entity and fully tabulated probabilities, driver's
+ * licenses declare footprints. Deaths, leaving the parental household, employment and all other events change
+ * the population, id counters, vacancy lists or the vacant job market, or draw from a shared random object, and
+ * are handled on their own.
+ */
+final class ParallelEventProcessor {
+
+    private final static Logger logger = Logger.getLogger(ParallelEventProcessor.class);
+
+    private final ForkJoinPool pool;
+    private final int minimumBatchSize;
+    private final int maximumBatchSize;
+
+    private final EventFootprint footprint = new EventFootprint();
+    private final LongKeySet claimedReads;
+    private final LongKeySet claimedWrites;
+
+    private boolean[] success;
+    private long handled;
+    private long handledConcurrently;
+
+    ParallelEventProcessor(int numberOfThreads, int minimumBatchSize, int maximumBatchSize) {
+        this.pool = new ForkJoinPool(numberOfThreads);
+        this.minimumBatchSize = minimumBatchSize;
+        this.maximumBatchSize = maximumBatchSize;
+        this.claimedReads = new LongKeySet(maximumBatchSize);
+        this.claimedWrites = new LongKeySet(maximumBatchSize);
+        this.success = new boolean[maximumBatchSize];
+    }
+
+    void process(EventQueue events, Multiset<Class<? extends MicroEvent>> eventCounter, EventMetrics metrics) {
+        handled = 0;
+        handledConcurrently = 0;
+        int batchStart = 0;
+        for (int i = 0; i < events.size(); i++) {
+            footprint.clear();
+            if (!events.declareFootprint(events.get(i), footprint)) {
+                handleBatch(events, batchStart, i, eventCounter, metrics);
+                handleBatch(events, i, i + 1, eventCounter, metrics);
+                batchStart = i + 1;
+                continue;
+            }
+            if (footprint.conflictsWith(claimedReads, claimedWrites) || i - batchStart == maximumBatchSize) {
+                handleBatch(events, batchStart, i, eventCounter, metrics);
+                batchStart = i;
+            }
+            footprint.claim(claimedReads, claimedWrites);
+        }
+        handleBatch(events, batchStart, events.size(), eventCounter, metrics);
+        logger.info("  Handled " + handled + " events, " + handledConcurrently + " of them concurrently.");
+    }
+
+    private void handleBatch(EventQueue events, int from, int to,
+                             Multiset<Class<? extends MicroEvent>> eventCounter, EventMetrics metrics) {
+        claimedReads.clear();
+        claimedWrites.clear();
+        final int size = to - from;
+        if (size <= 0) {
+            return;
+        }
+        if (size < minimumBatchSize) {
+            for (int i = from; i < to; i++) {
+                success[i - from] = handle(events, i, metrics);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(from, to).parallel().forEach(i ->
+                    success[i - from] = handle(events, i, metrics))).join();
+            handledConcurrently += size;
+        }
+        for (int i = from; i < to; i++) {
+            if (success[i - from]) {
+                eventCounter.add(events.eventClass(events.get(i)));
+            }
+        }
+        long before = handled;
+        handled += size;
+        if (Long.highestOneBit(before) != Long.highestOneBit(handled)) {
+            logger.info("Handled " + Long.highestOneBit(handled) + " events.");
+        }
+    }
+
+    private static boolean handle(EventQueue events, int index, EventMetrics metrics) {
+        final long event = events.get(index);
+        final long start = System.nanoTime();
+        final boolean success = events.handle(event);
+        metrics.record(events.eventType(event), success, System.nanoTime() - start);
+        return success;
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -8,6 +8,7 @@ import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
+import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
 import de.tum.bgu.msm.utils.TimeTracker;
 import org.apache.log4j.Logger;
@@ -28,17 +29,27 @@ public final class Simulator {
     private final Map<Class<? extends MicroEvent>, EventModel> models = new LinkedHashMap<>();
     private final List<ModelUpdateListener> modelUpdateListeners = new ArrayList<>();
 
-    private final List<MicroEvent> events = new ArrayList<>();
+    private final EventQueue events = new EventQueue();
     private final TimeTracker timeTracker;
 
     private Set<ResultsMonitor> resultsMonitors = new HashSet<>() ;
 
+    private ParallelEventProcessor parallelEventProcessor;
+    private EventMetrics eventMetrics;
+
     public Simulator(TimeTracker timeTracker) {
         this.timeTracker = timeTracker;
+        final Properties properties = Properties.get();
+        if(properties.main.parallelEventProcessing) {
+            logger.info("Handling non-conflicting events with " + properties.main.numberOfThreads + " thread(s).");
+            parallelEventProcessor = new ParallelEventProcessor(properties.main.numberOfThreads,
+                    properties.main.minimumParallelEventBatchSize, properties.main.maximumParallelEventBatchSize);
+        }
     }
 
     public <T extends MicroEvent> void registerEventModel(Class<T> klass, EventModel<T> model) {
         this.models.put(klass, model);
+        this.events.register(klass, model);
         logger.info("Registered " + model.getClass().getSimpleName() + " for: " + klass.getSimpleName());
     }
 
@@ -70,6 +81,8 @@ public final class Simulator {
             resultsMonitor.setup();
         }
 
+        eventMetrics = new EventMetrics(events.getEventClasses());
+
     }
 
     public void simulate(int year) {
@@ -86,37 +99,41 @@ public final class Simulator {
             timeTracker.recordAndReset("PreparationFor" + modelUpdateListener.getClass().getSimpleName());
         }
         logger.info("  Preparing and creating events");
-        for(EventModel<MicroEvent> model: models.values()) {
+        for(Map.Entry<Class<? extends MicroEvent>, EventModel> entry: models.entrySet()) {
+            EventModel model = entry.getValue();
             model.prepareYear(year);
-            events.addAll(model.getEventsForCurrentYear(year));
+            events.addEventsOf(entry.getKey(), year);
             timeTracker.recordAndReset("PreparationFor" + model.getClass().getSimpleName());
         }
         logger.info("  Created " + events.size() + " events to simulate.");
         logger.info("  Shuffling events...");
-        Collections.shuffle(events, SiloUtil.getRandomObject());
+        events.shuffle(SiloUtil.getRandomObject());
         eventCounter.clear();
     }
 
     private void processEvents() {
         logger.info("  Processing events...");
-        int counter = 0;
-        for (MicroEvent e: events) {
+        eventMetrics.startYear();
+        if(parallelEventProcessor != null) {
+            parallelEventProcessor.process(events, eventCounter, eventMetrics);
+            return;
+        }
+        for (int counter = 0; counter < events.size(); counter++) {
             if (LongMath.isPowerOfTwo(counter)) {
                 logger.info("Handled " + counter + " events.");
             }
-//            timeTracker.reset();
-            Class<? extends MicroEvent> klass= e.getClass();
-
-            boolean success = this.models.get(klass).handleEvent(e);
+            final long event = events.get(counter);
+            final long start = System.nanoTime();
+            boolean success = events.handle(event);
+            eventMetrics.record(events.eventType(event), success, System.nanoTime() - start);
             if(success) {
-                eventCounter.add(klass);
+                eventCounter.add(events.eventClass(event));
             }
-            counter++;
-//            timeTracker.record(klass.getSimpleName());
         }
     }
 
     private void finishYear(int year) {
+        eventMetrics.endYear(year);
         for(ModelUpdateListener modelUpdateListener : modelUpdateListeners) {
             modelUpdateListener.endYear(year);
         }
@@ -143,5 +160,8 @@ public final class Simulator {
             resultsMonitor.endSimulation();
         }
 
+        if(parallelEventProcessor != null) {
+            parallelEventProcessor.shutdown();
+        }
     }
 }
@@ -0,0 +1,102 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Random;
+
+/**
+ * Alias table (Vose's method) for weighted sampling from a distribution that does not change between draws.
+ * Building the table takes O(n), every draw takes O(1) and one random number. The table is immutable, so one
+ * sampler may be shared by several threads as long as every thread draws from its own random object, e.g. a
+ * stream of {@link RandomStreams}.
+ */
+public final class AliasSampler {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights non-negative weights, not necessarily normalized, of which at least one is positive
+     */
+    public AliasSampler(double[] weights) {
+        final int n = weights.length;
+        double sum = 0;
+        int anyPositive = -1;
+        for (int i = 0; i < n; i++) {
+            if (weights[i] < 0 || Double.isNaN(weights[i])) {
+                throw new IllegalArgumentException("Invalid weight " + weights[i] + " at index " + i);
+            }
+            if (weights[i] > 0) {
+                anyPositive = i;
+            }
+            sum += weights[i];
+        }
+        if (anyPositive < 0) {
+            throw new IllegalArgumentException("Cannot sample from " + n + " weights without a positive one.");
+        }
+
+        probabilities = new double[n];
+        aliases = new int[n];
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        while (largeSize > 0) {
+            probabilities[large[--largeSize]] = 1;
+        }
+        // only left over due to rounding errors
+        while (smallSize > 0) {
+            final int index = small[--smallSize];
+            if (weights[index] > 0) {
+                probabilities[index] = 1;
+            } else {
+                probabilities[index] = 0;
+                aliases[index] = anyPositive;
+            }
+        }
+    }
+
+    public AliasSampler(float[] weights) {
+        this(toDouble(weights));
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Samples an index with a probability proportional to its weight. Indices with zero weight are never returned.
+     */
+    public int sample(Random random) {
+        final double value = random.nextDouble() * probabilities.length;
+        final int column = Math.min((int) value, probabilities.length - 1);
+        return value - column < probabilities[column] ? column : aliases[column];
+    }
+
+    private static double[] toDouble(float[] weights) {
+        final double[] converted = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            converted[i] = weights[i];
+        }
+        return converted;
+    }
+}
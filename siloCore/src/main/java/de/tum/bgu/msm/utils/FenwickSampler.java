@@ -0,0 +1,76 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted sampling of objects whose weights change between draws, e.g. capacities that are used up by every
+ * draw. Weights are kept in a {@link FenwickTree}, so draws and weight updates take O(log n) instead of a scan
+ * over all objects. Not thread safe.
+ */
+public final class FenwickSampler<T> {
+
+    private final List<T> objects;
+    private final FenwickTree weights;
+
+    public FenwickSampler(List<T> objects, double[] weights) {
+        if (objects.size() != weights.length) {
+            throw new IllegalArgumentException(objects.size() + " objects but " + weights.length + " weights");
+        }
+        this.objects = new ArrayList<>(objects);
+        this.weights = new FenwickTree(weights);
+    }
+
+    /**
+     * @return a sampler over the keys of the given map, weighted by their values. Indices follow the iteration
+     * order of the map.
+     */
+    public static <T> FenwickSampler<T> of(Map<T, ? extends Number> weightsByObject) {
+        final List<T> objects = new ArrayList<>(weightsByObject.size());
+        final double[] weights = new double[weightsByObject.size()];
+        int i = 0;
+        for (Map.Entry<T, ? extends Number> entry : weightsByObject.entrySet()) {
+            objects.add(entry.getKey());
+            weights[i++] = entry.getValue().doubleValue();
+        }
+        return new FenwickSampler<>(objects, weights);
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    public T get(int index) {
+        return objects.get(index);
+    }
+
+    public double getWeight(int index) {
+        return weights.get(index);
+    }
+
+    public void setWeight(int index, double weight) {
+        weights.set(index, weight);
+    }
+
+    public double getTotalWeight() {
+        return weights.total();
+    }
+
+    /**
+     * @return the index of an object sampled with a probability proportional to its weight, or -1 if all
+     * weights are zero
+     */
+    public int sampleIndex(Random random) {
+        return weights.sample(random);
+    }
+
+    /**
+     * @return an object sampled with a probability proportional to its weight, or null if all weights are zero
+     */
+    public T sample(Random random) {
+        final int index = sampleIndex(random);
+        return index < 0 ? null : objects.get(index);
+    }
+}
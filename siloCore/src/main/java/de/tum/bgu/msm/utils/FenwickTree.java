@@ -0,0 +1,168 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Binary indexed (Fenwick) tree over non-negative weights. Updating a weight, computing prefix sums and
+ * finding the index that covers a cumulative weight all take O(log n), which allows weighted sampling from
+ * weights that change between draws without rebuilding a cumulative distribution. A second tree counts the
+ * positive weights exactly, so indices without weight are skipped in O(log n) as well, and the partial sums
+ * are reset once all weights are zero to discard accumulated rounding errors. Not thread safe.
+ */
+public final class FenwickTree {
+
+    private final double[] weights;
+    private final double[] tree;
+    private final int[] positiveCounts;
+    private final int highestPowerOfTwo;
+    private int numberOfPositiveWeights = 0;
+
+    public FenwickTree(int size) {
+        weights = new double[size];
+        tree = new double[size + 1];
+        positiveCounts = new int[size + 1];
+        highestPowerOfTwo = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    public FenwickTree(double[] weights) {
+        this(weights.length);
+        build(weights);
+    }
+
+    /**
+     * Replaces all weights in O(n).
+     */
+    public void build(double[] newWeights) {
+        if (newWeights.length != weights.length) {
+            throw new IllegalArgumentException("Expected " + weights.length + " weights but got " + newWeights.length);
+        }
+        System.arraycopy(newWeights, 0, weights, 0, weights.length);
+        numberOfPositiveWeights = 0;
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] = weights[i - 1];
+            positiveCounts[i] = weights[i - 1] > 0 ? 1 : 0;
+            numberOfPositiveWeights += positiveCounts[i];
+        }
+        for (int i = 1; i < tree.length; i++) {
+            final int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+                positiveCounts[parent] += positiveCounts[i];
+            }
+        }
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public double get(int index) {
+        return weights[index];
+    }
+
+    public void set(int index, double weight) {
+        update(index, weight, weight - weights[index]);
+    }
+
+    public void add(int index, double delta) {
+        update(index, weights[index] + delta, delta);
+    }
+
+    private void update(int index, double weight, double delta) {
+        final boolean wasPositive = weights[index] > 0;
+        weights[index] = weight;
+        if (wasPositive != weight > 0) {
+            final int change = wasPositive ? -1 : 1;
+            numberOfPositiveWeights += change;
+            for (int i = index + 1; i < positiveCounts.length; i += i & -i) {
+                positiveCounts[i] += change;
+            }
+            if (numberOfPositiveWeights == 0) {
+                Arrays.fill(tree, 0);
+                return;
+            }
+        }
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the sum of the weights with an index smaller than the given one
+     */
+    public double prefixSum(int index) {
+        double sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the sum of all weights, exactly zero if all weights are zero
+     */
+    public double total() {
+        return numberOfPositiveWeights == 0 ? 0 : prefixSum(weights.length);
+    }
+
+    /**
+     * @return the smallest index whose inclusive prefix sum exceeds the given cumulative weight, i.e. the index
+     * covering the given value. Indices with zero weight are never returned as long as value lies in [0, total).
+     */
+    public int find(double value) {
+        int position = 0;
+        double remaining = value;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            final int next = position + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        // rounding errors in the partial sums may point to an index without weight. Fall back to the closest
+        // positive weight below, or the first one if there is none below
+        position = Math.min(position, weights.length - 1);
+        if (weights[position] > 0 || numberOfPositiveWeights == 0) {
+            return position;
+        }
+        final int positiveBelow = countPositiveWeightsBelow(position);
+        return findPositiveWeight(positiveBelow > 0 ? positiveBelow - 1 : 0);
+    }
+
+    private int countPositiveWeightsBelow(int index) {
+        int count = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            count += positiveCounts[i];
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of the positive weight with the given rank, counted from zero in ascending order
+     */
+    private int findPositiveWeight(int rank) {
+        int position = 0;
+        int remaining = rank;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            final int next = position + step;
+            if (next < positiveCounts.length && positiveCounts[next] <= remaining) {
+                position = next;
+                remaining -= positiveCounts[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Samples an index with a probability proportional to its weight.
+     * @return the sampled index or -1 if all weights are zero
+     */
+    public int sample(Random random) {
+        final double total = total();
+        if (total <= 0) {
+            return -1;
+        }
+        return find(random.nextDouble() * total);
+    }
+}
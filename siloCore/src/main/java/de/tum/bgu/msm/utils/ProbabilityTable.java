@@ -0,0 +1,69 @@
+package de.tum.bgu.msm.utils;
+
+/**
+ * Dense table of a function over a small two-dimensional integer domain [0, rows) x [0, columns), evaluated once
+ * when the table is built. Cells for which the function failed and all keys outside the domain are reported as
+ * NaN, so that callers can fall back to evaluating the function directly. Immutable and thread safe.
+ * <p>
+ * Used by the tabulated default strategies of the demographic models, whose scripts only depend on a few small
+ * integer attributes of a person. Their {@code tabulate} methods only wrap the default strategies, as other
+ * implementations may depend on further attributes.
+ */
+public final class ProbabilityTable {
+
+    public interface Cell {
+        double calculate(int row, int column);
+    }
+
+    private final int rows;
+    private final int columns;
+    private final double[] values;
+
+    private ProbabilityTable(int rows, int columns, double[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    public static ProbabilityTable tabulate(int rows, int columns, Cell cell) {
+        final double[] values = new double[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double value;
+                try {
+                    value = cell.calculate(row, column);
+                } catch (RuntimeException e) {
+                    value = Double.NaN;
+                }
+                values[row * columns + column] = value;
+            }
+        }
+        return new ProbabilityTable(rows, columns, values);
+    }
+
+    public static ProbabilityTable tabulate(int rows, Cell cell) {
+        return tabulate(rows, 1, cell);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the tabulated value, or NaN if the key lies outside the domain or the function failed for it
+     */
+    public double get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return Double.NaN;
+        }
+        return values[row * columns + column];
+    }
+
+    public double get(int row) {
+        return get(row, 0);
+    }
+}
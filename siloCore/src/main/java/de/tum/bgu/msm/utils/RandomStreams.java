@@ -0,0 +1,115 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Random;
+
+/**
+ * Counter based random number streams. The seed of every stream is derived by hashing the base seed,
+ * the current simulation year, a stream key (usually identifying the model) and an entity id. Thus,
+ * the random numbers drawn for an agent in a given year do not depend on the order in which agents
+ * are processed nor on the number of threads, and no state is shared between threads.
+ *
+ * Streams are based on the SplitMix64 generator that is also used by {@link java.util.SplittableRandom},
+ * but are exposed as {@link Random} so they can be handed to existing code.
+ */
+public final class RandomStreams {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private volatile int year;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Returns a new stream for the given key and entity in the current year.
+     */
+    public Random stream(long streamKey, int entityId) {
+        return new StreamRandom(seedFor(streamKey, year, entityId));
+    }
+
+    /**
+     * Returns the first uniformly distributed number in [0,1) of the stream for the given key and entity
+     * in the current year without creating a stream object.
+     */
+    public double uniform(long streamKey, int entityId) {
+        return toDouble(mix64(seedFor(streamKey, year, entityId) + GOLDEN_GAMMA));
+    }
+
+    long seedFor(long streamKey, int year, int entityId) {
+        long h = mix64(seed ^ streamKey);
+        h = mix64(h + GOLDEN_GAMMA * (year + 1));
+        return mix64(h + GOLDEN_GAMMA * ((entityId & 0xffffffffL) + 1));
+    }
+
+    /**
+     * Stable 64 bit key for the given name, e.g. a model class name. Does not depend on
+     * {@link Object#hashCode()} and is therefore identical in every run.
+     */
+    public static long key(String name) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            h ^= name.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double toDouble(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * SplitMix64 based {@link Random}. Not thread safe; every stream is meant to be used by a single thread.
+     */
+    private static final class StreamRandom extends Random {
+
+        private long state;
+
+        private StreamRandom(long seed) {
+            super(seed);
+            this.state = seed;
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            super.setSeed(seed);
+            this.state = seed;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return (int) (nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public long nextLong() {
+            state += GOLDEN_GAMMA;
+            return mix64(state);
+        }
+
+        @Override
+        public double nextDouble() {
+            return toDouble(nextLong());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Random;
+
+/**
+ * {@link Random} whose state can be read and set, e.g. to store it in a checkpoint. Draws the same numbers as
+ * {@link Random} with the same seed: the linear congruential generator and the Gaussian of {@link Random} are
+ * repeated here, as {@link Random} does not expose its state. All other methods of {@link Random} draw via
+ * {@link #next(int)}.
+ */
+public final class RestorableRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // not initialized in declarations, as the constructor of Random calls setSeed before
+    private long state;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    public RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+        haveNextNextGaussian = false;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    @Override
+    public synchronized double nextGaussian() {
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        final double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    /**
+     * @return the state as generator state, pending Gaussian flag and pending Gaussian bits
+     */
+    public synchronized long[] getState() {
+        return new long[]{state, haveNextNextGaussian ? 1 : 0, Double.doubleToRawLongBits(nextNextGaussian)};
+    }
+
+    /**
+     * Sets a state returned by {@link #getState()}, after which this object draws the same numbers as the one the
+     * state was taken from.
+     */
+    public synchronized void setState(long[] state) {
+        this.state = state[0] & MASK;
+        this.haveNextNextGaussian = state[1] != 0;
+        this.nextNextGaussian = Double.longBitsToDouble(state[2]);
+    }
+}
@@ -36,7 +36,8 @@ public class SiloUtil {
     private final static Logger logger = Logger.getLogger(SiloUtil.class);
 
     private static final String TIME_TRACKER_FILE = "timeTracker.csv";
-    private static Random rand;
+    private static RestorableRandom rand;
+    private static RandomStreams randomStreams;
     public static int trackHh;
     public static int trackPp;
     public static int trackDd;
@@ -163,21 +164,45 @@ public class SiloUtil {
 
     private static void initializeRandomNumber(int seed) {
         if (seed == -1)
-            rand = new Random();
+            rand = new RestorableRandom(new Random().nextLong());
         else
-            rand = new Random(seed);
+            rand = new RestorableRandom(seed);
+        randomStreams = new RandomStreams(seed == -1 ? rand.nextLong() : seed);
     }
 
 
     public static Random getRandomObject() {
         if(rand == null) {
-            rand = new Random(42);
+            rand = new RestorableRandom(42);
         }
         return rand;
     }
 
+    /**
+     * Random streams per entity that do not depend on processing order or number of threads.
+     */
+    public static RandomStreams getRandomStreams() {
+        if(randomStreams == null) {
+            randomStreams = new RandomStreams(42);
+        }
+        return randomStreams;
+    }
+
+    /**
+     * Restores the global random objects, e.g. from the state stored in a checkpoint. The state is set on the
+     * existing random object, as models may hold on to it.
+     */
+    public static void restoreRandomObjects(long[] randomState, RandomStreams streams) {
+        streams.setYear(getRandomStreams().getYear());
+        ((RestorableRandom) getRandomObject()).setState(randomState);
+        randomStreams = streams;
+    }
+
+    /**
+     * Returns a new random object seeded by the global random object. Its state can be stored in checkpoints.
+     */
     public static Random provideNewRandom() {
-        return new Random(getRandomObject().nextInt());
+        return new RestorableRandom(getRandomObject().nextInt());
     }
 
     public static float getRandomNumberAsFloat() {
@@ -0,0 +1,83 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Draws the successes of independent Bernoulli trials. Trials are grouped into cohorts of equal probability and
+ * instead of one random number per trial, the number of failures before the next success within a cohort is
+ * drawn from a geometric distribution. The number of random draws is therefore proportional to the number of
+ * successes rather than to the number of trials. Not thread safe.
+ */
+public final class SkipSampler {
+
+    private final Map<Double, Cohort> cohorts = new LinkedHashMap<>();
+
+    /**
+     * Adds a trial of the given entity. Trials with a probability that is not positive never succeed and are
+     * ignored.
+     */
+    public void add(int id, double probability) {
+        if (probability > 0) {
+            cohorts.computeIfAbsent(probability, Cohort::new).add(id);
+        }
+    }
+
+    /**
+     * Passes the ids of all successful trials to the given consumer. Cohorts are visited in the order of their
+     * first trial and ids within a cohort in the order they were added.
+     */
+    public void sample(Random random, IntConsumer successes) {
+        for (Cohort cohort : cohorts.values()) {
+            cohort.sample(random, successes);
+        }
+    }
+
+    public int getNumberOfCohorts() {
+        return cohorts.size();
+    }
+
+    public void clear() {
+        cohorts.clear();
+    }
+
+    private static final class Cohort {
+
+        private final double probability;
+        private int[] ids = new int[16];
+        private int size = 0;
+
+        private Cohort(double probability) {
+            this.probability = probability;
+        }
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = id;
+        }
+
+        private void sample(Random random, IntConsumer successes) {
+            if (probability >= 1) {
+                for (int i = 0; i < size; i++) {
+                    successes.accept(ids[i]);
+                }
+                return;
+            }
+            final double logFailure = Math.log1p(-probability);
+            int last = -1;
+            while (true) {
+                final double failures = Math.floor(Math.log(1. - random.nextDouble()) / logFailure);
+                if (failures >= size - 1 - last) {
+                    return;
+                }
+                last += (int) failures + 1;
+                successes.accept(ids[last]);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.tum.bgu.msm.utils.js;
+
+/**
+ * A script function translated into plain Java by the {@link ScriptTranslator}. Arguments and results are
+ * primitive doubles; enum arguments are passed as their ordinal. Instances are immutable and thread safe.
+ */
+public final class ScriptFunction {
+
+    private final String name;
+    private final int numberOfParameters;
+    private final int frameSize;
+    private final ScriptNodes.StatementNode body;
+
+    ScriptFunction(String name, int numberOfParameters, int frameSize, ScriptNodes.StatementNode body) {
+        this.name = name;
+        this.numberOfParameters = numberOfParameters;
+        this.frameSize = frameSize;
+        this.body = body;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNumberOfParameters() {
+        return numberOfParameters;
+    }
+
+    public double apply() {
+        checkArguments(0);
+        return run(new double[frameSize]);
+    }
+
+    public double apply(double argument) {
+        checkArguments(1);
+        final double[] frame = new double[frameSize];
+        frame[1] = argument;
+        return run(frame);
+    }
+
+    public double apply(double first, double second) {
+        checkArguments(2);
+        final double[] frame = new double[frameSize];
+        frame[1] = first;
+        frame[2] = second;
+        return run(frame);
+    }
+
+    public double apply(double... arguments) {
+        checkArguments(arguments.length);
+        final double[] frame = new double[frameSize];
+        System.arraycopy(arguments, 0, frame, 1, arguments.length);
+        return run(frame);
+    }
+
+    private void checkArguments(int count) {
+        if (count != numberOfParameters) {
+            throw new IllegalArgumentException("Function " + name + " expects " + numberOfParameters
+                    + " arguments but got " + count);
+        }
+    }
+
+    private double run(double[] frame) {
+        if (!body.execute(frame)) {
+            throw new IllegalStateException("Function " + name + " did not return a value.");
+        }
+        return frame[0];
+    }
+}
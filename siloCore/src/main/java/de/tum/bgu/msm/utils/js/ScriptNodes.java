@@ -0,0 +1,420 @@
+package de.tum.bgu.msm.utils.js;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Executable nodes of translated script functions. All values are held in a double[] frame: slot 0 holds the
+ * return value, followed by the parameters and the local variables. Enum arguments are stored as ordinals.
+ */
+final class ScriptNodes {
+
+    private ScriptNodes() {
+    }
+
+    abstract static class NumberNode {
+        abstract double evaluate(double[] frame);
+    }
+
+    abstract static class ConditionNode {
+        abstract boolean test(double[] frame);
+    }
+
+    abstract static class MessageNode {
+        abstract String render(double[] frame);
+    }
+
+    abstract static class StatementNode {
+        /**
+         * @return true if the function returned
+         */
+        abstract boolean execute(double[] frame);
+    }
+
+    static final class Constant extends NumberNode {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            return value;
+        }
+    }
+
+    static final class Variable extends NumberNode {
+        private final int slot;
+
+        Variable(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            return frame[slot];
+        }
+    }
+
+    static final class Negation extends NumberNode {
+        private final NumberNode operand;
+
+        Negation(NumberNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            return -operand.evaluate(frame);
+        }
+    }
+
+    static final class Arithmetic extends NumberNode {
+        private final char operator;
+        private final NumberNode left;
+        private final NumberNode right;
+
+        Arithmetic(char operator, NumberNode left, NumberNode right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            final double a = left.evaluate(frame);
+            final double b = right.evaluate(frame);
+            switch (operator) {
+                case '+':
+                    return a + b;
+                case '-':
+                    return a - b;
+                case '*':
+                    return a * b;
+                case '/':
+                    return a / b;
+                default:
+                    return a % b;
+            }
+        }
+    }
+
+    static final class MathFunction extends NumberNode {
+        static final List<String> FUNCTIONS = Arrays.asList("exp", "log", "pow", "sqrt", "abs", "floor", "ceil", "round", "min", "max");
+
+        private final int function;
+        private final NumberNode[] arguments;
+
+        MathFunction(String name, NumberNode[] arguments) {
+            this.function = FUNCTIONS.indexOf(name);
+            if (function < 0) {
+                throw new IllegalArgumentException("Unknown function Math." + name);
+            }
+            this.arguments = arguments;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            final double a = arguments[0].evaluate(frame);
+            switch (function) {
+                case 0:
+                    return Math.exp(a);
+                case 1:
+                    return Math.log(a);
+                case 2:
+                    return Math.pow(a, arguments[1].evaluate(frame));
+                case 3:
+                    return Math.sqrt(a);
+                case 4:
+                    return Math.abs(a);
+                case 5:
+                    return Math.floor(a);
+                case 6:
+                    return Math.ceil(a);
+                case 7:
+                    // JavaScript rounds halves towards positive infinity
+                    return Math.floor(a + 0.5);
+                case 8: {
+                    double min = a;
+                    for (int i = 1; i < arguments.length; i++) {
+                        min = Math.min(min, arguments[i].evaluate(frame));
+                    }
+                    return min;
+                }
+                default: {
+                    double max = a;
+                    for (int i = 1; i < arguments.length; i++) {
+                        max = Math.max(max, arguments[i].evaluate(frame));
+                    }
+                    return max;
+                }
+            }
+        }
+    }
+
+    static final class Choice extends NumberNode {
+        private final ConditionNode test;
+        private final NumberNode then;
+        private final NumberNode otherwise;
+
+        Choice(ConditionNode test, NumberNode then, NumberNode otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        double evaluate(double[] frame) {
+            return test.test(frame) ? then.evaluate(frame) : otherwise.evaluate(frame);
+        }
+    }
+
+    static final class FixedCondition extends ConditionNode {
+        private final boolean value;
+
+        FixedCondition(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            return value;
+        }
+    }
+
+    static final class Comparison extends ConditionNode {
+        private static final List<String> OPERATORS = Arrays.asList("==", "!=", "<", "<=", ">", ">=");
+
+        private final int operator;
+        private final NumberNode left;
+        private final NumberNode right;
+
+        Comparison(String operator, NumberNode left, NumberNode right) {
+            this.operator = OPERATORS.indexOf(operator);
+            if (this.operator < 0) {
+                throw new IllegalArgumentException("Unknown comparison " + operator);
+            }
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            final double a = left.evaluate(frame);
+            final double b = right.evaluate(frame);
+            switch (operator) {
+                case 0:
+                    return a == b;
+                case 1:
+                    return a != b;
+                case 2:
+                    return a < b;
+                case 3:
+                    return a <= b;
+                case 4:
+                    return a > b;
+                default:
+                    return a >= b;
+            }
+        }
+    }
+
+    static final class Truthiness extends ConditionNode {
+        private final NumberNode operand;
+
+        Truthiness(NumberNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            final double value = operand.evaluate(frame);
+            return value != 0 && !Double.isNaN(value);
+        }
+    }
+
+    static final class Not extends ConditionNode {
+        private final ConditionNode operand;
+
+        Not(ConditionNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            return !operand.test(frame);
+        }
+    }
+
+    static final class And extends ConditionNode {
+        private final ConditionNode left;
+        private final ConditionNode right;
+
+        And(ConditionNode left, ConditionNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            return left.test(frame) && right.test(frame);
+        }
+    }
+
+    static final class Or extends ConditionNode {
+        private final ConditionNode left;
+        private final ConditionNode right;
+
+        Or(ConditionNode left, ConditionNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(double[] frame) {
+            return left.test(frame) || right.test(frame);
+        }
+    }
+
+    static final class Text extends MessageNode {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        String render(double[] frame) {
+            return text;
+        }
+    }
+
+    static final class NumberText extends MessageNode {
+        private final NumberNode number;
+
+        NumberText(NumberNode number) {
+            this.number = number;
+        }
+
+        @Override
+        String render(double[] frame) {
+            final double value = number.evaluate(frame);
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return String.valueOf((long) value);
+            }
+            return String.valueOf(value);
+        }
+    }
+
+    static final class EnumText extends MessageNode {
+        private final int slot;
+        private final Enum<?>[] constants;
+
+        EnumText(int slot, Enum<?>[] constants) {
+            this.slot = slot;
+            this.constants = constants;
+        }
+
+        @Override
+        String render(double[] frame) {
+            return constants[(int) frame[slot]].name();
+        }
+    }
+
+    static final class Concatenation extends MessageNode {
+        private final MessageNode left;
+        private final MessageNode right;
+
+        Concatenation(MessageNode left, MessageNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        String render(double[] frame) {
+            return left.render(frame) + right.render(frame);
+        }
+    }
+
+    static final class Sequence extends StatementNode {
+        private final StatementNode[] statements;
+
+        Sequence(StatementNode[] statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        boolean execute(double[] frame) {
+            for (StatementNode statement : statements) {
+                if (statement.execute(frame)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class Store extends StatementNode {
+        private final int slot;
+        private final NumberNode value;
+
+        Store(int slot, NumberNode value) {
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        boolean execute(double[] frame) {
+            frame[slot] = value.evaluate(frame);
+            return false;
+        }
+    }
+
+    static final class Branch extends StatementNode {
+        private final ConditionNode test;
+        private final StatementNode then;
+        private final StatementNode otherwise;
+
+        Branch(ConditionNode test, StatementNode then, StatementNode otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        boolean execute(double[] frame) {
+            if (test.test(frame)) {
+                return then.execute(frame);
+            }
+            return otherwise != null && otherwise.execute(frame);
+        }
+    }
+
+    static final class ReturnValue extends StatementNode {
+        private final NumberNode value;
+
+        ReturnValue(NumberNode value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean execute(double[] frame) {
+            frame[0] = value.evaluate(frame);
+            return true;
+        }
+    }
+
+    static final class Failure extends StatementNode {
+        private final MessageNode message;
+
+        Failure(MessageNode message) {
+            this.message = message;
+        }
+
+        @Override
+        boolean execute(double[] frame) {
+            throw new RuntimeException("Error: " + message.render(frame));
+        }
+    }
+}
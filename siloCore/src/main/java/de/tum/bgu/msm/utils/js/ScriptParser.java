@@ -0,0 +1,553 @@
+package de.tum.bgu.msm.utils.js;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser for the subset of JavaScript used by the model scripts: top-level function definitions whose bodies
+ * consist of variable assignments, if/else chains, returns and throws over arithmetic expressions. Anything
+ * outside of this subset raises an {@link UnsupportedScriptException}.
+ */
+final class ScriptParser {
+
+    private final List<Token> tokens;
+    private int position = 0;
+
+    ScriptParser(String script) {
+        this.tokens = new Lexer(script).tokenize();
+    }
+
+    Map<String, Function> parseProgram() {
+        final Map<String, Function> functions = new HashMap<>();
+        while (!peek().is(TokenType.EOF)) {
+            if (accept(";")) {
+                continue;
+            }
+            final String name;
+            if (acceptWord("var")) {
+                name = expect(TokenType.IDENTIFIER).text;
+                expectPunctuation("=");
+                expectWord("function");
+                if (peek().is(TokenType.IDENTIFIER)) {
+                    next();
+                }
+            } else if (acceptWord("function")) {
+                name = expect(TokenType.IDENTIFIER).text;
+            } else {
+                throw new UnsupportedScriptException("top-level statement '" + peek().text + "'");
+            }
+            final List<String> parameters = parseParameters();
+            final Block body = parseBlock();
+            functions.put(name, new Function(name, parameters, body));
+        }
+        return functions;
+    }
+
+    private List<String> parseParameters() {
+        expectPunctuation("(");
+        final List<String> parameters = new ArrayList<>();
+        if (!accept(")")) {
+            do {
+                parameters.add(expect(TokenType.IDENTIFIER).text);
+            } while (accept(","));
+            expectPunctuation(")");
+        }
+        return parameters;
+    }
+
+    private Block parseBlock() {
+        expectPunctuation("{");
+        final List<Statement> statements = new ArrayList<>();
+        while (!accept("}")) {
+            statements.add(parseStatement());
+        }
+        return new Block(statements);
+    }
+
+    private Statement parseStatement() {
+        final Statement statement;
+        if (peek().isPunctuation("{")) {
+            return parseBlock();
+        } else if (accept(";")) {
+            return new Block(Collections.emptyList());
+        } else if (acceptWord("if")) {
+            expectPunctuation("(");
+            final Node test = parseExpression();
+            expectPunctuation(")");
+            final Statement then = parseStatement();
+            final Statement otherwise = acceptWord("else") ? parseStatement() : null;
+            return new If(test, then, otherwise);
+        } else if (acceptWord("var")) {
+            final List<Statement> declarations = new ArrayList<>();
+            do {
+                final String name = expect(TokenType.IDENTIFIER).text;
+                declarations.add(new Declaration(name, accept("=") ? parseExpression() : null));
+            } while (accept(","));
+            statement = new Block(declarations);
+        } else if (acceptWord("return")) {
+            final boolean empty = peek().isPunctuation(";") || peek().isPunctuation("}");
+            statement = new Return(empty ? null : parseExpression());
+        } else if (acceptWord("throw")) {
+            expectWord("new");
+            expect(TokenType.IDENTIFIER);
+            expectPunctuation("(");
+            final Node message = peek().isPunctuation(")") ? null : parseExpression();
+            expectPunctuation(")");
+            statement = new Throw(message);
+        } else if (peek().is(TokenType.IDENTIFIER) && isAssignmentOperator(peek(1))) {
+            final String name = next().text;
+            final String operator = next().text;
+            statement = new Assignment(name, operator, parseExpression());
+        } else {
+            throw new UnsupportedScriptException("statement starting with '" + peek().text + "'");
+        }
+        accept(";");
+        return statement;
+    }
+
+    private static boolean isAssignmentOperator(Token token) {
+        return token.is(TokenType.PUNCTUATION) && (token.text.equals("=") || token.text.equals("+=")
+                || token.text.equals("-=") || token.text.equals("*=") || token.text.equals("/="));
+    }
+
+    private Node parseExpression() {
+        final Node test = parseBinary(0);
+        if (accept("?")) {
+            final Node then = parseExpression();
+            expectPunctuation(":");
+            final Node otherwise = parseExpression();
+            return new Conditional(test, then, otherwise);
+        }
+        return test;
+    }
+
+    private static final String[][] PRECEDENCE = {
+            {"||"},
+            {"&&"},
+            {"==", "!=", "===", "!=="},
+            {"<", "<=", ">", ">="},
+            {"+", "-"},
+            {"*", "/", "%"}
+    };
+
+    private Node parseBinary(int level) {
+        if (level == PRECEDENCE.length) {
+            return parseUnary();
+        }
+        Node left = parseBinary(level + 1);
+        while (true) {
+            final String operator = matchOperator(PRECEDENCE[level]);
+            if (operator == null) {
+                return left;
+            }
+            left = new Binary(operator, left, parseBinary(level + 1));
+        }
+    }
+
+    private String matchOperator(String[] operators) {
+        final Token token = peek();
+        if (token.is(TokenType.PUNCTUATION)) {
+            for (String operator : operators) {
+                if (token.text.equals(operator)) {
+                    next();
+                    return operator;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Node parseUnary() {
+        final Token token = peek();
+        if (token.isPunctuation("-") || token.isPunctuation("+") || token.isPunctuation("!")) {
+            next();
+            return new Unary(token.text, parseUnary());
+        }
+        return parsePostfix(parsePrimary());
+    }
+
+    private Node parsePostfix(Node node) {
+        while (true) {
+            if (accept(".")) {
+                node = new Member(node, expect(TokenType.IDENTIFIER).text);
+            } else if (peek().isPunctuation("(")) {
+                next();
+                final List<Node> arguments = new ArrayList<>();
+                if (!accept(")")) {
+                    do {
+                        arguments.add(parseExpression());
+                    } while (accept(","));
+                    expectPunctuation(")");
+                }
+                node = new Call(node, arguments);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parsePrimary() {
+        final Token token = next();
+        switch (token.type) {
+            case NUMBER:
+                return new NumberLiteral(Double.parseDouble(token.text));
+            case STRING:
+                return new StringLiteral(token.text);
+            case IDENTIFIER:
+                return new Identifier(token.text);
+            case PUNCTUATION:
+                if (token.text.equals("(")) {
+                    final Node node = parseExpression();
+                    expectPunctuation(")");
+                    return node;
+                }
+            default:
+                throw new UnsupportedScriptException("expression starting with '" + token.text + "'");
+        }
+    }
+
+    private Token peek() {
+        return peek(0);
+    }
+
+    private Token peek(int offset) {
+        return tokens.get(Math.min(position + offset, tokens.size() - 1));
+    }
+
+    private Token next() {
+        final Token token = peek();
+        if (position < tokens.size() - 1) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(String punctuation) {
+        if (peek().isPunctuation(punctuation)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptWord(String word) {
+        if (peek().is(TokenType.IDENTIFIER) && peek().text.equals(word)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectWord(String word) {
+        if (!acceptWord(word)) {
+            throw new UnsupportedScriptException("expected '" + word + "' but found '" + peek().text + "'");
+        }
+    }
+
+    private void expectPunctuation(String punctuation) {
+        if (!accept(punctuation)) {
+            throw new UnsupportedScriptException("expected '" + punctuation + "' but found '" + peek().text + "'");
+        }
+    }
+
+    private Token expect(TokenType type) {
+        if (!peek().is(type)) {
+            throw new UnsupportedScriptException("expected " + type + " but found '" + peek().text + "'");
+        }
+        return next();
+    }
+
+    enum TokenType {NUMBER, STRING, IDENTIFIER, PUNCTUATION, EOF}
+
+    private static final class Token {
+        private final TokenType type;
+        private final String text;
+
+        private Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        private boolean is(TokenType type) {
+            return this.type == type;
+        }
+
+        private boolean isPunctuation(String punctuation) {
+            return type == TokenType.PUNCTUATION && text.equals(punctuation);
+        }
+    }
+
+    private static final class Lexer {
+
+        private static final String[] PUNCTUATION = {
+                "===", "!==", "==", "!=", "<=", ">=", "&&", "||", "+=", "-=", "*=", "/=",
+                "(", ")", "{", "}", ",", ";", ".", "=", "<", ">", "+", "-", "*", "/", "%", "!", "?", ":"
+        };
+
+        private final String source;
+        private int index = 0;
+
+        private Lexer(String source) {
+            this.source = source;
+        }
+
+        private List<Token> tokenize() {
+            final List<Token> tokens = new ArrayList<>();
+            while (true) {
+                skipWhitespaceAndComments();
+                if (index >= source.length()) {
+                    tokens.add(new Token(TokenType.EOF, "<end of script>"));
+                    return tokens;
+                }
+                final char c = source.charAt(index);
+                if (Character.isDigit(c) || (c == '.' && index + 1 < source.length() && Character.isDigit(source.charAt(index + 1)))) {
+                    tokens.add(new Token(TokenType.NUMBER, readNumber()));
+                } else if (c == '"' || c == '\'') {
+                    tokens.add(new Token(TokenType.STRING, readString(c)));
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    final int start = index;
+                    while (index < source.length() && Character.isJavaIdentifierPart(source.charAt(index))) {
+                        index++;
+                    }
+                    tokens.add(new Token(TokenType.IDENTIFIER, source.substring(start, index)));
+                } else {
+                    tokens.add(new Token(TokenType.PUNCTUATION, readPunctuation()));
+                }
+            }
+        }
+
+        private void skipWhitespaceAndComments() {
+            while (index < source.length()) {
+                final char c = source.charAt(index);
+                if (Character.isWhitespace(c) || c == '\uFEFF') {
+                    index++;
+                } else if (source.startsWith("//", index)) {
+                    while (index < source.length() && source.charAt(index) != '\n') {
+                        index++;
+                    }
+                } else if (source.startsWith("/*", index)) {
+                    final int end = source.indexOf("*/", index + 2);
+                    if (end < 0) {
+                        throw new UnsupportedScriptException("unterminated comment");
+                    }
+                    index = end + 2;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private String readNumber() {
+            final int start = index;
+            if (source.startsWith("0x", index) || source.startsWith("0X", index)) {
+                throw new UnsupportedScriptException("hexadecimal literal");
+            }
+            while (index < source.length() && (Character.isDigit(source.charAt(index)) || source.charAt(index) == '.')) {
+                index++;
+            }
+            if (index < source.length() && (source.charAt(index) == 'e' || source.charAt(index) == 'E')) {
+                index++;
+                if (index < source.length() && (source.charAt(index) == '+' || source.charAt(index) == '-')) {
+                    index++;
+                }
+                while (index < source.length() && Character.isDigit(source.charAt(index))) {
+                    index++;
+                }
+            }
+            return source.substring(start, index);
+        }
+
+        private String readString(char quote) {
+            final StringBuilder builder = new StringBuilder();
+            index++;
+            while (index < source.length()) {
+                final char c = source.charAt(index++);
+                if (c == quote) {
+                    return builder.toString();
+                } else if (c == '\\' && index < source.length()) {
+                    final char escaped = source.charAt(index++);
+                    switch (escaped) {
+                        case 'n':
+                            builder.append('\n');
+                            break;
+                        case 't':
+                            builder.append('\t');
+                            break;
+                        default:
+                            builder.append(escaped);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+            throw new UnsupportedScriptException("unterminated string literal");
+        }
+
+        private String readPunctuation() {
+            for (String punctuation : PUNCTUATION) {
+                if (source.startsWith(punctuation, index)) {
+                    index += punctuation.length();
+                    return punctuation;
+                }
+            }
+            throw new UnsupportedScriptException("character '" + source.charAt(index) + "'");
+        }
+    }
+
+    static final class Function {
+        final String name;
+        final List<String> parameters;
+        final Block body;
+
+        private Function(String name, List<String> parameters, Block body) {
+            this.name = name;
+            this.parameters = parameters;
+            this.body = body;
+        }
+    }
+
+    abstract static class Node {
+    }
+
+    static final class NumberLiteral extends Node {
+        final double value;
+
+        private NumberLiteral(double value) {
+            this.value = value;
+        }
+    }
+
+    static final class StringLiteral extends Node {
+        final String value;
+
+        private StringLiteral(String value) {
+            this.value = value;
+        }
+    }
+
+    static final class Identifier extends Node {
+        final String name;
+
+        private Identifier(String name) {
+            this.name = name;
+        }
+    }
+
+    static final class Member extends Node {
+        final Node target;
+        final String name;
+
+        private Member(Node target, String name) {
+            this.target = target;
+            this.name = name;
+        }
+    }
+
+    static final class Call extends Node {
+        final Node function;
+        final List<Node> arguments;
+
+        private Call(Node function, List<Node> arguments) {
+            this.function = function;
+            this.arguments = arguments;
+        }
+    }
+
+    static final class Unary extends Node {
+        final String operator;
+        final Node operand;
+
+        private Unary(String operator, Node operand) {
+            this.operator = operator;
+            this.operand = operand;
+        }
+    }
+
+    static final class Binary extends Node {
+        final String operator;
+        final Node left;
+        final Node right;
+
+        private Binary(String operator, Node left, Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Conditional extends Node {
+        final Node test;
+        final Node then;
+        final Node otherwise;
+
+        private Conditional(Node test, Node then, Node otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+    }
+
+    abstract static class Statement {
+    }
+
+    static final class Block extends Statement {
+        final List<Statement> statements;
+
+        private Block(List<Statement> statements) {
+            this.statements = statements;
+        }
+    }
+
+    static final class Declaration extends Statement {
+        final String name;
+        final Node value;
+
+        private Declaration(String name, Node value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    static final class Assignment extends Statement {
+        final String name;
+        final String operator;
+        final Node value;
+
+        private Assignment(String name, String operator, Node value) {
+            this.name = name;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    static final class If extends Statement {
+        final Node test;
+        final Statement then;
+        final Statement otherwise;
+
+        private If(Node test, Statement then, Statement otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+    }
+
+    static final class Return extends Statement {
+        final Node value;
+
+        private Return(Node value) {
+            this.value = value;
+        }
+    }
+
+    static final class Throw extends Statement {
+        final Node message;
+
+        private Throw(Node message) {
+            this.message = message;
+        }
+    }
+}
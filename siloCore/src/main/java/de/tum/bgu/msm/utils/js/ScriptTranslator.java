@@ -0,0 +1,438 @@
+package de.tum.bgu.msm.utils.js;
+
+import de.tum.bgu.msm.utils.js.ScriptNodes.*;
+import de.tum.bgu.msm.utils.js.ScriptParser.*;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Translates functions of the model scripts into {@link ScriptFunction}s that are evaluated in plain Java on
+ * primitive doubles, without calling into the script engine. The script stays the source of truth: it is
+ * translated when a strategy is created. Only a subset of JavaScript is supported (assignments, if/else,
+ * return, throw, arithmetic, comparisons, Math functions and enum name tests); a variable may only be read
+ * where it has been assigned on every path. Functions using anything else, e.g. method calls on model
+ * objects, are not translated and have to be evaluated by the script engine.
+ */
+public final class ScriptTranslator {
+
+    private final static Logger logger = Logger.getLogger(ScriptTranslator.class);
+
+    private ScriptTranslator() {
+    }
+
+    public static String read(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param parameterTypes the java types of the arguments. Numeric types and enums are supported; values of
+     *                       enum types are passed to {@link ScriptFunction#apply} as ordinals.
+     * @return the translated function or null if the function has to be evaluated by the script engine
+     */
+    public static ScriptFunction translate(String script, String functionName, Class<?>... parameterTypes) {
+        try {
+            final Function function = new ScriptParser(script).parseProgram().get(functionName);
+            if (function == null) {
+                throw new UnsupportedScriptException("function is not defined at top level");
+            }
+            if (function.parameters.size() != parameterTypes.length) {
+                throw new UnsupportedScriptException("function declares " + function.parameters.size()
+                        + " parameters but is called with " + parameterTypes.length);
+            }
+            final ScriptFunction translated = new FunctionCompiler(function, parameterTypes).compile();
+            logger.info("Translated script function " + functionName + " to Java.");
+            return translated;
+        } catch (UnsupportedScriptException | NumberFormatException e) {
+            logger.info("Script function " + functionName + " will be evaluated by the script engine: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class FunctionCompiler {
+
+        private final Function function;
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final Map<Integer, Class<?>> enumTypes = new HashMap<>();
+        private final Map<Integer, Class<?>> unsupportedTypes = new HashMap<>();
+
+        /**
+         * Slots that are definitely assigned at the current position, or null if it is unreachable.
+         */
+        private BitSet assigned = new BitSet();
+
+        private FunctionCompiler(Function function, Class<?>[] parameterTypes) {
+            this.function = function;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                final int slot = i + 1;
+                slots.put(function.parameters.get(i), slot);
+                assigned.set(slot);
+                final Class<?> type = parameterTypes[i];
+                if (type.isEnum()) {
+                    enumTypes.put(slot, type);
+                } else if (!isNumeric(type)) {
+                    unsupportedTypes.put(slot, type);
+                }
+            }
+        }
+
+        private static boolean isNumeric(Class<?> type) {
+            return type == int.class || type == long.class || type == short.class || type == byte.class
+                    || type == float.class || type == double.class || Number.class.isAssignableFrom(type);
+        }
+
+        private ScriptFunction compile() {
+            final StatementNode body = statement(function.body);
+            return new ScriptFunction(function.name, function.parameters.size(), slots.size() + 1, body);
+        }
+
+        private int slotFor(String name) {
+            return slots.computeIfAbsent(name, n -> slots.size() + 1);
+        }
+
+        private StatementNode statement(Statement statement) {
+            if (statement instanceof Block) {
+                final List<StatementNode> nodes = new ArrayList<>();
+                for (Statement child : ((Block) statement).statements) {
+                    if (assigned == null) {
+                        // unreachable code is never executed
+                        break;
+                    }
+                    nodes.add(statement(child));
+                }
+                return new Sequence(nodes.toArray(new StatementNode[0]));
+            } else if (statement instanceof Declaration) {
+                final Declaration declaration = (Declaration) statement;
+                final int slot = slotFor(declaration.name);
+                if (declaration.value == null) {
+                    return new Sequence(new StatementNode[0]);
+                }
+                return store(slot, number(expression(declaration.value)));
+            } else if (statement instanceof Assignment) {
+                final Assignment assignment = (Assignment) statement;
+                final int slot = slotFor(assignment.name);
+                if (enumTypes.containsKey(slot) || unsupportedTypes.containsKey(slot)) {
+                    throw new UnsupportedScriptException("assignment to parameter " + assignment.name);
+                }
+                NumberNode value = number(expression(assignment.value));
+                if (!assignment.operator.equals("=")) {
+                    value = new Arithmetic(assignment.operator.charAt(0), read(slot, assignment.name), value);
+                }
+                return store(slot, value);
+            } else if (statement instanceof If) {
+                final If branch = (If) statement;
+                final ConditionNode test = condition(expression(branch.test));
+                final BitSet before = (BitSet) assigned.clone();
+                final StatementNode then = statement(branch.then);
+                final BitSet afterThen = assigned;
+                assigned = before;
+                final StatementNode otherwise = branch.otherwise == null ? null : statement(branch.otherwise);
+                final BitSet afterOtherwise = assigned;
+                if (afterThen == null) {
+                    assigned = afterOtherwise;
+                } else if (afterOtherwise != null) {
+                    afterOtherwise.and(afterThen);
+                    assigned = afterOtherwise;
+                } else {
+                    assigned = afterThen;
+                }
+                return new Branch(test, then, otherwise);
+            } else if (statement instanceof Return) {
+                final Return ret = (Return) statement;
+                if (ret.value == null) {
+                    throw new UnsupportedScriptException("return without value");
+                }
+                final NumberNode value = number(expression(ret.value));
+                assigned = null;
+                return new ReturnValue(value);
+            } else if (statement instanceof Throw) {
+                final Throw failure = (Throw) statement;
+                final MessageNode message = failure.message == null ? new Text("") : message(expression(failure.message));
+                assigned = null;
+                return new Failure(message);
+            }
+            throw new UnsupportedScriptException("statement " + statement.getClass().getSimpleName());
+        }
+
+        private StatementNode store(int slot, NumberNode value) {
+            assigned.set(slot);
+            return new Store(slot, value);
+        }
+
+        private NumberNode read(int slot, String name) {
+            if (!assigned.get(slot)) {
+                throw new UnsupportedScriptException("variable " + name + " may be read before it is assigned");
+            }
+            return new Variable(slot);
+        }
+
+        /**
+         * @return a {@link NumberNode}, {@link ConditionNode} or {@link MessageNode}, or one of the compile time
+         * values {@link StringValue}, {@link EnumValue} or {@link EnumName}
+         */
+        private Object expression(Node node) {
+            if (node instanceof NumberLiteral) {
+                return new Constant(((NumberLiteral) node).value);
+            } else if (node instanceof StringLiteral) {
+                return new StringValue(((StringLiteral) node).value);
+            } else if (node instanceof Identifier) {
+                return identifier(((Identifier) node).name);
+            } else if (node instanceof Member) {
+                final Member member = (Member) node;
+                if (isMath(member.target)) {
+                    if (member.name.equals("E")) {
+                        return new Constant(Math.E);
+                    } else if (member.name.equals("PI")) {
+                        return new Constant(Math.PI);
+                    }
+                }
+                throw new UnsupportedScriptException("property " + member.name);
+            } else if (node instanceof Call) {
+                return call((Call) node);
+            } else if (node instanceof Unary) {
+                final Unary unary = (Unary) node;
+                final Object operand = expression(unary.operand);
+                switch (unary.operator) {
+                    case "-":
+                        return new Negation(number(operand));
+                    case "+":
+                        return number(operand);
+                    default:
+                        return new Not(condition(operand));
+                }
+            } else if (node instanceof Binary) {
+                return binary((Binary) node);
+            } else if (node instanceof Conditional) {
+                final Conditional conditional = (Conditional) node;
+                return new Choice(condition(expression(conditional.test)),
+                        number(expression(conditional.then)), number(expression(conditional.otherwise)));
+            }
+            throw new UnsupportedScriptException("expression " + node.getClass().getSimpleName());
+        }
+
+        private Object identifier(String name) {
+            final Integer slot = slots.get(name);
+            if (slot == null) {
+                switch (name) {
+                    case "true":
+                        return new FixedCondition(true);
+                    case "false":
+                        return new FixedCondition(false);
+                    case "NaN":
+                        return new Constant(Double.NaN);
+                    case "Infinity":
+                        return new Constant(Double.POSITIVE_INFINITY);
+                    default:
+                        throw new UnsupportedScriptException("unknown variable " + name);
+                }
+            }
+            if (enumTypes.containsKey(slot)) {
+                return new EnumValue(slot, enumTypes.get(slot));
+            } else if (unsupportedTypes.containsKey(slot)) {
+                throw new UnsupportedScriptException("parameter " + name + " of type " + unsupportedTypes.get(slot).getSimpleName());
+            }
+            return read(slot, name);
+        }
+
+        private boolean isMath(Node node) {
+            return node instanceof Identifier && ((Identifier) node).name.equals("Math") && !slots.containsKey("Math");
+        }
+
+        private Object call(Call call) {
+            if (!(call.function instanceof Member)) {
+                throw new UnsupportedScriptException("call of a function");
+            }
+            final Member method = (Member) call.function;
+            final int arity = call.arguments.size();
+            if (isMath(method.target)) {
+                final int expected;
+                switch (method.name) {
+                    case "exp":
+                    case "log":
+                    case "sqrt":
+                    case "abs":
+                    case "floor":
+                    case "ceil":
+                    case "round":
+                        expected = 1;
+                        break;
+                    case "pow":
+                        expected = 2;
+                        break;
+                    case "min":
+                    case "max":
+                        expected = Math.max(arity, 1);
+                        break;
+                    default:
+                        throw new UnsupportedScriptException("function Math." + method.name);
+                }
+                if (arity != expected) {
+                    throw new UnsupportedScriptException("Math." + method.name + " with " + arity + " arguments");
+                }
+                final NumberNode[] arguments = new NumberNode[arity];
+                for (int i = 0; i < arity; i++) {
+                    arguments[i] = number(expression(call.arguments.get(i)));
+                }
+                return new MathFunction(method.name, arguments);
+            }
+            final Object target = expression(method.target);
+            if (target instanceof EnumValue && arity == 0) {
+                final EnumValue value = (EnumValue) target;
+                if (method.name.equals("name") || (method.name.equals("toString") && value.hasDefaultToString())) {
+                    return new EnumName(value);
+                } else if (method.name.equals("ordinal")) {
+                    return new Variable(value.slot);
+                }
+            } else if (method.name.equals("equals") && arity == 1
+                    && (target instanceof EnumName || target instanceof StringValue)) {
+                return equality(target, expression(call.arguments.get(0)));
+            }
+            throw new UnsupportedScriptException("method " + method.name);
+        }
+
+        private Object binary(Binary binary) {
+            final Object left = expression(binary.left);
+            final Object right = expression(binary.right);
+            switch (binary.operator) {
+                case "+":
+                    if (isText(left) || isText(right)) {
+                        return new Concatenation(message(left), message(right));
+                    }
+                    return new Arithmetic('+', number(left), number(right));
+                case "-":
+                case "*":
+                case "/":
+                case "%":
+                    return new Arithmetic(binary.operator.charAt(0), number(left), number(right));
+                case "==":
+                case "===":
+                    return equality(left, right);
+                case "!=":
+                case "!==":
+                    return new Not(equality(left, right));
+                case "&&":
+                    return new And(condition(left), condition(right));
+                case "||":
+                    return new Or(condition(left), condition(right));
+                default:
+                    return new Comparison(binary.operator, number(left), number(right));
+            }
+        }
+
+        private ConditionNode equality(Object left, Object right) {
+            if (left instanceof NumberNode && right instanceof NumberNode) {
+                return new Comparison("==", (NumberNode) left, (NumberNode) right);
+            } else if (left instanceof StringValue && right instanceof StringValue) {
+                return new FixedCondition(((StringValue) left).value.equals(((StringValue) right).value));
+            } else if (left instanceof EnumName && right instanceof StringValue) {
+                return ((EnumName) left).isNamed(((StringValue) right).value);
+            } else if (left instanceof StringValue && right instanceof EnumName) {
+                return ((EnumName) right).isNamed(((StringValue) left).value);
+            }
+            throw new UnsupportedScriptException("comparison of " + describe(left) + " and " + describe(right));
+        }
+
+        private static boolean isText(Object value) {
+            return value instanceof StringValue || value instanceof EnumName || value instanceof MessageNode;
+        }
+
+        private static NumberNode number(Object value) {
+            if (value instanceof NumberNode) {
+                return (NumberNode) value;
+            }
+            throw new UnsupportedScriptException(describe(value) + " used as number");
+        }
+
+        private static ConditionNode condition(Object value) {
+            if (value instanceof ConditionNode) {
+                return (ConditionNode) value;
+            } else if (value instanceof NumberNode) {
+                return new Truthiness((NumberNode) value);
+            }
+            throw new UnsupportedScriptException(describe(value) + " used as condition");
+        }
+
+        private static MessageNode message(Object value) {
+            if (value instanceof MessageNode) {
+                return (MessageNode) value;
+            } else if (value instanceof StringValue) {
+                return new Text(((StringValue) value).value);
+            } else if (value instanceof NumberNode) {
+                return new NumberText((NumberNode) value);
+            } else if (value instanceof EnumName) {
+                return ((EnumName) value).value.text();
+            } else if (value instanceof EnumValue && ((EnumValue) value).hasDefaultToString()) {
+                return ((EnumValue) value).text();
+            }
+            throw new UnsupportedScriptException(describe(value) + " used as text");
+        }
+
+        private static String describe(Object value) {
+            if (value instanceof EnumValue) {
+                return "enum " + ((EnumValue) value).type.getSimpleName();
+            } else if (value instanceof ConditionNode) {
+                return "boolean";
+            } else if (value instanceof NumberNode) {
+                return "number";
+            }
+            return "string";
+        }
+    }
+
+    private static final class StringValue {
+        private final String value;
+
+        private StringValue(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class EnumValue {
+        private final int slot;
+        private final Class<?> type;
+
+        private EnumValue(int slot, Class<?> type) {
+            this.slot = slot;
+            this.type = type;
+        }
+
+        private boolean hasDefaultToString() {
+            try {
+                return type.getMethod("toString").getDeclaringClass() == Enum.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private MessageNode text() {
+            return new EnumText(slot, (Enum<?>[]) type.getEnumConstants());
+        }
+    }
+
+    private static final class EnumName {
+        private final EnumValue value;
+
+        private EnumName(EnumValue value) {
+            this.value = value;
+        }
+
+        private ConditionNode isNamed(String name) {
+            for (Object constant : value.type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(name)) {
+                    return new Comparison("==", new Variable(value.slot), new Constant(((Enum<?>) constant).ordinal()));
+                }
+            }
+            return new FixedCondition(false);
+        }
+    }
+}
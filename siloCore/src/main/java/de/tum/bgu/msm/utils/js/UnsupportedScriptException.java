@@ -0,0 +1,12 @@
+package de.tum.bgu.msm.utils.js;
+
+/**
+ * Signals that a script uses constructs the {@link ScriptTranslator} does not handle, so the function has to
+ * be evaluated by the script engine.
+ */
+final class UnsupportedScriptException extends RuntimeException {
+
+    UnsupportedScriptException(String message) {
+        super(message);
+    }
+}
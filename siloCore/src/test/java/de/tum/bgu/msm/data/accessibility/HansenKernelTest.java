@@ -0,0 +1,124 @@
+package de.tum.bgu.msm.data.accessibility;
+
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class HansenKernelTest {
+
+    private static final int NUMBER_OF_ZONES = 12;
+    private static final double ALPHA = 1.2;
+    private static final double BETA = -0.1;
+
+    /**
+     * The decays are stored as floats, so every term carries a relative error of at most 2^-24 (about 6e-8).
+     * All terms are positive, so the relative error of the sums is bounded by the same value. Twice that is
+     * allowed for the rounding of the double sums.
+     */
+    private static final double MAX_RELATIVE_ERROR = Math.ulp(1.f);
+
+    private Zone[] zones;
+    private IndexedDoubleMatrix2D travelTimes;
+    private double[] employment;
+
+    /**
+     * Zone ids are sparse. The origin with ordinal i has positive travel times to i destinations, so the
+     * kernel stores the first rows sparsely and the last rows densely. The first row has no destination at all.
+     */
+    @Before
+    public void setUp() {
+        final RegionImpl region = new RegionImpl(1);
+        zones = new Zone[NUMBER_OF_ZONES];
+        for (int i = 0; i < NUMBER_OF_ZONES; i++) {
+            zones[i] = new ZoneImpl(3 * i + 2, 1, region);
+            region.addZone(zones[i]);
+        }
+        travelTimes = new IndexedDoubleMatrix2D(Arrays.asList(zones), Arrays.asList(zones));
+        final Random random = new Random(42);
+        for (int origin = 0; origin < NUMBER_OF_ZONES; origin++) {
+            for (int destination = 0; destination < NUMBER_OF_ZONES; destination++) {
+                final double travelTime = destination < origin ? 1 + random.nextDouble() * 59 : 0;
+                travelTimes.setIndexed(zones[origin].getZoneId(), zones[destination].getZoneId(), travelTime);
+            }
+        }
+        employment = new double[NUMBER_OF_ZONES];
+        for (int i = 0; i < NUMBER_OF_ZONES; i++) {
+            employment[i] = random.nextInt(500);
+        }
+    }
+
+    @Test
+    public void testMatchesDoubleComputationWithoutCutoff() {
+        assertMatchesDoubleComputation(0);
+    }
+
+    @Test
+    public void testMatchesDoubleComputationWithCutoff() {
+        assertMatchesDoubleComputation(30);
+        final double[] withCutoff = calculate(30);
+        final double[] withoutCutoff = calculate(0);
+        boolean skipped = false;
+        for (int i = 0; i < NUMBER_OF_ZONES; i++) {
+            Assert.assertTrue(withCutoff[i] <= withoutCutoff[i]);
+            skipped |= withCutoff[i] < withoutCutoff[i];
+        }
+        Assert.assertTrue(skipped);
+    }
+
+    @Test
+    public void testOriginWithoutDestinations() {
+        Assert.assertEquals(0., calculate(0)[0], 0.);
+    }
+
+    @Test
+    public void testIsBuiltFrom() {
+        final HansenKernel kernel = HansenKernel.build(zones, travelTimes, BETA, 30, 1);
+        Assert.assertTrue(kernel.isBuiltFrom(travelTimes, BETA, 30));
+        Assert.assertFalse(kernel.isBuiltFrom(travelTimes, BETA, 0));
+        Assert.assertFalse(kernel.isBuiltFrom(travelTimes.copy(), BETA, 30));
+    }
+
+    private void assertMatchesDoubleComputation(double cutoff) {
+        final double[] accessibilities = calculate(cutoff);
+        double maxRelativeError = 0;
+        for (int origin = 0; origin < NUMBER_OF_ZONES; origin++) {
+            final double expected = calculateWithDoubles(origin, cutoff);
+            if (expected == 0) {
+                Assert.assertEquals(0., accessibilities[origin], 0.);
+            } else {
+                maxRelativeError = Math.max(maxRelativeError, Math.abs(accessibilities[origin] - expected) / expected);
+            }
+        }
+        Assert.assertTrue("relative error " + maxRelativeError, maxRelativeError <= MAX_RELATIVE_ERROR);
+    }
+
+    private double[] calculate(double cutoff) {
+        final double[] opportunities = new double[NUMBER_OF_ZONES];
+        for (int i = 0; i < NUMBER_OF_ZONES; i++) {
+            opportunities[i] = Math.pow(employment[i], ALPHA);
+        }
+        return HansenKernel.build(zones, travelTimes, BETA, cutoff, 2).calculateAccessibilities(opportunities);
+    }
+
+    /**
+     * The former computation of AccessibilityImpl: sum_j employment_j^alpha * e^(beta * traveltime_ij) over all
+     * cells with a positive travel time, restricted to the cutoff if there is one.
+     */
+    private double calculateWithDoubles(int origin, double cutoff) {
+        double accessibility = 0;
+        for (int destination = 0; destination < NUMBER_OF_ZONES; destination++) {
+            final double travelTime = travelTimes.getIndexed(zones[origin].getZoneId(), zones[destination].getZoneId());
+            if (travelTime > 0 && (cutoff <= 0 || travelTime <= cutoff)) {
+                accessibility += Math.pow(employment[destination], ALPHA) * Math.exp(BETA * travelTime);
+            }
+        }
+        return accessibility;
+    }
+}
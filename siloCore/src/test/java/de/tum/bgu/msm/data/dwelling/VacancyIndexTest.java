@@ -0,0 +1,89 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class VacancyIndexTest {
+
+    private static final int REGION = 1;
+
+    private final DwellingFactory factory = new DwellingFactoryImpl();
+    private GeoIndex geoIndex;
+    private VacancyIndex vacancies;
+
+    @Before
+    public void setUp() {
+        final GeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(REGION);
+        geoData.addRegion(region);
+        for (int zoneId : new int[]{5, 9}) {
+            final ZoneImpl zone = new ZoneImpl(zoneId, 1, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        final List<DwellingType> types = Arrays.asList(DefaultDwellingTypeImpl.SFD, DefaultDwellingTypeImpl.MF234);
+        geoIndex = GeoIndex.build(geoData, types, null);
+        vacancies = new VacancyIndex();
+        vacancies.reset(geoIndex, types.size());
+    }
+
+    private Dwelling createDwelling(int id, int zoneId, DwellingType type) {
+        return factory.createDwelling(id, zoneId, null, -1, type, 2, 1, 1000, 0);
+    }
+
+    @Test
+    public void testCountsByZoneAndType() {
+        final Dwelling sfdIn5 = createDwelling(1, 5, DefaultDwellingTypeImpl.SFD);
+        final Dwelling mfIn5 = createDwelling(2, 5, DefaultDwellingTypeImpl.MF234);
+        final Dwelling otherMfIn5 = createDwelling(3, 5, DefaultDwellingTypeImpl.MF234);
+        final Dwelling sfdIn9 = createDwelling(4, 9, DefaultDwellingTypeImpl.SFD);
+        for (Dwelling dwelling : Arrays.asList(sfdIn5, mfIn5, otherMfIn5, sfdIn9)) {
+            Assert.assertTrue(vacancies.add(dwelling, REGION));
+        }
+        Assert.assertFalse(vacancies.add(mfIn5, REGION));
+
+        final int zone5 = geoIndex.getZoneOrdinal(5);
+        final int zone9 = geoIndex.getZoneOrdinal(9);
+        final int sfd = geoIndex.getDwellingTypeOrdinal(DefaultDwellingTypeImpl.SFD);
+        final int mf = geoIndex.getDwellingTypeOrdinal(DefaultDwellingTypeImpl.MF234);
+        Assert.assertEquals(3, vacancies.countInZone(zone5));
+        Assert.assertEquals(2, vacancies.countInZone(zone5, mf));
+        Assert.assertEquals(1, vacancies.countInZone(zone9));
+        Assert.assertEquals(0, vacancies.countInZone(zone9, mf));
+
+        Assert.assertTrue(vacancies.remove(mfIn5, REGION));
+        Assert.assertFalse(vacancies.remove(mfIn5, REGION));
+        Assert.assertEquals(1, vacancies.countInZone(zone5, mf));
+        Assert.assertEquals(1, vacancies.countInZone(zone5, sfd));
+        Assert.assertEquals(3, vacancies.countInRegion(REGION));
+    }
+
+    @Test
+    public void testSampleAfterRemoval() {
+        for (int id = 1; id <= 10; id++) {
+            vacancies.add(createDwelling(id, id % 2 == 0 ? 5 : 9, DefaultDwellingTypeImpl.SFD), REGION);
+        }
+        for (int id = 1; id <= 10; id += 3) {
+            Assert.assertTrue(vacancies.remove(createDwelling(id, id % 2 == 0 ? 5 : 9, DefaultDwellingTypeImpl.SFD), REGION));
+        }
+        final List<Dwelling> sample = vacancies.sampleInRegion(REGION, 10, new Random(42));
+        Assert.assertEquals(6, sample.size());
+        final HashSet<Integer> ids = new HashSet<>();
+        for (Dwelling dwelling : sample) {
+            Assert.assertNotEquals(1, dwelling.getId() % 3);
+            Assert.assertTrue(ids.add(dwelling.getId()));
+        }
+        Assert.assertEquals(6, vacancies.countInZone(geoIndex.getZoneOrdinal(5)) + vacancies.countInZone(geoIndex.getZoneOrdinal(9)));
+    }
+}
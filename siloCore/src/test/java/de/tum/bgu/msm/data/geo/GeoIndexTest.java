@@ -0,0 +1,96 @@
+package de.tum.bgu.msm.data.geo;
+
+import de.tum.bgu.msm.data.dwelling.DefaultDwellingTypeImpl;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class GeoIndexTest {
+
+    private GeoIndex geoIndex;
+
+    @Before
+    public void setUp() {
+        final GeoData geoData = new DefaultGeoData();
+        final RegionImpl region3 = new RegionImpl(3);
+        final RegionImpl region10 = new RegionImpl(10);
+        geoData.addRegion(region3);
+        geoData.addRegion(region10);
+        addZone(geoData, 2, region3);
+        addZone(geoData, 7, region10);
+        addZone(geoData, 42, region3);
+
+        final List<DwellingType> dwellingTypes = Arrays.asList(DefaultDwellingTypeImpl.MF234, DefaultDwellingTypeImpl.SFD);
+        geoIndex = GeoIndex.build(geoData, dwellingTypes, new String[]{"Ret", "Off"});
+    }
+
+    private static void addZone(GeoData geoData, int id, RegionImpl region) {
+        final ZoneImpl zone = new ZoneImpl(id, id / 2.f, region);
+        region.addZone(zone);
+        geoData.addZone(zone);
+    }
+
+    @Test
+    public void testRegionsOfSparseZoneIds() {
+        Assert.assertEquals(3, geoIndex.getRegionOfZone(2));
+        Assert.assertEquals(10, geoIndex.getRegionOfZone(7));
+        Assert.assertEquals(3, geoIndex.getRegionOfZone(42));
+    }
+
+    @Test
+    public void testUnknownZonesHaveNoRegion() {
+        Assert.assertEquals(-1, geoIndex.getRegionOfZone(0));
+        Assert.assertEquals(-1, geoIndex.getRegionOfZone(3));
+        Assert.assertEquals(-1, geoIndex.getRegionOfZone(41));
+        Assert.assertEquals(-1, geoIndex.getRegionOfZone(43));
+        Assert.assertEquals(-1, geoIndex.getRegionOfZone(-1));
+    }
+
+    @Test
+    public void testDenseZoneAndRegionOrdinals() {
+        Assert.assertEquals(3, geoIndex.getNumberOfZones());
+        for (int ordinal = 0; ordinal < geoIndex.getNumberOfZones(); ordinal++) {
+            Assert.assertEquals(ordinal, geoIndex.getZoneOrdinal(geoIndex.getZoneId(ordinal)));
+        }
+        Assert.assertEquals(-1, geoIndex.getZoneOrdinal(3));
+        Assert.assertEquals(-1, geoIndex.getZoneOrdinal(43));
+
+        Assert.assertEquals(2, geoIndex.getNumberOfRegions());
+        Assert.assertEquals(10, geoIndex.getHighestRegionId());
+        for (int ordinal = 0; ordinal < geoIndex.getNumberOfRegions(); ordinal++) {
+            Assert.assertEquals(ordinal, geoIndex.getRegionOrdinal(geoIndex.getRegionId(ordinal)));
+        }
+        Assert.assertEquals(-1, geoIndex.getRegionOrdinal(4));
+        Assert.assertEquals(-1, geoIndex.getRegionOrdinal(11));
+    }
+
+    @Test
+    public void testZoneAttributes() {
+        final int ordinal = geoIndex.getZoneOrdinal(42);
+        Assert.assertEquals(21.f, geoIndex.getZoneArea(ordinal), 0.f);
+        Assert.assertTrue(Double.isNaN(geoIndex.getZoneCentroidX(ordinal)));
+        Assert.assertTrue(Double.isNaN(geoIndex.getZoneCentroidY(ordinal)));
+    }
+
+    @Test
+    public void testTypeOrdinals() {
+        Assert.assertEquals(0, geoIndex.getDwellingTypeOrdinal(DefaultDwellingTypeImpl.MF234));
+        Assert.assertEquals(1, geoIndex.getDwellingTypeOrdinal(DefaultDwellingTypeImpl.SFD));
+        Assert.assertEquals(0, geoIndex.getJobTypeOrdinal("Ret"));
+        Assert.assertEquals(1, geoIndex.getJobTypeOrdinal("Off"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDwellingType() {
+        geoIndex.getDwellingTypeOrdinal(DefaultDwellingTypeImpl.MH);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownJobType() {
+        geoIndex.getJobTypeOrdinal("Agr");
+    }
+}
@@ -0,0 +1,105 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonRole;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarHouseholdDataTest {
+
+    private ColumnarHouseholdData householdData;
+    private PersonFactory factory;
+
+    @Before
+    public void setUp() {
+        householdData = new ColumnarHouseholdData(2);
+        factory = householdData.getPersonFactory();
+        final Household household = new HouseholdFactoryImpl().createHousehold(1, 1, 0);
+        householdData.addHousehold(household);
+        for (int id = 1; id <= 5; id++) {
+            final Person person = factory.createPerson(id, 20 + id, id % 2 == 0 ? Gender.FEMALE : Gender.MALE,
+                    Occupation.EMPLOYED, PersonRole.SINGLE, 100 + id, 1000 * id);
+            householdData.addPerson(person);
+            if (id <= 2) {
+                household.addPerson(person);
+                person.setHousehold(household);
+            }
+        }
+    }
+
+    @Test
+    public void testCursorMatchesPersons() {
+        final List<Person> persons = new ArrayList<>(householdData.getPersons());
+        int i = 0;
+        for (PersonCursor cursor = householdData.getPersonCursor(); cursor.next(); i++) {
+            final Person person = persons.get(i);
+            Assert.assertEquals(person.getId(), cursor.getId());
+            Assert.assertEquals(person.getAge(), cursor.getAge());
+            Assert.assertEquals(person.getGender(), cursor.getGender());
+            Assert.assertEquals(person.getOccupation(), cursor.getOccupation());
+            Assert.assertEquals(person.getRole(), cursor.getRole());
+            Assert.assertEquals(person.getType(), cursor.getType());
+            Assert.assertEquals(person.getJobId(), cursor.getJobId());
+            Assert.assertEquals(person.getAnnualIncome(), cursor.getAnnualIncome());
+            Assert.assertEquals(person.getHousehold() == null ? -1 : 1, cursor.getHouseholdId());
+        }
+        Assert.assertEquals(5, i);
+    }
+
+    @Test
+    public void testRemovedPersonStaysReadableUntilRelease() {
+        final Person person = householdData.getPerson(3);
+        householdData.removePerson(3);
+        Assert.assertNull(householdData.getPerson(3));
+        Assert.assertEquals(4, householdData.getPersons().size());
+        Assert.assertEquals(3, person.getId());
+        Assert.assertEquals(23, person.getAge());
+
+        final Person newborn = factory.createPerson(6, 0, Gender.FEMALE, Occupation.TODDLER, PersonRole.CHILD, -1, 0);
+        householdData.addPerson(newborn);
+        Assert.assertEquals(23, person.getAge());
+
+        householdData.releaseRemovedPersons();
+        try {
+            person.getAge();
+            Assert.fail("Removed person should not be readable after release.");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testReaddedPersonKeepsAttributes() {
+        final Person person = householdData.getPerson(4);
+        householdData.removePerson(4);
+        householdData.addPerson(person);
+        householdData.releaseRemovedPersons();
+
+        Assert.assertEquals(24, person.getAge());
+        Assert.assertEquals(4000, householdData.getPerson(4).getAnnualIncome());
+        person.birthday();
+        Assert.assertEquals(25, householdData.getPerson(4).getAge());
+        Assert.assertEquals(5, householdData.getPersons().size());
+    }
+
+    @Test
+    public void testReleasedSlotsAreReused() {
+        householdData.removePerson(1);
+        householdData.releaseRemovedPersons();
+        final Person person = factory.createPerson(7, 30, Gender.MALE, Occupation.EMPLOYED, PersonRole.SINGLE, 107, 7000);
+        householdData.addPerson(person);
+        Assert.assertEquals(30, householdData.getPerson(7).getAge());
+        int count = 0;
+        for (PersonCursor cursor = householdData.getPersonCursor(); cursor.next(); ) {
+            Assert.assertNotEquals(1, cursor.getId());
+            count++;
+        }
+        Assert.assertEquals(5, count);
+    }
+}
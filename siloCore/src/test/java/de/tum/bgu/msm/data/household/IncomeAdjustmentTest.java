@@ -0,0 +1,82 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonFactoryImpl;
+import de.tum.bgu.msm.data.person.PersonRole;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncomeAdjustmentTest {
+
+    // more than three chunks, the last one only partially filled
+    private static final int PERSONS = 3 * IncomeAdjustment.CHUNK_SIZE + 100;
+
+    private final IncomeAdjustment singleThreaded = new IncomeAdjustment(1);
+    private final IncomeAdjustment multiThreaded = new IncomeAdjustment(4);
+
+    @After
+    public void shutdown() {
+        singleThreaded.shutdown();
+        multiThreaded.shutdown();
+    }
+
+    private static Person[] createPersons() {
+        final PersonFactory factory = new PersonFactoryImpl();
+        final Person[] persons = new Person[PERSONS];
+        for (int id = 0; id < PERSONS; id++) {
+            final Gender gender = id % 2 == 0 ? Gender.MALE : Gender.FEMALE;
+            final Occupation occupation = id % 3 == 0 ? Occupation.UNEMPLOYED : Occupation.EMPLOYED;
+            final int income = (gender == Gender.MALE ? 30000 : 20000) + (occupation == Occupation.EMPLOYED ? 10000 : 0);
+            persons[id] = factory.createPerson(id, id % 100, gender, occupation, PersonRole.SINGLE, -1, income);
+        }
+        return persons;
+    }
+
+    @Test
+    public void testIncomeDistributionMergesAllChunks() {
+        final float[][][] distribution = multiThreaded.calculateIncomeDistribution(createPersons());
+        // incomes do not depend on age, so smoothing keeps the averages of ages with two neighbours on each side
+        for (int age = 2; age < 98; age++) {
+            Assert.assertEquals(30000, distribution[Gender.MALE.ordinal()][age][0], 0.1);
+            Assert.assertEquals(40000, distribution[Gender.MALE.ordinal()][age][1], 0.1);
+            Assert.assertEquals(20000, distribution[Gender.FEMALE.ordinal()][age][0], 0.1);
+            Assert.assertEquals(30000, distribution[Gender.FEMALE.ordinal()][age][1], 0.1);
+        }
+    }
+
+    @Test
+    public void testAdjustmentDoesNotDependOnNumberOfThreads() {
+        final Person[] persons = createPersons();
+        final Person[] otherPersons = createPersons();
+
+        final float[][][] current = singleThreaded.calculateIncomeDistribution(persons);
+        Assert.assertArrayEquals(current, multiThreaded.calculateIncomeDistribution(otherPersons));
+        final float[][][] initial = new float[2][100][2];
+        for (float[][] byAge : initial) {
+            for (float[] byOccupation : byAge) {
+                byOccupation[0] = 25000;
+                byOccupation[1] = 45000;
+            }
+        }
+
+        singleThreaded.adjustIncomes(persons, 2000, current, initial);
+        multiThreaded.adjustIncomes(otherPersons, 2000, current, initial);
+
+        final Person[] unchangedPersons = createPersons();
+        final int[] changedByChunk = new int[(PERSONS + IncomeAdjustment.CHUNK_SIZE - 1) / IncomeAdjustment.CHUNK_SIZE];
+        for (int i = 0; i < PERSONS; i++) {
+            Assert.assertEquals(persons[i].getAnnualIncome(), otherPersons[i].getAnnualIncome());
+            Assert.assertTrue(persons[i].getAnnualIncome() >= 0);
+            if (persons[i].getAnnualIncome() != unchangedPersons[i].getAnnualIncome()) {
+                changedByChunk[i / IncomeAdjustment.CHUNK_SIZE]++;
+            }
+        }
+        for (int changed : changedByChunk) {
+            Assert.assertTrue(changed > 0);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.tum.bgu.msm.data.household;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIndexTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomUpdates() {
+        final IntIndex index = new IntIndex(4);
+        final Map<Integer, Integer> reference = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            final int key = random.nextInt(5000) - 100;
+            if (random.nextBoolean()) {
+                final Integer previous = reference.put(key, i);
+                Assert.assertEquals(previous == null ? IntIndex.MISSING : previous, index.put(key, i));
+            } else {
+                final Integer previous = reference.remove(key);
+                Assert.assertEquals(previous == null ? IntIndex.MISSING : previous, index.remove(key));
+            }
+        }
+        Assert.assertEquals(reference.size(), index.size());
+        for (int key = -100; key < 4900; key++) {
+            final Integer expected = reference.get(key);
+            Assert.assertEquals(expected == null ? IntIndex.MISSING : expected, index.get(key));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class VacantJobMarketTest {
+
+    private final JobFactory factory = new JobFactoryImpl();
+    private VacantJobMarket market;
+
+    @Before
+    public void setUp() {
+        final Region north = new RegionImpl(3);
+        final Region south = new RegionImpl(8);
+        market = new VacantJobMarket(Arrays.asList(north, south));
+    }
+
+    private Job createJob(int id) {
+        return factory.createJob(id, 1, null, -1, "Serv");
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final Job job = createJob(1);
+        Assert.assertTrue(market.add(job, 3));
+        Assert.assertFalse(market.add(job, 3));
+        Assert.assertTrue(market.add(createJob(2), 8));
+        Assert.assertEquals(1, market.countInRegion(3));
+        Assert.assertEquals(1, market.countInRegion(8));
+
+        Assert.assertTrue(market.remove(job));
+        Assert.assertFalse(market.remove(job));
+        Assert.assertEquals(0, market.countInRegion(3));
+        Assert.assertEquals(1, market.countInRegion(8));
+        Assert.assertEquals(0, market.countInRegion(42));
+    }
+
+    @Test
+    public void testSamplingAfterSwapRemove() {
+        final Job[] jobs = new Job[6];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = createJob(i + 1);
+            market.add(jobs[i], 3);
+        }
+        // removing the first job moves the last one into its position
+        market.remove(jobs[0]);
+        market.remove(jobs[2]);
+
+        final Random random = new Random(42);
+        final Set<Integer> taken = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            final Job job = market.takeRandomJob(3, random);
+            Assert.assertNotNull(job);
+            Assert.assertNotEquals(1, job.getId());
+            Assert.assertNotEquals(3, job.getId());
+            Assert.assertTrue(taken.add(job.getId()));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList(2, 4, 5, 6)), taken);
+        Assert.assertNull(market.takeRandomJob(3, random));
+        Assert.assertEquals(-1, market.sampleRegionIndexByVacancies(random));
+    }
+
+    @Test
+    public void testRegionsAreDrawnByVacancies() {
+        market.add(createJob(1), 8);
+        final Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(8, market.regionId(market.sampleRegionIndexByVacancies(random)));
+        }
+        market.add(createJob(2), 3);
+        market.add(createJob(3), 3);
+        int north = 0;
+        for (int i = 0; i < 3000; i++) {
+            if (market.regionId(market.sampleRegionIndexByVacancies(random)) == 3) {
+                north++;
+            }
+        }
+        Assert.assertEquals(2000, north, 150);
+    }
+}
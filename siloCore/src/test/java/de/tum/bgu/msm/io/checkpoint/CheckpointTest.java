@@ -0,0 +1,236 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.development.DevelopmentImpl;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.household.*;
+import de.tum.bgu.msm.data.job.*;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.ModelUpdateListener;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.RestorableRandom;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+
+public class CheckpointTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/silo.properties");
+    private static final int YEAR = 2015;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final class RandomModel extends AbstractModel implements ModelUpdateListener {
+        RandomModel(DataContainer dataContainer) {
+            super(dataContainer, PROPERTIES, SiloUtil.provideNewRandom());
+        }
+    }
+
+    @Test
+    public void testRestoredStateEqualsWrittenState() throws IOException {
+        new JobType(new String[]{"Agri", "Serv"});
+        final DataContainer original = createDataContainer();
+        addPopulation(original);
+        final ModelContainer originalModels = createModelContainer(original);
+        drawRandomNumbers(originalModels);
+        final String directory = folder.newFolder("checkpoint").getPath();
+        new Checkpoint(original, CheckpointAttributes.NONE, originalModels).write(directory, YEAR, true);
+        final long[] globalRandomState = ((RestorableRandom) SiloUtil.getRandomObject()).getState();
+
+        final DataContainer restored = createDataContainer();
+        final Checkpoint checkpoint = new Checkpoint(restored);
+        checkpoint.readPopulation(directory);
+        checkpoint.restoreState(directory);
+        final ModelContainer restoredModels = createModelContainer(restored);
+        new Checkpoint(restored, CheckpointAttributes.NONE, restoredModels).restoreRandomState(directory);
+
+        assertHouseholdsAndPersonsEqual(original, restored);
+        assertDwellingsAndJobsEqual(original, restored);
+        Assert.assertEquals(original.getHouseholdDataManager().getHighestHouseholdIdInUse(),
+                restored.getHouseholdDataManager().getHighestHouseholdIdInUse());
+        Assert.assertEquals(original.getHouseholdDataManager().getHighestPersonIdInUse(),
+                restored.getHouseholdDataManager().getHighestPersonIdInUse());
+        Assert.assertEquals(original.getRealEstateDataManager().getHighestDwellingIdInUse(),
+                restored.getRealEstateDataManager().getHighestDwellingIdInUse());
+        Assert.assertEquals(original.getJobDataManager().getHighestJobIdInUse(),
+                restored.getJobDataManager().getHighestJobIdInUse());
+        for (int zoneId = 1; zoneId <= 2; zoneId++) {
+            final Zone originalZone = original.getGeoData().getZones().get(zoneId);
+            final Zone restoredZone = restored.getGeoData().getZones().get(zoneId);
+            Assert.assertEquals(originalZone.getDevelopment().getDwellingCapacity(),
+                    restoredZone.getDevelopment().getDwellingCapacity());
+            Assert.assertEquals(originalZone.getDevelopment().getDevelopableArea(),
+                    restoredZone.getDevelopment().getDevelopableArea(), 0.);
+        }
+
+        // both runs have to continue with the same random numbers
+        Assert.assertArrayEquals(globalRandomState, ((RestorableRandom) SiloUtil.getRandomObject()).getState());
+        final Random originalModelRandom = ((AbstractModel) originalModels.getModelUpdateListeners().get(4)).getRandom();
+        final Random restoredModelRandom = ((AbstractModel) restoredModels.getModelUpdateListeners().get(4)).getRandom();
+        Assert.assertNotSame(originalModelRandom, restoredModelRandom);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(originalModelRandom.nextGaussian(), restoredModelRandom.nextGaussian(), 0.);
+        }
+    }
+
+    @Test
+    public void testSyntheticPopulationIsRejected() throws IOException {
+        new JobType(new String[]{"Agri", "Serv"});
+        final DataContainer original = createDataContainer();
+        addPopulation(original);
+        final String directory = folder.newFolder("checkpoint").getPath();
+        new Checkpoint(original).write(directory, YEAR, false);
+
+        final DataContainer other = createDataContainer();
+        try {
+            new Checkpoint(other).restoreState(directory);
+            Assert.fail("The state of a checkpoint must not be restored without its population.");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static DataContainer createDataContainer() {
+        final DefaultGeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int zoneId = 1; zoneId <= 2; zoneId++) {
+            final ZoneImpl zone = new ZoneImpl(zoneId, 10, region);
+            zone.setDevelopment(new DevelopmentImpl(100, 50, new HashMap<>(), true));
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        final DwellingData dwellingData = new DwellingDataImpl();
+        final HouseholdData householdData = new HouseholdDataImpl();
+        final RealEstateDataManager realEstate = new RealEstateDataManagerImpl(DefaultDwellingTypeImpl.values(),
+                dwellingData, householdData, geoData, new DwellingFactoryImpl(), PROPERTIES);
+        final JobDataManager jobDataManager = new JobDataManagerImpl(PROPERTIES, new JobFactoryImpl(),
+                new JobDataImpl(), geoData, null, null);
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(householdData, dwellingData,
+                new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, realEstate);
+        return new DefaultDataContainer(geoData, realEstate, jobDataManager, householdDataManager,
+                null, null, null, PROPERTIES);
+    }
+
+    private static ModelContainer createModelContainer(DataContainer dataContainer) {
+        final ModelContainer modelContainer = new ModelContainer(null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null);
+        modelContainer.registerModelUpdateListener(new RandomModel(dataContainer));
+        return modelContainer;
+    }
+
+    private static void drawRandomNumbers(ModelContainer modelContainer) {
+        final Random random = ((AbstractModel) modelContainer.getModelUpdateListeners().get(4)).getRandom();
+        for (int i = 0; i < 17; i++) {
+            random.nextDouble();
+        }
+        random.nextGaussian();
+        SiloUtil.getRandomObject().nextInt();
+    }
+
+    private static void addPopulation(DataContainer dataContainer) {
+        final HouseholdDataManager households = dataContainer.getHouseholdDataManager();
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final JobDataManager jobs = dataContainer.getJobDataManager();
+        for (int id = 1; id <= 3; id++) {
+            final Household household = households.getHouseholdFactory().createHousehold(id, id, id % 2);
+            households.addHousehold(household);
+            for (int i = 0; i < id; i++) {
+                final int personId = 10 * id + i;
+                final Person person = households.getPersonFactory().createPerson(personId, 20 + personId,
+                        i % 2 == 0 ? Gender.MALE : Gender.FEMALE, i == 0 ? Occupation.EMPLOYED : Occupation.STUDENT,
+                        i == 0 ? PersonRole.SINGLE : PersonRole.CHILD, i == 0 ? id : -1, 1000 * personId);
+                person.setDriverLicense(i == 0);
+                households.addPerson(person);
+                households.addPersonToHousehold(person, household);
+            }
+            final Dwelling dwelling = realEstate.getDwellingFactory().createDwelling(id, 1 + id % 2,
+                    id == 2 ? null : new Coordinate(id * 100., id * 200.), id, DefaultDwellingTypeImpl.MF234,
+                    id, 2, 900 + id, 1990 + id);
+            dwelling.setFloorSpace(60 + id);
+            realEstate.addDwelling(dwelling);
+            jobs.addJob(jobs.getFactory().createJob(id, 1 + id % 2, new Coordinate(id, id), 10 * id,
+                    id % 2 == 0 ? "Agri" : "Serv"));
+        }
+        jobs.addJob(jobs.getFactory().createJob(4, 1, null, -1, "Serv"));
+        for (int i = 0; i < 5; i++) {
+            households.getNextHouseholdId();
+            households.getNextPersonId();
+            realEstate.getNextDwellingId();
+        }
+        jobs.getNextJobIds(3);
+        dataContainer.getGeoData().getZones().get(1).getDevelopment().changeCapacityBy(-7);
+        dataContainer.getGeoData().getZones().get(2).getDevelopment().changeAreaBy(-2.5);
+    }
+
+    private static void assertHouseholdsAndPersonsEqual(DataContainer original, DataContainer restored) {
+        final HouseholdDataManager expected = original.getHouseholdDataManager();
+        final HouseholdDataManager actual = restored.getHouseholdDataManager();
+        Assert.assertEquals(expected.getHouseholds().size(), actual.getHouseholds().size());
+        for (Household household : expected.getHouseholds()) {
+            final Household copy = actual.getHouseholdFromId(household.getId());
+            Assert.assertNotNull(copy);
+            Assert.assertEquals(household.getDwellingId(), copy.getDwellingId());
+            Assert.assertEquals(household.getAutos(), copy.getAutos());
+            Assert.assertEquals(household.getPersons().keySet(), copy.getPersons().keySet());
+        }
+        Assert.assertEquals(expected.getPersons().size(), actual.getPersons().size());
+        for (Person person : expected.getPersons()) {
+            final Person copy = actual.getPersonFromId(person.getId());
+            Assert.assertNotNull(copy);
+            Assert.assertEquals(person.getHousehold().getId(), copy.getHousehold().getId());
+            Assert.assertEquals(person.getAge(), copy.getAge());
+            Assert.assertEquals(person.getGender(), copy.getGender());
+            Assert.assertEquals(person.getOccupation(), copy.getOccupation());
+            Assert.assertEquals(person.getRole(), copy.getRole());
+            Assert.assertEquals(person.getJobId(), copy.getJobId());
+            Assert.assertEquals(person.getAnnualIncome(), copy.getAnnualIncome());
+            Assert.assertEquals(person.hasDriverLicense(), copy.hasDriverLicense());
+        }
+    }
+
+    private static void assertDwellingsAndJobsEqual(DataContainer original, DataContainer restored) {
+        final RealEstateDataManager expectedRealEstate = original.getRealEstateDataManager();
+        final RealEstateDataManager actualRealEstate = restored.getRealEstateDataManager();
+        Assert.assertEquals(expectedRealEstate.getDwellings().size(), actualRealEstate.getDwellings().size());
+        for (Dwelling dwelling : expectedRealEstate.getDwellings()) {
+            final Dwelling copy = actualRealEstate.getDwelling(dwelling.getId());
+            Assert.assertNotNull(copy);
+            Assert.assertEquals(dwelling.getZoneId(), copy.getZoneId());
+            Assert.assertEquals(dwelling.getCoordinate(), copy.getCoordinate());
+            Assert.assertEquals(dwelling.getResidentId(), copy.getResidentId());
+            Assert.assertEquals(dwelling.getType(), copy.getType());
+            Assert.assertEquals(dwelling.getBedrooms(), copy.getBedrooms());
+            Assert.assertEquals(dwelling.getQuality(), copy.getQuality());
+            Assert.assertEquals(dwelling.getPrice(), copy.getPrice());
+            Assert.assertEquals(dwelling.getYearBuilt(), copy.getYearBuilt());
+            Assert.assertEquals(dwelling.getFloorSpace(), copy.getFloorSpace());
+            Assert.assertEquals(dwelling.getUsage(), copy.getUsage());
+        }
+        final JobDataManager expectedJobs = original.getJobDataManager();
+        final JobDataManager actualJobs = restored.getJobDataManager();
+        Assert.assertEquals(expectedJobs.getJobs().size(), actualJobs.getJobs().size());
+        for (Job job : expectedJobs.getJobs()) {
+            final Job copy = actualJobs.getJobFromId(job.getId());
+            Assert.assertNotNull(copy);
+            Assert.assertEquals(job.getZoneId(), copy.getZoneId());
+            Assert.assertEquals(job.getCoordinate(), copy.getCoordinate());
+            Assert.assertEquals(job.getWorkerId(), copy.getWorkerId());
+            Assert.assertEquals(job.getType(), copy.getType());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package de.tum.bgu.msm.models.demography.marriage;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonFactoryImpl;
+import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.properties.Properties;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class MarriageMarketTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/silo.properties");
+    private static final MarriageMarket.AgePreferences PREFERENCES =
+            new MarriageMarket.AgePreferences(PROPERTIES.demographics);
+
+    private static final int PERSONS = 3000;
+    private static final long SEED = 42;
+
+    private MarriageMarket createMarket() {
+        final PersonFactory factory = new PersonFactoryImpl();
+        final Random random = new Random(1);
+        final MarriageMarket market = new MarriageMarket(PREFERENCES, 0.1f);
+        for (int id = 1; id <= PERSONS; id++) {
+            final int age = MarriageMarket.MIN_AGE + random.nextInt(MarriageMarket.MAX_AGE - MarriageMarket.MIN_AGE + 1);
+            final Gender gender = random.nextBoolean() ? Gender.MALE : Gender.FEMALE;
+            final Person person = factory.createPerson(id, age, gender, Occupation.UNEMPLOYED, PersonRole.SINGLE, -1, 0);
+            if (id % 5 == 0) {
+                market.addActivePartner(person);
+            } else {
+                market.addPassivePartner(person);
+            }
+        }
+        return market;
+    }
+
+    private List<String> matchInParallel(int numberOfThreads) {
+        final List<String> couples = new ArrayList<>();
+        createMarket().matchInParallel(MarriageMarket.ANY_PARTNER, new Random(SEED), numberOfThreads,
+                (person, partner) -> couples.add(person.getId() + "-" + partner.getId()));
+        return couples;
+    }
+
+    private List<String> match() {
+        final List<String> couples = new ArrayList<>();
+        createMarket().match(MarriageMarket.ANY_PARTNER, new Random(SEED),
+                (person, partner) -> couples.add(person.getId() + "-" + partner.getId()));
+        return couples;
+    }
+
+    @Test
+    public void testParallelMatchesEqualSingleThreadedMatches() {
+        final List<String> serial = matchInParallel(1);
+        Assert.assertFalse(serial.isEmpty());
+        Assert.assertEquals(serial, matchInParallel(2));
+        Assert.assertEquals(serial, matchInParallel(4));
+        Assert.assertEquals(serial, matchInParallel(8));
+    }
+
+    @Test
+    public void testSameSeedGivesSameMatches() {
+        final List<String> couples = match();
+        Assert.assertFalse(couples.isEmpty());
+        Assert.assertEquals(couples, match());
+    }
+
+    @Test
+    public void testPartnersAreChosenOnce() {
+        final MarriageMarket market = createMarket();
+        final Set<Integer> partners = new HashSet<>();
+        final int[] couples = new int[1];
+        market.matchInParallel(MarriageMarket.ANY_PARTNER, new Random(SEED), 4, (person, partner) -> {
+            couples[0]++;
+            Assert.assertTrue(partners.add(partner.getId()));
+            Assert.assertEquals(person.getGender().opposite(), partner.getGender());
+            Assert.assertTrue(Math.abs(person.getAge() - partner.getAge()) <= MarriageMarket.AGE_OFFSET);
+        });
+        Assert.assertTrue(couples[0] <= market.getNumberOfActivePartners());
+    }
+}
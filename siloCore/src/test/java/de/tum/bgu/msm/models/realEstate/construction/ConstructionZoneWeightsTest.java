@@ -0,0 +1,87 @@
+package de.tum.bgu.msm.models.realEstate.construction;
+
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ConstructionZoneWeightsTest {
+
+    private final Map<Integer, Integer> capacityByZone = new HashMap<>();
+    private final Random random = new Random(42);
+    private ConstructionZoneWeights weights;
+
+    @Before
+    public void setUp() {
+        final GeoData geoData = new DefaultGeoData();
+        final RegionImpl north = new RegionImpl(1);
+        final RegionImpl south = new RegionImpl(4);
+        geoData.addRegion(north);
+        geoData.addRegion(south);
+        addZone(geoData, north, 5, 1);
+        addZone(geoData, north, 9, 0);
+        addZone(geoData, south, 12, 2);
+        addZone(geoData, south, 20, 0);
+        final GeoIndex geoIndex = GeoIndex.build(geoData);
+        // only zones of the south accept spill-over demand
+        weights = new ConstructionZoneWeights(geoData.getRegions().values(), geoIndex,
+                zone -> capacityByZone.get(zone.getZoneId()),
+                zone -> zone.getRegion().getId() == 4 ? capacityByZone.get(zone.getZoneId()) : 0);
+    }
+
+    private void addZone(GeoData geoData, RegionImpl region, int zoneId, int capacity) {
+        final ZoneImpl zone = new ZoneImpl(zoneId, 1, region);
+        region.addZone(zone);
+        geoData.addZone(zone);
+        capacityByZone.put(zoneId, capacity);
+    }
+
+    private void addDwelling(int zoneId) {
+        capacityByZone.put(zoneId, capacityByZone.get(zoneId) - 1);
+        weights.update(zoneId);
+    }
+
+    @Test
+    public void testZoneIsNotDrawnAfterItsCapacityIsUsed() {
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(5, weights.selectZoneInRegion(1, random));
+        }
+        addDwelling(5);
+        Assert.assertEquals(-1, weights.selectZoneInRegion(1, random));
+        Assert.assertEquals(-1, weights.selectZoneInRegion(2, random));
+    }
+
+    @Test
+    public void testWeightsMoveToUpdatedZone() {
+        capacityByZone.put(9, 3);
+        weights.update(9);
+        addDwelling(5);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(9, weights.selectZoneInRegion(1, random));
+        }
+    }
+
+    @Test
+    public void testSpillOverWeightsAreUpdated() {
+        Assert.assertEquals(12, weights.selectZoneForSpillOver(random));
+        addDwelling(12);
+        Assert.assertEquals(12, weights.selectZoneForSpillOver(random));
+        Assert.assertEquals(12, weights.selectZoneInRegion(4, random));
+        addDwelling(12);
+        Assert.assertEquals(-1, weights.selectZoneForSpillOver(random));
+        Assert.assertEquals(-1, weights.selectZoneInRegion(4, random));
+
+        capacityByZone.put(20, 1);
+        weights.update(20);
+        Assert.assertEquals(20, weights.selectZoneForSpillOver(random));
+        Assert.assertEquals(5, weights.selectZoneInRegion(1, random));
+    }
+}
@@ -0,0 +1,58 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HousingSatisfactionCacheTest {
+
+    @Test
+    public void testMissIsCalculated() {
+        final HousingSatisfactionCache cache = new HousingSatisfactionCache();
+        Assert.assertTrue(Double.isNaN(cache.get(7)));
+
+        // e.g. a household that was created after the satisfactions of the year were evaluated
+        cache.ensureCapacity(7);
+        Assert.assertTrue(Double.isNaN(cache.get(7)));
+        Assert.assertFalse(cache.isUpToDate(7, 42));
+        final AtomicInteger calculations = new AtomicInteger();
+        Assert.assertEquals(0.6, cache.getOrCalculate(7, 42, () -> {
+            calculations.incrementAndGet();
+            return 0.6;
+        }), 0.);
+        Assert.assertEquals(0.6, cache.get(7), 0.);
+        Assert.assertTrue(cache.isUpToDate(7, 42));
+
+        Assert.assertEquals(0.6, cache.getOrCalculate(7, 42, () -> {
+            calculations.incrementAndGet();
+            return 0.1;
+        }), 0.);
+        Assert.assertEquals(1, calculations.get());
+    }
+
+    @Test
+    public void testChangedOrInvalidatedSatisfactionIsRecalculated() {
+        final HousingSatisfactionCache cache = new HousingSatisfactionCache();
+        cache.ensureCapacity(3);
+        cache.put(3, 42, 0.6);
+
+        Assert.assertEquals(0.3, cache.getOrCalculate(3, 43, () -> 0.3), 0.);
+        Assert.assertTrue(cache.isUpToDate(3, 43));
+
+        cache.invalidateAll();
+        Assert.assertFalse(cache.isUpToDate(3, 43));
+        Assert.assertEquals(0.8, cache.getOrCalculate(3, 43, () -> 0.8), 0.);
+    }
+
+    @Test
+    public void testGrowingKeepsSatisfactions() {
+        final HousingSatisfactionCache cache = new HousingSatisfactionCache();
+        cache.ensureCapacity(2);
+        cache.put(2, 42, 0.6);
+        cache.ensureCapacity(100);
+        Assert.assertTrue(cache.isUpToDate(2, 42));
+        Assert.assertTrue(Double.isNaN(cache.get(100)));
+        Assert.assertTrue(Double.isNaN(cache.get(101)));
+    }
+}
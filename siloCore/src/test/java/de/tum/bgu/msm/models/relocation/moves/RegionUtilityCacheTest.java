@@ -0,0 +1,43 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RegionUtilityCacheTest {
+
+    @Test
+    public void testEqualSignaturesShareUtilities() {
+        final RegionUtilityCache cache = new RegionUtilityCache(10);
+        final AtomicInteger calculations = new AtomicInteger();
+        final double[] first = cache.get(RegionUtilityCache.signature(1, 42, 7), signature -> {
+            calculations.incrementAndGet();
+            return new double[]{0.5, 0.25};
+        });
+        final double[] second = cache.get(RegionUtilityCache.signature(1, 42, 7), signature -> {
+            calculations.incrementAndGet();
+            return new double[]{0., 0.};
+        });
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, calculations.get());
+
+        cache.get(RegionUtilityCache.signature(1, 7, 42), signature -> {
+            calculations.incrementAndGet();
+            return new double[]{0., 0.};
+        });
+        Assert.assertEquals(2, calculations.get());
+
+        cache.invalidate();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final RegionUtilityCache cache = new RegionUtilityCache(3);
+        for (int i = 0; i < 10; i++) {
+            cache.get(RegionUtilityCache.signature(i), signature -> new double[1]);
+            Assert.assertTrue(cache.size() <= 3);
+        }
+    }
+}
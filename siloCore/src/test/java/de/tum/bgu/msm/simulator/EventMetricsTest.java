@@ -0,0 +1,25 @@
+package de.tum.bgu.msm.simulator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventMetricsTest {
+
+    @Test
+    public void testBucketsAreExactForSmallValues() {
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals(i, EventMetrics.upperBound(EventMetrics.bucket(i)));
+        }
+    }
+
+    @Test
+    public void testBucketsContainValue() {
+        long[] values = {17, 100, 1023, 1024, 1025, 123456789L, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            final int bucket = EventMetrics.bucket(value);
+            Assert.assertTrue(value <= EventMetrics.upperBound(bucket));
+            Assert.assertTrue(value > EventMetrics.upperBound(bucket - 1));
+            Assert.assertTrue(EventMetrics.upperBound(bucket) <= value * 1.125);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class AliasSamplerTest {
+
+    @Test
+    public void testFrequenciesMatchWeights() {
+        final double[] weights = {1, 0, 3, 6};
+        final AliasSampler sampler = new AliasSampler(weights);
+        final int draws = 200000;
+        final int[] counts = new int[weights.length];
+        final Random random = new Random(42);
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        Assert.assertEquals(0, counts[1]);
+        Assert.assertEquals(0.1, counts[0] / (double) draws, 0.005);
+        Assert.assertEquals(0.3, counts[2] / (double) draws, 0.005);
+        Assert.assertEquals(0.6, counts[3] / (double) draws, 0.005);
+    }
+
+    @Test
+    public void testSingleWeight() {
+        final AliasSampler sampler = new AliasSampler(new float[]{0, 0, 2.5f});
+        final Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(2, sampler.sample(random));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroWeights() {
+        new AliasSampler(new double[]{0, 0});
+    }
+}
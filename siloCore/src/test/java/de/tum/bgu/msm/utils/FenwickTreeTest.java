@@ -0,0 +1,85 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class FenwickTreeTest {
+
+    @Test
+    public void testPrefixSumsFollowUpdates() {
+        final double[] weights = {1, 0, 3, 2, 0, 5, 4};
+        final FenwickTree tree = new FenwickTree(weights);
+        tree.add(1, 2.);
+        weights[1] += 2.;
+        tree.set(5, 1.);
+        weights[5] = 1.;
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals(sum, tree.prefixSum(i), 1e-9);
+            sum += weights[i];
+        }
+        Assert.assertEquals(sum, tree.total(), 1e-9);
+    }
+
+    @Test
+    public void testFindReturnsCoveringIndex() {
+        final FenwickTree tree = new FenwickTree(new double[]{1, 0, 3, 0, 2});
+        Assert.assertEquals(0, tree.find(0.));
+        Assert.assertEquals(0, tree.find(0.99));
+        Assert.assertEquals(2, tree.find(1.));
+        Assert.assertEquals(2, tree.find(3.99));
+        Assert.assertEquals(4, tree.find(4.));
+        Assert.assertEquals(4, tree.find(5.99));
+    }
+
+    @Test
+    public void testSamplingIsProportionalToWeights() {
+        final FenwickTree tree = new FenwickTree(new double[]{0, 1, 0, 3});
+        final Random random = new Random(42);
+        final int[] counts = new int[4];
+        for (int i = 0; i < 40000; i++) {
+            counts[tree.sample(random)]++;
+        }
+        Assert.assertEquals(0, counts[0]);
+        Assert.assertEquals(0, counts[2]);
+        Assert.assertEquals(0.25, counts[1] / 40000., 0.01);
+        tree.set(1, 0);
+        tree.set(3, 0);
+        Assert.assertEquals(-1, tree.sample(random));
+    }
+
+    @Test
+    public void testFindSkipsZeroWeights() {
+        final double[] weights = new double[1001];
+        weights[0] = 1;
+        final FenwickTree tree = new FenwickTree(weights);
+        // values beyond the total point to the trailing indices without weight
+        Assert.assertEquals(0, tree.find(1.));
+        weights[0] = 0;
+        weights[1000] = 1;
+        tree.build(weights);
+        Assert.assertEquals(1000, tree.find(-0.5));
+    }
+
+    @Test
+    public void testTotalIsZeroAfterRemovingAllWeights() {
+        final Random random = new Random(42);
+        final FenwickTree tree = new FenwickTree(100);
+        for (int i = 0; i < 100; i++) {
+            tree.set(i, random.nextDouble() * 0.1);
+        }
+        for (int i = 0; i < 10000; i++) {
+            tree.add(random.nextInt(100), random.nextDouble() * 0.01);
+        }
+        for (int i = 99; i >= 0; i--) {
+            tree.set(i, 0);
+        }
+        Assert.assertEquals(0., tree.total(), 0.);
+        Assert.assertEquals(-1, tree.sample(random));
+        tree.set(42, 0.3);
+        Assert.assertEquals(0.3, tree.total(), 0.);
+        Assert.assertEquals(42, tree.sample(random));
+    }
+}
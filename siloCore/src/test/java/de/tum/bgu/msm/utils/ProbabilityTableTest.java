@@ -0,0 +1,32 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProbabilityTableTest {
+
+    @Test
+    public void testTabulatedValues() {
+        final ProbabilityTable table = ProbabilityTable.tabulate(4, 3, (row, column) -> row * 0.1 + column * 0.01);
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 3; column++) {
+                Assert.assertEquals(row * 0.1 + column * 0.01, table.get(row, column), 0.);
+            }
+        }
+    }
+
+    @Test
+    public void testFailedCellsAndKeysOutsideDomainAreNaN() {
+        final ProbabilityTable table = ProbabilityTable.tabulate(3, (row, column) -> {
+            if (row == 1) {
+                throw new RuntimeException("Undefined");
+            }
+            return row;
+        });
+        Assert.assertEquals(2., table.get(2), 0.);
+        Assert.assertTrue(Double.isNaN(table.get(1)));
+        Assert.assertTrue(Double.isNaN(table.get(-1)));
+        Assert.assertTrue(Double.isNaN(table.get(3)));
+        Assert.assertTrue(Double.isNaN(table.get(0, 1)));
+    }
+}
@@ -0,0 +1,48 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class RandomStreamsTest {
+
+    @Test
+    public void testStreamsAreReproducible() {
+        RandomStreams streams = new RandomStreams(42);
+        streams.setYear(2011);
+        final long key = RandomStreams.key("DeathModelImpl");
+        Random first = streams.stream(key, 17);
+        Random second = streams.stream(key, 17);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(first.nextDouble(), second.nextDouble(), 0.);
+        }
+        Assert.assertEquals(streams.stream(key, 5).nextDouble(), streams.uniform(key, 5), 0.);
+    }
+
+    @Test
+    public void testStreamsDifferByYearKeyAndEntity() {
+        RandomStreams streams = new RandomStreams(42);
+        streams.setYear(2011);
+        final long key = RandomStreams.key("DeathModelImpl");
+        final double draw = streams.uniform(key, 17);
+        Assert.assertNotEquals(draw, streams.uniform(key, 18), 0.);
+        Assert.assertNotEquals(draw, streams.uniform(RandomStreams.key("BirthModelImpl"), 17), 0.);
+        streams.setYear(2012);
+        Assert.assertNotEquals(draw, streams.uniform(key, 17), 0.);
+    }
+
+    @Test
+    public void testUniformDistribution() {
+        RandomStreams streams = new RandomStreams(1);
+        final long key = RandomStreams.key("test");
+        double sum = 0;
+        final int n = 100000;
+        for (int i = 0; i < n; i++) {
+            final double draw = streams.uniform(key, i);
+            Assert.assertTrue(draw >= 0 && draw < 1);
+            sum += draw;
+        }
+        Assert.assertEquals(0.5, sum / n, 0.01);
+    }
+}
@@ -0,0 +1,48 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SkipSamplerTest {
+
+    @Test
+    public void testCertainAndImpossibleTrials() {
+        final SkipSampler sampler = new SkipSampler();
+        for (int id = 0; id < 10; id++) {
+            sampler.add(id, id % 2 == 0 ? 1. : 0.);
+        }
+        final List<Integer> successes = new ArrayList<>();
+        sampler.sample(new Random(42), successes::add);
+        Assert.assertEquals(1, sampler.getNumberOfCohorts());
+        Assert.assertEquals(5, successes.size());
+        for (int i = 0; i < successes.size(); i++) {
+            Assert.assertEquals(2 * i, successes.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testSuccessRatesMatchProbabilities() {
+        final double[] probabilities = {0.3, 0.01};
+        final int trials = 200000;
+        final int[] successesByCohort = new int[probabilities.length];
+        final int[] lastId = {-1};
+        final SkipSampler sampler = new SkipSampler();
+        for (int id = 0; id < trials; id++) {
+            sampler.add(id, probabilities[id % probabilities.length]);
+        }
+        sampler.sample(new Random(42), id -> {
+            successesByCohort[id % probabilities.length]++;
+            Assert.assertNotEquals(lastId[0], id);
+            lastId[0] = id;
+        });
+        for (int i = 0; i < probabilities.length; i++) {
+            final double expected = probabilities[i] * trials / probabilities.length;
+            final double deviation = Math.sqrt(expected * (1 - probabilities[i]));
+            Assert.assertEquals(expected, successesByCohort[i], 5 * deviation);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package de.tum.bgu.msm.utils.js;
+
+import de.tum.bgu.msm.data.household.HouseholdType;
+import de.tum.bgu.msm.data.household.IncomeCategory;
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.PersonType;
+import de.tum.bgu.msm.models.ScriptInputProvider;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates the shipped scripts with the script engine and with the {@link ScriptTranslator} over a grid of
+ * arguments. Fails if a function that the models translate falls back to the script engine or if the
+ * translated function returns a different result.
+ */
+public class ScriptParityTest {
+
+    private static final double[] UTILITIES = {-1., -0.5, 0., 0.1, 0.25, 0.5, 0.75, 0.9, 1., 2.};
+    private static final float[] REGION_VALUES = {0.f, 0.05f, 0.3f, 0.5f, 1.f, 120.f, 1500.f};
+    private static final double[] DWELLING_UTILITIES = {0., 0.2, 0.5, 1.};
+
+    private ScriptEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new ScriptEngineManager().getEngineByName("nashorn");
+        Assume.assumeNotNull(engine);
+    }
+
+    private static String script(String name) {
+        return ScriptTranslator.read(ScriptInputProvider.class.getResourceAsStream(name));
+    }
+
+    @Test
+    public void testBirthProbabilities() throws Exception {
+        final List<Object[]> arguments = new ArrayList<>();
+        for (int age = -1; age <= 101; age++) {
+            for (int children = 0; children <= 10; children++) {
+                arguments.add(new Object[]{age, children});
+            }
+        }
+        assertParity("BirthProbabilityCalc", "calculateBirthProbability",
+                new Class<?>[]{int.class, int.class}, arguments);
+        assertParity("BirthProbabilityCalc", "probabilityForAGirl",
+                new Class<?>[0], singleCall());
+    }
+
+    @Test
+    public void testDeathProbabilities() throws Exception {
+        final List<Object[]> arguments = new ArrayList<>();
+        for (int age = -1; age <= 101; age++) {
+            for (Gender gender : Gender.values()) {
+                arguments.add(new Object[]{age, gender});
+            }
+        }
+        assertParity("DeathProbabilityCalc", "calculateDeathProbability",
+                new Class<?>[]{int.class, Gender.class}, arguments);
+    }
+
+    @Test
+    public void testPersonTypeProbabilities() throws Exception {
+        final List<Object[]> types = new ArrayList<>();
+        final List<Object[]> ordinals = new ArrayList<>();
+        for (PersonType type : PersonType.values()) {
+            types.add(new Object[]{type});
+            ordinals.add(new Object[]{type.ordinal()});
+        }
+        ordinals.add(new Object[]{-1});
+        ordinals.add(new Object[]{PersonType.values().length});
+        assertParity("DivorceProbabilityCalc", "calculateDivorceProbability",
+                new Class<?>[]{int.class}, ordinals);
+        assertParity("MarriageProbabilityCalc", "calculateDivorceProbability",
+                new Class<?>[]{int.class}, ordinals);
+        assertParity("LeaveParentHhCalc", "calculateLeaveParentsProbability",
+                new Class<?>[]{PersonType.class}, types);
+        assertParity("DriversLicenseCalc", "calculateChangeDriversLicenseProbability",
+                new Class<?>[]{PersonType.class}, types);
+        assertParity("DriversLicenseCalc", "calculateCreateDriversLicenseProbability",
+                new Class<?>[]{PersonType.class}, types);
+    }
+
+    @Test
+    public void testRenovationProbabilities() throws Exception {
+        final List<Object[]> arguments = new ArrayList<>();
+        for (int quality = 0; quality <= 5; quality++) {
+            for (int alternative = 0; alternative <= 6; alternative++) {
+                arguments.add(new Object[]{quality, alternative});
+            }
+        }
+        assertParity("RenovationCalc", "calculateRenovationProbability",
+                new Class<?>[]{int.class, int.class}, arguments);
+    }
+
+    @Test
+    public void testRelocationProbabilities() throws Exception {
+        final List<Object[]> single = new ArrayList<>();
+        final List<Object[]> pairs = new ArrayList<>();
+        for (double first : UTILITIES) {
+            single.add(new Object[]{first});
+            for (double second : UTILITIES) {
+                pairs.add(new Object[]{first, second});
+            }
+        }
+        assertParity("MovesOrNotCalc", "calculateMovingProbability",
+                new Class<?>[]{double.class, double.class}, pairs);
+        assertParity("SelectDwellingCalc", "calculateSelectDwellingProbability",
+                new Class<?>[]{double.class}, single);
+        assertParity("SelectRegionCalc", "calculateSelectRegionProbability",
+                new Class<?>[]{double.class}, single);
+    }
+
+    @Test
+    public void testDwellingUtilities() throws Exception {
+        final List<Object[]> arguments = new ArrayList<>();
+        for (HouseholdType type : HouseholdType.values()) {
+            addDwellingUtilities(arguments, new Object[]{type, 0., 0., 0., 0., 0., 0.}, 1);
+        }
+        final Class<?>[] types = new Class<?>[7];
+        types[0] = HouseholdType.class;
+        Arrays.fill(types, 1, 7, double.class);
+        assertParity("DwellingUtilityCalc", "calculateSelectDwellingUtility", types, arguments);
+    }
+
+    private static void addDwellingUtilities(List<Object[]> arguments, Object[] current, int index) {
+        if (index == current.length) {
+            arguments.add(current.clone());
+            return;
+        }
+        for (double utility : DWELLING_UTILITIES) {
+            current[index] = utility;
+            addDwellingUtilities(arguments, current, index + 1);
+        }
+    }
+
+    @Test
+    public void testRegionUtilities() throws Exception {
+        final List<Object[]> arguments = new ArrayList<>();
+        for (IncomeCategory category : IncomeCategory.values()) {
+            for (float price : REGION_VALUES) {
+                for (float accessibility : REGION_VALUES) {
+                    for (float share : REGION_VALUES) {
+                        arguments.add(new Object[]{category, price, accessibility, share});
+                    }
+                }
+            }
+        }
+        assertParity("RegionUtilityCalc", "calculateRegionUtility",
+                new Class<?>[]{IncomeCategory.class, float.class, float.class, float.class}, arguments);
+    }
+
+    @Test
+    public void testPricingParameters() throws Exception {
+        for (String function : new String[]{"getLowInflectionPoint", "getHighInflectionPoint",
+                "getMaxVacancyRateForPriceChange", "getLowerSlope", "getMainSlope", "getHighSlope",
+                "getMaximumChange"}) {
+            assertParity("PricingCalc", function, new Class<?>[0], singleCall());
+        }
+    }
+
+    /**
+     * Functions that take model objects are evaluated by the script engine on purpose.
+     */
+    @Test
+    public void testObjectArgumentsFallBack() {
+        Assert.assertNull(ScriptTranslator.translate(script("ConstructionDemandCalc"),
+                "calculateConstructionDemand", double.class, Object.class));
+        Assert.assertNull(ScriptTranslator.translate(script("ConstructionLocationCalc"),
+                "calculateConstructionUtility", Object.class, double.class, double.class));
+        Assert.assertNull(ScriptTranslator.translate(script("DemolitionCalc"),
+                "calculateDemolitionProbability", Object.class, int.class));
+        Assert.assertNull(ScriptTranslator.translate(script("MarriageProbabilityCalc"),
+                "calculateMarriageProbability", Object.class));
+    }
+
+    private static List<Object[]> singleCall() {
+        final List<Object[]> arguments = new ArrayList<>();
+        arguments.add(new Object[0]);
+        return arguments;
+    }
+
+    private void assertParity(String scriptName, String functionName, Class<?>[] types,
+                              List<Object[]> arguments) throws Exception {
+        final String script = script(scriptName);
+        final ScriptFunction translated = ScriptTranslator.translate(script, functionName, types);
+        Assert.assertNotNull(scriptName + "." + functionName + " falls back to the script engine", translated);
+        engine.eval(script);
+        final Invocable invocable = (Invocable) engine;
+
+        for (Object[] args : arguments) {
+            final String call = scriptName + "." + functionName + Arrays.toString(args);
+
+            Double expected = null;
+            try {
+                final Object result = invocable.invokeFunction(functionName, args);
+                if (result instanceof Number) {
+                    expected = ((Number) result).doubleValue();
+                }
+            } catch (Exception e) {
+                // script error, the translated function has to fail as well
+            }
+
+            final double[] values = new double[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = args[i] instanceof Enum ? ((Enum<?>) args[i]).ordinal() : ((Number) args[i]).doubleValue();
+            }
+            Double actual = null;
+            try {
+                actual = translated.apply(values);
+            } catch (RuntimeException e) {
+                // compared below
+            }
+
+            if (expected == null) {
+                Assert.assertNull(call + " should fail like the script engine", actual);
+            } else {
+                Assert.assertNotNull(call + " failed but the script engine returned " + expected, actual);
+                Assert.assertEquals(call, expected, actual, Math.abs(expected) * 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.tum.bgu.msm.utils.js;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.models.ScriptInputProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScriptTranslatorTest {
+
+    private static String script(String name) {
+        return ScriptTranslator.read(ScriptInputProvider.class.getResourceAsStream(name));
+    }
+
+    @Test
+    public void testTranslatedRenovationProbabilities() {
+        final ScriptFunction renovation = ScriptTranslator.translate(script("RenovationCalc"),
+                "calculateRenovationProbability", int.class, int.class);
+        Assert.assertNotNull(renovation);
+        Assert.assertEquals(2, renovation.getNumberOfParameters());
+        Assert.assertEquals(0.93, renovation.apply(1, 3), 0.);
+        Assert.assertEquals(0.1, renovation.apply(2, 2), 0.);
+        Assert.assertEquals(0.05, renovation.apply(3, 1), 0.);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testScriptErrorsAreRethrown() {
+        final ScriptFunction death = ScriptTranslator.translate(script("DeathProbabilityCalc"),
+                "calculateDeathProbability", int.class, Gender.class);
+        Assert.assertNotNull(death);
+        death.apply(-1, Gender.MALE.ordinal());
+    }
+
+    @Test
+    public void testInlineScript() {
+        final String script = "var f = function(a, b) {\n"
+                + "    var x = a * 2;\n"
+                + "    if (x > b && b != 0) { x -= b; } else { x += Math.max(a, b, 3); }\n"
+                + "    return x < 0 ? -x : Math.round(x / 2);\n"
+                + "}";
+        final ScriptFunction f = ScriptTranslator.translate(script, "f", double.class, double.class);
+        Assert.assertNotNull(f);
+        Assert.assertEquals(3., f.apply(4, 3), 0.);
+        Assert.assertEquals(4., f.apply(1, 5), 0.);
+    }
+
+    @Test
+    public void testUnsupportedScriptFallsBack() {
+        Assert.assertNull(ScriptTranslator.translate("var f = function(a) { return a.foo(); }", "f", Object.class));
+        Assert.assertNull(ScriptTranslator.translate("var f = function(a) { while (a) { a = 0; } return 1; }", "f", double.class));
+    }
+}
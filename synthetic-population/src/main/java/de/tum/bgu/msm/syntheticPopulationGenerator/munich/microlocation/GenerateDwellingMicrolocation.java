@@ -5,6 +5,7 @@ import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.syntheticPopulationGenerator.DataSetSynPop;
 import de.tum.bgu.msm.syntheticPopulationGenerator.properties.PropertiesSynPop;
+import de.tum.bgu.msm.utils.FenwickSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
@@ -12,6 +13,7 @@ import org.locationtech.jts.geom.Coordinate;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 public class GenerateDwellingMicrolocation {
 
@@ -40,20 +42,30 @@ public class GenerateDwellingMicrolocation {
         logger.info("   Start Selecting the building to allocate the dwelling");
         //Select the building to allocate the dwelling
         int errorBuilding = 0;
+        final Random random = SiloUtil.getRandomObject();
+        final Map<Integer, FenwickSampler<Integer>> buildingSamplerByZone = new HashMap<>();
         for (Dwelling dd: dataContainer.getRealEstateDataManager().getDwellings()) {
             int zoneID = dd.getZoneId();
             Zone zone = dataContainer.getGeoData().getZones().get(zoneID);
             if (zoneBuildingMap.get(zoneID) == null){
-                dd.setCoordinate(zone.getRandomCoordinate(SiloUtil.getRandomObject()));
+                dd.setCoordinate(zone.getRandomCoordinate(random));
                 errorBuilding++;
                 continue;
             }
-            int selectedBuildingID = SiloUtil.select(zoneBuildingMap.get(zoneID));
-            double remainingCapacity = (zoneBuildingMap.get(zoneID).get(selectedBuildingID))*PENALTY;//-zoneDensity.get(zoneID);
+            FenwickSampler<Integer> buildings = buildingSamplerByZone.computeIfAbsent(zoneID,
+                    id -> FenwickSampler.of(zoneBuildingMap.get(id)));
+            int selectedIndex = buildings.sampleIndex(random);
+            if (selectedIndex < 0) {
+                dd.setCoordinate(zone.getRandomCoordinate(random));
+                errorBuilding++;
+                continue;
+            }
+            int selectedBuildingID = buildings.get(selectedIndex);
+            double remainingCapacity = buildings.getWeight(selectedIndex)*PENALTY;//-zoneDensity.get(zoneID);
             if (remainingCapacity > 0) {
-                zoneBuildingMap.get(zoneID).put(selectedBuildingID, remainingCapacity);
+                buildings.setWeight(selectedIndex, remainingCapacity);
             } else {
-                zoneBuildingMap.get(zoneID).put(selectedBuildingID, 0.0);
+                buildings.setWeight(selectedIndex, 0.0);
             }
             dd.setCoordinate(new Coordinate(buildingX.get(selectedBuildingID),buildingY.get(selectedBuildingID)));
         }
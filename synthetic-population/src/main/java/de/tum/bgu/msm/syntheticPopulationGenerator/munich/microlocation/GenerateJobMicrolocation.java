@@ -6,6 +6,7 @@ import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobImpl;
 import de.tum.bgu.msm.syntheticPopulationGenerator.DataSetSynPop;
 import de.tum.bgu.msm.syntheticPopulationGenerator.properties.PropertiesSynPop;
+import de.tum.bgu.msm.utils.FenwickSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
@@ -13,6 +14,7 @@ import org.locationtech.jts.geom.Coordinate;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 public class GenerateJobMicrolocation {
 
@@ -40,21 +42,32 @@ public class GenerateJobMicrolocation {
         logger.info("   Start Selecting the job to allocate the job");
         //Select the job to allocate the job
         int errorjob = 0;
+        final Random random = SiloUtil.getRandomObject();
+        final Map<Integer, Map<String, FenwickSampler<Integer>>> locationSamplerByZoneAndJobType = new HashMap<>();
         for (Job jj: dataContainer.getJobDataManager().getJobs()) {
             int zoneID = jj.getZoneId();
             String jobType = jj.getType();
             Zone zone = dataContainer.getGeoData().getZones().get(zoneID);
             if (zoneJobTypeDensity.get(zoneID).get(jobType)==0.0){
-                ((JobImpl)jj).setCoordinate(zone.getRandomCoordinate(SiloUtil.getRandomObject()));
+                ((JobImpl)jj).setCoordinate(zone.getRandomCoordinate(random));
                 errorjob++;
                 continue;
             }
-            int selectedJobID = SiloUtil.select(zoneJobTypeJobLocationArea.get(zoneID).get(jobType));
-            float remainingArea = zoneJobTypeJobLocationArea.get(zoneID).get(jobType).get(selectedJobID)- zoneJobTypeDensity.get(zoneID).get(jobType);
+            FenwickSampler<Integer> locations = locationSamplerByZoneAndJobType
+                    .computeIfAbsent(zoneID, id -> new HashMap<>())
+                    .computeIfAbsent(jobType, type -> FenwickSampler.of(zoneJobTypeJobLocationArea.get(zoneID).get(type)));
+            int selectedIndex = locations.sampleIndex(random);
+            if (selectedIndex < 0) {
+                ((JobImpl)jj).setCoordinate(zone.getRandomCoordinate(random));
+                errorjob++;
+                continue;
+            }
+            int selectedJobID = locations.get(selectedIndex);
+            float remainingArea = (float) locations.getWeight(selectedIndex) - zoneJobTypeDensity.get(zoneID).get(jobType);
             if (remainingArea > 0) {
-                zoneJobTypeJobLocationArea.get(zoneID).get(jobType).put(selectedJobID, remainingArea);
+                locations.setWeight(selectedIndex, remainingArea);
             } else {
-                zoneJobTypeJobLocationArea.get(zoneID).get(jobType).put(selectedJobID, 0.0f);
+                locations.setWeight(selectedIndex, 0.0f);
             }
             ((JobImpl)jj).setCoordinate(new Coordinate(jobX.get(selectedJobID),jobY.get(selectedJobID)));
         }
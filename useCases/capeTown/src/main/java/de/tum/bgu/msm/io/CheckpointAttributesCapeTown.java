@@ -0,0 +1,45 @@
+package de.tum.bgu.msm.io;
+
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonCapeTown;
+import de.tum.bgu.msm.data.person.RaceCapeTown;
+import de.tum.bgu.msm.io.checkpoint.CheckpointAttributes;
+
+/**
+ * Stores the race of persons in checkpoints of the Cape Town implementation. The race of households is derived
+ * from their members. A missing race is encoded as -1.
+ */
+public final class CheckpointAttributesCapeTown implements CheckpointAttributes {
+
+    private static final RaceCapeTown[] RACES = RaceCapeTown.values();
+
+    @Override
+    public int getNumberOfPersonAttributes() {
+        return 1;
+    }
+
+    @Override
+    public void writePersonAttributes(Person person, int[] attributes) {
+        final RaceCapeTown race = ((PersonCapeTown) person).getRace();
+        attributes[0] = race == null ? -1 : race.ordinal();
+    }
+
+    @Override
+    public void readPersonAttributes(Person person, int[] attributes) {
+        ((PersonCapeTown) person).setRace(attributes[0] < 0 ? null : RACES[attributes[0]]);
+    }
+
+    @Override
+    public int getNumberOfJobAttributes() {
+        return 0;
+    }
+
+    @Override
+    public void writeJobAttributes(Job job, int[] attributes) {
+    }
+
+    @Override
+    public void readJobAttributes(Job job, int[] attributes) {
+    }
+}
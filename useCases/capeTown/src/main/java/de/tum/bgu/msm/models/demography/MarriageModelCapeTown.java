@@ -1,6 +1,5 @@
 package de.tum.bgu.msm.models.demography;
 
-import com.google.common.collect.*;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.household.Household;
@@ -11,6 +10,7 @@ import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.events.impls.person.MarriageEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
+import de.tum.bgu.msm.models.demography.marriage.MarriageMarket;
 import de.tum.bgu.msm.models.demography.marriage.MarriageModel;
 import de.tum.bgu.msm.models.demography.marriage.MarriageStrategy;
 import de.tum.bgu.msm.models.relocation.migration.InOutMigrationImpl;
@@ -20,6 +20,7 @@ import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 public class MarriageModelCapeTown extends AbstractModel implements MarriageModel {
 
@@ -33,10 +34,10 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
 
     private float interRacialMarriageShare = properties.demographics.interracialMarriageShare;
 
-    private final static int AGE_OFFSET = 10;
-    private final static ContiguousSet<Integer> AGE_DIFF_RANGE
-            = ContiguousSet.create(Range.closed(-AGE_OFFSET, AGE_OFFSET), DiscreteDomain.integers());
-    private Table<Integer, Gender, Double> ageDiffProbabilityByGender;
+    private MarriageMarket.AgePreferences agePreferences;
+
+    private final static MarriageMarket.PartnerSelector PARTNER_SELECTOR =
+            MarriageMarket.preferringGroup(person -> ((PersonCapeTown) person).getRace());
 
     /**
      * localMarriageAdjuster serves to adjust from national marriage rates to local conditions
@@ -44,12 +45,6 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
     private double scale = properties.demographics.localMarriageAdjuster;
     private int lackOfDwellingFailedMarriage;
 
-    // ageOffset is the range of ages above and below a persons age that are considered for marriage
-    // needs to cover -9 to +9 to reach one person type above and one person type below
-    // (e.g., for 25-old person consider partners from 20 to 34). ageOffset is 10 and not 9 to
-    // capture if potential partner has celebrated BIRTHDAY already (i.e. turned 35). To improve
-    // performance, the person type of this person in the marriage market is not updated.
-
     public MarriageModelCapeTown(DataContainer dataContainer, MovesModelImpl movesModel,
                                  InOutMigrationImpl iomig, CreateCarOwnershipModel carOwnership,
                                  HouseholdFactory hhFactory, Properties properties, MarriageStrategy strategy, Random rnd) {
@@ -63,7 +58,7 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
 
     @Override
     public void setup() {
-        ageDiffProbabilityByGender = calculateAgeDiffProbabilities();
+        agePreferences = new MarriageMarket.AgePreferences(properties.demographics);
     }
 
     @Override
@@ -105,16 +100,17 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
 
         final List<MarriageEvent> couplesToMarryThisYear = new ArrayList<>();
         final MarriageMarket market = defineMarriageMarket(persons);
-
-        for (Person person : market.activePartners) {
-            final Person partner = findPartner(market, person);
-            if (partner != null) {
-                couplesToMarryThisYear.add(new MarriageEvent(person.getId(), partner.getId()));
-                if (person.getId() == SiloUtil.trackPp || partner.getId() == SiloUtil.trackPp) {
-                    SiloUtil.trackWriter.println("Person " + person.getId() + " chose " +
-                            "person " + partner + " to marry and they were scheduled as a couple to marry this year.");
-                }
+        final BiConsumer<Person, Person> couples = (person, partner) -> {
+            couplesToMarryThisYear.add(new MarriageEvent(person.getId(), partner.getId()));
+            if (person.getId() == SiloUtil.trackPp || partner.getId() == SiloUtil.trackPp) {
+                SiloUtil.trackWriter.println("Person " + person.getId() + " chose " +
+                        "person " + partner + " to marry and they were scheduled as a couple to marry this year.");
             }
+        };
+        if (properties.demographics.parallelMarriageMatching) {
+            market.matchInParallel(PARTNER_SELECTOR, random, properties.main.numberOfThreads, couples);
+        } else {
+            market.match(PARTNER_SELECTOR, random, couples);
         }
         logger.info(couplesToMarryThisYear.size() + " couples created.");
         return couplesToMarryThisYear;
@@ -124,89 +120,19 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
 
         logger.info("Defining Marriage Market");
 
-        final List<Person> activePartners = new ArrayList<>();
-        final Table<Integer, Gender, List<Person>> partnersByAgeAndGender = ArrayTable.create(
-                ContiguousSet.create(Range.closed(16, 100), DiscreteDomain.integers()),
-                Arrays.asList(Gender.values()));
-
+        final MarriageMarket market = new MarriageMarket(agePreferences, interRacialMarriageShare);
         for (final Person pp : persons) {
             if (ruleGetMarried(pp)) {
                 final double marryProb = getMarryProb(pp);
                 if (random.nextDouble() <= marryProb) {
-                    activePartners.add(pp);
+                    market.addActivePartner(pp);
                 } else if (isQualifiedAsPossiblePartner(pp)) {
-                    final List<Person> entry = partnersByAgeAndGender.get(pp.getAge(), pp.getGender());
-                    if (entry == null) {
-                        partnersByAgeAndGender.put(pp.getAge(), pp.getGender(), Lists.newArrayList(pp));
-                    } else {
-                        entry.add(pp);
-                    }
+                    market.addPassivePartner(pp);
                 }
             }
         }
-        logger.info(activePartners.size() + " persons actively looking for partner");
-        return new MarriageMarket(activePartners, partnersByAgeAndGender);
-    }
-
-    private Person findPartner(MarriageMarket market, Person person) {
-
-        final MarriagePreference preference = defineMarriagePreference(person, market);
-        final List<Person> possiblePartners = market.getFittingPartnersWithSelectedAge(preference);
-
-        if (preference == null || possiblePartners.isEmpty()) {
-            return null;
-        }
-
-        final Map<Person, Float> probabilities = new LinkedHashMap<>();
-
-        RaceCapeTown personRace = ((PersonCapeTown) person).getRace();
-        float sum = 0;
-        for (Person pp : possiblePartners) {
-            float prob;
-            PersonCapeTown p = ((PersonCapeTown) pp);
-            if (fitsRaceCompositionPreference(preference, personRace, p)) {
-                prob = 10000f;
-            } else {
-                prob = 0.001f;
-            }
-            sum += prob;
-            probabilities.put(p, prob);
-        }
-
-        final Person selectedPartner = SiloUtil.select(probabilities, sum, random);
-        possiblePartners.remove(selectedPartner);
-        return selectedPartner;
-    }
-
-    private boolean fitsRaceCompositionPreference(MarriagePreference preference, RaceCapeTown personRace, PersonCapeTown p) {
-        return (preference.sameRace && personRace == p.getRace())
-                || (!preference.sameRace && personRace != p.getRace());
-    }
-
-    private MarriagePreference defineMarriagePreference(Person person, MarriageMarket market) {
-
-        final Gender partnerGender = person.getGender().opposite();
-        final boolean sameRace = random.nextDouble() >= interRacialMarriageShare;
-
-        final Map<Integer, Double> probabilityByAge = new LinkedHashMap<>();
-
-        double sum = 0;
-        for (int ageDiff : AGE_DIFF_RANGE) {
-            final int resultingAge = person.getAge() + ageDiff;
-            double probability = ageDiffProbabilityByGender.get(ageDiff, person.getGender());
-            probability *= market.getFittingPartnersWithSelectedAge(resultingAge, partnerGender).size();
-            sum += probability;
-            probabilityByAge.put(resultingAge, probability);
-        }
-
-        if (sum == 0) {
-            logger.warn("Marriage market ran empty, increase share of persons. Age: " + person.getAge());
-            return null;
-        }
-
-        final int selectedAge = SiloUtil.select(probabilityByAge, sum, random);
-        return new MarriagePreference(sameRace, selectedAge, partnerGender);
-
+        logger.info(market.getNumberOfActivePartners() + " persons actively looking for partner");
+        return market;
     }
 
     /**
@@ -365,30 +291,6 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
         }
     }
 
-    private Table<Integer, Gender, Double> calculateAgeDiffProbabilities() {
-
-        final Table<Integer, Gender, Double> probabilitiesByAgeDiffAndGender =
-                ArrayTable.create(AGE_DIFF_RANGE, Lists.newArrayList(Gender.values()));
-
-        for (int ageDiff : AGE_DIFF_RANGE) {
-            int ageFactor = ageDiff;
-            for (Gender gender : probabilitiesByAgeDiffAndGender.columnKeySet()) {
-                if (gender == Gender.MALE) {
-                    // man searches woman
-                    ageFactor += properties.demographics.marryAbsAgeDiff;
-                } else {
-                    // woman searches man
-                    ageFactor -= properties.demographics.marryAbsAgeDiff;
-                }
-                final double probability =
-                        1 / Math.exp(Math.pow(ageFactor, 2) * properties.demographics.marryAgeSpreadFac);
-                probabilitiesByAgeDiffAndGender.put(ageDiff, gender, probability);
-            }
-        }
-        return probabilitiesByAgeDiffAndGender;
-    }
-
-
     private boolean ruleGetMarried(Person per) {
         if (per == null) {
             return false;
@@ -398,44 +300,4 @@ public class MarriageModelCapeTown extends AbstractModel implements MarriageMode
                 && per.getAge() >= properties.demographics.minMarryAge
                 && per.getAge() < 100;
     }
-
-    private final static class MarriagePreference {
-
-        private final boolean sameRace;
-        private final int age;
-        private final Gender gender;
-
-        private MarriagePreference(boolean sameRace, int age, Gender gender) {
-            this.sameRace = sameRace;
-            this.age = age;
-            this.gender = gender;
-        }
-    }
-
-    private final static class MarriageMarket {
-        final List<Person> activePartners;
-        final Table<Integer, Gender, List<Person>> partnersByAgeAndGender;
-
-        private MarriageMarket(List<Person> activePartners,
-                               Table<Integer, Gender, List<Person>> passivePartnersByAgeAndGender) {
-            this.activePartners = activePartners;
-            this.partnersByAgeAndGender = passivePartnersByAgeAndGender;
-        }
-
-        private List<Person> getFittingPartnersWithSelectedAge(MarriagePreference preference) {
-            if (preference != null) {
-                return getFittingPartnersWithSelectedAge(preference.age, preference.gender);
-            } else {
-                return null;
-            }
-        }
-
-        private List<Person> getFittingPartnersWithSelectedAge(int age, Gender gender) {
-            final List<Person> entry = partnersByAgeAndGender.get(age, gender);
-            if (entry == null) {
-                return Collections.emptyList();
-            }
-            return entry;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -15,9 +15,11 @@ import de.tum.bgu.msm.data.person.PersonFactory;
 import de.tum.bgu.msm.data.person.PersonFactoryCapeTown;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.CheckpointAttributesCapeTown;
 import de.tum.bgu.msm.io.DwellingReaderCapeTown;
 import de.tum.bgu.msm.io.GeoDataReaderCapeTown;
 import de.tum.bgu.msm.io.PersonReaderCapeTown;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
 import de.tum.bgu.msm.io.input.*;
 import de.tum.bgu.msm.matsim.MatsimTravelTimesAndCosts;
 import de.tum.bgu.msm.properties.Properties;
@@ -86,6 +88,20 @@ public class DataBuilderCapeTown {
         reader.readZoneShapefile(pathShp);
 
         int year = properties.main.startYear;
+        new JobType(properties.jobData.jobTypes);
+        if (properties.main.resumeFromCheckpoint) {
+            new Checkpoint(dataContainer, new CheckpointAttributesCapeTown()).readPopulation(properties.main.checkpointDirectory(year));
+        } else {
+            readSyntheticPopulation(properties, dataContainer, year);
+        }
+
+        //might be added later
+//        SchoolReader ssReader = new SchoolReaderMuc(dataContainer.getSchoolData());
+//        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
+//        ssReader.readData(schoolsFile);
+    }
+
+    private static void readSyntheticPopulation(Properties properties, DataContainer dataContainer, int year) {
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
         householdFile += "_" + year + ".csv";
         HouseholdReader hhReader = new DefaultHouseholdReader(dataContainer.getHouseholdDataManager(),
@@ -101,14 +117,8 @@ public class DataBuilderCapeTown {
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
         ddReader.readData(dwellingsFile);
 
-        new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new DefaultJobReader(dataContainer.getJobDataManager());
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
         jjReader.readData(jobsFile);
-
-        //might be added later
-//        SchoolReader ssReader = new SchoolReaderMuc(dataContainer.getSchoolData());
-//        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
-//        ssReader.readData(schoolsFile);
     }
 }
@@ -3,6 +3,7 @@ package de.tum.bgu.msm.run;
 import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.CheckpointAttributesCapeTown;
 import de.tum.bgu.msm.io.output.DefaultResultsMonitor;
 import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.properties.Properties;
@@ -32,6 +33,7 @@ public class SiloCT {
         ModelContainer modelContainer = ModelBuilderCapeTown.getModelContainerForCapeTown(
                 dataContainer, properties, config);
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new CheckpointAttributesCapeTown());
         model.addResultMonitor(new DefaultResultsMonitor(dataContainer, properties));
         model.runModel();
         logger.info("Finished SILO.");
@@ -16,6 +16,7 @@ import de.tum.bgu.msm.data.person.PersonFactory;
 import de.tum.bgu.msm.data.person.PersonFactoryImpl;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
 import de.tum.bgu.msm.io.input.*;
 import de.tum.bgu.msm.matsim.MatsimTravelTimesAndCosts;
 import de.tum.bgu.msm.properties.Properties;
@@ -31,7 +32,16 @@ public class DataBuilderFabiland {
         GeoData geoData = new DefaultGeoData();
 
         DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
+        final HouseholdData householdData;
+        final PersonFactory ppFactory;
+        if (properties.householdData.columnarHouseholdData) {
+            ColumnarHouseholdData columnarHouseholdData = new ColumnarHouseholdData();
+            householdData = columnarHouseholdData;
+            ppFactory = columnarHouseholdData.getPersonFactory();
+        } else {
+            householdData = new HouseholdDataImpl();
+            ppFactory = new PersonFactoryImpl();
+        }
         JobData jobData = new JobDataImpl();
 
         TravelTimes travelTimes = null;
@@ -69,7 +79,6 @@ public class DataBuilderFabiland {
                 travelTimes, commutingTimeProbability);
 
         final HouseholdFactory hhFactory = new HouseholdFactoryImpl();
-        final PersonFactory ppFactory = new PersonFactoryImpl();
 
         HouseholdDataManager householdManager = new HouseholdDataManagerImpl(
                 householdData, dwellingData,
@@ -93,6 +102,14 @@ public class DataBuilderFabiland {
 
         int year = properties.main.startYear;
 
+        if (properties.main.resumeFromCheckpoint) {
+            new Checkpoint(dataContainer).readPopulation(properties.main.checkpointDirectory(year));
+        } else {
+            readSyntheticPopulation(properties, dataContainer, year);
+        }
+    }
+
+    private static void readSyntheticPopulation(Properties properties, DataContainer dataContainer, int year) {
         readHouseholds(properties, dataContainer.getHouseholdDataManager(),
                 dataContainer.getHouseholdDataManager().getHouseholdFactory(), year);
         readPersons(properties, dataContainer.getHouseholdDataManager(), dataContainer.getHouseholdDataManager().getPersonFactory(), year);
@@ -16,6 +16,7 @@ import de.tum.bgu.msm.data.person.PersonFactoryImpl;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.io.GeoDataReaderTak;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
 import de.tum.bgu.msm.io.input.*;
 import de.tum.bgu.msm.matsim.MatsimTravelTimesAndCosts;
 import de.tum.bgu.msm.properties.Properties;
@@ -26,7 +27,16 @@ public class DataBuilderTak {
 
     public static DataContainer getTakModelData(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
+        final HouseholdData householdData;
+        final PersonFactory ppFactory;
+        if (properties.householdData.columnarHouseholdData) {
+            ColumnarHouseholdData columnarHouseholdData = new ColumnarHouseholdData();
+            householdData = columnarHouseholdData;
+            ppFactory = columnarHouseholdData.getPersonFactory();
+        } else {
+            householdData = new HouseholdDataImpl();
+            ppFactory = new PersonFactoryImpl();
+        }
         JobData jobData = new JobDataImpl();
         DwellingData dwellingData = new DwellingDataImpl();
 
@@ -62,7 +72,6 @@ public class DataBuilderTak {
                 properties, jobFactory, jobData, geoData, travelTimes, commutingTimeProbability);
 
         HouseholdFactory hhFactory = new HouseholdFactoryImpl();
-        PersonFactory ppFactory = new PersonFactoryImpl();
         HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(
                 householdData, dwellingData, ppFactory,
                 hhFactory, properties, realEstateDataManager);
@@ -83,6 +92,15 @@ public class DataBuilderTak {
         reader.readZoneShapefile(pathShp);
 
         int year = properties.main.startYear;
+        new JobType(properties.jobData.jobTypes);
+        if (properties.main.resumeFromCheckpoint) {
+            new Checkpoint(dataContainer).readPopulation(properties.main.checkpointDirectory(year));
+        } else {
+            readSyntheticPopulation(properties, dataContainer, year);
+        }
+    }
+
+    private static void readSyntheticPopulation(Properties properties, DataContainer dataContainer, int year) {
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
         householdFile += "_" + year + ".csv";
         HouseholdReader hhReader = new DefaultHouseholdReader(dataContainer.getHouseholdDataManager(),
@@ -98,10 +116,8 @@ public class DataBuilderTak {
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
         ddReader.readData(dwellingsFile);
 
-        new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new DefaultJobReader(dataContainer.getJobDataManager());
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
         jjReader.readData(jobsFile);
-
     }
 }
@@ -4,10 +4,12 @@ import com.pb.common.datafile.TableDataSet;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.DefaultDataContainer;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.GeoIndex;
 import de.tum.bgu.msm.data.geo.MstmZone;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
@@ -57,6 +59,11 @@ public class DataContainerMstm implements DataContainer {
         return delegate.getGeoData();
     }
 
+    @Override
+    public GeoIndex getGeoIndex() {
+        return delegate.getGeoIndex();
+    }
+
     @Override
     public TravelTimes getTravelTimes() {
         return delegate.getTravelTimes();
@@ -72,6 +79,11 @@ public class DataContainerMstm implements DataContainer {
         return delegate.getCommutingTimeProbability();
     }
 
+    @Override
+    public CommuteProbabilityMatrix getCommuteProbabilityMatrix() {
+        return delegate.getCommuteProbabilityMatrix();
+    }
+
     @Override
     public void setup() {
         delegate.setup();
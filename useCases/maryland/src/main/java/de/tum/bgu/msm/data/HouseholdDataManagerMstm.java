@@ -89,6 +89,11 @@ public class HouseholdDataManagerMstm implements HouseholdDataManager {
         return delegate.getPersons();
     }
 
+    @Override
+    public PersonCursor getPersonCursor() {
+        return delegate.getPersonCursor();
+    }
+
     @Override
     public void removePersonFromHousehold(Person person) {
         delegate.removePersonFromHousehold(person);
@@ -75,6 +75,11 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getNextDwellingId();
     }
 
+    @Override
+    public int getHighestDwellingIdInUse() {
+        return delegate.getHighestDwellingIdInUse();
+    }
+
     @Override
     public Map<Integer, Double> getInitialQualShares() {
         return delegate.getInitialQualShares();
@@ -96,6 +101,21 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getNumberOfVacantDDinRegion(region);
     }
 
+    @Override
+    public List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        return delegate.sampleVacantDwellingsInRegion(region, count, random);
+    }
+
+    @Override
+    public int getNumberOfVacantDDinZone(int zone) {
+        return delegate.getNumberOfVacantDDinZone(zone);
+    }
+
+    @Override
+    public int getNumberOfVacantDDinZone(int zone, DwellingType type) {
+        return delegate.getNumberOfVacantDDinZone(zone, type);
+    }
+
     @Override
     public List<DwellingType> getDwellingTypes() {
         return delegate.getDwellingTypes();
@@ -121,6 +141,16 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         delegate.addDwelling(dwelling);
     }
 
+    @Override
+    public void setDwellingPrice(Dwelling dwelling, int price) {
+        delegate.setDwellingPrice(dwelling, price);
+    }
+
+    @Override
+    public DwellingStatistics getDwellingStatistics() {
+        return delegate.getDwellingStatistics();
+    }
+
 
     @Override
     public Map<Integer, Double> calculateRegionalPrices() {
@@ -6,6 +6,7 @@ import de.tum.bgu.msm.data.RealEstateDataManagerMstm;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.accessibility.CommuteProbabilityMatrix;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingMstm;
@@ -19,10 +20,12 @@ import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.Race;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.models.relocation.moves.DwellingProbabilityStrategy;
 import de.tum.bgu.msm.models.relocation.moves.HousingStrategy;
 import de.tum.bgu.msm.models.relocation.moves.RegionProbabilityStrategy;
+import de.tum.bgu.msm.models.relocation.moves.RegionUtilityCache;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix1D;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
@@ -30,6 +33,7 @@ import org.matsim.api.core.v01.TransportMode;
 
 import java.util.*;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -63,6 +67,8 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
     private final JobDataManager jobData;
     private final RealEstateDataManagerMstm realEstateDataManager;
     private final CommutingTimeProbability commutingTimeProbability;
+    private final CommuteProbabilityMatrix commuteProbabilityMatrix;
+    private final boolean zoneBasedTravelTimes;
 
     private final DwellingUtilityStrategyMstm dwellingUtilityStrategy;
     private final DwellingProbabilityStrategy dwellingProbabilityStrategy;
@@ -72,6 +78,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
     private final LongAdder totalVacantDd = new LongAdder();
 
     private EnumMap<IncomeCategory, EnumMap<Race, Map<Integer, Double>>> utilityByIncomeRaceRegion = new EnumMap<>(IncomeCategory.class);
+    private RegionUtilityCache regionUtilityCache;
 
     private IndexedDoubleMatrix2D zonalRacialComposition;
     private IndexedDoubleMatrix2D regionalRacialComposition;
@@ -90,6 +97,8 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         this.dataContainer = dataContainer;
         this.geoData = dataContainer.getGeoData();
         this.travelTimes = travelTimes;
+        this.commuteProbabilityMatrix = dataContainer.getCommuteProbabilityMatrix();
+        this.zoneBasedTravelTimes = travelTimes instanceof SkimTravelTimes;
         this.accessibility = dataContainer.getAccessibility();
         this.jobData = dataContainer.getJobDataManager();
         realEstateDataManager = (RealEstateDataManagerMstm) dataContainer.getRealEstateDataManager();
@@ -97,6 +106,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         this.dwellingUtilityStrategy = dwellingUtilityStrategy;
         this.regionUtilityStrategy = regionUtilityStrategy;
         this.regionProbabilityStrategy = regionProbabilityStrategy;
+        this.regionUtilityCache = new RegionUtilityCache(properties.moves.regionUtilityCacheSize);
     }
 
     @Override
@@ -157,9 +167,14 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 Job workLocation = Objects.requireNonNull(jobData.getJobFromId(pp.getJobId()));
-                Zone workZone = geoData.getZones().get(workLocation.getZoneId());
-                int expectedCommuteTime = (int) travelTimes.getTravelTime(originZone, workZone, 0, TransportMode.car);
-                double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
+                double factorForThisZone;
+                if (zoneBasedTravelTimes && commuteProbabilityMatrix.covers(TransportMode.car)) {
+                    factorForThisZone = commuteProbabilityMatrix.getProbability(originZone.getZoneId(), workLocation.getZoneId(), TransportMode.car);
+                } else {
+                    Zone workZone = geoData.getZones().get(workLocation.getZoneId());
+                    int expectedCommuteTime = (int) travelTimes.getTravelTime(originZone, workZone, 0, TransportMode.car);
+                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
+                }
                 workDistanceUtility *= factorForThisZone;
             }
         }
@@ -202,10 +217,42 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         }
         calculateRacialCompositionByZoneAndRegion();
         calculateRegionUtilities();
+        regionUtilityCache.invalidate();
     }
 
     @Override
     public double calculateRegionalUtility(Household household, Region region) {
+        return normalize(region, calculateBaseRegionalUtility(household, region));
+    }
+
+    @Override
+    public double[] calculateRegionalUtilities(HouseholdProfile profile, Collection<Region> regions,
+                                               Predicate<Region> considered) {
+        final Household household = profile.asHousehold();
+        final double[] baseUtilities = regionUtilityCache.get(signatureOf(household), signature -> {
+            final double[] utilities = new double[regions.size()];
+            int i = 0;
+            for (Region region : regions) {
+                utilities[i++] = calculateBaseRegionalUtility(household, region);
+            }
+            return utilities;
+        });
+        final double[] utilities = new double[baseUtilities.length];
+        int i = 0;
+        for (Region region : regions) {
+            if (considered.test(region)) {
+                utilities[i] = normalize(region, baseUtilities[i]);
+            }
+            i++;
+        }
+        return utilities;
+    }
+
+    /**
+     * Regional utility before normalization, depends on income category, race, autos, workers and workplace zones
+     * only.
+     */
+    private double calculateBaseRegionalUtility(Household household, Region region) {
         Race householdRace = ((HouseholdMstm) household).getRace();
 
 
@@ -232,8 +279,22 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
                 }
             }
         }
-        double util = thisRegionFactor * utilityByIncomeRaceRegion.get(household.getHouseholdType().getIncomeCategory()).get(householdRace).get(region.getId());
-        return normalize(region, util);
+        return thisRegionFactor * utilityByIncomeRaceRegion.get(household.getHouseholdType().getIncomeCategory()).get(householdRace).get(region.getId());
+    }
+
+    private RegionUtilityCache.Signature signatureOf(Household household) {
+        final int workers = HouseholdUtil.getNumberOfWorkers(household);
+        final List<Integer> attributes = new ArrayList<>();
+        attributes.add(household.getHouseholdType().getIncomeCategory().ordinal());
+        attributes.add(((HouseholdMstm) household).getRace().ordinal());
+        attributes.add(Math.min(household.getAutos(), workers));
+        attributes.add(workers);
+        for (Person pp : household.getPersons().values()) {
+            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+                attributes.add(dataContainer.getJobDataManager().getJobFromId(pp.getJobId()).getZoneId());
+            }
+        }
+        return RegionUtilityCache.signature(attributes.stream().mapToInt(Integer::intValue).toArray());
     }
 
 
@@ -245,6 +306,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         housingStrategyMstm.regionalRacialComposition = this.regionalRacialComposition;
         housingStrategyMstm.zonalRacialComposition = this.zonalRacialComposition;
         housingStrategyMstm.utilityByIncomeRaceRegion = this.utilityByIncomeRaceRegion;
+        housingStrategyMstm.regionUtilityCache = this.regionUtilityCache;
         return housingStrategyMstm;
     }
 
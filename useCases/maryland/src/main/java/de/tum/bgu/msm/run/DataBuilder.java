@@ -91,6 +91,10 @@ public final class DataBuilder {
     }
 
     public static void readInput(Properties properties, DataContainer dataContainer) {
+        if (properties.main.resumeFromCheckpoint) {
+            throw new IllegalStateException("Resuming from a checkpoint is not supported by this implementation,"
+                    + " as checkpoints do not store the race of persons and the restrictions of dwellings.");
+        }
         final GeoDataReaderMstm geoDataReaderMstm = new GeoDataReaderMstm((GeoDataMstm) dataContainer.getGeoData());
 
         String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
@@ -4,6 +4,7 @@ import de.tum.bgu.msm.data.person.PersonMuc;
 import de.tum.bgu.msm.data.person.Nationality;
 import de.tum.bgu.msm.data.person.Person;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -97,15 +98,22 @@ public class HouseholdMuc implements Household {
     }
 
     private void defineHouseholdNationality() {
+        nationality = defineNationality(getPersons().values());
+    }
+
+    /**
+     * @return the nationality shared by all given persons, {@link Nationality#OTHER} if they differ, or null if
+     * there are no persons
+     */
+    public static Nationality defineNationality(Collection<? extends Person> persons) {
         Nationality householdNationaliy = null;
-        for (Person pp : getPersons().values()) {
+        for (Person pp : persons) {
             if (householdNationaliy == null) {
                 householdNationaliy = ((PersonMuc)pp).getNationality();
             } else if (((PersonMuc)pp).getNationality() != householdNationaliy) {
-                nationality = Nationality.OTHER;
-                return;
+                return Nationality.OTHER;
             }
         }
-        nationality = householdNationaliy;
+        return householdNationaliy;
     }
 }
@@ -0,0 +1,76 @@
+package de.tum.bgu.msm.io;
+
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobMuc;
+import de.tum.bgu.msm.data.person.Disability;
+import de.tum.bgu.msm.data.person.Nationality;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonMuc;
+import de.tum.bgu.msm.data.person.PersonMucDisability;
+import de.tum.bgu.msm.io.checkpoint.CheckpointAttributes;
+import de.tum.bgu.msm.schools.PersonWithSchool;
+
+/**
+ * Stores nationality, school and disability of persons and the working times of jobs in checkpoints of the
+ * Munich implementation. Missing enum values are encoded as -1.
+ */
+public final class CheckpointAttributesMuc implements CheckpointAttributes {
+
+    private static final Nationality[] NATIONALITIES = Nationality.values();
+    private static final Disability[] DISABILITIES = Disability.values();
+
+    @Override
+    public int getNumberOfPersonAttributes() {
+        return 5;
+    }
+
+    @Override
+    public void writePersonAttributes(Person person, int[] attributes) {
+        final PersonWithSchool pp = (PersonWithSchool) person;
+        attributes[0] = pp.getSchoolType();
+        attributes[1] = pp.getSchoolPlace();
+        attributes[2] = pp.getSchoolId();
+        if (person instanceof PersonMucDisability) {
+            attributes[3] = ordinal(((PersonMucDisability) person).getNationality());
+            attributes[4] = ordinal(((PersonMucDisability) person).getDisability());
+        } else {
+            attributes[3] = ordinal(((PersonMuc) person).getNationality());
+            attributes[4] = -1;
+        }
+    }
+
+    @Override
+    public void readPersonAttributes(Person person, int[] attributes) {
+        final PersonWithSchool pp = (PersonWithSchool) person;
+        pp.setSchoolType(attributes[0]);
+        pp.setSchoolPlace(attributes[1]);
+        pp.setSchoolId(attributes[2]);
+        final Nationality nationality = attributes[3] < 0 ? null : NATIONALITIES[attributes[3]];
+        if (person instanceof PersonMucDisability) {
+            ((PersonMucDisability) person).setNationality(nationality);
+            ((PersonMucDisability) person).setDisability(attributes[4] < 0 ? null : DISABILITIES[attributes[4]]);
+        } else {
+            ((PersonMuc) person).setNationality(nationality);
+        }
+    }
+
+    @Override
+    public int getNumberOfJobAttributes() {
+        return 2;
+    }
+
+    @Override
+    public void writeJobAttributes(Job job, int[] attributes) {
+        attributes[0] = job.getStartTimeInSeconds().orElse(0);
+        attributes[1] = job.getWorkingTimeInSeconds().orElse(0);
+    }
+
+    @Override
+    public void readJobAttributes(Job job, int[] attributes) {
+        ((JobMuc) job).setJobWorkingTime(attributes[0], attributes[1]);
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value == null ? -1 : value.ordinal();
+    }
+}
@@ -16,7 +16,6 @@
  */
 package de.tum.bgu.msm.models;
 
-import com.google.common.collect.*;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.person.PersonMuc;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
@@ -24,12 +23,11 @@ import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.HouseholdFactory;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
-import de.tum.bgu.msm.data.person.Gender;
-import de.tum.bgu.msm.data.person.Nationality;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonRole;
 import de.tum.bgu.msm.events.impls.person.MarriageEvent;
 import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
+import de.tum.bgu.msm.models.demography.marriage.MarriageMarket;
 import de.tum.bgu.msm.models.demography.marriage.MarriageModel;
 import de.tum.bgu.msm.models.demography.marriage.MarriageStrategy;
 import de.tum.bgu.msm.models.relocation.migration.InOutMigration;
@@ -39,6 +37,7 @@ import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Simulates marriage and divorce
@@ -58,10 +57,10 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
 
     private float interRacialMarriageShare = properties.demographics.interracialMarriageShare;
 
-    private final static int AGE_OFFSET = 10;
-    private final static ContiguousSet<Integer> AGE_DIFF_RANGE
-            = ContiguousSet.create(Range.closed(-AGE_OFFSET, AGE_OFFSET), DiscreteDomain.integers());
-    private Table<Integer, Gender, Double> ageDiffProbabilityByGender;
+    private MarriageMarket.AgePreferences agePreferences;
+
+    private final static MarriageMarket.PartnerSelector PARTNER_SELECTOR =
+            MarriageMarket.preferringGroup(person -> ((PersonMuc) person).getNationality());
 
     /**
      * localMarriageAdjuster serves to adjust from national marriage rates to local conditions
@@ -69,12 +68,6 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
     private double scale = properties.demographics.localMarriageAdjuster;
     private int lackOfDwellingFailedMarriage;
 
-    // ageOffset is the range of ages above and below a persons age that are considered for marriage
-    // needs to cover -9 to +9 to reach one person type above and one person type below
-    // (e.g., for 25-old person consider partners from 20 to 34). ageOffset is 10 and not 9 to
-    // capture if potential partner has celebrated BIRTHDAY already (i.e. turned 35). To improve
-    // performance, the person type of this person in the marriage market is not updated.
-
     public MarriageModelMuc(DataContainer dataContainer, MovesModelImpl movesModel,
                             InOutMigration iomig, CreateCarOwnershipModel carOwnership,
                             HouseholdFactory hhFactory, Properties properties, MarriageStrategy strategy, Random rnd) {
@@ -88,7 +81,7 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
 
     @Override
     public void setup() {
-        ageDiffProbabilityByGender = calculateAgeDiffProbabilities();
+        agePreferences = new MarriageMarket.AgePreferences(properties.demographics);
     }
 
     @Override
@@ -130,16 +123,17 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
 
         final List<MarriageEvent> couplesToMarryThisYear = new ArrayList<>();
         final MarriageMarket market = defineMarriageMarket(persons);
-
-        for (Person person : market.activePartners) {
-            final Person partner = findPartner(market, person);
-            if (partner != null) {
-                couplesToMarryThisYear.add(new MarriageEvent(person.getId(), partner.getId()));
-                if (person.getId() == SiloUtil.trackPp || partner.getId() == SiloUtil.trackPp) {
-                    SiloUtil.trackWriter.println("Person " + person.getId() + " chose " +
-                            "person " + partner + " to marry and they were scheduled as a couple to marry this year.");
-                }
+        final BiConsumer<Person, Person> couples = (person, partner) -> {
+            couplesToMarryThisYear.add(new MarriageEvent(person.getId(), partner.getId()));
+            if (person.getId() == SiloUtil.trackPp || partner.getId() == SiloUtil.trackPp) {
+                SiloUtil.trackWriter.println("Person " + person.getId() + " chose " +
+                        "person " + partner + " to marry and they were scheduled as a couple to marry this year.");
             }
+        };
+        if (properties.demographics.parallelMarriageMatching) {
+            market.matchInParallel(PARTNER_SELECTOR, random, properties.main.numberOfThreads, couples);
+        } else {
+            market.match(PARTNER_SELECTOR, random, couples);
         }
         logger.info(couplesToMarryThisYear.size() + " couples created.");
         return couplesToMarryThisYear;
@@ -149,85 +143,19 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
 
         logger.info("Defining Marriage Market");
 
-        final List<Person> activePartners = new ArrayList<>();
-        final Table<Integer, Gender, List<Person>> partnersByAgeAndGender = ArrayTable.create(
-                ContiguousSet.create(Range.closed(16, 100), DiscreteDomain.integers()),
-                Arrays.asList(Gender.values()));
-
+        final MarriageMarket market = new MarriageMarket(agePreferences, interRacialMarriageShare);
         for (final Person pp : persons) {
             if (ruleGetMarried(pp)) {
                 final double marryProb = getMarryProb(pp);
                 if (random.nextDouble() <= marryProb) {
-                    activePartners.add(pp);
+                    market.addActivePartner(pp);
                 } else if (isQualifiedAsPossiblePartner(pp)) {
-                    final List<Person> entry = partnersByAgeAndGender.get(pp.getAge(), pp.getGender());
-                    if (entry == null) {
-                        partnersByAgeAndGender.put(pp.getAge(), pp.getGender(), Lists.newArrayList(pp));
-                    } else {
-                        entry.add(pp);
-                    }
+                    market.addPassivePartner(pp);
                 }
             }
         }
-        logger.info(activePartners.size() + " persons actively looking for partner");
-        return new MarriageMarket(activePartners, partnersByAgeAndGender);
-    }
-
-    private Person findPartner(MarriageMarket market, Person person) {
-
-        final MarriagePreference preference = defineMarriagePreference(person, market);
-        final List<Person> possiblePartners = market.getFittingPartners(preference);
-
-        if (preference == null || possiblePartners.isEmpty()) {
-            return null;
-        }
-
-        final Map<Person, Float> probabilities = new LinkedHashMap<>();
-
-        Nationality personRace = ((PersonMuc) person).getNationality();
-        float sum = 0;
-        for (Person pp : possiblePartners) {
-            float prob;
-            PersonMuc p = ((PersonMuc) pp);
-            if ((preference.sameNationality && personRace == p.getNationality())
-                    || (!preference.sameNationality && personRace != p.getNationality())) {
-                prob = 10000f;
-            } else {
-                prob = 0.001f;
-            }
-            sum += prob;
-            probabilities.put(p, prob);
-        }
-
-        final Person selectedPartner = SiloUtil.select(probabilities, sum, random);
-        possiblePartners.remove(selectedPartner);
-        return selectedPartner;
-    }
-
-    private MarriagePreference defineMarriagePreference(Person person, MarriageMarket market) {
-
-        final Gender partnerGender = person.getGender().opposite();
-        final boolean sameRace = random.nextDouble() >= interRacialMarriageShare;
-
-        final Map<Integer, Double> probabilityByAge = new LinkedHashMap<>();
-
-        double sum = 0;
-        for (int ageDiff : AGE_DIFF_RANGE) {
-            final int resultingAge = person.getAge() + ageDiff;
-            double probability = ageDiffProbabilityByGender.get(ageDiff, person.getGender());
-            probability *= market.getFittingPartners(resultingAge, partnerGender).size();
-            sum += probability;
-            probabilityByAge.put(resultingAge, probability);
-        }
-
-        if (sum == 0) {
-            logger.warn("Marriage market ran empty, increase share of persons. Age: " + person.getAge());
-            return null;
-        }
-
-        final int selectedAge = SiloUtil.select(probabilityByAge, sum, random);
-        return new MarriagePreference(sameRace, selectedAge, partnerGender);
-
+        logger.info(market.getNumberOfActivePartners() + " persons actively looking for partner");
+        return market;
     }
 
     /**
@@ -386,30 +314,6 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
         }
     }
 
-    private Table<Integer, Gender, Double> calculateAgeDiffProbabilities() {
-
-        final Table<Integer, Gender, Double> probabilitiesByAgeDiffAndGender =
-                ArrayTable.create(AGE_DIFF_RANGE, Lists.newArrayList(Gender.values()));
-
-        for (int ageDiff : AGE_DIFF_RANGE) {
-            int ageFactor = ageDiff;
-            for (Gender gender : probabilitiesByAgeDiffAndGender.columnKeySet()) {
-                if (gender == Gender.MALE) {
-                    // man searches woman
-                    ageFactor += properties.demographics.marryAbsAgeDiff;
-                } else {
-                    // woman searches man
-                    ageFactor -= properties.demographics.marryAbsAgeDiff;
-                }
-                final double probability =
-                        1 / Math.exp(Math.pow(ageFactor, 2) * properties.demographics.marryAgeSpreadFac);
-                probabilitiesByAgeDiffAndGender.put(ageDiff, gender, probability);
-            }
-        }
-        return probabilitiesByAgeDiffAndGender;
-    }
-
-
     private boolean ruleGetMarried(Person per) {
         if (per == null) {
             return false;
@@ -419,44 +323,4 @@ public class MarriageModelMuc extends AbstractModel implements MarriageModel {
                 && per.getAge() >= properties.demographics.minMarryAge
                 && per.getAge() < 100;
     }
-
-    private final static class MarriagePreference {
-
-        private final boolean sameNationality;
-        private final int age;
-        private final Gender gender;
-
-        private MarriagePreference(boolean sameNationality, int age, Gender gender) {
-            this.sameNationality = sameNationality;
-            this.age = age;
-            this.gender = gender;
-        }
-    }
-
-    private final static class MarriageMarket {
-        final List<Person> activePartners;
-        final Table<Integer, Gender, List<Person>> partnersByAgeAndGender;
-
-        private MarriageMarket(List<Person> activePartners,
-                               Table<Integer, Gender, List<Person>> passivePartnersByAgeAndGender) {
-            this.activePartners = activePartners;
-            this.partnersByAgeAndGender = passivePartnersByAgeAndGender;
-        }
-
-        private List<Person> getFittingPartners(MarriagePreference preference) {
-            if (preference != null) {
-                return getFittingPartners(preference.age, preference.gender);
-            } else {
-                return null;
-            }
-        }
-
-        private List<Person> getFittingPartners(int age, Gender gender) {
-            final List<Person> entry = partnersByAgeAndGender.get(age, gender);
-            if (entry == null) {
-                return Collections.emptyList();
-            }
-            return entry;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -245,6 +245,15 @@ public class HousingStrategyMuc implements HousingStrategy {
 
     @Override
     public double calculateRegionalUtility(Household household, Region region) {
+        return calculateRegionalUtility(household, ((HouseholdMuc) household).getNationality(), region);
+    }
+
+    @Override
+    public double calculateRegionalUtility(HouseholdProfile profile, Region region) {
+        return calculateRegionalUtility(profile.asHousehold(), profile.getNationality(HouseholdMuc::defineNationality), region);
+    }
+
+    private double calculateRegionalUtility(Household household, Nationality nationality, Region region) {
 
         double thisRegionFactor = 1;
         CommuteModeChoiceMapping commuteModeChoiceMapping = commuteModeChoice.assignRegionalCommuteModeChoice(region, travelTimes, household);
@@ -256,7 +265,6 @@ public class HousingStrategyMuc implements HousingStrategy {
         }
 
         HouseholdType ht = household.getHouseholdType();
-        Nationality nationality = ((HouseholdMuc) household).getNationality();
         double baseUtil = utilityByIncomeByNationalityByRegion.get(ht.getIncomeCategory()).get(nationality).get(region);
 
         baseUtil *= thisRegionFactor;
@@ -12,6 +12,7 @@ import de.tum.bgu.msm.data.person.PersonFactoryMuc;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.io.*;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
 import de.tum.bgu.msm.io.input.*;
 import de.tum.bgu.msm.matsim.MatsimTravelTimesAndCosts;
 import de.tum.bgu.msm.properties.Properties;
@@ -85,6 +86,19 @@ public class DataBuilderForAV {
         reader.readZoneShapefile(pathShp);
 
         int year = properties.main.startYear;
+        new JobType(properties.jobData.jobTypes);
+        if (properties.main.resumeFromCheckpoint) {
+            new Checkpoint(dataContainer, new CheckpointAttributesMuc()).readPopulation(properties.main.checkpointDirectory(year));
+        } else {
+            readSyntheticPopulation(properties, dataContainer, year);
+        }
+
+        SchoolReader ssReader = new SchoolReaderImpl(dataContainer.getSchoolData());
+        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
+        ssReader.readData(schoolsFile);
+    }
+
+    private static void readSyntheticPopulation(Properties properties, DataContainerWithSchools dataContainer, int year) {
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
         householdFile += "_" + year + ".csv";
         HouseholdReader hhReader = new HouseholdReaderMuc(dataContainer.getHouseholdDataManager(), (HouseholdFactoryMuc) dataContainer.getHouseholdDataManager().getHouseholdFactory());
@@ -99,15 +113,10 @@ public class DataBuilderForAV {
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
         ddReader.readData(dwellingsFile);
 
-        new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new JobReaderMuc(dataContainer.getJobDataManager(), (JobFactoryMuc) dataContainer.getJobDataManager().getFactory());
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
         jjReader.readData(jobsFile);
 
-        SchoolReader ssReader = new SchoolReaderImpl(dataContainer.getSchoolData());
-        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
-        ssReader.readData(schoolsFile);
-
         MicroDataScaler microDataScaler = new MicroDataScaler(dataContainer, properties);
         microDataScaler.scale();
     }
@@ -5,6 +5,7 @@ import de.tum.bgu.msm.ModelBuilderMuc;
 import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.SiloMuc;
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.CheckpointAttributesMuc;
 import de.tum.bgu.msm.io.ResultsMonitorMuc;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -33,6 +34,7 @@ public class RunSiloMucAv {
         ModelContainer modelContainer = ModelBuilderMucAv.getModelContainerAvForMuc(dataContainer, properties, config, useAv);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new CheckpointAttributesMuc());
         model.addResultMonitor(new ResultsMonitorMuc(dataContainer, properties));
         model.addResultMonitor(new MultiFileResultsMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
@@ -3,6 +3,7 @@ package de.tum.bgu.msm.scenarios.coreCityDevelopmentOnly;
 import de.tum.bgu.msm.DataBuilder;
 import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.CheckpointAttributesMuc;
 import de.tum.bgu.msm.io.ResultsMonitorMuc;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -32,6 +33,7 @@ public class RunCoreCityDevelopmentMuc {
         DataBuilder.read(properties, dataContainer);
         ModelContainer modelContainer = CoreCityDevelopmentModelBuilderMuc.getModelContainerForMuc(dataContainer, properties, config);
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new CheckpointAttributesMuc());
         model.addResultMonitor(new ResultsMonitorMuc(dataContainer, properties));
         model.addResultMonitor(new MultiFileResultsMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
@@ -42,6 +42,7 @@ public class SiloMucDisability {
         modelContainer.registerEventModel(DisabilityEvent.class, new DisabilityImpl(dataContainer, properties,new DefaultDisabilityStrategy(), SiloUtil.provideNewRandom()));
         ResultsMonitor resultsMonitor = new ResultsMonitorMuc(dataContainer, properties);
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new CheckpointAttributesMuc());
         model.addResultMonitor(resultsMonitor);
         model.runModel();
         logger.info("Finished SILO.");
@@ -15,6 +15,7 @@ import de.tum.bgu.msm.data.job.*;
 import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpoint;
 import de.tum.bgu.msm.io.input.DefaultHouseholdReader;
 import de.tum.bgu.msm.io.input.DwellingReader;
 import de.tum.bgu.msm.io.input.JobReader;
@@ -36,7 +37,16 @@ public final class DataBuilder {
         DefaultGeoData geoData = new DefaultGeoData();
 
         DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
+        final HouseholdData householdData;
+        final PersonFactory ppFactory;
+        if (properties.householdData.columnarHouseholdData) {
+            ColumnarHouseholdData columnarHouseholdData = new ColumnarHouseholdData();
+            householdData = columnarHouseholdData;
+            ppFactory = columnarHouseholdData.getPersonFactory();
+        } else {
+            householdData = new HouseholdDataImpl();
+            ppFactory = new PersonFactoryImpl();
+        }
         JobData jobData = new JobDataImpl();
 
         TravelTimes travelTimes = null;
@@ -73,7 +83,6 @@ public final class DataBuilder {
                 travelTimes, commutingTimeProbability);
 
         final HouseholdFactory hhFactory = new HouseholdFactoryImpl();
-        final PersonFactory ppFactory = new PersonFactoryImpl();
 
         HouseholdDataManager householdManager = new HouseholdDataManagerImpl(
                 householdData, dwellingData,
@@ -97,6 +106,14 @@ public final class DataBuilder {
 
         int year = properties.main.startYear;
 
+        if (properties.main.resumeFromCheckpoint) {
+            new Checkpoint(dataContainer).readPopulation(properties.main.checkpointDirectory(year));
+        } else {
+            readSyntheticPopulation(properties, dataContainer, year);
+        }
+    }
+
+    private static void readSyntheticPopulation(Properties properties, DataContainer dataContainer, int year) {
         readHouseholds(properties, dataContainer.getHouseholdDataManager(),
                  dataContainer.getHouseholdDataManager().getHouseholdFactory(), year);
         readPersons(properties, dataContainer.getHouseholdDataManager(), dataContainer.getHouseholdDataManager().getPersonFactory(), year);